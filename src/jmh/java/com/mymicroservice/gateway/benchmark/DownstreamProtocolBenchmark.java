@@ -0,0 +1,129 @@
+package com.mymicroservice.gateway.benchmark;
+
+import com.mymicroservice.gateway.config.WebClientConfig;
+import com.mymicroservice.gateway.config.properties.BulkheadProperties;
+import com.mymicroservice.gateway.config.properties.DeadlineProperties;
+import com.mymicroservice.gateway.config.properties.DownstreamServicesProperties;
+import com.mymicroservice.gateway.webclient.DownstreamBulkheads;
+import com.mymicroservice.gateway.webclient.DownstreamDeadlines;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactiveLoadBalancer;
+import org.springframework.core.ResolvableType;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.server.HttpServer;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Load test of a downstream WebClient over HTTP/1.1 and h2c against a local Reactor Netty server
+ * that answers after {@code serviceLatencyMs}. 64 threads keep 64 requests in flight, more than
+ * the default HTTP/1.1 pool of 50 connections.
+ *
+ * <p>Sample mode reports p50/p99 latency per request; the number of TCP connections the server
+ * accepted is the secondary result {@code request:opened}. Run without
+ * {@code -prof gc}: {@code -Djmh.args="DownstreamProtocol"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(64)
+@Fork(1)
+public class DownstreamProtocolBenchmark {
+
+    @Param({"HTTP11", "H2C"})
+    private DownstreamServicesProperties.Protocol protocol;
+
+    @Param({"5"})
+    private long serviceLatencyMs;
+
+    private final AtomicInteger connectionsOpened = new AtomicInteger();
+    private DisposableServer server;
+    private WebClientConfig webClientConfig;
+    private WebClient client;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Duration latency = Duration.ofMillis(serviceLatencyMs);
+        server = HttpServer.create()
+                .host("127.0.0.1")
+                .port(0)
+                .protocol(HttpProtocol.HTTP11, HttpProtocol.H2C)
+                .doOnChannelInit((observer, channel, remoteAddress) -> connectionsOpened.incrementAndGet())
+                .handle((request, response) -> response.sendString(Mono.delay(latency).thenReturn("ok")))
+                .bindNow();
+
+        DownstreamServicesProperties.Service service = new DownstreamServicesProperties.Service();
+        service.setUrl("http://127.0.0.1:" + server.port());
+        service.setProtocol(protocol);
+        service.getPool().setMetricsEnabled(false);
+        DownstreamServicesProperties services = new DownstreamServicesProperties();
+        services.put("userservice", service);
+
+        BulkheadProperties bulkheads = new BulkheadProperties();
+        bulkheads.setEnabled(false);
+        webClientConfig = new WebClientConfig(services,
+                new DownstreamBulkheads(services, bulkheads, new SimpleMeterRegistry()),
+                new DownstreamDeadlines(new DeadlineProperties(), new SimpleMeterRegistry()),
+                new StaticListableBeanFactory().getBeanProvider(ResolvableType.forClassWithGenerics(
+                        ReactiveLoadBalancer.Factory.class, ServiceInstance.class)));
+        client = webClientConfig.userServiceWebClient(webClientConfig.downstreamWebClients());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        webClientConfig.destroy();
+        server.disposeNow();
+    }
+
+    @Benchmark
+    public String request(Connections connections) {
+        String body = client.get().uri("/api/users/42").retrieve().bodyToMono(String.class).block();
+        if (connections.reporting) {
+            connections.opened = connectionsOpened.get();
+        }
+        return body;
+    }
+
+    /**
+     * TCP connections the server accepted so far, reported next to the latency. Only the first
+     * thread's state carries the count, so the sum over threads is the trial total.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Connections {
+
+        private static final AtomicInteger THREADS = new AtomicInteger();
+
+        public long opened;
+        private boolean reporting;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            reporting = THREADS.getAndIncrement() == 0;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.mymicroservice.gateway.benchmark;
+
+import com.mymicroservice.gateway.config.properties.EndpointCacheProperties;
+import com.mymicroservice.gateway.discovery.EndpointCache;
+import io.kubernetes.client.openapi.models.CoreV1EndpointPort;
+import io.kubernetes.client.openapi.models.V1EndpointAddress;
+import io.kubernetes.client.openapi.models.V1EndpointSubset;
+import io.kubernetes.client.openapi.models.V1Endpoints;
+import io.kubernetes.client.openapi.models.V1ObjectMeta;
+import io.kubernetes.client.openapi.models.V1ObjectReference;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cloud.client.ServiceInstance;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of one endpoints change applied by {@link EndpointCache} - the work done per informer
+ * event, for a service of {@code pods} ready addresses among {@code services} cached ones - and
+ * of the load balancer's lookup. Run with {@code -prof gc}: {@code gc.alloc.rate.norm} of
+ * {@link #applyChange} is the garbage per event, {@link #lookup} should allocate nothing.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EndpointCacheBenchmark {
+
+    @Param({"10", "200"})
+    private int pods;
+
+    @Param({"500"})
+    private int services;
+
+    private EndpointCache cache;
+    private V1Endpoints[] versions;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        cache = new EndpointCache(new EndpointCacheProperties(), event -> { });
+        for (int i = 0; i < services; i++) {
+            cache.onAdd(endpoints("service-" + i, 1, pods));
+        }
+        versions = new V1Endpoints[]{endpoints("service-0", 2, pods), endpoints("service-0", 3, pods)};
+    }
+
+    @Benchmark
+    public void applyChange() {
+        V1Endpoints previous = versions[next];
+        next ^= 1;
+        cache.onUpdate(previous, versions[next]);
+    }
+
+    @Benchmark
+    public List<ServiceInstance> lookup() {
+        return cache.instances("service-0");
+    }
+
+    static V1Endpoints endpoints(String service, long resourceVersion, int pods) {
+        List<V1EndpointAddress> addresses = new ArrayList<>(pods);
+        for (int i = 0; i < pods; i++) {
+            addresses.add(new V1EndpointAddress()
+                    .ip("10.1." + (i / 250) + "." + (i % 250 + 1))
+                    .targetRef(new V1ObjectReference().kind("Pod").uid(service + "-" + i)));
+        }
+        return new V1Endpoints()
+                .metadata(new V1ObjectMeta().name(service).namespace("shop")
+                        .resourceVersion(Long.toString(resourceVersion)))
+                .subsets(List.of(new V1EndpointSubset()
+                        .addresses(addresses)
+                        .ports(List.of(new CoreV1EndpointPort().name("http").port(8080)))));
+    }
+}
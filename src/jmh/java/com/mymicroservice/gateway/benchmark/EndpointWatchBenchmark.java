@@ -0,0 +1,88 @@
+package com.mymicroservice.gateway.benchmark;
+
+import com.mymicroservice.gateway.config.properties.EndpointCacheProperties;
+import com.mymicroservice.gateway.discovery.EndpointCache;
+import com.mymicroservice.gateway.util.FakeKubernetesApiServer;
+import io.kubernetes.client.informer.SharedIndexInformer;
+import io.kubernetes.client.informer.SharedInformerFactory;
+import io.kubernetes.client.openapi.ApiClient;
+import io.kubernetes.client.openapi.models.V1Endpoints;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Refresh latency through a real informer: from an endpoints change on a fake Kubernetes API
+ * server (list + watch over HTTP) until the load balancer's lookup in {@link EndpointCache}
+ * returns the new instances. Each operation flips one of {@code services} services between
+ * {@code pods} and {@code pods + 1} instances, so a run is thousands of watch events. Includes
+ * the fake server's own serialization; run without {@code -prof gc}:
+ * {@code -Djmh.args="EndpointWatch"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EndpointWatchBenchmark {
+
+    @Param({"10"})
+    private int pods;
+
+    @Param({"200"})
+    private int services;
+
+    private FakeKubernetesApiServer apiServer;
+    private SharedInformerFactory informerFactory;
+    private EndpointCache cache;
+    private long changes;
+
+    @Setup(Level.Trial)
+    public void setUp() throws InterruptedException {
+        apiServer = new FakeKubernetesApiServer("shop");
+        for (int i = 0; i < services; i++) {
+            apiServer.apply("service-" + i, pods);
+        }
+        ApiClient apiClient = apiServer.apiClient();
+        informerFactory = new SharedInformerFactory(apiClient);
+        SharedIndexInformer<V1Endpoints> informer = apiServer.endpointsInformer(informerFactory, apiClient);
+        cache = new EndpointCache(new EndpointCacheProperties(), event -> { });
+        informer.addEventHandler(cache);
+        informerFactory.startAllRegisteredInformers();
+        while (!informer.hasSynced() || apiServer.watches() == 0 || cache.services().size() < services) {
+            Thread.sleep(10);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        informerFactory.stopAllRegisteredInformers();
+        apiServer.close();
+    }
+
+    @Benchmark
+    public int changeToLookup() {
+        long change = changes++;
+        String service = "service-" + (change % services);
+        // every service alternates, starting from pods
+        int expected = pods + (int) ((change / services) % 2 == 0 ? 1 : 0);
+        apiServer.apply(service, expected);
+        while (cache.instances(service).size() != expected) {
+            Thread.onSpinWait();
+        }
+        return expected;
+    }
+}
@@ -0,0 +1,157 @@
+package com.mymicroservice.gateway.benchmark;
+
+import com.mymicroservice.gateway.config.properties.CorsProperties;
+import com.mymicroservice.gateway.config.properties.GatewayCustomProperties;
+import com.mymicroservice.gateway.filter.InternalTraceIdWebFilter;
+import com.mymicroservice.gateway.filter.JwtAuthGatewayFilter;
+import com.mymicroservice.gateway.reload.GatewayConfigHolder;
+import com.mymicroservice.gateway.util.CorsHeadersWriter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import com.mymicroservice.gateway.util.RandomTraceIdGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Hooks;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request overhead of the gateway's own hot path: the web filter that runs for every request,
+ * the global JWT filter that runs for every routed request and the CORS writer used by 401/403
+ * responses. MDC is filled around the filters' log calls as in the application, so it is part of
+ * the measured cost.
+ *
+ * <p>Downstream chains complete immediately, so the numbers are the cost of the gateway code
+ * itself. {@link #mockExchangeOnly} is the cost of building the mock exchange and should be
+ * subtracted when comparing. Run with {@code -prof gc} (the profile default) to see
+ * {@code gc.alloc.rate.norm} - bytes allocated per request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FilterChainBenchmark {
+
+    private static final GatewayFilterChain GATEWAY_CHAIN = exchange -> Mono.empty();
+    private static final WebFilterChain WEB_CHAIN = exchange -> Mono.empty();
+
+    @Param({"AUTHENTICATED", "PUBLIC", "INTERNAL"})
+    private MockExchanges.Shape shape;
+
+    private JwtAuthGatewayFilter jwtAuthGatewayFilter;
+    private InternalTraceIdWebFilter internalTraceIdWebFilter;
+    private CorsHeadersWriter corsHeadersWriter;
+
+    @Setup
+    public void setUp() {
+        GatewayCustomProperties gatewayProperties = new GatewayCustomProperties();
+        GatewayCustomProperties.Public publicPaths = new GatewayCustomProperties.Public();
+        publicPaths.setPaths(List.of("/v3/api-docs", "/api-docs", "/swagger-ui", "/swagger-ui/**", "/actuator"));
+        GatewayCustomProperties.Internal internalPaths = new GatewayCustomProperties.Internal();
+        internalPaths.setPaths(List.of("/login", "/register", "/auth/refresh"));
+        gatewayProperties.setPublicPaths(publicPaths);
+        gatewayProperties.setInternalPaths(internalPaths);
+
+        jwtAuthGatewayFilter = new JwtAuthGatewayFilter(
+                GatewayConfigHolder.of(gatewayProperties, corsProperties(), new SimpleMeterRegistry()),
+                RandomTraceIdGenerator.DEFAULT);
+        ReflectionTestUtils.setField(jwtAuthGatewayFilter, "serviceName", "gateway");
+
+        internalTraceIdWebFilter = new InternalTraceIdWebFilter(RandomTraceIdGenerator.DEFAULT);
+        ReflectionTestUtils.setField(internalTraceIdWebFilter, "serviceName", "gateway");
+
+        corsHeadersWriter = new CorsHeadersWriter(
+                GatewayConfigHolder.of(new GatewayCustomProperties(), corsProperties(), new SimpleMeterRegistry()));
+    }
+
+    @Benchmark
+    public ServerWebExchange mockExchangeOnly() {
+        return MockExchanges.create(shape);
+    }
+
+    @Benchmark
+    public ServerWebExchange jwtAuthGatewayFilter() {
+        ServerWebExchange exchange = MockExchanges.create(shape);
+        jwtAuthGatewayFilter.filter(exchange, GATEWAY_CHAIN).block();
+        return exchange;
+    }
+
+    @Benchmark
+    public ServerWebExchange internalTraceIdWebFilter() {
+        ServerWebExchange exchange = MockExchanges.create(shape);
+        internalTraceIdWebFilter.filter(exchange, WEB_CHAIN).block();
+        return exchange;
+    }
+
+    @Benchmark
+    public ServerWebExchange requestThroughBothFilters() {
+        ServerWebExchange exchange = MockExchanges.create(shape);
+        internalTraceIdWebFilter.filter(exchange,
+                mutated -> jwtAuthGatewayFilter.filter(mutated, GATEWAY_CHAIN)).block();
+        return exchange;
+    }
+
+    /**
+     * {@link #requestThroughBothFilters} with Reactor's global automatic context propagation, the
+     * alternative to scoped MDC: every signal of the request snapshots all registered accessors.
+     */
+    @Benchmark
+    public ServerWebExchange requestThroughBothFiltersWithPropagationHook(PropagationHook hook) {
+        return requestThroughBothFilters();
+    }
+
+    @Benchmark
+    public ServerWebExchange corsHeadersWriter() {
+        ServerWebExchange exchange = MockExchanges.create(shape);
+        corsHeadersWriter.applyCorsHeaders(exchange);
+        return exchange;
+    }
+
+    /**
+     * Reactor's automatic context propagation, on for the whole trial of the benchmark using it.
+     */
+    @State(Scope.Benchmark)
+    public static class PropagationHook {
+
+        @Setup
+        public void enable() {
+            Hooks.enableAutomaticContextPropagation();
+        }
+
+        @TearDown
+        public void disable() {
+            Hooks.disableAutomaticContextPropagation();
+        }
+    }
+
+    static CorsProperties corsProperties() {
+        CorsProperties properties = new CorsProperties();
+        properties.setAllowedOriginPatterns(List.of(
+                "http://innowise-project.local", "https://innowise-project.local", "http://localhost:3000",
+                "http://127.0.0.1:[*]", "http://frontend", "http://gateway:8080"));
+        properties.setAllowedMethods(List.of("GET", "POST", "PUT", "DELETE", "OPTIONS", "PATCH"));
+        properties.setAllowedHeaders(List.of("Authorization", "Content-Type", "X-Requested-With", "Accept", "Origin",
+                "Access-Control-Request-Method", "Access-Control-Request-Headers"));
+        properties.setExposedHeaders(List.of("Authorization", "Content-Type"));
+        properties.setMaxAge(3600L);
+        properties.setAllowCredentials(true);
+        return properties;
+    }
+}
@@ -0,0 +1,89 @@
+package com.mymicroservice.gateway.benchmark;
+
+import com.mymicroservice.gateway.config.properties.GatewayCustomProperties;
+import com.mymicroservice.gateway.util.GatewayPathMatcher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Public/internal path lookup: the previous linear {@code stream().anyMatch(startsWith)} scan
+ * against the precompiled {@link GatewayPathMatcher} with a growing number of configured paths.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PathMatcherBenchmark {
+
+    private static final String[] REQUEST_PATHS = {
+            "/api/users/42/profile",
+            "/api/items/17",
+            "/actuator/health",
+            "/swagger-ui/index.html",
+            "/register",
+            "/login/oauth",
+            "/api/orders/1001/items",
+            "/api/payments/v3/api-docs"
+    };
+
+    @Param({"10", "100", "500"})
+    private int configuredPaths;
+
+    private List<String> publicPaths;
+    private List<String> internalPaths;
+    private GatewayPathMatcher matcher;
+
+    @Setup
+    public void setUp() {
+        publicPaths = new ArrayList<>(List.of(
+                "/v3/api-docs", "/api-docs", "/swagger-ui", "/swagger-ui/**", "/actuator",
+                "/auth/v3/api-docs", "/api/users/v3/api-docs", "/api/items/v3/api-docs", "/api/payments/v3/api-docs"));
+        internalPaths = new ArrayList<>(List.of("/login", "/register", "/auth/refresh"));
+        for (int i = 0; publicPaths.size() < configuredPaths; i++) {
+            publicPaths.add("/api/public/service-" + i + "/docs");
+            internalPaths.add("/internal/service-" + i + "/callback");
+        }
+
+        GatewayCustomProperties properties = new GatewayCustomProperties();
+        GatewayCustomProperties.Public publicConfig = new GatewayCustomProperties.Public();
+        publicConfig.setPaths(publicPaths);
+        GatewayCustomProperties.Internal internalConfig = new GatewayCustomProperties.Internal();
+        internalConfig.setPaths(internalPaths);
+        properties.setPublicPaths(publicConfig);
+        properties.setInternalPaths(internalConfig);
+        matcher = new GatewayPathMatcher(properties);
+    }
+
+    @Benchmark
+    public void linearScan(Blackhole blackhole) {
+        for (String path : REQUEST_PATHS) {
+            blackhole.consume(publicPaths.stream().anyMatch(path::startsWith));
+            blackhole.consume(internalPaths.stream()
+                    .anyMatch(configured -> path.equals(configured) || path.startsWith(configured + "/")));
+        }
+    }
+
+    @Benchmark
+    public void compiledTrie(Blackhole blackhole) {
+        for (String path : REQUEST_PATHS) {
+            blackhole.consume(matcher.isPublicPath(path));
+            blackhole.consume(matcher.isInternalPath(path));
+        }
+    }
+}
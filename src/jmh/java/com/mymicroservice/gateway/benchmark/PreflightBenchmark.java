@@ -0,0 +1,83 @@
+package com.mymicroservice.gateway.benchmark;
+
+import com.mymicroservice.gateway.config.properties.GatewayCustomProperties;
+import com.mymicroservice.gateway.filter.CorsPreflightWebFilter;
+import com.mymicroservice.gateway.reload.GatewayConfigHolder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.web.cors.CorsConfiguration;
+import org.springframework.web.cors.reactive.CorsWebFilter;
+import org.springframework.web.cors.reactive.UrlBasedCorsConfigurationSource;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A CORS preflight answered by {@link CorsPreflightWebFilter} from its cache against the
+ * previous {@link CorsWebFilter} over a plain {@link CorsConfiguration}. Only the CORS step is
+ * measured; before the change the preflight also went through Spring Security and the route
+ * lookup. Subtract {@link #mockExchangeOnly} when comparing; run with {@code -prof gc}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PreflightBenchmark {
+
+    private static final WebFilterChain CHAIN = exchange -> Mono.empty();
+
+    private CorsPreflightWebFilter preflightWebFilter;
+    private CorsWebFilter corsWebFilter;
+
+    @Setup
+    public void setUp() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        preflightWebFilter = new CorsPreflightWebFilter(
+                GatewayConfigHolder.of(new GatewayCustomProperties(), FilterChainBenchmark.corsProperties(), meterRegistry),
+                meterRegistry);
+
+        var properties = FilterChainBenchmark.corsProperties();
+        CorsConfiguration config = new CorsConfiguration();
+        config.setAllowedOriginPatterns(properties.getAllowedOriginPatterns());
+        config.setAllowedMethods(properties.getAllowedMethods());
+        config.setAllowedHeaders(properties.getAllowedHeaders());
+        config.setExposedHeaders(properties.getExposedHeaders());
+        config.setAllowCredentials(properties.getAllowCredentials());
+        config.setMaxAge(properties.getMaxAge());
+        UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
+        source.registerCorsConfiguration("/**", config);
+        corsWebFilter = new CorsWebFilter(source);
+    }
+
+    @Benchmark
+    public ServerWebExchange mockExchangeOnly() {
+        return MockExchanges.create(MockExchanges.Shape.PREFLIGHT);
+    }
+
+    @Benchmark
+    public ServerWebExchange cachedPreflight() {
+        ServerWebExchange exchange = MockExchanges.create(MockExchanges.Shape.PREFLIGHT);
+        preflightWebFilter.filter(exchange, CHAIN).block();
+        return exchange;
+    }
+
+    @Benchmark
+    public ServerWebExchange corsWebFilter() {
+        ServerWebExchange exchange = MockExchanges.create(MockExchanges.Shape.PREFLIGHT);
+        corsWebFilter.filter(exchange, CHAIN).block();
+        return exchange;
+    }
+}
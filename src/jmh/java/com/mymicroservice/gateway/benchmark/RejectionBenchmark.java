@@ -0,0 +1,120 @@
+package com.mymicroservice.gateway.benchmark;
+
+import com.mymicroservice.gateway.config.properties.CorsProperties;
+import com.mymicroservice.gateway.config.properties.GatewayCustomProperties;
+import com.mymicroservice.gateway.reload.GatewayConfigHolder;
+import com.mymicroservice.gateway.security.CustomAccessDeniedHandler;
+import com.mymicroservice.gateway.security.CustomAuthenticationEntryPoint;
+import com.mymicroservice.gateway.util.CorsHeadersWriter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.web.cors.CorsConfiguration;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of rejecting a request: 401 from {@link CustomAuthenticationEntryPoint} and 403 from
+ * {@link CustomAccessDeniedHandler}, CORS headers included. {@link #legacyUnauthorized} is the
+ * previous implementation (CORS configuration rebuilt and body encoded per response) kept as a
+ * baseline; {@link #mockExchangeOnly} should be subtracted when comparing. Run with
+ * {@code -prof gc}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RejectionBenchmark {
+
+    private static final BadCredentialsException AUTHENTICATION_FAILURE = new BadCredentialsException("Invalid token");
+    private static final AccessDeniedException ACCESS_DENIED = new AccessDeniedException("Forbidden");
+
+    private CorsProperties corsProperties;
+    private CustomAuthenticationEntryPoint authenticationEntryPoint;
+    private CustomAccessDeniedHandler accessDeniedHandler;
+
+    @Setup
+    public void setUp() {
+        corsProperties = FilterChainBenchmark.corsProperties();
+        CorsHeadersWriter corsHeadersWriter = new CorsHeadersWriter(
+                GatewayConfigHolder.of(new GatewayCustomProperties(), corsProperties, new SimpleMeterRegistry()));
+        authenticationEntryPoint = new CustomAuthenticationEntryPoint(corsHeadersWriter);
+        accessDeniedHandler = new CustomAccessDeniedHandler(corsHeadersWriter);
+    }
+
+    @Benchmark
+    public ServerWebExchange mockExchangeOnly() {
+        return MockExchanges.create(MockExchanges.Shape.AUTHENTICATED);
+    }
+
+    @Benchmark
+    public ServerWebExchange unauthorized() {
+        ServerWebExchange exchange = MockExchanges.create(MockExchanges.Shape.AUTHENTICATED);
+        authenticationEntryPoint.commence(exchange, AUTHENTICATION_FAILURE).block();
+        return exchange;
+    }
+
+    @Benchmark
+    public ServerWebExchange forbidden() {
+        ServerWebExchange exchange = MockExchanges.create(MockExchanges.Shape.AUTHENTICATED);
+        accessDeniedHandler.handle(exchange, ACCESS_DENIED).block();
+        return exchange;
+    }
+
+    @Benchmark
+    public ServerWebExchange legacyUnauthorized() {
+        ServerWebExchange exchange = MockExchanges.create(MockExchanges.Shape.AUTHENTICATED);
+        exchange.getResponse().setStatusCode(HttpStatus.UNAUTHORIZED);
+        exchange.getResponse().getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        legacyApplyCorsHeaders(exchange);
+
+        String body = """
+            {
+                "status": 401,
+                "error": "Unauthorized",
+                "message": "Authentication required"
+            }""";
+        DataBuffer buffer = exchange.getResponse().bufferFactory().wrap(body.getBytes(StandardCharsets.UTF_8));
+        exchange.getResponse().writeWith(Mono.just(buffer)).block();
+        return exchange;
+    }
+
+    private void legacyApplyCorsHeaders(ServerWebExchange exchange) {
+        HttpHeaders responseHeaders = exchange.getResponse().getHeaders();
+        CorsConfiguration corsConfiguration = new CorsConfiguration();
+        corsConfiguration.setAllowedOriginPatterns(corsProperties.getAllowedOriginPatterns());
+        corsConfiguration.setAllowedMethods(corsProperties.getAllowedMethods());
+        corsConfiguration.setAllowedHeaders(corsProperties.getAllowedHeaders());
+        corsConfiguration.setExposedHeaders(corsProperties.getExposedHeaders());
+        corsConfiguration.setAllowCredentials(corsProperties.getAllowCredentials());
+        corsConfiguration.setMaxAge(corsProperties.getMaxAge());
+
+        String allowedOrigin = corsConfiguration.checkOrigin(exchange.getRequest().getHeaders().getFirst(HttpHeaders.ORIGIN));
+        if (allowedOrigin != null) {
+            responseHeaders.set(HttpHeaders.ACCESS_CONTROL_ALLOW_ORIGIN, allowedOrigin);
+        }
+        responseHeaders.set(HttpHeaders.ACCESS_CONTROL_ALLOW_CREDENTIALS, "true");
+        responseHeaders.set(HttpHeaders.ACCESS_CONTROL_ALLOW_METHODS, String.join(", ", corsProperties.getAllowedMethods()));
+        responseHeaders.set(HttpHeaders.ACCESS_CONTROL_ALLOW_HEADERS, String.join(", ", corsProperties.getAllowedHeaders()));
+        responseHeaders.set(HttpHeaders.ACCESS_CONTROL_EXPOSE_HEADERS, String.join(", ", corsProperties.getExposedHeaders()));
+    }
+}
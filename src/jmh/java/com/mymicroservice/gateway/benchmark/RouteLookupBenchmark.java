@@ -0,0 +1,93 @@
+package com.mymicroservice.gateway.benchmark;
+
+import com.mymicroservice.gateway.route.IndexedRoutePredicateHandlerMapping;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.autoconfigure.web.reactive.WebFluxProperties;
+import org.springframework.cloud.gateway.config.GlobalCorsProperties;
+import org.springframework.cloud.gateway.handler.FilteringWebHandler;
+import org.springframework.cloud.gateway.handler.RoutePredicateHandlerMapping;
+import org.springframework.cloud.gateway.handler.predicate.PathRoutePredicateFactory;
+import org.springframework.cloud.gateway.handler.predicate.PredicateDefinition;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.route.RouteDefinition;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import reactor.core.publisher.Flux;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Route lookup through the gateway's handler mapping with a growing route table: the linear
+ * predicate scan of {@link RoutePredicateHandlerMapping} against
+ * {@link IndexedRoutePredicateHandlerMapping}. Every route has a real {@code Path} predicate;
+ * the request hits a route in the middle of the table, as an average request would.
+ *
+ * <p>Includes the exchange itself, same for both; {@code -prof gc} shows the garbage per lookup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RouteLookupBenchmark {
+
+    @Param({"10", "100", "500"})
+    private int routes;
+
+    private RoutePredicateHandlerMapping linear;
+    private IndexedRoutePredicateHandlerMapping indexed;
+    private MockServerHttpRequest request;
+
+    @Setup
+    public void setUp() {
+        List<Route> table = new ArrayList<>();
+        List<RouteDefinition> definitions = new ArrayList<>();
+        PathRoutePredicateFactory path = new PathRoutePredicateFactory(new WebFluxProperties());
+        for (int i = 0; i < routes; i++) {
+            String id = "service-" + i;
+            String pattern = "/api/" + id + "/**";
+            RouteDefinition definition = new RouteDefinition();
+            definition.setId(id);
+            definition.setUri(URI.create("http://" + id + ":8080"));
+            definition.setPredicates(List.of(new PredicateDefinition("Path=" + pattern)));
+            definitions.add(definition);
+            table.add(Route.async().id(id).uri(definition.getUri())
+                    .predicate(path.apply(new PathRoutePredicateFactory.Config().setPatterns(List.of(pattern))))
+                    .build());
+        }
+
+        FilteringWebHandler webHandler = new FilteringWebHandler(List.of(), false);
+        linear = new RoutePredicateHandlerMapping(webHandler, () -> Flux.fromIterable(table),
+                new GlobalCorsProperties(), new MockEnvironment());
+        indexed = new IndexedRoutePredicateHandlerMapping(webHandler,
+                () -> Flux.fromIterable(table),
+                () -> Flux.fromIterable(definitions),
+                new GlobalCorsProperties(), new MockEnvironment());
+        indexed.rebuild().block();
+        request = MockServerHttpRequest.get("/api/service-" + routes / 2 + "/orders/42").build();
+    }
+
+    @Benchmark
+    public Object linearScan() {
+        return linear.getHandler(MockExchanges.create(request)).block();
+    }
+
+    @Benchmark
+    public Object indexedLookup() {
+        return indexed.getHandler(MockExchanges.create(request)).block();
+    }
+}
@@ -0,0 +1,49 @@
+package com.mymicroservice.gateway.benchmark;
+
+import com.mymicroservice.gateway.util.RandomTraceIdGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Trace id generation: the previous {@code UUID.randomUUID()} (SecureRandom, shared lock)
+ * against {@link RandomTraceIdGenerator} in both formats. Runs with 4 threads to show
+ * contention the way several event-loop threads would hit it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(4)
+@Fork(1)
+public class TraceIdGeneratorBenchmark {
+
+    private final RandomTraceIdGenerator uuidFormat = new RandomTraceIdGenerator(RandomTraceIdGenerator.Format.UUID);
+    private final RandomTraceIdGenerator w3cFormat = new RandomTraceIdGenerator(RandomTraceIdGenerator.Format.W3C);
+
+    @Benchmark
+    public String uuidRandomUuid() {
+        return UUID.randomUUID().toString();
+    }
+
+    @Benchmark
+    public String randomUuidFormat() {
+        return uuidFormat.generate();
+    }
+
+    @Benchmark
+    public String randomW3cFormat() {
+        return w3cFormat.generate();
+    }
+}
@@ -2,9 +2,11 @@ package com.mymicroservice.gateway.advice;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.mymicroservice.gateway.exception.AuthServiceException;
+import com.mymicroservice.gateway.filter.bulkhead.BulkheadFullException;
 import com.mymicroservice.gateway.util.ErrorItem;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authorization.AuthorizationDeniedException;
@@ -96,6 +98,24 @@ public class GlobalAdvice {
         return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
     }
 
+    /**
+     * Handles calls rejected by a full downstream bulkhead (see {@code WebClientConfig}), the same
+     * way {@code BulkheadGatewayFilter} rejects routed requests.
+     *
+     * @param e BulkheadFullException naming the full bulkhead
+     * @return ResponseEntity with ErrorItem, HTTP 503 status (SERVICE_UNAVAILABLE) and {@code Retry-After: 1}
+     */
+    @ExceptionHandler({BulkheadFullException.class})
+    public ResponseEntity<ErrorItem> handleBulkheadFullException(
+            BulkheadFullException e,
+            ServerWebExchange exchange) {
+        ErrorItem error = ErrorItem.generateMessage(e, HttpStatus.SERVICE_UNAVAILABLE, exchange);
+        error.setMessage(BulkheadFullException.CLIENT_MESSAGE);
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(error);
+    }
+
     @ExceptionHandler({IllegalArgumentException.class})
     public ResponseEntity<ErrorItem> handleIllegalArgumentException(
             IllegalArgumentException e,
@@ -0,0 +1,49 @@
+package com.mymicroservice.gateway.config;
+
+import com.mymicroservice.gateway.config.properties.ConfigReloadProperties;
+import com.mymicroservice.gateway.config.properties.CorsProperties;
+import com.mymicroservice.gateway.config.properties.GatewayCustomProperties;
+import com.mymicroservice.gateway.reload.ConfigFileWatcher;
+import com.mymicroservice.gateway.reload.GatewayConfigHolder;
+import com.mymicroservice.gateway.reload.GatewayConfigReloader;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.context.refresh.ContextRefresher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+@Configuration
+public class ConfigReloadConfig {
+
+    /**
+     * Paths and CORS policy compiled from the startup configuration; read by
+     * {@code JwtAuthGatewayFilter}, {@code CorsWebFilter}, {@code CorsPreflightWebFilter} and
+     * {@code CorsHeadersWriter}.
+     */
+    @Bean
+    public GatewayConfigHolder gatewayConfigHolder(GatewayCustomProperties gatewayCustomProperties,
+                                                   CorsProperties corsProperties, MeterRegistry meterRegistry) {
+        return GatewayConfigHolder.of(gatewayCustomProperties, corsProperties, meterRegistry);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "gateway.config-reload", name = "enabled", matchIfMissing = true)
+    public GatewayConfigReloader gatewayConfigReloader(GatewayConfigHolder gatewayConfigHolder,
+                                                       Environment environment, MeterRegistry meterRegistry) {
+        return new GatewayConfigReloader(gatewayConfigHolder, environment, meterRegistry);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "gateway.config-reload", name = "enabled", matchIfMissing = true)
+    public ConfigFileWatcher configFileWatcher(ConfigReloadProperties properties,
+                                               ObjectProvider<ContextRefresher> contextRefresher) {
+        if (!properties.getWatchPaths().isEmpty() && contextRefresher.getIfAvailable() == null) {
+            throw new IllegalStateException(
+                    "gateway.config-reload.watch-paths needs spring.cloud.refresh.enabled (ContextRefresher)");
+        }
+        return new ConfigFileWatcher(properties.getWatchPaths(), properties.getDebounce(),
+                () -> contextRefresher.getObject().refresh());
+    }
+}
@@ -1,40 +1,21 @@
 package com.mymicroservice.gateway.config;
 
-import com.mymicroservice.gateway.config.properties.CorsProperties;
-import lombok.RequiredArgsConstructor;
+import com.mymicroservice.gateway.reload.GatewayConfigHolder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.reactive.CorsWebFilter;
-import org.springframework.web.cors.reactive.UrlBasedCorsConfigurationSource;
 
 @Configuration
-@RequiredArgsConstructor
 public class CorsConfig {
 
-    private final CorsProperties corsProperties;
-
     /**
      * CORS configuration bean
      *
-     * Configures cross-origin resource sharing with settings from application properties.
-     * Applies CORS rules to all endpoints.
-     * Uses UrlBasedCorsConfigurationSource for path-based CORS mapping.
+     * Applies the compiled {@code CorsPolicy} of the request's configuration snapshot to all
+     * endpoints; the same policy is used by the 401/403 handlers ({@code CorsHeadersWriter}).
      */
     @Bean
-    public CorsWebFilter corsWebFilter() {
-        CorsConfiguration config = new CorsConfiguration();
-
-        config.setAllowedOriginPatterns(corsProperties.getAllowedOriginPatterns());
-        config.setAllowedMethods(corsProperties.getAllowedMethods());
-        config.setAllowedHeaders(corsProperties.getAllowedHeaders());
-        config.setExposedHeaders(corsProperties.getExposedHeaders());
-        config.setAllowCredentials(corsProperties.getAllowCredentials());
-        config.setMaxAge(corsProperties.getMaxAge());
-
-        UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
-        source.registerCorsConfiguration("/**", config);
-
-        return new CorsWebFilter(source);
+    public CorsWebFilter corsWebFilter(GatewayConfigHolder gatewayConfigHolder) {
+        return new CorsWebFilter(gatewayConfigHolder.corsConfigurationSource());
     }
 }
@@ -0,0 +1,42 @@
+package com.mymicroservice.gateway.config;
+
+import com.mymicroservice.gateway.config.properties.EndpointCacheProperties;
+import com.mymicroservice.gateway.discovery.EndpointCache;
+import com.mymicroservice.gateway.discovery.EndpointCacheLoadBalancerConfiguration;
+import io.kubernetes.client.informer.SharedIndexInformer;
+import io.kubernetes.client.openapi.models.V1Endpoints;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnCloudPlatform;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.cloud.CloudPlatform;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClients;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+/**
+ * In Kubernetes, load-balanced services take their instances from {@link EndpointCache}, fed by
+ * the {@code Endpoints} informer the discovery client already runs - no additional watch on the
+ * API server.
+ */
+@Configuration
+@ConditionalOnCloudPlatform(CloudPlatform.KUBERNETES)
+@ConditionalOnProperty(prefix = "gateway.endpoint-cache", name = "enabled", matchIfMissing = true)
+@LoadBalancerClients(defaultConfiguration = EndpointCacheLoadBalancerConfiguration.class)
+public class EndpointCacheConfig {
+
+    @Bean
+    public EndpointCache endpointCache(EndpointCacheProperties properties, ApplicationEventPublisher publisher,
+                                       ObjectProvider<SharedIndexInformer<V1Endpoints>> informers) {
+        List<SharedIndexInformer<V1Endpoints>> endpointInformers = informers.orderedStream().toList();
+        if (endpointInformers.isEmpty()) {
+            throw new IllegalStateException("gateway.endpoint-cache requires Kubernetes discovery "
+                    + "(spring.cloud.kubernetes.discovery.enabled); disable it with gateway.endpoint-cache.enabled=false");
+        }
+        EndpointCache cache = new EndpointCache(properties, publisher);
+        endpointInformers.forEach(informer -> informer.addEventHandler(cache));
+        return cache;
+    }
+}
@@ -0,0 +1,16 @@
+package com.mymicroservice.gateway.config;
+
+import com.mymicroservice.gateway.loadbalancer.LatencyAwareLoadBalancerConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClients;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Replaces the default round-robin with {@code PeakEwmaLoadBalancer} for every load-balanced
+ * service; {@code gateway.load-balancer.enabled=false} restores round-robin.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "gateway.load-balancer", name = "enabled", matchIfMissing = true)
+@LoadBalancerClients(defaultConfiguration = LatencyAwareLoadBalancerConfiguration.class)
+public class LoadBalancerConfig {
+}
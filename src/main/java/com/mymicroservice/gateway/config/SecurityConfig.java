@@ -1,7 +1,10 @@
 package com.mymicroservice.gateway.config;
 
+import com.mymicroservice.gateway.config.properties.JwtCacheProperties;
+import com.mymicroservice.gateway.security.CachingReactiveJwtDecoder;
 import com.mymicroservice.gateway.security.CustomAccessDeniedHandler;
 import com.mymicroservice.gateway.security.CustomAuthenticationEntryPoint;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.io.ClassPathResource;
@@ -25,7 +28,8 @@ public class SecurityConfig {
     public SecurityWebFilterChain securityWebFilterChain(
             ServerHttpSecurity http,
             CustomAuthenticationEntryPoint authenticationEntryPoint,
-            CustomAccessDeniedHandler accessDeniedHandler) {
+            CustomAccessDeniedHandler accessDeniedHandler,
+            ReactiveJwtDecoder reactiveJwtDecoder) {
         return http
                 .csrf(ServerHttpSecurity.CsrfSpec::disable)
                 .authorizeExchange(exchanges -> exchanges
@@ -60,7 +64,7 @@ public class SecurityConfig {
                         .anyExchange().authenticated()
                 )
                 .oauth2ResourceServer(oauth2 -> oauth2
-                        .jwt(jwt -> jwt.jwtDecoder(reactiveJwtDecoder()))
+                        .jwt(jwt -> jwt.jwtDecoder(reactiveJwtDecoder))
                 )
                 .exceptionHandling(handling -> handling
                         .authenticationEntryPoint(authenticationEntryPoint)
@@ -103,18 +107,33 @@ public class SecurityConfig {
      *   </li>
      * </ol>
      *
+     * <p><b>Caching:</b> Verified tokens are kept in a {@link CachingReactiveJwtDecoder} keyed by the
+     * token hash until their {@code exp} claim, so a client re-sending the same access token does not pay
+     * for the RSA signature check on every request. Controlled by {@code gateway.jwt-cache.*}.
+     *
      * <p><b>Error Handling:</b> If signature validation fails or tokens are invalid, the decoder
      * throws appropriate exceptions that are handled by configured {@link CustomAuthenticationEntryPoint}
      * and {@link CustomAccessDeniedHandler}.
      */
     @Bean
-    public ReactiveJwtDecoder reactiveJwtDecoder() {
+    public ReactiveJwtDecoder reactiveJwtDecoder(JwtCacheProperties jwtCacheProperties, MeterRegistry meterRegistry) {
+        ReactiveJwtDecoder decoder;
         try {
             RSAPublicKey publicKey = getPublicKey();
-            return NimbusReactiveJwtDecoder.withPublicKey(publicKey).build();
+            decoder = NimbusReactiveJwtDecoder.withPublicKey(publicKey).build();
         } catch (Exception e) {
             throw new RuntimeException("Failed to create ReactiveJwtDecoder", e);
         }
+
+        if (!jwtCacheProperties.isEnabled()) {
+            return decoder;
+        }
+        return new CachingReactiveJwtDecoder(
+                decoder,
+                jwtCacheProperties.getMaxSize(),
+                jwtCacheProperties.getMaxTtl(),
+                meterRegistry
+        );
     }
 
     protected RSAPublicKey getPublicKey() throws Exception {
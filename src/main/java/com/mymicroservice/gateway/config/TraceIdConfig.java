@@ -0,0 +1,16 @@
+package com.mymicroservice.gateway.config;
+
+import com.mymicroservice.gateway.config.properties.TraceIdProperties;
+import com.mymicroservice.gateway.util.RandomTraceIdGenerator;
+import com.mymicroservice.gateway.util.TraceIdGenerator;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class TraceIdConfig {
+
+    @Bean
+    public TraceIdGenerator traceIdGenerator(TraceIdProperties traceIdProperties) {
+        return new RandomTraceIdGenerator(traceIdProperties.getFormat());
+    }
+}
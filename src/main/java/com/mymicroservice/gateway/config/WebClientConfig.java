@@ -1,61 +1,194 @@
 package com.mymicroservice.gateway.config;
 
+import com.mymicroservice.gateway.config.properties.DownstreamServicesProperties;
+import io.netty.channel.ChannelOption;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import com.mymicroservice.gateway.filter.bulkhead.BulkheadFullException;
+import com.mymicroservice.gateway.loadbalancer.InFlightCall;
 import com.mymicroservice.gateway.util.MdcUtil;
-import org.springframework.beans.factory.annotation.Value;
+import com.mymicroservice.gateway.webclient.DownstreamBulkheads;
+import com.mymicroservice.gateway.webclient.DownstreamDeadlines;
+import com.mymicroservice.gateway.webclient.DownstreamProtocols;
+import com.mymicroservice.gateway.webclient.DownstreamWebClients;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactiveLoadBalancer;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactorLoadBalancerExchangeFilterFunction;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.reactive.function.client.ClientRequest;
 import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 @Configuration
 @Slf4j
-public class WebClientConfig {
-
-    @Value("${services.userservice.url}")
-    private String userServiceUrl;
+@RequiredArgsConstructor
+public class WebClientConfig implements DisposableBean {
 
-    @Value("${services.authservice.url}")
-    private String authServiceUrl;
+    private final DownstreamServicesProperties services;
+    private final DownstreamBulkheads bulkheads;
+    private final DownstreamDeadlines deadlines;
+    private final ObjectProvider<ReactiveLoadBalancer.Factory<ServiceInstance>> loadBalancers;
 
-    @Value("${services.orderservice.url}")
-    private String orderServiceUrl;
+    private final List<ConnectionProvider> connectionProviders = new CopyOnWriteArrayList<>();
 
-    @Value("${services.paymentservice.url}")
-    private String paymentServiceUrl;
+    @Bean
+    public DownstreamWebClients downstreamWebClients() {
+        Map<String, WebClient> clients = new LinkedHashMap<>();
+        services.forEach((name, service) -> clients.put(name, buildWebClient(name, service)));
+        return new DownstreamWebClients(clients);
+    }
 
     @Bean("userServiceClient")
-    public WebClient userServiceWebClient() {
-        return WebClient.builder()
-                .baseUrl(userServiceUrl)
-                .filter(mdcContextFilter())
-                .build();
+    public WebClient userServiceWebClient(DownstreamWebClients downstreamWebClients) {
+        return downstreamWebClients.get("userservice");
     }
 
     @Bean("authServiceClient")
-    public WebClient authServiceWebClient() {
-        return WebClient.builder()
-                .baseUrl(authServiceUrl)
-                .filter(mdcContextFilter())
-                .build();
+    public WebClient authServiceWebClient(DownstreamWebClients downstreamWebClients) {
+        return downstreamWebClients.get("authservice");
     }
 
     @Bean("orderServiceClient")
-    public WebClient orderServiceWebClient() {
-        return WebClient.builder()
-                .baseUrl(orderServiceUrl)
-                .filter(mdcContextFilter())
-                .build();
+    public WebClient orderServiceWebClient(DownstreamWebClients downstreamWebClients) {
+        return downstreamWebClients.get("orderservice");
     }
 
     @Bean("paymentServiceClient")
-    public WebClient paymentServiceWebClient() {
-        return WebClient.builder()
-                .baseUrl(paymentServiceUrl)
+    public WebClient paymentServiceWebClient(DownstreamWebClients downstreamWebClients) {
+        return downstreamWebClients.get("paymentservice");
+    }
+
+    @Override
+    public void destroy() {
+        connectionProviders.forEach(ConnectionProvider::dispose);
+    }
+
+    /**
+     * WebClient with its own connection pool and timeouts from {@code services.<name>}.
+     * Pool metrics ({@code reactor.netty.connection.provider.*}, tag {@code name=<name>}) go to
+     * the global Micrometer registry, which Spring Boot exports to Prometheus. With an HTTP/2
+     * {@code protocol} the pool multiplexes requests over {@code pool.http2-max-connections}.
+     * Requests run inside the service's bulkhead, shared with the gateway routes to it, and carry
+     * the {@code gateway.deadline} header. With a {@code discovery-id} each request goes to an
+     * instance chosen by the load balancer.
+     */
+    private WebClient buildWebClient(String name, DownstreamServicesProperties.Service service) {
+        if (service == null || service.getUrl() == null || service.getUrl().isBlank()) {
+            throw new IllegalStateException("services." + name + ".url is not configured");
+        }
+        DownstreamProtocols.validate(name, service);
+        DownstreamServicesProperties.Pool pool = service.getPool();
+        boolean http2 = DownstreamProtocols.isHttp2(service.getProtocol());
+
+        ConnectionProvider.Builder poolBuilder = ConnectionProvider.builder(name)
+                .maxConnections(pool.getMaxConnections())
+                .pendingAcquireMaxCount(pool.getPendingAcquireMaxCount())
+                .pendingAcquireTimeout(pool.getPendingAcquireTimeout())
+                .maxIdleTime(pool.getMaxIdleTime())
+                .maxLifeTime(pool.getMaxLifeTime())
+                .evictInBackground(pool.getEvictInBackground())
+                .metrics(pool.isMetricsEnabled());
+        if (http2) {
+            poolBuilder.allocationStrategy(DownstreamProtocols.allocationStrategy(pool));
+        }
+        ConnectionProvider connectionProvider = poolBuilder.build();
+        connectionProviders.add(connectionProvider);
+
+        HttpClient httpClient = DownstreamProtocols.apply(HttpClient.create(connectionProvider), service.getProtocol())
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) service.getConnectTimeout().toMillis())
+                .responseTimeout(service.getResponseTimeout());
+
+        String baseUrl = service.getDiscoveryId() != null
+                ? URI.create(service.getUrl()).getScheme() + "://" + service.getDiscoveryId()
+                : service.getUrl();
+        log.info("WebClient '{}' -> {} (protocol={}, maxConnections={}, connectTimeout={}, responseTimeout={})",
+                name, baseUrl, service.getProtocol(),
+                http2 ? pool.getHttp2MaxConnections() : pool.getMaxConnections(),
+                service.getConnectTimeout(), service.getResponseTimeout());
+
+        WebClient.Builder builder = WebClient.builder()
+                .baseUrl(baseUrl)
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
                 .filter(mdcContextFilter())
-                .build();
+                .filter(bulkheadFilter(name));
+        if (deadlines.isEnabled()) {
+            builder.filter(deadlineFilter(name, service.getResponseTimeout()));
+        }
+        if (service.getDiscoveryId() != null) {
+            builder.filter(loadBalancerFilter(name));
+        }
+        return builder.build();
+    }
+
+    /**
+     * Last in the chain, so the instance is chosen once the bulkhead slot is held. A call cancelled
+     * before its response (a deadline, a caller gone) frees its instance's in-flight slot too.
+     */
+    private ExchangeFilterFunction loadBalancerFilter(String name) {
+        ReactiveLoadBalancer.Factory<ServiceInstance> factory = loadBalancers.getIfAvailable();
+        if (factory == null) {
+            throw new IllegalStateException("services." + name
+                    + ".discovery-id is set but no load balancer is available (spring.cloud.loadbalancer.enabled?)");
+        }
+        ExchangeFilterFunction loadBalancer = new ReactorLoadBalancerExchangeFilterFunction(factory, List.of());
+        return (request, next) -> {
+            InFlightCall call = new InFlightCall();
+            return loadBalancer.filter(ClientRequest.from(request).attributes(call::addTo).build(), next)
+                    .doOnCancel(call::cancel);
+        };
+    }
+
+    /**
+     * The slot is held until the response headers arrive; a full bulkhead fails the request with
+     * {@link BulkheadFullException} without opening a connection, answered with {@code 503} by
+     * {@code GlobalAdvice}.
+     */
+    private ExchangeFilterFunction bulkheadFilter(String name) {
+        return (request, next) -> bulkheads.forService(name)
+                .map(bulkhead -> bulkhead.execute(next.exchange(request))
+                        .doOnError(BulkheadFullException.class, e -> bulkheads.rejected(bulkhead)))
+                .orElseGet(() -> next.exchange(request));
+    }
+
+    /**
+     * After the bulkhead, so the deadline counts from the moment the request is sent, like
+     * {@code response-timeout}; an earlier deadline already set by the caller is kept. A call
+     * cancelled before its response arrived, typically because the controller's client went away,
+     * is counted as {@code gateway.upstream.cancelled}.
+     */
+    private ExchangeFilterFunction deadlineFilter(String name, Duration responseTimeout) {
+        return (request, next) -> Mono.defer(() -> {
+            String header = deadlines.header();
+            long deadline = deadlines.deadline(DownstreamDeadlines.parse(request.headers().getFirst(header)),
+                    responseTimeout);
+            ClientRequest withDeadline = deadline == DownstreamDeadlines.NONE
+                    ? request
+                    : ClientRequest.from(request).headers(headers -> headers.set(header, Long.toString(deadline)))
+                            .build();
+            AtomicBoolean answered = new AtomicBoolean();
+            return next.exchange(withDeadline)
+                    .doOnEach(signal -> answered.set(true))
+                    .doOnCancel(() -> {
+                        if (!answered.get()) {
+                            deadlines.cancelled("webclient", name);
+                        }
+                    });
+        });
     }
 
     private ExchangeFilterFunction mdcContextFilter() {
@@ -0,0 +1,35 @@
+package com.mymicroservice.gateway.config.properties;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Adaptive in-flight limit that {@code AdaptiveConcurrencyGatewayFilter} keeps for every proxied
+ * route. The limit moves between {@code min-limit} and {@code max-limit} following the ratio of
+ * long-term to recent latency of the route.
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "gateway.adaptive-concurrency")
+public class AdaptiveConcurrencyProperties {
+
+    private boolean enabled = true;
+    private int initialLimit = 20;
+    private int minLimit = 4;
+    private int maxLimit = 500;
+    /** Latency samples are averaged over windows of this length before the limit moves. */
+    private Duration window = Duration.ofMillis(200);
+    /** Fewer samples in a window are carried over to the next one. */
+    private int minWindowSamples = 10;
+    /** Number of windows the long-term latency average spans. */
+    private int longWindow = 100;
+    /** Recent latency may exceed the long-term average by this factor before the limit shrinks. */
+    private double rttTolerance = 1.5;
+    /** Share of each new estimate applied to the limit (0..1]. */
+    private double smoothing = 0.2;
+}
@@ -0,0 +1,24 @@
+package com.mymicroservice.gateway.config.properties;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Bulkheads of downstream calls. Each service gets one from {@code services.<name>.bulkhead};
+ * {@code routes} gives a gateway route its own bulkhead instead of its service's one, or one at
+ * all when its URI is not a configured service.
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "gateway.bulkhead")
+public class BulkheadProperties {
+
+    private boolean enabled = true;
+    private Map<String, DownstreamServicesProperties.Bulkhead> routes = new HashMap<>();
+}
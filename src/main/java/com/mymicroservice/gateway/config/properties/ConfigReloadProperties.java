@@ -0,0 +1,31 @@
+package com.mymicroservice.gateway.config.properties;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hot reload of {@code gateway.*} paths, {@code cors.*} and route definitions without a
+ * redeploy.
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "gateway.config-reload")
+public class ConfigReloadProperties {
+
+    private boolean enabled = true;
+    /**
+     * Files whose change triggers a configuration refresh, e.g. the one in
+     * {@code spring.config.import} or a mounted ConfigMap.
+     */
+    private List<Path> watchPaths = new ArrayList<>();
+    /** Changes within this window cause one refresh. */
+    private Duration debounce = Duration.ofMillis(500);
+}
@@ -19,4 +19,8 @@ public class CorsProperties {
     private List<String> exposedHeaders;
     private Long maxAge;
     private Boolean allowCredentials;
+    /** Distinct origins whose allow/deny decision is cached by {@code CorsPolicy}. */
+    private long originCacheSize = 1_000;
+    /** Distinct (origin, method, request headers) preflight responses cached by {@code CorsPolicy}. */
+    private long preflightCacheSize = 1_000;
 }
@@ -0,0 +1,22 @@
+package com.mymicroservice.gateway.config.properties;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Deadline sent to downstream services with every routed and {@code WebClient} call, as epoch
+ * milliseconds in {@link #header}: the moment the gateway stops waiting for the response.
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "gateway.deadline")
+public class DeadlineProperties {
+
+    private boolean enabled = true;
+    private String header = "X-Request-Deadline";
+    /** Whether a deadline sent by the client may shorten the one derived from the route timeout. */
+    private boolean acceptIncoming = true;
+}
@@ -0,0 +1,99 @@
+package com.mymicroservice.gateway.config.properties;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+
+/**
+ * Downstream services called through {@code WebClient}, keyed by the name used under
+ * {@code services.*} ({@code userservice}, {@code authservice}, ...).
+ *
+ * <pre>
+ * services:
+ *   userservice:
+ *     url: http://userservice:8083
+ *     connect-timeout: 1s
+ *     response-timeout: 5s
+ *     protocol: H2C          # opt-in, default HTTP11
+ *     discovery-id: user-service   # optional, load-balance over discovered instances
+ *     pool:
+ *       max-connections: 50
+ *     bulkhead:
+ *       max-concurrent-calls: 100
+ *       max-wait: 50ms
+ * </pre>
+ */
+@Component
+@ConfigurationProperties(prefix = "services")
+public class DownstreamServicesProperties extends LinkedHashMap<String, DownstreamServicesProperties.Service> {
+
+    @Getter
+    @Setter
+    public static class Service {
+
+        private String url;
+        /**
+         * Service id in discovery. When set, the WebClient picks one of the discovered instances
+         * per request ({@code gateway.load-balancer}) instead of calling {@link #url}, which is then
+         * only polled for health.
+         */
+        private String discoveryId;
+        /** Polled by the aggregated {@code /actuators/health} endpoint. */
+        private String healthPath = "/actuator/health";
+        private Duration connectTimeout = Duration.ofSeconds(1);
+        private Duration responseTimeout = Duration.ofSeconds(5);
+        /** Used by this service's WebClient and by gateway routes whose URI points at {@link #url}. */
+        private Protocol protocol = Protocol.HTTP11;
+        private Pool pool = new Pool();
+        /** Shared by this service's WebClient and the gateway routes whose URI points at {@link #url}. */
+        private Bulkhead bulkhead = new Bulkhead();
+    }
+
+    public enum Protocol {
+        /** One in-flight request per connection. */
+        HTTP11,
+        /** Cleartext HTTP/2 with prior knowledge; the service must accept h2c (in-cluster traffic). */
+        H2C,
+        /** HTTP/2 over TLS, negotiated via ALPN with HTTP/1.1 fallback; requires an {@code https} url. */
+        H2
+    }
+
+    /**
+     * Reactor Netty {@code ConnectionProvider} settings, one pool per service. With an HTTP/2
+     * protocol requests are multiplexed, so only {@code http2MaxConnections} connections are opened
+     * and each carries up to {@code maxConcurrentStreams} requests.
+     */
+    @Getter
+    @Setter
+    public static class Pool {
+
+        private int maxConnections = 50;
+        /** Requests allowed to wait for a connection; beyond that acquisition fails immediately. */
+        private int pendingAcquireMaxCount = 200;
+        private Duration pendingAcquireTimeout = Duration.ofSeconds(2);
+        /** Below the usual 60s server keep-alive, so the gateway closes idle connections first. */
+        private Duration maxIdleTime = Duration.ofSeconds(30);
+        private Duration maxLifeTime = Duration.ofMinutes(5);
+        private Duration evictInBackground = Duration.ofSeconds(30);
+        private boolean metricsEnabled = true;
+        private int http2MaxConnections = 2;
+        private long maxConcurrentStreams = 100;
+    }
+
+    /**
+     * Calls to one service allowed at once, across its WebClient and gateway routes. A call over
+     * the limit waits up to {@code maxWait} for a slot and then fails without reaching the service.
+     */
+    @Getter
+    @Setter
+    public static class Bulkhead {
+
+        private int maxConcurrentCalls = 100;
+        /** {@code 0} rejects immediately when the bulkhead is full. */
+        private Duration maxWait = Duration.ofMillis(50);
+    }
+}
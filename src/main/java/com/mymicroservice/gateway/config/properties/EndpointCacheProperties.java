@@ -0,0 +1,28 @@
+package com.mymicroservice.gateway.config.properties;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Local cache of Kubernetes endpoints, fed by the discovery client's {@code Endpoints} informer
+ * and read by the load balancer of every {@code lb://} route and {@code discovery-id} service.
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "gateway.endpoint-cache")
+public class EndpointCacheProperties {
+
+    private boolean enabled = true;
+    /** Port used when an endpoint exposes several; otherwise the first one. */
+    private String primaryPortName = "http";
+    /**
+     * Services appearing or disappearing within this window cause one route refresh; endpoint
+     * changes of known services never refresh routes.
+     */
+    private Duration routeRefreshDelay = Duration.ofSeconds(1);
+}
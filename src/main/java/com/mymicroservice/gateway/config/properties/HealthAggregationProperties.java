@@ -0,0 +1,22 @@
+package com.mymicroservice.gateway.config.properties;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "gateway.health")
+public class HealthAggregationProperties {
+
+    /** How often every downstream health endpoint is polled. */
+    private Duration refreshInterval = Duration.ofSeconds(10);
+    /** Per-call timeout; a service that does not answer in time is reported DOWN. */
+    private Duration timeout = Duration.ofSeconds(2);
+    /** A result older than this is reported UNKNOWN instead of its last status. */
+    private Duration staleAfter = Duration.ofSeconds(30);
+}
@@ -0,0 +1,27 @@
+package com.mymicroservice.gateway.config.properties;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Store of last successful GET responses, recorded by the {@code LastKnownGood} route filter and
+ * served by {@code FallbackController} while a service is unavailable.
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "gateway.last-known-good")
+public class LastKnownGoodProperties {
+
+    /** Total size of stored bodies and headers across all routes. */
+    private DataSize maxSize = DataSize.ofMegabytes(32);
+    /** Larger responses are not stored. */
+    private DataSize maxEntrySize = DataSize.ofKilobytes(256);
+    /** Older responses are not served as a fallback. */
+    private Duration maxAge = Duration.ofHours(1);
+}
@@ -0,0 +1,45 @@
+package com.mymicroservice.gateway.config.properties;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Instance selection for load-balanced calls ({@code lb://} routes and services with a
+ * {@code discovery-id}): power of two choices by peak-EWMA latency times in-flight requests,
+ * with outlier instances ejected for a while.
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "gateway.load-balancer")
+public class LatencyAwareLoadBalancerProperties {
+
+    private boolean enabled = true;
+    /** Time constant of the latency average: older samples weigh e^-1 after this long. */
+    private Duration decay = Duration.ofSeconds(10);
+    /** Assumed latency of an instance before its first response. */
+    private Duration initialLatency = Duration.ofMillis(50);
+    private Outlier outlier = new Outlier();
+
+    @Getter
+    @Setter
+    public static class Outlier {
+
+        /** Share of failed calls (errors and 5xx) that ejects an instance. */
+        private double failureRateThreshold = 0.5;
+        /** Share of calls slower than {@code slow-call-duration} that ejects an instance. */
+        private double slowCallRateThreshold = 0.8;
+        private Duration slowCallDuration = Duration.ofSeconds(2);
+        /** Rates are only judged once an instance has this many calls in the current interval. */
+        private int minimumCalls = 20;
+        /** Call counts of an instance start over after this long. */
+        private Duration interval = Duration.ofSeconds(10);
+        private Duration ejectionDuration = Duration.ofSeconds(30);
+        /** Beyond this share of ejected instances, ejections are ignored. */
+        private double maxEjectedRatio = 0.5;
+    }
+}
@@ -0,0 +1,39 @@
+package com.mymicroservice.gateway.config.properties;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Local per-client limits of {@code RateLimitGatewayFilter}, by route id. Routes without an entry
+ * in {@code routes} use {@code default-limit}, if set, and are not limited otherwise.
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "gateway.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+    /** Most clients (route, key) tracked at once; least recently used ones are dropped first. */
+    private long maxKeys = 100_000;
+    /** A client idle this long is forgotten (its bucket is full again anyway). */
+    private Duration idleTimeout = Duration.ofMinutes(10);
+    private Limit defaultLimit;
+    private Map<String, Limit> routes = new HashMap<>();
+
+    @Getter
+    @Setter
+    public static class Limit {
+
+        /** Sustained requests per second per client. */
+        private double replenishRate;
+        /** Requests a client may send at once after being idle. */
+        private int burstCapacity = 1;
+    }
+}
@@ -0,0 +1,26 @@
+package com.mymicroservice.gateway.config.properties;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Shared store behind the {@code ResponseCache} route filter; per-route settings are filter args.
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "gateway.response-cache")
+public class ResponseCacheProperties {
+
+    /** Total size of cached bodies and headers across all routes. */
+    private DataSize maxSize = DataSize.ofMegabytes(64);
+    /** Larger responses are passed through without being cached. */
+    private DataSize maxEntrySize = DataSize.ofMegabytes(1);
+    /** How long a stale response with an {@code ETag} is kept for revalidation. */
+    private Duration staleRetention = Duration.ofMinutes(10);
+}
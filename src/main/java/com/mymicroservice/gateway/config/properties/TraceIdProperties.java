@@ -0,0 +1,19 @@
+package com.mymicroservice.gateway.config.properties;
+
+import com.mymicroservice.gateway.util.RandomTraceIdGenerator;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "gateway.trace-id")
+public class TraceIdProperties {
+
+    /**
+     * UUID - 8-4-4-4-12 (default, same as before); W3C - 32 hex chars, traceparent-compatible.
+     */
+    private RandomTraceIdGenerator.Format format = RandomTraceIdGenerator.Format.UUID;
+}
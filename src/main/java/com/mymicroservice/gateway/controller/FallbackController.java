@@ -1,31 +1,133 @@
 package com.mymicroservice.gateway.controller;
 
-import org.springframework.web.bind.annotation.GetMapping;
+import com.mymicroservice.gateway.filter.cache.CachedResponse;
+import com.mymicroservice.gateway.filter.cache.LastKnownGoodStore;
+import com.mymicroservice.gateway.filter.cache.ShareableHeaders;
+import com.mymicroservice.gateway.util.StaticJsonResponse;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpResponse;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+/**
+ * Circuit breaker fallbacks ({@code fallbackUri: forward:/fallback/...}), reached with the
+ * original method, headers and route of the failed request.
+ *
+ * <p>A GET whose last successful response was recorded by the {@code LastKnownGood} route filter
+ * gets that response, marked with {@code X-Gateway-Fallback: stale} and its {@code Age}. Anything
+ * else gets {@code 503} with {@code Retry-After}: the breaker's open-state wait duration while it
+ * is open, one second when the call failed with the breaker closed.
+ *
+ * <p>Metrics: {@code gateway.fallback.requests} - counter, tags {@code route} and
+ * {@code result=stale|unavailable}.
+ */
 @RestController
 @RequestMapping("/fallback")
 public class FallbackController {
 
-    @GetMapping("/user")
-    public Mono<String> userFallback() {
-        return Mono.just("User Service is unavailable. Please try again later.");
+    private static final ServiceFallback USER = new ServiceFallback("userServiceCircuitBreaker",
+            "User Service is unavailable. Please try again later.");
+    private static final ServiceFallback ORDER = new ServiceFallback("orderServiceCircuitBreaker",
+            "Order Service is unavailable. Please try again later.");
+    private static final ServiceFallback AUTH = new ServiceFallback("authServiceCircuitBreaker",
+            "Authentication Service is unavailable. Please try again later.");
+    private static final ServiceFallback PAYMENT = new ServiceFallback("paymentServiceCircuitBreaker",
+            "Payment Service is unavailable. Please try again later.");
+
+    private final LastKnownGoodStore lastKnownGoodStore;
+    private final CircuitBreakerRegistry circuitBreakerRegistry;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+
+    public FallbackController(LastKnownGoodStore lastKnownGoodStore, CircuitBreakerRegistry circuitBreakerRegistry,
+                              MeterRegistry meterRegistry) {
+        this.lastKnownGoodStore = lastKnownGoodStore;
+        this.circuitBreakerRegistry = circuitBreakerRegistry;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @RequestMapping("/user")
+    public Mono<Void> userFallback(ServerWebExchange exchange) {
+        return fallback(exchange, USER);
+    }
+
+    @RequestMapping("/order")
+    public Mono<Void> orderFallback(ServerWebExchange exchange) {
+        return fallback(exchange, ORDER);
+    }
+
+    @RequestMapping("/auth")
+    public Mono<Void> authFallback(ServerWebExchange exchange) {
+        return fallback(exchange, AUTH);
     }
 
-    @GetMapping("/order")
-    public Mono<String> orderFallback() {
-        return Mono.just("Order Service is unavailable. Please try again later.");
+    @RequestMapping("/payment")
+    public Mono<Void> paymentFallback(ServerWebExchange exchange) {
+        return fallback(exchange, PAYMENT);
     }
 
-    @GetMapping("/auth")
-    public Mono<String> authFallback() {
-        return Mono.just("Authentication Service is unavailable. Please try again later.");
+    private Mono<Void> fallback(ServerWebExchange exchange, ServiceFallback service) {
+        Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+        String routeId = route != null ? route.getId() : "unknown";
+
+        if (exchange.getRequest().getMethod() == HttpMethod.GET) {
+            CachedResponse stale = lastKnownGoodStore.get(LastKnownGoodStore.key(routeId, exchange));
+            if (stale != null) {
+                counter(routeId, "stale").increment();
+                return writeStale(exchange.getResponse(), stale);
+            }
+        }
+        counter(routeId, "unavailable").increment();
+        exchange.getResponse().getHeaders().set(HttpHeaders.RETRY_AFTER,
+                Long.toString(retryAfterSeconds(service.breakerName())));
+        return service.unavailable().writeTo(exchange);
     }
 
-    @GetMapping("/payment")
-    public Mono<String> paymentFallback() {
-        return Mono.just("Payment Service is unavailable. Please try again later.");
+    private static Mono<Void> writeStale(ServerHttpResponse response, CachedResponse stale) {
+        HttpHeaders headers = response.getHeaders();
+        response.setStatusCode(HttpStatus.OK);
+        ShareableHeaders.copyInto(stale.headers(), headers);
+        headers.set(HttpHeaders.AGE, Long.toString(stale.ageSeconds(System.nanoTime())));
+        headers.set(LastKnownGoodStore.FALLBACK_HEADER, "stale");
+        headers.setContentLength(stale.body().remaining());
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(stale.body())));
+    }
+
+    private long retryAfterSeconds(String breakerName) {
+        return circuitBreakerRegistry.find(breakerName)
+                .filter(breaker -> breaker.getState() == CircuitBreaker.State.OPEN)
+                .map(breaker -> breaker.getCircuitBreakerConfig().getWaitIntervalFunctionInOpenState().apply(1))
+                .map(waitMillis -> Math.max(1, TimeUnit.MILLISECONDS.toSeconds(waitMillis + 999)))
+                .orElse(1L);
+    }
+
+    private Counter counter(String routeId, String result) {
+        return counters.computeIfAbsent(routeId + ' ' + result, key -> Counter.builder("gateway.fallback.requests")
+                .description("Requests answered by a circuit breaker fallback")
+                .tag("route", routeId)
+                .tag("result", result)
+                .register(meterRegistry));
+    }
+
+    private record ServiceFallback(String breakerName, StaticJsonResponse unavailable) {
+
+        private ServiceFallback(String breakerName, String message) {
+            this(breakerName, StaticJsonResponse.of(HttpStatus.SERVICE_UNAVAILABLE, "Service Unavailable", message));
+        }
     }
 }
@@ -3,10 +3,11 @@ package com.mymicroservice.gateway.controller;
 import com.mymicroservice.gateway.dto.response.RegistrationResponse;
 import com.mymicroservice.gateway.dto.request.UserRegistrationRequest;
 import com.mymicroservice.gateway.exception.AuthServiceException;
+import com.mymicroservice.gateway.util.MdcUtil;
 import com.mymicroservice.gateway.util.ResponseUtil;
 import com.mymicroservice.gateway.webclient.AuthServiceWebClient;
 import com.mymicroservice.gateway.webclient.UserServiceWebClient;
-import com.mymicroservice.gateway.util.MdcUtil;
+import io.micrometer.context.ContextSnapshot;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -31,30 +32,30 @@ public class RegistrationController {
     public Mono<ResponseEntity<RegistrationResponse>> register(
             @RequestBody @Valid UserRegistrationRequest request) {
 
-        // We use MdcUtil.withMdc to maintain the context
-        return MdcUtil.withMdc(
-                Mono.fromCallable(() -> {
-                            // Logging in - MDC is already installed
-                            log.info("Register request: {}", request);
-                            return responseUtil.generateUserResponse(request);
-                        })
-                        .flatMap(userResponse ->
-                                userServiceWebClient.createUser(userResponse)
-                                        .flatMap(userDto ->
-                                                authServiceWebClient.register(userResponse)
-                                                        .map(tokens -> ResponseEntity.ok(new RegistrationResponse(userDto, tokens)))
-                                                        .onErrorResume(e ->
-                                                                userServiceWebClient.deleteUser(userDto.getUserId())
-                                                                        .onErrorResume(deleteError -> {
-                                                                            log.error("Failed to rollback user creation: {}",
-                                                                                    deleteError.getMessage());
-                                                                            return Mono.empty();
-                                                                        })
-                                                                        .then(Mono.error(new AuthServiceException("AuthService failed. User rolled back.")))
-                                                        )
-                                        )
-                        )
-        );
+        // MDC is filled from the Reactor context only around log calls
+        return Mono.deferContextual(context -> Mono.fromCallable(() -> {
+                    try (ContextSnapshot.Scope ignored = MdcUtil.mdcScope(context)) {
+                        log.info("Register request: {}", request);
+                        return responseUtil.generateUserResponse(request);
+                    }
+                })
+                .flatMap(userResponse ->
+                        userServiceWebClient.createUser(userResponse)
+                                .flatMap(userDto ->
+                                        authServiceWebClient.register(userResponse)
+                                                .map(tokens -> ResponseEntity.ok(new RegistrationResponse(userDto, tokens)))
+                                                .onErrorResume(e ->
+                                                        userServiceWebClient.deleteUser(userDto.getUserId())
+                                                                .onErrorResume(deleteError -> {
+                                                                    MdcUtil.logWithMdc(context, () -> log.error(
+                                                                            "Failed to rollback user creation: {}",
+                                                                            deleteError.getMessage()));
+                                                                    return Mono.empty();
+                                                                })
+                                                                .then(Mono.error(new AuthServiceException("AuthService failed. User rolled back.")))
+                                                )
+                                )
+                ));
     }
 
 }
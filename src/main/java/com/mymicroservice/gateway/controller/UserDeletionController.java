@@ -1,9 +1,9 @@
 package com.mymicroservice.gateway.controller;
 
 import com.mymicroservice.gateway.dto.response.UserFromUserServiceResponse;
+import com.mymicroservice.gateway.util.MdcUtil;
 import com.mymicroservice.gateway.webclient.AuthServiceWebClient;
 import com.mymicroservice.gateway.webclient.UserServiceWebClient;
-import com.mymicroservice.gateway.util.MdcUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
@@ -25,33 +25,33 @@ public class UserDeletionController {
     @DeleteMapping("/{id}")
     public Mono<ResponseEntity<UserFromUserServiceResponse>> deleteUser(@PathVariable Long id) {
 
-        return MdcUtil.withMdc(
-                Mono.defer(() -> {
-                    log.info("Starting deletion of user with id: {}", id);
+        // MDC is filled from the Reactor context only around log calls
+        return Mono.deferContextual(context -> {
+            MdcUtil.logWithMdc(context, () -> log.info("Starting deletion of user with id: {}", id));
 
-                    return userServiceWebClient.deleteUser(id)
-                            .flatMap(user ->
-                                    authServiceWebClient.deleteUser(id)
-                                            .thenReturn(user)
-                            )
-                            // specific: user-service returned 404
-                            .map(ResponseEntity::ok)
-                            .onErrorResume(WebClientResponseException.NotFound.class, ex -> {
-                                log.warn("User {} not found: {}", id, ex.getMessage());
-                                return Mono.just(ResponseEntity.status(HttpStatus.NOT_FOUND).build());
-                            })
-                            // specific: connection refused / service unavailable
-                            .onErrorResume(WebClientRequestException.class, ex -> {
-                                log.error("Service unavailable when deleting user {}: {}", id, ex.getMessage());
-                                return Mono.just(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build());
-                            })
-                            // fallback: any other error -> 500
-                            .onErrorResume(ex -> {
-                                log.error("Failed to delete user {}: {}", id, ex.getMessage());
-                                return Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build());
-                            });
-                })
-        );
+            return userServiceWebClient.deleteUser(id)
+                    .flatMap(user ->
+                            authServiceWebClient.deleteUser(id)
+                                    .thenReturn(user)
+                    )
+                    // specific: user-service returned 404
+                    .map(ResponseEntity::ok)
+                    .onErrorResume(WebClientResponseException.NotFound.class, ex -> {
+                        MdcUtil.logWithMdc(context, () -> log.warn("User {} not found: {}", id, ex.getMessage()));
+                        return Mono.just(ResponseEntity.status(HttpStatus.NOT_FOUND).build());
+                    })
+                    // specific: connection refused / service unavailable
+                    .onErrorResume(WebClientRequestException.class, ex -> {
+                        MdcUtil.logWithMdc(context, () ->
+                                log.error("Service unavailable when deleting user {}: {}", id, ex.getMessage()));
+                        return Mono.just(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build());
+                    })
+                    // fallback: any other error -> 500
+                    .onErrorResume(ex -> {
+                        MdcUtil.logWithMdc(context, () -> log.error("Failed to delete user {}: {}", id, ex.getMessage()));
+                        return Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build());
+                    });
+        });
     }
 
 }
@@ -0,0 +1,211 @@
+package com.mymicroservice.gateway.discovery;
+
+import com.mymicroservice.gateway.config.properties.EndpointCacheProperties;
+import io.kubernetes.client.informer.ResourceEventHandler;
+import io.kubernetes.client.openapi.models.CoreV1EndpointPort;
+import io.kubernetes.client.openapi.models.V1EndpointAddress;
+import io.kubernetes.client.openapi.models.V1EndpointSubset;
+import io.kubernetes.client.openapi.models.V1Endpoints;
+import io.kubernetes.client.openapi.models.V1ObjectMeta;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.gateway.event.RefreshRoutesEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Ready instances of every service, kept up to date by the events of an {@code Endpoints}
+ * informer: each event replaces the instance list of its own service only, and lookups are a
+ * map read - they never wait for the API server or rebuild anything.
+ *
+ * <p>Routes of the discovery locator depend only on which services exist, so they are refreshed
+ * (one {@link RefreshRoutesEvent} per {@code route-refresh-delay}) when a service appears or
+ * disappears; pods coming and going reach the load balancer without a route refresh.
+ *
+ * <p>Services of the same name in several namespaces are merged, as the discovery client does.
+ */
+@Slf4j
+public class EndpointCache implements ResourceEventHandler<V1Endpoints> {
+
+    private final String primaryPortName;
+    private final Duration routeRefreshDelay;
+    private final ApplicationEventPublisher publisher;
+    private final Scheduler scheduler;
+    private final Map<String, ServiceEndpoints> services = new ConcurrentHashMap<>();
+    private final AtomicBoolean refreshPending = new AtomicBoolean();
+
+    public EndpointCache(EndpointCacheProperties properties, ApplicationEventPublisher publisher) {
+        this(properties, publisher, Schedulers.parallel());
+    }
+
+    public EndpointCache(EndpointCacheProperties properties, ApplicationEventPublisher publisher,
+                         Scheduler scheduler) {
+        this.primaryPortName = properties.getPrimaryPortName();
+        this.routeRefreshDelay = properties.getRouteRefreshDelay();
+        this.publisher = publisher;
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * @return ready instances of the service, empty when it is unknown
+     */
+    public List<ServiceInstance> instances(String serviceId) {
+        ServiceEndpoints endpoints = services.get(serviceId);
+        return endpoints != null ? endpoints.instances() : List.of();
+    }
+
+    public Set<String> services() {
+        return Set.copyOf(services.keySet());
+    }
+
+    @Override
+    public void onAdd(V1Endpoints endpoints) {
+        update(endpoints);
+    }
+
+    @Override
+    public void onUpdate(V1Endpoints oldEndpoints, V1Endpoints newEndpoints) {
+        // periodic resyncs deliver the same object again
+        if (oldEndpoints != null && oldEndpoints.getMetadata() != null && newEndpoints.getMetadata() != null
+                && Objects.equals(oldEndpoints.getMetadata().getResourceVersion(),
+                newEndpoints.getMetadata().getResourceVersion())) {
+            return;
+        }
+        update(newEndpoints);
+    }
+
+    @Override
+    public void onDelete(V1Endpoints endpoints, boolean deletedFinalStateUnknown) {
+        V1ObjectMeta metadata = endpoints.getMetadata();
+        if (metadata == null || metadata.getName() == null) {
+            return;
+        }
+        String namespace = Objects.toString(metadata.getNamespace(), "");
+        boolean[] removed = {false};
+        services.computeIfPresent(metadata.getName(), (name, current) -> {
+            ServiceEndpoints next = current.without(namespace);
+            removed[0] = next == null;
+            return next;
+        });
+        if (removed[0]) {
+            scheduleRouteRefresh();
+        }
+    }
+
+    private void update(V1Endpoints endpoints) {
+        V1ObjectMeta metadata = endpoints.getMetadata();
+        if (metadata == null || metadata.getName() == null) {
+            return;
+        }
+        String namespace = Objects.toString(metadata.getNamespace(), "");
+        List<ServiceInstance> instances = toInstances(metadata.getName(), namespace, endpoints.getSubsets());
+        boolean[] added = {false};
+        services.compute(metadata.getName(), (name, current) -> {
+            added[0] = current == null;
+            return current == null
+                    ? ServiceEndpoints.of(namespace, instances)
+                    : current.with(namespace, instances);
+        });
+        if (added[0]) {
+            scheduleRouteRefresh();
+        }
+    }
+
+    private List<ServiceInstance> toInstances(String serviceId, String namespace, List<V1EndpointSubset> subsets) {
+        if (subsets == null || subsets.isEmpty()) {
+            return List.of();
+        }
+        List<ServiceInstance> instances = new ArrayList<>();
+        Map<String, String> metadata = Map.of("namespace", namespace);
+        for (V1EndpointSubset subset : subsets) {
+            CoreV1EndpointPort port = primaryPort(subset.getPorts());
+            if (port == null || subset.getAddresses() == null) {
+                continue;
+            }
+            boolean secure = port.getPort() == 443 || "https".equalsIgnoreCase(port.getName());
+            for (V1EndpointAddress address : subset.getAddresses()) {
+                String instanceId = address.getTargetRef() != null && address.getTargetRef().getUid() != null
+                        ? address.getTargetRef().getUid()
+                        : address.getIp() + ':' + port.getPort();
+                instances.add(new DefaultServiceInstance(instanceId, serviceId, address.getIp(), port.getPort(),
+                        secure, metadata));
+            }
+        }
+        return List.copyOf(instances);
+    }
+
+    private CoreV1EndpointPort primaryPort(List<CoreV1EndpointPort> ports) {
+        if (ports == null || ports.isEmpty()) {
+            return null;
+        }
+        for (CoreV1EndpointPort port : ports) {
+            if (port.getName() != null && port.getName().equals(primaryPortName)) {
+                return port;
+            }
+        }
+        return ports.get(0);
+    }
+
+    /**
+     * Coalesces a burst of service changes, such as the informer's initial list, into one refresh.
+     */
+    private void scheduleRouteRefresh() {
+        if (refreshPending.compareAndSet(false, true)) {
+            scheduler.schedule(() -> {
+                refreshPending.set(false);
+                log.info("Services changed, refreshing routes ({} services)", services.size());
+                publisher.publishEvent(new RefreshRoutesEvent(this));
+            }, routeRefreshDelay.toNanos(), TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Instances of one service per namespace, and all of them; replaced, never modified.
+     */
+    private record ServiceEndpoints(Map<String, List<ServiceInstance>> byNamespace, List<ServiceInstance> instances) {
+
+        static ServiceEndpoints of(String namespace, List<ServiceInstance> instances) {
+            return new ServiceEndpoints(Map.of(namespace, instances), instances);
+        }
+
+        ServiceEndpoints with(String namespace, List<ServiceInstance> instances) {
+            if (byNamespace.size() == 1 && byNamespace.containsKey(namespace)) {
+                return of(namespace, instances);
+            }
+            Map<String, List<ServiceInstance>> next = new HashMap<>(byNamespace);
+            next.put(namespace, instances);
+            return merged(next);
+        }
+
+        /**
+         * @return {@code null} when no namespace is left
+         */
+        ServiceEndpoints without(String namespace) {
+            if (!byNamespace.containsKey(namespace)) {
+                return this;
+            }
+            Map<String, List<ServiceInstance>> next = new HashMap<>(byNamespace);
+            next.remove(namespace);
+            return next.isEmpty() ? null : merged(next);
+        }
+
+        private static ServiceEndpoints merged(Map<String, List<ServiceInstance>> byNamespace) {
+            List<ServiceInstance> all = new ArrayList<>();
+            byNamespace.values().forEach(all::addAll);
+            return new ServiceEndpoints(Map.copyOf(byNamespace), List.copyOf(all));
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.mymicroservice.gateway.discovery;
+
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+
+/**
+ * Per-service load balancer configuration, applied to every client context by
+ * {@code EndpointCacheConfig}: instances come from {@link EndpointCache} instead of the cached
+ * discovery-client supplier. Deliberately not a {@code @Configuration}.
+ */
+public class EndpointCacheLoadBalancerConfiguration {
+
+    @Bean
+    public ServiceInstanceListSupplier endpointCacheServiceInstanceListSupplier(Environment environment,
+                                                                                EndpointCache endpointCache) {
+        return new EndpointCacheServiceInstanceListSupplier(LoadBalancerClientFactory.getName(environment),
+                endpointCache);
+    }
+}
@@ -0,0 +1,32 @@
+package com.mymicroservice.gateway.discovery;
+
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+
+/**
+ * Instances of one service straight from {@link EndpointCache}: always current, so unlike the
+ * default discovery-client supplier it needs no caching layer and serves no stale list.
+ */
+public class EndpointCacheServiceInstanceListSupplier implements ServiceInstanceListSupplier {
+
+    private final String serviceId;
+    private final EndpointCache cache;
+
+    public EndpointCacheServiceInstanceListSupplier(String serviceId, EndpointCache cache) {
+        this.serviceId = serviceId;
+        this.cache = cache;
+    }
+
+    @Override
+    public String getServiceId() {
+        return serviceId;
+    }
+
+    @Override
+    public Flux<List<ServiceInstance>> get() {
+        return Flux.defer(() -> Flux.just(cache.instances(serviceId)));
+    }
+}
@@ -0,0 +1,111 @@
+package com.mymicroservice.gateway.filter;
+
+import com.mymicroservice.gateway.config.properties.AdaptiveConcurrencyProperties;
+import com.mymicroservice.gateway.filter.concurrency.GradientLimit;
+import com.mymicroservice.gateway.filter.concurrency.RoundTrip;
+import com.mymicroservice.gateway.util.StaticJsonResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+/**
+ * Sheds load per route before downstream queues build up: every proxied route has a
+ * {@link GradientLimit} on its in-flight requests, and a request over the limit gets {@code 503}
+ * with {@code Retry-After: 1} immediately instead of waiting for a pooled connection. The limit
+ * follows the route's latency (see {@link GradientLimit}), so it opens up while the service keeps
+ * up and closes as soon as latency rises - well before the circuit breaker sees failures.
+ *
+ * <p>The permit covers the whole request, but only the routing call is sampled
+ * ({@link RoundTripSampleFilter}): cache hits, coalesced responses and fallbacks or 503s the
+ * gateway writes itself release it without moving the limit.
+ *
+ * <p>Metrics, tag {@code route}:
+ * <ul>
+ *   <li>{@code gateway.concurrency.limit} - gauge, current limit</li>
+ *   <li>{@code gateway.concurrency.inflight} - gauge, requests in flight</li>
+ *   <li>{@code gateway.concurrency.rejected} - counter, requests shed with 503</li>
+ * </ul>
+ */
+@Component
+public class AdaptiveConcurrencyGatewayFilter implements GlobalFilter, Ordered {
+
+    private static final StaticJsonResponse SHED = StaticJsonResponse.of(HttpStatus.SERVICE_UNAVAILABLE,
+            "Service Unavailable", "Too many concurrent requests to the service, retry later");
+
+    private final AdaptiveConcurrencyProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, RouteLimit> limits = new ConcurrentHashMap<>();
+
+    public AdaptiveConcurrencyGatewayFilter(AdaptiveConcurrencyProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * After {@link JwtAuthGatewayFilter} and {@link RateLimitGatewayFilter}: requests they reject
+     * never count against the limit.
+     */
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE + 2;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+        if (!properties.isEnabled() || route == null || "forward".equals(route.getUri().getScheme())) {
+            return chain.filter(exchange);
+        }
+        RouteLimit routeLimit = limits.computeIfAbsent(route.getId(), this::routeLimit);
+        GradientLimit limit = routeLimit.limit();
+        if (!limit.tryAcquire()) {
+            routeLimit.rejected().increment();
+            exchange.getResponse().getHeaders().set(HttpHeaders.RETRY_AFTER, "1");
+            return SHED.writeTo(exchange);
+        }
+        RoundTrip roundTrip = RoundTrip.start(exchange);
+        return chain.filter(exchange)
+                .doFinally(signal -> {
+                    if (signal == SignalType.CANCEL || !roundTrip.isRecorded()) {
+                        limit.cancel();
+                        return;
+                    }
+                    limit.release(roundTrip.rttNanos(), roundTrip.failed(), System.nanoTime());
+                });
+    }
+
+    private RouteLimit routeLimit(String routeId) {
+        GradientLimit limit = new GradientLimit(properties, System.nanoTime());
+        Gauge.builder("gateway.concurrency.limit", limit, GradientLimit::limit)
+                .description("Adaptive in-flight request limit of the route")
+                .tag("route", routeId)
+                .register(meterRegistry);
+        Gauge.builder("gateway.concurrency.inflight", limit, GradientLimit::inFlight)
+                .description("Requests of the route currently in flight")
+                .tag("route", routeId)
+                .register(meterRegistry);
+        Counter rejected = Counter.builder("gateway.concurrency.rejected")
+                .description("Requests shed with 503 over the adaptive limit")
+                .tag("route", routeId)
+                .register(meterRegistry);
+        return new RouteLimit(limit, rejected);
+    }
+
+    private record RouteLimit(GradientLimit limit, Counter rejected) {
+    }
+}
@@ -0,0 +1,61 @@
+package com.mymicroservice.gateway.filter;
+
+import com.mymicroservice.gateway.filter.bulkhead.Bulkhead;
+import com.mymicroservice.gateway.filter.bulkhead.BulkheadFullException;
+import com.mymicroservice.gateway.util.StaticJsonResponse;
+import com.mymicroservice.gateway.webclient.DownstreamBulkheads;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+/**
+ * Runs routed requests inside the {@link DownstreamBulkheads bulkhead} of their route's service.
+ * When the bulkhead is still full after {@code max-wait} the request gets {@code 503} with
+ * {@code Retry-After: 1} and never reaches the service; routes to other services are unaffected.
+ */
+@Component
+public class BulkheadGatewayFilter implements GlobalFilter, Ordered {
+
+    private static final StaticJsonResponse FULL = StaticJsonResponse.of(HttpStatus.SERVICE_UNAVAILABLE,
+            "Service Unavailable", BulkheadFullException.CLIENT_MESSAGE);
+
+    private final DownstreamBulkheads bulkheads;
+
+    public BulkheadGatewayFilter(DownstreamBulkheads bulkheads) {
+        this.bulkheads = bulkheads;
+    }
+
+    /**
+     * After {@link AdaptiveConcurrencyGatewayFilter}: a request shed there does not take a slot.
+     */
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE + 3;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+        if (route == null) {
+            return chain.filter(exchange);
+        }
+        Bulkhead bulkhead = bulkheads.forRoute(route).orElse(null);
+        if (bulkhead == null) {
+            return chain.filter(exchange);
+        }
+        return bulkhead.execute(chain.filter(exchange))
+                .onErrorResume(BulkheadFullException.class, e -> {
+                    bulkheads.rejected(bulkhead);
+                    exchange.getResponse().getHeaders().set(HttpHeaders.RETRY_AFTER, "1");
+                    return FULL.writeTo(exchange);
+                });
+    }
+}
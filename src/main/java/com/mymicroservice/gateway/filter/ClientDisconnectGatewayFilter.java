@@ -0,0 +1,64 @@
+package com.mymicroservice.gateway.filter;
+
+import com.mymicroservice.gateway.webclient.DownstreamDeadlines;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.CLIENT_RESPONSE_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+/**
+ * Counts routed requests whose client went away before the service answered.
+ *
+ * <p>Reactor Netty cancels the request's subscription as soon as the client connection (or its
+ * HTTP/2 stream) closes; the cancel travels down the filter chain to the routing filter, which
+ * aborts the upstream call. This filter only observes that cancel: it is counted by
+ * {@link DownstreamDeadlines} when routing had started and no response from the service had
+ * arrived yet. Requests answered without a call - a cache hit, a coalesced waiter - are not.
+ */
+@Component
+public class ClientDisconnectGatewayFilter implements GlobalFilter, Ordered {
+
+    /**
+     * Set by {@link RoundTripSampleFilter} just before the routing filters; one flag per request,
+     * shared by the hedged attempts, which copy the attributes.
+     */
+    public static final String ROUTING_STARTED_ATTR = ClientDisconnectGatewayFilter.class.getName() + ".routingStarted";
+
+    private final DownstreamDeadlines deadlines;
+
+    public ClientDisconnectGatewayFilter(DownstreamDeadlines deadlines) {
+        this.deadlines = deadlines;
+    }
+
+    /**
+     * After {@link BulkheadGatewayFilter}: a request cancelled while still waiting for a slot had
+     * not reached the service and is not counted.
+     */
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE + 4;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+        if (route == null) {
+            return chain.filter(exchange);
+        }
+        AtomicBoolean routingStarted = new AtomicBoolean();
+        exchange.getAttributes().put(ROUTING_STARTED_ATTR, routingStarted);
+        return chain.filter(exchange).doOnCancel(() -> {
+            if (routingStarted.get() && exchange.getAttribute(CLIENT_RESPONSE_ATTR) == null) {
+                deadlines.cancelled("route", route.getId());
+            }
+        });
+    }
+}
@@ -0,0 +1,103 @@
+package com.mymicroservice.gateway.filter;
+
+import com.mymicroservice.gateway.reload.GatewayConfigHolder;
+import com.mymicroservice.gateway.util.CorsPolicy;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.cors.reactive.CorsUtils;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Terminates CORS preflights before anything else runs: no Spring Security, no route lookup,
+ * no downstream call. The response comes from {@link CorsPolicy#preflight} of the current
+ * configuration snapshot, cached per (origin, requested method, requested headers).
+ *
+ * <p>Metrics:
+ * <ul>
+ *   <li>{@code gateway.cors.preflight} - timer, tag {@code outcome=allowed|rejected}</li>
+ *   <li>{@code gateway.requests} - counter, tag {@code type=preflight|actual}; the ratio of the
+ *       two is the share of traffic spent on preflights</li>
+ * </ul>
+ */
+@Component
+public class CorsPreflightWebFilter implements WebFilter, Ordered {
+
+    private final GatewayConfigHolder gatewayConfigHolder;
+    private final Timer allowedTimer;
+    private final Timer rejectedTimer;
+    private final Counter preflightRequests;
+    private final Counter actualRequests;
+
+    public CorsPreflightWebFilter(GatewayConfigHolder gatewayConfigHolder, MeterRegistry meterRegistry) {
+        this.gatewayConfigHolder = gatewayConfigHolder;
+        this.allowedTimer = preflightTimer(meterRegistry, "allowed");
+        this.rejectedTimer = preflightTimer(meterRegistry, "rejected");
+        this.preflightRequests = requestCounter(meterRegistry, "preflight");
+        this.actualRequests = requestCounter(meterRegistry, "actual");
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        if (!CorsUtils.isPreFlightRequest(request)) {
+            actualRequests.increment();
+            return chain.filter(exchange);
+        }
+        preflightRequests.increment();
+        long start = System.nanoTime();
+
+        HttpHeaders requestHeaders = request.getHeaders();
+        CorsPolicy.Preflight preflight = gatewayConfigHolder.current(exchange).corsPolicy().preflight(
+                requestHeaders.getOrigin(),
+                requestHeaders.getFirst(HttpHeaders.ACCESS_CONTROL_REQUEST_METHOD),
+                requestedHeaders(requestHeaders));
+
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(preflight.allowed() ? HttpStatus.OK : HttpStatus.FORBIDDEN);
+        response.getHeaders().putAll(preflight.headers());
+        Timer timer = preflight.allowed() ? allowedTimer : rejectedTimer;
+        return response.setComplete()
+                .doFinally(signal -> timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS));
+    }
+
+    private static String requestedHeaders(HttpHeaders requestHeaders) {
+        List<String> values = requestHeaders.get(HttpHeaders.ACCESS_CONTROL_REQUEST_HEADERS);
+        if (values == null || values.isEmpty()) {
+            return null;
+        }
+        return values.size() == 1 ? values.get(0) : String.join(",", values);
+    }
+
+    private static Timer preflightTimer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder("gateway.cors.preflight")
+                .description("Time to answer a CORS preflight at the gateway")
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private static Counter requestCounter(MeterRegistry meterRegistry, String type) {
+        return Counter.builder("gateway.requests")
+                .description("Requests received by the gateway, CORS preflights counted separately")
+                .tag("type", type)
+                .register(meterRegistry);
+    }
+}
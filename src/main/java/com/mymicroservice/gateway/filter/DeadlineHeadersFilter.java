@@ -0,0 +1,67 @@
+package com.mymicroservice.gateway.filter;
+
+import com.mymicroservice.gateway.webclient.DownstreamDeadlines;
+import org.springframework.cloud.gateway.config.HttpClientProperties;
+import org.springframework.cloud.gateway.filter.headers.HttpHeadersFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+
+import java.time.Duration;
+
+import static org.springframework.cloud.gateway.support.RouteMetadataUtils.RESPONSE_TIMEOUT_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+/**
+ * Adds the {@link DownstreamDeadlines deadline} header to routed requests: now plus the route's
+ * response timeout (metadata {@code response-timeout}, otherwise
+ * {@code spring.cloud.gateway.server.webflux.httpclient.response-timeout}), or the client's own
+ * deadline when that one is earlier.
+ *
+ * <p>Applied by the routing filters as the request is sent, so each retry or hedged attempt gets
+ * the full timeout it is actually given. Without a timeout or a client deadline the header is
+ * removed.
+ */
+@Component
+public class DeadlineHeadersFilter implements HttpHeadersFilter {
+
+    private final DownstreamDeadlines deadlines;
+    private final HttpClientProperties httpClientProperties;
+
+    public DeadlineHeadersFilter(DownstreamDeadlines deadlines, HttpClientProperties httpClientProperties) {
+        this.deadlines = deadlines;
+        this.httpClientProperties = httpClientProperties;
+    }
+
+    @Override
+    public HttpHeaders filter(HttpHeaders input, ServerWebExchange exchange) {
+        if (!deadlines.isEnabled()) {
+            return input;
+        }
+        Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+        long deadline = deadlines.deadline(deadlines.incoming(input), responseTimeout(route));
+        HttpHeaders filtered = new HttpHeaders();
+        filtered.addAll(input);
+        if (deadline == DownstreamDeadlines.NONE) {
+            filtered.remove(deadlines.header());
+        } else {
+            filtered.set(deadlines.header(), Long.toString(deadline));
+        }
+        return filtered;
+    }
+
+    /**
+     * Same resolution as {@code NettyRoutingFilter}: a negative route timeout disables it.
+     */
+    private Duration responseTimeout(Route route) {
+        Object routeTimeout = route != null ? route.getMetadata().get(RESPONSE_TIMEOUT_ATTR) : null;
+        if (routeTimeout == null) {
+            return httpClientProperties.getResponseTimeout();
+        }
+        long millis = routeTimeout instanceof Number number
+                ? number.longValue()
+                : Long.parseLong(routeTimeout.toString());
+        return millis >= 0 ? Duration.ofMillis(millis) : null;
+    }
+}
@@ -0,0 +1,105 @@
+package com.mymicroservice.gateway.filter;
+
+import com.mymicroservice.gateway.config.properties.DownstreamServicesProperties;
+import com.mymicroservice.gateway.webclient.DownstreamProtocols;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.gateway.config.HttpClientProperties;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.NettyRoutingFilter;
+import org.springframework.cloud.gateway.filter.headers.HttpHeadersFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+
+import java.net.URI;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.isAlreadyRouted;
+
+/**
+ * Routes requests to services configured with an HTTP/2 {@code services.<name>.protocol}.
+ *
+ * <p>Runs just before the stock {@link NettyRoutingFilter} and only picks up requests whose target
+ * {@code host:port} equals a {@code services.<name>.url} with protocol {@code H2C} or {@code H2};
+ * it marks them routed, so the stock filter skips them. Everything else - HTTP/1.1 services,
+ * unknown hosts - passes through untouched. The HTTP/2 client is derived from the gateway
+ * {@code HttpClient} bean, so {@code spring.cloud.gateway.server.webflux.httpclient.*} settings
+ * (pool, TLS, timeouts, per-route metadata) still apply.
+ */
+@Component
+@Slf4j
+public class Http2RoutingFilter extends NettyRoutingFilter {
+
+    private final HttpClient httpClient;
+    private final Map<String, DownstreamServicesProperties.Protocol> http2Targets;
+    private final Map<DownstreamServicesProperties.Protocol, HttpClient> http2Clients =
+            new EnumMap<>(DownstreamServicesProperties.Protocol.class);
+
+    public Http2RoutingFilter(HttpClient httpClient,
+                              ObjectProvider<List<HttpHeadersFilter>> headersFiltersProvider,
+                              HttpClientProperties properties,
+                              DownstreamServicesProperties services) {
+        super(httpClient, headersFiltersProvider, properties);
+        this.httpClient = httpClient;
+        this.http2Targets = http2Targets(services);
+        http2Targets.values().forEach(protocol ->
+                http2Clients.computeIfAbsent(protocol, p -> DownstreamProtocols.apply(httpClient, p)));
+    }
+
+    @Override
+    public int getOrder() {
+        return super.getOrder() - 1;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        if (http2Targets.isEmpty() || isAlreadyRouted(exchange) || protocolOf(exchange) == null) {
+            return chain.filter(exchange);
+        }
+        return super.filter(exchange, chain);
+    }
+
+    @Override
+    protected HttpClient getHttpClient(Route route, ServerWebExchange exchange) {
+        HttpClient routeClient = super.getHttpClient(route, exchange);
+        DownstreamServicesProperties.Protocol protocol = protocolOf(exchange);
+        if (protocol == null) {
+            return routeClient;
+        }
+        // Without per-route timeouts super returns the shared client: reuse the prebuilt one
+        return routeClient == httpClient ? http2Clients.get(protocol) : DownstreamProtocols.apply(routeClient, protocol);
+    }
+
+    /**
+     * @return the HTTP/2 protocol configured for the request target, or {@code null} for HTTP/1.1
+     */
+    public DownstreamServicesProperties.Protocol protocolOf(ServerWebExchange exchange) {
+        URI requestUrl = exchange.getAttribute(GATEWAY_REQUEST_URL_ATTR);
+        if (requestUrl == null || requestUrl.getHost() == null) {
+            return null;
+        }
+        return http2Targets.get(DownstreamProtocols.authority(requestUrl));
+    }
+
+    private static Map<String, DownstreamServicesProperties.Protocol> http2Targets(
+            DownstreamServicesProperties services) {
+        Map<String, DownstreamServicesProperties.Protocol> targets = new HashMap<>();
+        services.forEach((name, service) -> {
+            if (service == null || service.getUrl() == null || !DownstreamProtocols.isHttp2(service.getProtocol())) {
+                return;
+            }
+            DownstreamProtocols.validate(name, service);
+            URI url = URI.create(service.getUrl());
+            targets.put(DownstreamProtocols.authority(url), service.getProtocol());
+            log.info("Gateway routes to {} use {}", DownstreamProtocols.authority(url), service.getProtocol());
+        });
+        return Map.copyOf(targets);
+    }
+}
@@ -1,60 +1,39 @@
 package com.mymicroservice.gateway.filter;
 
+import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.stereotype.Component;
 import org.springframework.web.server.ServerWebExchange;
 import org.springframework.web.server.WebFilter;
 import org.springframework.web.server.WebFilterChain;
 import reactor.core.publisher.Mono;
 import com.mymicroservice.gateway.util.MdcUtil;
-import reactor.util.context.Context;
-
-import java.util.UUID;
+import com.mymicroservice.gateway.util.TraceIdGenerator;
 
 //  WebFilter - для всех requests к контроллерам
+// Запрос не мутируется: traceId хранится в атрибуте exchange, исходящие заголовки
+// добавляет JwtAuthGatewayFilter (маршруты) или WebClient (контроллеры) одной мутацией.
 @Component
+@RequiredArgsConstructor
 public class InternalTraceIdWebFilter implements WebFilter {
 
+    private final TraceIdGenerator traceIdGenerator;
+
     @Value("${spring.application.name}")
     private String serviceName;
 
     @Override
     public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
-        ServerHttpRequest request = exchange.getRequest();
-
-        // Getting or generating TraceId
-        String traceId = request.getHeaders().getFirst(MdcUtil.TRACE_ID_HEADER);
-        if (traceId == null || traceId.isBlank()) {
-            traceId = UUID.randomUUID().toString();
-        }
+        // Getting or generating TraceId (stored as exchange attribute)
+        String traceId = MdcUtil.resolveTraceId(exchange, traceIdGenerator);
 
         // Adding it to the response headers
         exchange.getResponse().getHeaders().set(MdcUtil.TRACE_ID_HEADER, traceId);
 
-        // Мутируем запрос с traceId
-        ServerHttpRequest mutatedRequest = request.mutate()
-                .header(MdcUtil.TRACE_ID_HEADER, traceId)
-                .build();
-
-        ServerWebExchange mutatedExchange = exchange.mutate()
-                .request(mutatedRequest)
-                .build();
-
         // Using contextWrite to pass values.
-        String finalTraceId = traceId;
-        return chain.filter(mutatedExchange)
-                .contextWrite(context -> {
-                    // Добавляем значения в контекст Reactor
-                    Context updatedContext = context.put(MdcUtil.TRACE_ID_KEY, finalTraceId)
-                            .put(MdcUtil.SERVICE_NAME_KEY, serviceName);
-
-                    // Также устанавливаем MDC для текущего потока
-                    MdcUtil.setMdc(finalTraceId, serviceName);
-
-                    return updatedContext;
-                })
-                .doFinally(signalType -> MdcUtil.clearMdc());
+        // MDC заполняется из контекста Reactor автоматически (context-propagation, MdcThreadLocalAccessor)
+        return chain.filter(exchange)
+                .contextWrite(context -> context.put(MdcUtil.TRACE_ID_KEY, traceId)
+                        .put(MdcUtil.SERVICE_NAME_KEY, serviceName));
     }
 }
-
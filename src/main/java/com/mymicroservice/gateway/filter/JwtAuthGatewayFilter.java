@@ -1,7 +1,10 @@
 package com.mymicroservice.gateway.filter;
 
+import com.mymicroservice.gateway.reload.GatewayConfigHolder;
+import com.mymicroservice.gateway.util.GatewayPathMatcher;
 import com.mymicroservice.gateway.util.MdcUtil;
-import com.mymicroservice.gateway.config.properties.GatewayCustomProperties;
+import com.mymicroservice.gateway.util.TraceIdGenerator;
+import io.micrometer.context.ContextSnapshot;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -14,17 +17,24 @@ import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.stereotype.Component;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
-import reactor.util.context.Context;
-
-import java.util.List;
-import java.util.UUID;
 
+/**
+ * Adds trace and internal-call headers to routed requests.
+ *
+ * <p>The Reactor context ({@code traceId}, {@code serviceName}) is written once by
+ * {@link InternalTraceIdWebFilter}, which wraps every request including routed ones; MDC is
+ * filled from it only while this filter runs ({@link MdcUtil#mdcScope}) and put back afterwards.
+ */
 @Component
 @Slf4j
 @RequiredArgsConstructor
 public class JwtAuthGatewayFilter implements GlobalFilter, Ordered {
 
-    private final GatewayCustomProperties gatewayCustomProperties;
+    private static final String INTERNAL_CALL_HEADER = "X-Internal-Call";
+    private static final String SOURCE_SERVICE_HEADER = "X-Source-Service";
+
+    private final GatewayConfigHolder gatewayConfigHolder;
+    private final TraceIdGenerator traceIdGenerator;
 
     @Value("${spring.application.name}")
     private String serviceName;
@@ -36,45 +46,44 @@ public class JwtAuthGatewayFilter implements GlobalFilter, Ordered {
 
     @Override
     public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
-        ServerHttpRequest request = exchange.getRequest();
+        return Mono.deferContextual(context -> {
+            try (ContextSnapshot.Scope ignored = MdcUtil.mdcScope(context)) {
+                return authenticate(exchange, chain);
+            }
+        });
+    }
 
-        // Getting or generating traceId
-        String traceId = getOrGenerateTraceId(request);
+    /**
+     * Logs the request and picks the way it is forwarded; runs with the request's MDC.
+     *
+     * @param exchange the server web exchange
+     * @param chain    the filter chain
+     * @return Mono<Void> result
+     */
+    private Mono<Void> authenticate(ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
 
-        // Set MDC
-        MdcUtil.setMdc(traceId, serviceName);
+        // Trace id resolved once per request (InternalTraceIdWebFilter usually did it already)
+        String traceId = MdcUtil.resolveTraceId(exchange, traceIdGenerator);
 
         logRequest(request);
         addTraceIdToResponse(exchange, traceId);
 
-        // Handle OPTIONS requests (CORS preflight)
+        // Handle OPTIONS requests (CORS preflights never get here, CorsPreflightWebFilter answers them)
         if (isOptionsRequest(request.getMethod())) {
             return handleOptionsRequest(exchange, chain);
         }
 
         String path = request.getURI().getPath();
+        GatewayPathMatcher gatewayPathMatcher = gatewayConfigHolder.current(exchange).pathMatcher();
 
         // Skip JWT validation for public paths
-        if (isPublicPath(path)) {
+        if (gatewayPathMatcher.isPublicPath(path)) {
             return handlePublicPath(exchange, chain, traceId, path);
         }
 
         // Process request with authentication
-        return processAuthenticatedRequest(exchange, chain, traceId, path);
-    }
-
-    /**
-     * Gets or generates a trace ID from the request headers.
-     *
-     * @param request the HTTP request
-     * @return existing traceId from header or newly generated UUID
-     */
-    private String getOrGenerateTraceId(ServerHttpRequest request) {
-        String traceId = request.getHeaders().getFirst(MdcUtil.TRACE_ID_HEADER);
-        if (traceId == null || traceId.isBlank()) {
-            traceId = UUID.randomUUID().toString();
-        }
-        return traceId;
+        return processAuthenticatedRequest(exchange, chain, traceId, path, gatewayPathMatcher);
     }
 
     /**
@@ -87,17 +96,20 @@ public class JwtAuthGatewayFilter implements GlobalFilter, Ordered {
     }
 
     /**
-     * Adds trace ID header to the response.
+     * Adds trace ID header to the response, unless the web filter already did.
      *
      * @param exchange the server web exchange
      * @param traceId  the trace ID
      */
     private void addTraceIdToResponse(ServerWebExchange exchange, String traceId) {
-        exchange.getResponse().getHeaders().set(MdcUtil.TRACE_ID_HEADER, traceId);
+        HttpHeaders headers = exchange.getResponse().getHeaders();
+        if (!traceId.equals(headers.getFirst(MdcUtil.TRACE_ID_HEADER))) {
+            headers.set(MdcUtil.TRACE_ID_HEADER, traceId);
+        }
     }
 
     /**
-     * Checks if the request method is OPTIONS (CORS preflight).
+     * Checks if the request method is OPTIONS.
      *
      * @param method the HTTP method
      * @return true if OPTIONS request
@@ -107,31 +119,14 @@ public class JwtAuthGatewayFilter implements GlobalFilter, Ordered {
     }
 
     /**
-     * Handles OPTIONS request (CORS preflight) - passes through without authentication.
+     * Handles a non-preflight OPTIONS request - passes through without authentication.
      *
      * @param exchange the server web exchange
      * @param chain    the filter chain
      * @return Mono<Void> result
      */
     private Mono<Void> handleOptionsRequest(ServerWebExchange exchange, GatewayFilterChain chain) {
-        return chain.filter(exchange)
-                .contextWrite(MdcUtil.createReactorContext())
-                .doFinally(signalType -> MdcUtil.clearMdc());
-    }
-
-    /**
-     * Checks if the request path is public (doesn't require JWT validation).
-     *
-     * @param path the request path
-     * @return true if path is public
-     */
-    private boolean isPublicPath(String path) {
-        List<String> publicPaths =
-                gatewayCustomProperties.getPublicPaths() != null
-                        ? gatewayCustomProperties.getPublicPaths().getPaths()
-                        : List.of();
-
-        return publicPaths.stream().anyMatch(path::startsWith);
+        return chain.filter(exchange);
     }
 
     /**
@@ -146,15 +141,7 @@ public class JwtAuthGatewayFilter implements GlobalFilter, Ordered {
     private Mono<Void> handlePublicPath(ServerWebExchange exchange, GatewayFilterChain chain,
                                         String traceId, String path) {
         log.info("Public path: {}, skipping JWT validation", path);
-        ServerHttpRequest mutatedRequest = exchange.getRequest().mutate()
-                .header(MdcUtil.TRACE_ID_HEADER, traceId)
-                .build();
-        ServerWebExchange mutatedExchange = exchange.mutate()
-                .request(mutatedRequest)
-                .build();
-        return chain.filter(mutatedExchange)
-                .contextWrite(MdcUtil.createReactorContext())
-                .doFinally(signalType -> MdcUtil.clearMdc());
+        return chain.filter(withOutboundHeaders(exchange, traceId, false));
     }
 
     /**
@@ -164,65 +151,46 @@ public class JwtAuthGatewayFilter implements GlobalFilter, Ordered {
      * @param chain    the filter chain
      * @param traceId  the trace ID for logging
      * @param path     the request path
+     * @param gatewayPathMatcher the request's public/internal paths
      * @return Mono<Void> result
      */
     private Mono<Void> processAuthenticatedRequest(ServerWebExchange exchange, GatewayFilterChain chain,
-                                                   String traceId, String path) {
-        ServerHttpRequest mutatedRequest;
+                                                   String traceId, String path,
+                                                   GatewayPathMatcher gatewayPathMatcher) {
+        // Internal service-to-service calls and Bearer calls are marked as internal;
+        // anything else is delegated to Spring Security (401 via CustomAuthenticationEntryPoint)
+        boolean internalCall = gatewayPathMatcher.isInternalPath(path)
+                || isValidJwtToken(exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION));
 
-        // Check if this is an internal service-to-service call
-        if (isInternalPath(path)) {
-            mutatedRequest = buildInternalRequest(exchange.getRequest(), traceId);
-        } else {
-            String authHeader = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
-            if (isValidJwtToken(authHeader)) {
-                mutatedRequest = buildAuthenticatedRequest(exchange.getRequest(), authHeader, traceId);
-            } else {
-                // Delegate authentication to Spring Security (401 via CustomAuthenticationEntryPoint)
-                mutatedRequest = exchange.getRequest().mutate()
-                        .header(MdcUtil.TRACE_ID_HEADER, traceId)
-                        .build();
-            }
-        }
-
-        ServerWebExchange mutatedExchange = exchange.mutate()
-                .request(mutatedRequest)
-                .build();
-
-        return forwardRequest(mutatedExchange, chain, traceId);
-    }
-
-    /**
-     * Checks if the path is an internal service-to-service path.
-     *
-     * @param path the request path
-     * @return true if internal path
-     */
-    private boolean isInternalPath(String path) {
-        List<String> internalPaths =
-                gatewayCustomProperties.getInternalPaths() != null
-                        ? gatewayCustomProperties.getInternalPaths().getPaths()
-                        : List.of();
-
-        return internalPaths.stream().anyMatch(configuredPath -> matchesPath(path, configuredPath));
-    }
-
-    private boolean matchesPath(String path, String configuredPath) {
-        return path.equals(configuredPath) || path.startsWith(configuredPath + "/");
+        return chain.filter(withOutboundHeaders(exchange, traceId, internalCall));
     }
 
     /**
-     * Builds request for internal service-to-service call (no JWT validation required).
+     * Adds every outbound header in a single request mutation. The Authorization header is
+     * forwarded as is, so it is not re-set. Returns the exchange unchanged when the request
+     * already carries the trace ID and no internal headers are needed.
      *
-     * @param request the original request
-     * @param traceId the trace ID
-     * @return mutated request with internal call headers
+     * @param exchange     the server web exchange
+     * @param traceId      the trace ID
+     * @param internalCall whether to add X-Internal-Call / X-Source-Service
+     * @return exchange with the outbound headers
      */
-    private ServerHttpRequest buildInternalRequest(ServerHttpRequest request, String traceId) {
-        return request.mutate()
-                .header("X-Internal-Call", "true")
-                .header("X-Source-Service", serviceName)
-                .header(MdcUtil.TRACE_ID_HEADER, traceId)
+    private ServerWebExchange withOutboundHeaders(ServerWebExchange exchange, String traceId, boolean internalCall) {
+        ServerHttpRequest request = exchange.getRequest();
+        if (!internalCall && traceId.equals(request.getHeaders().getFirst(MdcUtil.TRACE_ID_HEADER))) {
+            return exchange;
+        }
+        ServerHttpRequest mutatedRequest = request.mutate()
+                .headers(headers -> {
+                    headers.set(MdcUtil.TRACE_ID_HEADER, traceId);
+                    if (internalCall) {
+                        headers.set(INTERNAL_CALL_HEADER, "true");
+                        headers.set(SOURCE_SERVICE_HEADER, serviceName);
+                    }
+                })
+                .build();
+        return exchange.mutate()
+                .request(mutatedRequest)
                 .build();
     }
 
@@ -235,43 +203,4 @@ public class JwtAuthGatewayFilter implements GlobalFilter, Ordered {
     private boolean isValidJwtToken(String authHeader) {
         return authHeader != null && authHeader.startsWith("Bearer ");
     }
-
-    /**
-     * Builds request with JWT token for authenticated service call.
-     *
-     * @param request    the original request
-     * @param authHeader the Authorization header with JWT
-     * @param traceId    the trace ID
-     * @return mutated request with authentication headers
-     */
-    private ServerHttpRequest buildAuthenticatedRequest(ServerHttpRequest request, String authHeader, String traceId) {
-        return request.mutate()
-                .header(HttpHeaders.AUTHORIZATION, authHeader)
-                .header("X-Internal-Call", "true")
-                .header("X-Source-Service", serviceName)
-                .header(MdcUtil.TRACE_ID_HEADER, traceId)
-                .build();
-    }
-
-    /**
-     * Forwards request to the next filter chain with MDC context propagation.
-     *
-     * @param exchange the server web exchange
-     * @param chain    the filter chain
-     * @param traceId  the trace ID for context restoration
-     * @return Mono<Void> result
-     */
-    private Mono<Void> forwardRequest(ServerWebExchange exchange, GatewayFilterChain chain, String traceId) {
-        return chain.filter(exchange)
-                .contextWrite(MdcUtil.createReactorContext())
-                .doOnEach(signal -> {
-                    if (signal.isOnNext() || signal.isOnComplete() || signal.isOnError()) {
-                        MdcUtil.restoreMdc(Context.of(
-                                MdcUtil.TRACE_ID_KEY, traceId,
-                                MdcUtil.SERVICE_NAME_KEY, serviceName
-                        ));
-                    }
-                })
-                .doFinally(signalType -> MdcUtil.clearMdc());
-    }
 }
@@ -0,0 +1,41 @@
+package com.mymicroservice.gateway.filter;
+
+import com.mymicroservice.gateway.loadbalancer.InFlightCall;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.ReactiveLoadBalancerClientFilter;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_SCHEME_PREFIX_ATTR;
+
+/**
+ * Frees the instance's in-flight slot of a {@code lb://} call that is cancelled - client gone,
+ * hedge lost, TimeLimiter timeout - which {@link ReactiveLoadBalancerClientFilter} never reports
+ * to the load balancer. Runs just before it, once per retry or hedged attempt.
+ */
+@Component
+public class LoadBalancedCallFilter implements GlobalFilter, Ordered {
+
+    @Override
+    public int getOrder() {
+        return ReactiveLoadBalancerClientFilter.LOAD_BALANCER_CLIENT_FILTER_ORDER - 1;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        URI url = exchange.getAttribute(GATEWAY_REQUEST_URL_ATTR);
+        String schemePrefix = exchange.getAttribute(GATEWAY_SCHEME_PREFIX_ATTR);
+        if (url == null || !"lb".equals(url.getScheme()) && !"lb".equals(schemePrefix)) {
+            return chain.filter(exchange);
+        }
+        InFlightCall call = new InFlightCall();
+        call.addTo(exchange.getAttributes());
+        return chain.filter(exchange).doOnCancel(call::cancel);
+    }
+}
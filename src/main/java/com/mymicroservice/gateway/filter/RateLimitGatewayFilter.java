@@ -0,0 +1,122 @@
+package com.mymicroservice.gateway.filter;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.mymicroservice.gateway.config.properties.RateLimitProperties;
+import com.mymicroservice.gateway.filter.ratelimit.GcraLimiter;
+import com.mymicroservice.gateway.filter.ratelimit.SubjectOrIpKeyResolver;
+import com.mymicroservice.gateway.util.StaticJsonResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+/**
+ * Per-client rate limit of routed requests, local to this gateway instance: limits come from
+ * {@code gateway.rate-limit.routes.<route id>} (or {@code default-limit}), clients are keyed by
+ * {@link SubjectOrIpKeyResolver}. Over the limit the request gets {@code 429} with
+ * {@code Retry-After} and never reaches the service.
+ *
+ * <p>Client state is one {@link AtomicLong} per (route, key) updated lock-free by
+ * {@link GcraLimiter}, in a table bounded by {@code max-keys} that forgets clients idle for
+ * {@code idle-timeout}.
+ *
+ * <p>Metrics: {@code gateway.ratelimit.rejected} - counter, tag {@code route}; the key table is
+ * tagged {@code cache=gateway.ratelimit}.
+ */
+@Component
+public class RateLimitGatewayFilter implements GlobalFilter, Ordered {
+
+    public static final String CACHE_NAME = "gateway.ratelimit";
+
+    private static final StaticJsonResponse TOO_MANY_REQUESTS =
+            StaticJsonResponse.of(HttpStatus.TOO_MANY_REQUESTS, "Too Many Requests", "Rate limit exceeded");
+
+    private final boolean enabled;
+    private final Map<String, GcraLimiter> routeLimiters = new HashMap<>();
+    private final GcraLimiter defaultLimiter;
+    private final SubjectOrIpKeyResolver keyResolver;
+    private final Cache<String, AtomicLong> clients;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Counter> rejected = new ConcurrentHashMap<>();
+
+    public RateLimitGatewayFilter(RateLimitProperties properties, SubjectOrIpKeyResolver keyResolver,
+                                  MeterRegistry meterRegistry) {
+        this.enabled = properties.isEnabled();
+        properties.getRoutes().forEach((routeId, limit) ->
+                routeLimiters.put(routeId, limiter("routes." + routeId, limit)));
+        this.defaultLimiter = properties.getDefaultLimit() != null
+                ? limiter("default-limit", properties.getDefaultLimit())
+                : null;
+        this.keyResolver = keyResolver;
+        this.meterRegistry = meterRegistry;
+        this.clients = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxKeys())
+                .expireAfterAccess(properties.getIdleTimeout())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, clients, CACHE_NAME);
+    }
+
+    /**
+     * Right after {@link JwtAuthGatewayFilter}: a rejected request skips every other filter.
+     */
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE + 1;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+        if (!enabled || route == null) {
+            return chain.filter(exchange);
+        }
+        GcraLimiter limiter = routeLimiters.getOrDefault(route.getId(), defaultLimiter);
+        if (limiter == null) {
+            return chain.filter(exchange);
+        }
+        return keyResolver.resolve(exchange).flatMap(key -> {
+            AtomicLong tat = clients.get(route.getId() + '\n' + key, k -> new AtomicLong(System.nanoTime()));
+            long waitNanos = limiter.tryAcquire(tat, System.nanoTime());
+            if (waitNanos == 0) {
+                return chain.filter(exchange);
+            }
+            rejected(route.getId()).increment();
+            long retryAfter = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+            exchange.getResponse().getHeaders().set(HttpHeaders.RETRY_AFTER, Long.toString(retryAfter));
+            return TOO_MANY_REQUESTS.writeTo(exchange);
+        });
+    }
+
+    private Counter rejected(String routeId) {
+        return rejected.computeIfAbsent(routeId, id -> Counter.builder("gateway.ratelimit.rejected")
+                .description("Requests rejected with 429 by the local rate limit")
+                .tag("route", id)
+                .register(meterRegistry));
+    }
+
+    private static GcraLimiter limiter(String name, RateLimitProperties.Limit limit) {
+        if (!(limit.getReplenishRate() > 0) || limit.getBurstCapacity() < 1) {
+            throw new IllegalStateException("gateway.rate-limit." + name
+                    + " needs a positive replenish-rate and burst-capacity of at least 1");
+        }
+        return new GcraLimiter(limit.getReplenishRate(), limit.getBurstCapacity());
+    }
+}
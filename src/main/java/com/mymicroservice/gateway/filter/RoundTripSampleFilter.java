@@ -0,0 +1,53 @@
+package com.mymicroservice.gateway.filter;
+
+import com.mymicroservice.gateway.filter.concurrency.RoundTrip;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.NettyRoutingFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Times the routing call for {@link AdaptiveConcurrencyGatewayFilter}: from just before
+ * {@link Http2RoutingFilter} and {@link NettyRoutingFilter} until the service's response headers
+ * arrive. An error, a {@code 5xx} from the service or a cancelled call (a timeout) is a failed
+ * sample; requests the gateway answers without routing leave the limit alone.
+ *
+ * <p>Also marks the request as routed for {@link ClientDisconnectGatewayFilter}.
+ */
+@Component
+public class RoundTripSampleFilter implements GlobalFilter, Ordered {
+
+    @Override
+    public int getOrder() {
+        return NettyRoutingFilter.ORDER - 2;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        AtomicBoolean routingStarted = exchange.getAttribute(ClientDisconnectGatewayFilter.ROUTING_STARTED_ATTR);
+        if (routingStarted != null) {
+            routingStarted.set(true);
+        }
+        RoundTrip roundTrip = RoundTrip.of(exchange);
+        if (roundTrip == null) {
+            return chain.filter(exchange);
+        }
+        long start = System.nanoTime();
+        // Not doFinally: that runs after AdaptiveConcurrencyGatewayFilter has already seen the signal
+        return chain.filter(exchange)
+                .doOnSuccess(ignored -> roundTrip.record(System.nanoTime() - start, isServerError(exchange)))
+                .doOnError(error -> roundTrip.record(System.nanoTime() - start, true))
+                .doOnCancel(() -> roundTrip.record(System.nanoTime() - start, true));
+    }
+
+    private static boolean isServerError(ServerWebExchange exchange) {
+        HttpStatusCode status = exchange.getResponse().getStatusCode();
+        return status != null && status.is5xxServerError();
+    }
+}
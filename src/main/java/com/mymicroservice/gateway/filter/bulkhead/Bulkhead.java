@@ -0,0 +1,143 @@
+package com.mymicroservice.gateway.filter.bulkhead;
+
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Non-blocking bulkhead: at most {@code maxConcurrentCalls} calls run at once, further calls
+ * wait in FIFO order up to {@code maxWait} and then fail with {@link BulkheadFullException}.
+ * Unlike a semaphore bulkhead, a waiting call parks no thread - it is resumed by the call that
+ * frees its slot - so it is safe on the event loop.
+ */
+public final class Bulkhead {
+
+    private static final int WAITING = 0;
+    private static final int GRANTED = 1;
+    private static final int ABANDONED = 2;
+    private static final int RELEASED = 3;
+
+    private final String name;
+    private final int maxConcurrentCalls;
+    private final Duration maxWait;
+
+    /** Guards {@link #available} and {@link #waiters}; held only to move a slot. */
+    private final Object lock = new Object();
+    private int available;
+    private final ArrayDeque<Waiter> waiters = new ArrayDeque<>();
+
+    public Bulkhead(String name, int maxConcurrentCalls, Duration maxWait) {
+        if (maxConcurrentCalls < 1) {
+            throw new IllegalArgumentException("Bulkhead '" + name + "' needs max-concurrent-calls of at least 1");
+        }
+        this.name = name;
+        this.maxConcurrentCalls = maxConcurrentCalls;
+        this.maxWait = maxWait == null ? Duration.ZERO : maxWait;
+        this.available = maxConcurrentCalls;
+    }
+
+    /**
+     * Subscribes to {@code call} once a slot is free and frees it when the call terminates or is
+     * cancelled.
+     */
+    public <T> Mono<T> execute(Mono<T> call) {
+        return Mono.defer(() -> {
+            Waiter waiter;
+            synchronized (lock) {
+                if (available > 0) {
+                    available--;
+                    waiter = null;
+                } else if (maxWait.isZero() || maxWait.isNegative()) {
+                    return Mono.error(new BulkheadFullException(name));
+                } else {
+                    waiter = new Waiter();
+                    waiters.addLast(waiter);
+                }
+            }
+            if (waiter == null) {
+                return call.doFinally(signal -> release());
+            }
+            return waiter.granted.asMono()
+                    .timeout(maxWait, Mono.defer(() -> waiter.abandon()
+                            ? Mono.error(new BulkheadFullException(name))
+                            : Mono.just(waiter)))
+                    .doOnCancel(waiter::cancel)
+                    .flatMap(granted -> call.doFinally(signal -> granted.release()));
+        });
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public int maxConcurrentCalls() {
+        return maxConcurrentCalls;
+    }
+
+    public int availableCalls() {
+        synchronized (lock) {
+            return available;
+        }
+    }
+
+    public int waitingCalls() {
+        synchronized (lock) {
+            return waiters.size();
+        }
+    }
+
+    /**
+     * Hands the slot to the oldest waiter still waiting, or returns it to the pool.
+     */
+    private void release() {
+        while (true) {
+            Waiter next;
+            synchronized (lock) {
+                next = waiters.pollFirst();
+                if (next == null) {
+                    available++;
+                    return;
+                }
+            }
+            if (next.state.compareAndSet(WAITING, GRANTED)) {
+                next.granted.tryEmitValue(next);
+                return;
+            }
+        }
+    }
+
+    private final class Waiter {
+
+        private final AtomicInteger state = new AtomicInteger(WAITING);
+        private final Sinks.One<Waiter> granted = Sinks.one();
+
+        /**
+         * @return {@code false} if the slot was granted concurrently and now belongs to the caller
+         */
+        private boolean abandon() {
+            if (!state.compareAndSet(WAITING, ABANDONED)) {
+                return false;
+            }
+            synchronized (lock) {
+                waiters.remove(this);
+            }
+            return true;
+        }
+
+        private void cancel() {
+            if (!abandon()) {
+                release();
+            }
+        }
+
+        /** Idempotent: cancellation and completion of the call may both get here. */
+        private void release() {
+            if (state.compareAndSet(GRANTED, RELEASED)) {
+                Bulkhead.this.release();
+            }
+        }
+    }
+}
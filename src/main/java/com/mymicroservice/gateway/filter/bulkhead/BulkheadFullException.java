@@ -0,0 +1,14 @@
+package com.mymicroservice.gateway.filter.bulkhead;
+
+/**
+ * A call was rejected by a full {@link Bulkhead} and never reached the service.
+ */
+public class BulkheadFullException extends RuntimeException {
+
+    /** What the client is told, both for routed requests and for the gateway's own controllers. */
+    public static final String CLIENT_MESSAGE = "Service is at its concurrent call limit, retry later";
+
+    public BulkheadFullException(String bulkheadName) {
+        super("Bulkhead '" + bulkheadName + "' is full");
+    }
+}
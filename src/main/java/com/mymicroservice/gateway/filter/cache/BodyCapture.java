@@ -0,0 +1,60 @@
+package com.mymicroservice.gateway.filter.cache;
+
+import org.springframework.core.io.buffer.DataBuffer;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Copies response body chunks as they pass through to the client, giving up once {@code limit}
+ * bytes are exceeded. The chunks themselves are not retained or released: they still belong to
+ * the response being written.
+ *
+ * <p>Not thread-safe; a body publisher signals sequentially.
+ */
+public final class BodyCapture {
+
+    private final long limit;
+    private final List<ByteBuffer> chunks = new ArrayList<>();
+    private int size;
+    private boolean overflow;
+
+    public BodyCapture(long limit) {
+        this.limit = limit;
+    }
+
+    public void append(DataBuffer buffer) {
+        if (overflow) {
+            return;
+        }
+        int length = buffer.readableByteCount();
+        if (size + (long) length > limit) {
+            overflow = true;
+            chunks.clear();
+            return;
+        }
+        ByteBuffer chunk = ByteBuffer.allocate(length);
+        buffer.toByteBuffer(buffer.readPosition(), chunk, 0, length);
+        chunks.add(chunk);
+        size += length;
+    }
+
+    public boolean isOverflow() {
+        return overflow;
+    }
+
+    /**
+     * @return the captured body in a read-only direct buffer, or {@code null} if it was too large
+     */
+    public ByteBuffer toReadOnlyDirectBuffer() {
+        if (overflow) {
+            return null;
+        }
+        ByteBuffer body = ByteBuffer.allocateDirect(size);
+        for (ByteBuffer chunk : chunks) {
+            body.put(chunk);
+        }
+        return body.flip().asReadOnlyBuffer();
+    }
+}
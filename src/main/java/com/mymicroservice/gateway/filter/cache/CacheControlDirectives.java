@@ -0,0 +1,67 @@
+package com.mymicroservice.gateway.filter.cache;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.util.StringUtils;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * The {@code Cache-Control} directives the response cache acts on (RFC 9111, section 5.2).
+ * Unknown directives are ignored; {@code -1} means "not present" for the age directives.
+ */
+public record CacheControlDirectives(boolean noStore, boolean noCache, boolean isPrivate, boolean isPublic,
+                                     boolean mustRevalidate, long maxAge, long sMaxAge) {
+
+    public static final CacheControlDirectives NONE =
+            new CacheControlDirectives(false, false, false, false, false, -1, -1);
+
+    public static CacheControlDirectives of(HttpHeaders headers) {
+        List<String> values = headers.get(HttpHeaders.CACHE_CONTROL);
+        if (values == null || values.isEmpty()) {
+            return NONE;
+        }
+        boolean noStore = false;
+        boolean noCache = false;
+        boolean isPrivate = false;
+        boolean isPublic = false;
+        boolean mustRevalidate = false;
+        long maxAge = -1;
+        long sMaxAge = -1;
+        for (String value : values) {
+            for (String directive : StringUtils.tokenizeToStringArray(value, ",")) {
+                int eq = directive.indexOf('=');
+                String name = (eq < 0 ? directive : directive.substring(0, eq)).trim().toLowerCase(Locale.ROOT);
+                String argument = eq < 0 ? null : directive.substring(eq + 1).trim();
+                switch (name) {
+                    case "no-store" -> noStore = true;
+                    // qualified no-cache/private ("no-cache=Set-Cookie") are treated as unqualified
+                    case "no-cache" -> noCache = true;
+                    case "private" -> isPrivate = true;
+                    case "public" -> isPublic = true;
+                    case "must-revalidate", "proxy-revalidate" -> mustRevalidate = true;
+                    case "max-age" -> maxAge = seconds(argument);
+                    case "s-maxage" -> sMaxAge = seconds(argument);
+                    default -> {
+                        // not relevant for a shared cache
+                    }
+                }
+            }
+        }
+        return new CacheControlDirectives(noStore, noCache, isPrivate, isPublic, mustRevalidate, maxAge, sMaxAge);
+    }
+
+    private static long seconds(String argument) {
+        if (argument == null) {
+            return -1;
+        }
+        String unquoted = argument.startsWith("\"") && argument.endsWith("\"") && argument.length() > 1
+                ? argument.substring(1, argument.length() - 1) : argument;
+        try {
+            return Math.max(0, Long.parseLong(unquoted));
+        } catch (NumberFormatException e) {
+            // invalid delta-seconds: treat as stale (RFC 9111, section 4.2.1)
+            return 0;
+        }
+    }
+}
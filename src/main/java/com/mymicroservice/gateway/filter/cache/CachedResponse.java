@@ -0,0 +1,74 @@
+package com.mymicroservice.gateway.filter.cache;
+
+import org.springframework.http.HttpHeaders;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A stored 200 response: headers as received from the service and the body in a read-only
+ * direct buffer that every hit wraps without copying.
+ *
+ * <p>{@code varyNames}/{@code varyValues} are the request headers named by the response's
+ * {@code Vary} and their values on the request that produced it; only a request with the same
+ * values may be served this entry. Times are {@link System#nanoTime()} based.
+ */
+public record CachedResponse(String routeId, HttpHeaders headers, ByteBuffer body, String etag,
+                             List<String> varyNames, List<String> varyValues,
+                             long storedAt, long freshUntil, long retainUntil) {
+
+    /** Rough per-header overhead so that header-only entries still have a weight. */
+    private static final int HEADER_OVERHEAD = 32;
+
+    public boolean isFresh(long now) {
+        return now - freshUntil < 0;
+    }
+
+    public long ageSeconds(long now) {
+        return TimeUnit.NANOSECONDS.toSeconds(Math.max(0, now - storedAt));
+    }
+
+    public boolean matchesVary(HttpHeaders requestHeaders) {
+        for (int i = 0; i < varyNames.size(); i++) {
+            if (!Objects.equals(varyValues.get(i), varyValue(requestHeaders, varyNames.get(i)))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Same response, fresh again after a successful revalidation ({@code 304} from the service).
+     */
+    public CachedResponse revalidated(long now, long freshnessNanos, long retentionNanos) {
+        return new CachedResponse(routeId, headers, body, etag, varyNames, varyValues,
+                now, now + freshnessNanos, now + freshnessNanos + retentionNanos);
+    }
+
+    /**
+     * Bytes counted against {@code gateway.response-cache.max-size}.
+     */
+    public int weight() {
+        int weight = body.capacity();
+        for (Map.Entry<String, List<String>> header : headers.headerSet()) {
+            for (String value : header.getValue()) {
+                weight += header.getKey().length() + value.length() + HEADER_OVERHEAD;
+            }
+        }
+        return weight;
+    }
+
+    /**
+     * Value of a {@code Vary}-named request header as compared between requests.
+     */
+    public static String varyValue(HttpHeaders requestHeaders, String name) {
+        List<String> values = requestHeaders.get(name);
+        if (values == null || values.isEmpty()) {
+            return null;
+        }
+        return values.size() == 1 ? values.get(0) : String.join(",", values);
+    }
+}
@@ -0,0 +1,77 @@
+package com.mymicroservice.gateway.filter.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.mymicroservice.gateway.config.properties.LastKnownGoodProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+
+import java.net.URI;
+import java.util.Set;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ORIGINAL_REQUEST_URL_ATTR;
+
+/**
+ * Last successful GET response per route, URL and credentials, kept for
+ * {@code gateway.last-known-good.max-age} regardless of its {@code Cache-Control} freshness and
+ * bounded by total size in bytes. Only read when the service is unavailable.
+ *
+ * <p>The {@code Authorization} value is part of the key, so a stored response is only ever
+ * served back to the same credentials. Store-wide Caffeine statistics are tagged
+ * {@code cache=gateway.last-known-good}.
+ */
+@Component
+public class LastKnownGoodStore {
+
+    public static final String CACHE_NAME = "gateway.last-known-good";
+    /** Marks a stored response served in place of an unavailable service. */
+    public static final String FALLBACK_HEADER = "X-Gateway-Fallback";
+
+    private final Cache<String, CachedResponse> cache;
+
+    public LastKnownGoodStore(LastKnownGoodProperties properties, MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(properties.getMaxSize().toBytes())
+                .weigher((String key, CachedResponse value) -> key.length() + value.weight())
+                .expireAfterWrite(properties.getMaxAge())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    public CachedResponse get(String key) {
+        return cache.getIfPresent(key);
+    }
+
+    public void put(String key, CachedResponse response) {
+        cache.put(key, response);
+    }
+
+    /**
+     * Key of the client request: the URL it was received with (before any path rewriting and
+     * the fallback forward) and its {@code Authorization}.
+     */
+    public static String key(String routeId, ServerWebExchange exchange) {
+        URI uri = clientUri(exchange);
+        StringBuilder key = new StringBuilder(routeId).append(' ').append(uri.getRawPath());
+        if (uri.getRawQuery() != null) {
+            key.append('?').append(uri.getRawQuery());
+        }
+        String authorization = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        if (authorization != null) {
+            key.append('\n').append(authorization);
+        }
+        return key.toString();
+    }
+
+    private static URI clientUri(ServerWebExchange exchange) {
+        Set<URI> originals = exchange.getAttribute(GATEWAY_ORIGINAL_REQUEST_URL_ATTR);
+        if (originals != null && !originals.isEmpty()) {
+            return originals.iterator().next();
+        }
+        return exchange.getRequest().getURI();
+    }
+}
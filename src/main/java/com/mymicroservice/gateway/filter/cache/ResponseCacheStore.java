@@ -0,0 +1,144 @@
+package com.mymicroservice.gateway.filter.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.mymicroservice.gateway.config.properties.ResponseCacheProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Responses cached by the {@code ResponseCache} route filter, shared by all routes and bounded
+ * by total size in bytes ({@code gateway.response-cache.max-size}). An entry expires at its
+ * {@link CachedResponse#retainUntil()}: the end of freshness, or later for responses with an
+ * {@code ETag} so that they can still be revalidated.
+ *
+ * <p>Per route ({@code route} tag):
+ * <ul>
+ *   <li>{@code gateway.response.cache.requests} - counter, {@code result=hit|miss|revalidated|bypass}</li>
+ *   <li>{@code gateway.response.cache.size} - gauge, bytes currently cached for the route</li>
+ *   <li>{@code gateway.response.cache.served} - counter, body bytes served from the cache</li>
+ * </ul>
+ * Store-wide Caffeine statistics are tagged {@code cache=gateway.response}.
+ */
+@Component
+public class ResponseCacheStore {
+
+    public static final String CACHE_NAME = "gateway.response";
+
+    public enum Result {
+        /** Served from the cache without contacting the service. */
+        HIT,
+        /** Nothing usable cached, forwarded to the service. */
+        MISS,
+        /** Stale entry confirmed by the service with {@code 304}, served from the cache. */
+        REVALIDATED,
+        /** Not cacheable (request {@code no-store}), forwarded without a lookup. */
+        BYPASS
+    }
+
+    private final Cache<String, CachedResponse> cache;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, RouteMeters> routeMeters = new ConcurrentHashMap<>();
+
+    public ResponseCacheStore(ResponseCacheProperties properties, MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(properties.getMaxSize().toBytes())
+                .weigher((String key, CachedResponse value) -> value.weight())
+                .expireAfter(new UntilRetained())
+                .removalListener((String key, CachedResponse value, RemovalCause cause) -> {
+                    if (value != null && cause != RemovalCause.REPLACED) {
+                        meters(value.routeId()).bytes.addAndGet(-value.weight());
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    public CachedResponse get(String key) {
+        return cache.getIfPresent(key);
+    }
+
+    public void put(String key, CachedResponse response) {
+        cache.asMap().compute(key, (k, previous) -> {
+            RouteMeters meters = meters(response.routeId());
+            if (previous != null) {
+                meters(previous.routeId()).bytes.addAndGet(-previous.weight());
+            }
+            meters.bytes.addAndGet(response.weight());
+            return response;
+        });
+    }
+
+    public void record(String routeId, Result result) {
+        meters(routeId).requests.get(result).increment();
+    }
+
+    public void recordServed(String routeId, long bytes) {
+        meters(routeId).served.increment(bytes);
+    }
+
+    /**
+     * Number of cached entries (for tests and diagnostics).
+     */
+    public long size() {
+        cache.cleanUp();
+        return cache.estimatedSize();
+    }
+
+    private RouteMeters meters(String routeId) {
+        return routeMeters.computeIfAbsent(routeId, id -> new RouteMeters(meterRegistry, id));
+    }
+
+    private static final class RouteMeters {
+
+        private final Map<Result, Counter> requests = new ConcurrentHashMap<>();
+        private final AtomicLong bytes = new AtomicLong();
+        private final Counter served;
+
+        private RouteMeters(MeterRegistry meterRegistry, String routeId) {
+            for (Result result : Result.values()) {
+                requests.put(result, Counter.builder("gateway.response.cache.requests")
+                        .tag("route", routeId)
+                        .tag("result", result.name().toLowerCase())
+                        .register(meterRegistry));
+            }
+            Gauge.builder("gateway.response.cache.size", bytes, AtomicLong::get)
+                    .tag("route", routeId)
+                    .baseUnit("bytes")
+                    .register(meterRegistry);
+            served = Counter.builder("gateway.response.cache.served")
+                    .tag("route", routeId)
+                    .baseUnit("bytes")
+                    .register(meterRegistry);
+        }
+    }
+
+    private static final class UntilRetained implements Expiry<String, CachedResponse> {
+
+        @Override
+        public long expireAfterCreate(String key, CachedResponse value, long currentTime) {
+            return Math.max(0, value.retainUntil() - System.nanoTime());
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, CachedResponse value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, CachedResponse value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
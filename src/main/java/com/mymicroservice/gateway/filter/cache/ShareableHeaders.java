@@ -0,0 +1,91 @@
+package com.mymicroservice.gateway.filter.cache;
+
+import com.mymicroservice.gateway.util.MdcUtil;
+import lombok.experimental.UtilityClass;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.netty.http.client.HttpClientResponse;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.CLIENT_RESPONSE_ATTR;
+
+/**
+ * Headers of a service response that may be replayed to other clients: as received from the
+ * service (before gateway and security filters added theirs), minus hop-by-hop, per-request and
+ * gateway-owned headers. {@code Content-Length} is dropped too; the replaying side sets it.
+ */
+@UtilityClass
+public class ShareableHeaders {
+
+    private static final Set<String> NOT_SHARED_HEADERS = Set.of(
+            "connection", "keep-alive", "proxy-authenticate", "proxy-authorization", "te", "trailer",
+            "transfer-encoding", "upgrade", "set-cookie", "content-length", "age",
+            MdcUtil.TRACE_ID_HEADER.toLowerCase(Locale.ROOT));
+    private static final String CORS_HEADER_PREFIX = "access-control-";
+
+    /**
+     * @param responseHeaders used when the exchange was not routed by the Netty routing filter
+     */
+    public static HttpHeaders of(ServerWebExchange exchange, HttpHeaders responseHeaders) {
+        HttpHeaders shared = new HttpHeaders();
+        if (exchange.getAttribute(CLIENT_RESPONSE_ATTR) instanceof HttpClientResponse clientResponse) {
+            clientResponse.responseHeaders().forEach(header -> addShareable(shared, header.getKey(), header.getValue()));
+        } else {
+            responseHeaders.forEach((name, values) -> values.forEach(value -> addShareable(shared, name, value)));
+        }
+        return shared;
+    }
+
+    /**
+     * Writes {@code shared} over {@code target}, replacing same-named headers except {@code Vary},
+     * whose names are merged.
+     */
+    public static void copyInto(HttpHeaders shared, HttpHeaders target) {
+        for (Map.Entry<String, List<String>> header : shared.headerSet()) {
+            String name = header.getKey();
+            if (HttpHeaders.VARY.equalsIgnoreCase(name)) {
+                mergeVary(target, header.getValue());
+            } else {
+                target.remove(name);
+                target.addAll(name, header.getValue());
+            }
+        }
+    }
+
+    private static void addShareable(HttpHeaders shared, String name, String value) {
+        String lowerCase = name.toLowerCase(Locale.ROOT);
+        if (!NOT_SHARED_HEADERS.contains(lowerCase) && !lowerCase.startsWith(CORS_HEADER_PREFIX)) {
+            shared.add(name, value);
+        }
+    }
+
+    private static void mergeVary(HttpHeaders headers, List<String> values) {
+        List<String> present = headers.getVary();
+        StringBuilder missing = null;
+        for (String value : values) {
+            for (String name : value.split(",")) {
+                String trimmed = name.trim();
+                if (trimmed.isEmpty() || containsIgnoreCase(present, trimmed)) {
+                    continue;
+                }
+                missing = missing == null ? new StringBuilder(trimmed) : missing.append(", ").append(trimmed);
+            }
+        }
+        if (missing != null) {
+            headers.add(HttpHeaders.VARY, missing.toString());
+        }
+    }
+
+    static boolean containsIgnoreCase(List<String> values, String name) {
+        for (String value : values) {
+            if (value.equalsIgnoreCase(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,143 @@
+package com.mymicroservice.gateway.filter.concurrency;
+
+import com.mymicroservice.gateway.config.properties.AdaptiveConcurrencyProperties;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Concurrency limit learned from latency, after the gradient algorithm of Netflix
+ * concurrency-limits. Per window the average RTT ({@code shortRtt}) is compared with its
+ * long-term average ({@code longRtt}):
+ *
+ * <pre>
+ * gradient = clamp(tolerance * longRtt / shortRtt, 0.5, 1.0)
+ * estimate = limit * gradient + sqrt(limit)
+ * limit    = limit * (1 - smoothing) + estimate * smoothing
+ * </pre>
+ *
+ * While latency is flat the {@code sqrt(limit)} headroom lets the limit grow; once requests
+ * start queueing downstream, {@code shortRtt} rises and the limit shrinks. A failed call (error
+ * or 5xx) in a window cuts the limit by 10%. Windows where fewer than half of the limit was
+ * used do not move it, so an idle route keeps its limit.
+ *
+ * <p>Requests only touch atomics ({@link #tryAcquire()}, {@link #release}); the thread that
+ * closes a window recomputes the limit.
+ */
+public final class GradientLimit {
+
+    private static final double BACKOFF_RATIO = 0.9;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long windowNanos;
+    private final int minWindowSamples;
+    private final double longRttFactor;
+    private final double tolerance;
+    private final double smoothing;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile int limit;
+
+    private final LongAdder rttSum = new LongAdder();
+    private final LongAdder samples = new LongAdder();
+    private final AtomicInteger peakInFlight = new AtomicInteger();
+    private volatile boolean dropped;
+    private final AtomicLong windowEnd;
+
+    /** Only read and written by the thread closing a window, under the monitor. */
+    private double estimatedLimit;
+    private double longRtt;
+
+    public GradientLimit(AdaptiveConcurrencyProperties properties, long now) {
+        this.minLimit = properties.getMinLimit();
+        this.maxLimit = properties.getMaxLimit();
+        this.windowNanos = properties.getWindow().toNanos();
+        this.minWindowSamples = properties.getMinWindowSamples();
+        this.longRttFactor = 2.0 / (properties.getLongWindow() + 1);
+        this.tolerance = properties.getRttTolerance();
+        this.smoothing = properties.getSmoothing();
+        this.estimatedLimit = Math.max(minLimit, Math.min(maxLimit, properties.getInitialLimit()));
+        this.limit = (int) estimatedLimit;
+        this.windowEnd = new AtomicLong(now + windowNanos);
+    }
+
+    /**
+     * @return {@code true} if the call may proceed; it must then be {@link #release released}
+     */
+    public boolean tryAcquire() {
+        int current = inFlight.incrementAndGet();
+        if (current > limit) {
+            inFlight.decrementAndGet();
+            return false;
+        }
+        peakInFlight.accumulateAndGet(current, Math::max);
+        return true;
+    }
+
+    /**
+     * @param rttNanos duration of the call
+     * @param failed   the call failed in a way that suggests overload (error, 5xx)
+     * @param now      {@link System#nanoTime()}
+     */
+    public void release(long rttNanos, boolean failed, long now) {
+        inFlight.decrementAndGet();
+        if (failed) {
+            dropped = true;
+        } else {
+            rttSum.add(rttNanos);
+            samples.increment();
+        }
+        long end = windowEnd.get();
+        if (now - end >= 0 && (dropped || samples.sum() >= minWindowSamples)
+                && windowEnd.compareAndSet(end, now + windowNanos)) {
+            update();
+        }
+    }
+
+    /**
+     * Releases a call that ended without a usable sample (cancelled by the client).
+     */
+    public void cancel() {
+        inFlight.decrementAndGet();
+    }
+
+    public int limit() {
+        return limit;
+    }
+
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    private synchronized void update() {
+        long count = samples.sumThenReset();
+        long sum = rttSum.sumThenReset();
+        boolean drop = dropped;
+        dropped = false;
+        int peak = peakInFlight.getAndSet(0);
+
+        double next;
+        if (drop) {
+            next = estimatedLimit * BACKOFF_RATIO;
+        } else if (count == 0) {
+            return;
+        } else {
+            double shortRtt = (double) sum / count;
+            longRtt = longRtt == 0 ? shortRtt : longRtt + (shortRtt - longRtt) * longRttFactor;
+            if (longRtt / shortRtt > 2) {
+                // Latency dropped for good (e.g. a slow instance went away); let the average follow faster
+                longRtt *= 0.95;
+            }
+            if (peak < estimatedLimit / 2) {
+                return;
+            }
+            double gradient = Math.max(0.5, Math.min(1.0, tolerance * longRtt / shortRtt));
+            double estimate = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+            next = estimatedLimit * (1 - smoothing) + estimate * smoothing;
+        }
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit, next));
+        limit = (int) estimatedLimit;
+    }
+}
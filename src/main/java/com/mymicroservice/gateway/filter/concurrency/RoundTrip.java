@@ -0,0 +1,55 @@
+package com.mymicroservice.gateway.filter.concurrency;
+
+import org.springframework.web.server.ServerWebExchange;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * The {@link GradientLimit} sample of one request: duration and outcome of its first routing call
+ * to finish. A request the gateway answers itself (cache hit, coalesced response, local 503) never
+ * reaches the routing filters and has no sample.
+ */
+public final class RoundTrip {
+
+    private static final String ATTRIBUTE = RoundTrip.class.getName();
+
+    private final AtomicBoolean recorded = new AtomicBoolean();
+    private volatile long rttNanos = -1;
+    private volatile boolean failed;
+
+    public static RoundTrip start(ServerWebExchange exchange) {
+        RoundTrip roundTrip = new RoundTrip();
+        exchange.getAttributes().put(ATTRIBUTE, roundTrip);
+        return roundTrip;
+    }
+
+    /**
+     * @return the sample of the request, {@code null} when its route has no limit
+     */
+    public static RoundTrip of(ServerWebExchange exchange) {
+        return exchange.getAttribute(ATTRIBUTE);
+    }
+
+    /**
+     * Keeps the first call only: later ones are retries and hedges of the same request, or
+     * attempts cancelled once another one answered.
+     */
+    public void record(long rttNanos, boolean failed) {
+        if (recorded.compareAndSet(false, true)) {
+            this.failed = failed;
+            this.rttNanos = rttNanos;
+        }
+    }
+
+    public boolean isRecorded() {
+        return rttNanos >= 0;
+    }
+
+    public long rttNanos() {
+        return rttNanos;
+    }
+
+    public boolean failed() {
+        return failed;
+    }
+}
@@ -0,0 +1,194 @@
+package com.mymicroservice.gateway.filter.factory;
+
+import com.mymicroservice.gateway.filter.retry.RetryBudget;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.support.HasRouteId;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.PrematureCloseException;
+
+import java.net.ConnectException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.reset;
+
+/**
+ * Retries requests that failed to reach the service - connection refused, connect timeout,
+ * connection closed before a response - within a per-route {@link RetryBudget}.
+ *
+ * <pre>
+ * filters:
+ *   - name: CircuitBreaker
+ *     args:
+ *       fallbackUri: forward:/fallback/user
+ *   - name: BudgetedRetry
+ *     args:
+ *       retries: 2
+ *       methods: GET, HEAD, OPTIONS
+ *       first-backoff: 50ms      # full jitter: random(0, min(max-backoff, first-backoff * 2^n))
+ *       max-backoff: 500ms
+ *       budget-ratio: 0.1        # at most one retry per ten requests of the route
+ *       budget-max-tokens: 10
+ * </pre>
+ *
+ * <p>Put it after {@code CircuitBreaker}: the breaker then records one outcome per request, and
+ * its fallback does not hide the failure from this filter. Only idempotent methods can be
+ * configured; requests with a body are never retried, since it has already been consumed.
+ * Responses from the service, including 5xx, and response timeouts are passed on unchanged.
+ *
+ * <p>Metrics, tag {@code route}: {@code gateway.retry.attempts} - counter, retries made;
+ * {@code gateway.retry.budget.exhausted} - counter, retries refused by the budget;
+ * {@code gateway.retry.budget.tokens} - gauge, retries currently available.
+ */
+@Component
+public class BudgetedRetryGatewayFilterFactory
+        extends AbstractGatewayFilterFactory<BudgetedRetryGatewayFilterFactory.Config> {
+
+    private static final Set<HttpMethod> IDEMPOTENT_METHODS = Set.of(HttpMethod.GET, HttpMethod.HEAD,
+            HttpMethod.OPTIONS, HttpMethod.PUT, HttpMethod.DELETE, HttpMethod.TRACE);
+
+    private final MeterRegistry meterRegistry;
+    /** Outlives {@link #apply}, which runs again for every route refresh. */
+    private final Map<String, RouteRetries> routes = new ConcurrentHashMap<>();
+
+    public BudgetedRetryGatewayFilterFactory(MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        for (HttpMethod method : config.getMethods()) {
+            if (!IDEMPOTENT_METHODS.contains(method)) {
+                throw new IllegalStateException("BudgetedRetry cannot retry non-idempotent method " + method);
+            }
+        }
+        RouteRetries retries = routes.computeIfAbsent(config.getRouteId() != null ? config.getRouteId() : "unknown",
+                RouteRetries::new).configure(config);
+        return (exchange, chain) -> {
+            if (!config.getMethods().contains(exchange.getRequest().getMethod()) || hasBody(exchange)) {
+                return chain.filter(exchange);
+            }
+            retries.budget.deposit();
+            return attempt(exchange, chain, config, retries, 0);
+        };
+    }
+
+    private Mono<Void> attempt(ServerWebExchange exchange, GatewayFilterChain chain, Config config,
+                               RouteRetries retries, int retry) {
+        return chain.filter(exchange).onErrorResume(error -> {
+            if (retry >= config.getRetries() || !isConnectFailure(error) || exchange.getResponse().isCommitted()) {
+                return Mono.error(error);
+            }
+            if (!retries.budget.tryWithdraw()) {
+                retries.exhausted.increment();
+                return Mono.error(error);
+            }
+            retries.attempts.increment();
+            return Mono.delay(backoff(config, retry))
+                    .then(Mono.defer(() -> {
+                        reset(exchange);
+                        return attempt(exchange, chain, config, retries, retry + 1);
+                    }));
+        });
+    }
+
+    /**
+     * Full jitter, so that clients failing together do not retry together.
+     */
+    private static Duration backoff(Config config, int retry) {
+        long ceiling = Math.min(config.getMaxBackoff().toNanos(),
+                config.getFirstBackoff().toNanos() << Math.min(retry, 20));
+        return ceiling <= 0 ? Duration.ZERO : Duration.ofNanos(ThreadLocalRandom.current().nextLong(ceiling + 1));
+    }
+
+    /**
+     * Failures where the service did not get, or could not have answered, the request.
+     */
+    private static boolean isConnectFailure(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConnectException || cause instanceof PrematureCloseException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean hasBody(ServerWebExchange exchange) {
+        HttpHeaders headers = exchange.getRequest().getHeaders();
+        return headers.getContentLength() > 0 || headers.containsKey(HttpHeaders.TRANSFER_ENCODING);
+    }
+
+    /**
+     * Budget and meters of one route, kept across route refreshes.
+     */
+    private final class RouteRetries {
+
+        private final Counter attempts;
+        private final Counter exhausted;
+        private volatile RetryBudget budget;
+        private double budgetRatio;
+        private int budgetMaxTokens;
+
+        private RouteRetries(String routeId) {
+            this.attempts = Counter.builder("gateway.retry.attempts")
+                    .description("Requests retried after a connect-level failure")
+                    .tag("route", routeId)
+                    .register(meterRegistry);
+            this.exhausted = Counter.builder("gateway.retry.budget.exhausted")
+                    .description("Retries refused because the route's retry budget was spent")
+                    .tag("route", routeId)
+                    .register(meterRegistry);
+            Gauge.builder("gateway.retry.budget.tokens", this, retries -> retries.budget.tokens())
+                    .description("Retries the route's budget currently allows")
+                    .tag("route", routeId)
+                    .register(meterRegistry);
+        }
+
+        /**
+         * Takes the settings of a rebuilt route; the budget carries over unless its own settings
+         * changed, so a refresh during an outage does not hand out fresh retries.
+         */
+        private synchronized RouteRetries configure(Config config) {
+            if (budget == null || budgetRatio != config.getBudgetRatio()
+                    || budgetMaxTokens != config.getBudgetMaxTokens()) {
+                budget = new RetryBudget(config.getBudgetRatio(), config.getBudgetMaxTokens());
+                budgetRatio = config.getBudgetRatio();
+                budgetMaxTokens = config.getBudgetMaxTokens();
+            }
+            return this;
+        }
+    }
+
+    @Getter
+    @Setter
+    public static class Config implements HasRouteId {
+
+        private String routeId;
+
+        /** Retries after the first attempt. */
+        private int retries = 2;
+        /** Requests with other methods pass through; only idempotent methods are accepted. */
+        private Set<HttpMethod> methods = Set.of(HttpMethod.GET, HttpMethod.HEAD, HttpMethod.OPTIONS);
+        private Duration firstBackoff = Duration.ofMillis(50);
+        private Duration maxBackoff = Duration.ofMillis(500);
+        /** Retries allowed per request of the route over time. */
+        private double budgetRatio = 0.1;
+        /** Retries that can be saved up while the route is healthy. */
+        private int budgetMaxTokens = 10;
+    }
+}
@@ -0,0 +1,448 @@
+package com.mymicroservice.gateway.filter.factory;
+
+import com.mymicroservice.gateway.filter.hedge.LatencyQuantile;
+import com.mymicroservice.gateway.filter.retry.RetryBudget;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.support.HasRouteId;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.ServerWebExchangeDecorator;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.netty.Connection;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.CLIENT_RESPONSE_CONN_ATTR;
+
+/**
+ * Hedged GETs: when the service has not answered within the route's recent p95 latency, the
+ * request is sent a second time and the first response to arrive is forwarded; the other
+ * attempt is cancelled and its connection closed.
+ *
+ * <pre>
+ * filters:
+ *   - name: CircuitBreaker
+ *     args:
+ *       fallbackUri: forward:/fallback/user
+ *   - name: Hedge
+ *     args:
+ *       quantile: 0.95        # hedge after this quantile of recent latency
+ *       min-delay: 20ms       # bounds of the hedge delay
+ *       max-delay: 1s         # also used until enough latencies are recorded
+ *       budget-ratio: 0.1     # at most one hedge per ten requests of the route
+ *       budget-max-tokens: 10
+ * </pre>
+ *
+ * <p>Each attempt runs the remaining filters on its own copy of the exchange attributes and
+ * response status and headers. The attempt whose routing call completes first - the service's
+ * response headers have arrived - wins: its status, headers and attributes, including the
+ * response connection, are copied to the real exchange, from which
+ * {@code NettyWriteResponseFilter} streams the body. With an {@code lb://} route the second
+ * attempt is load balanced again, so
+ * it normally goes to another instance; with a fixed URI it opens another connection to the
+ * same address. Only GETs without a body are hedged. Put it after {@code CircuitBreaker} and
+ * {@code BudgetedRetry}, so that a hedged request counts as one call for both.
+ *
+ * <p>Metrics, tag {@code route}: {@code gateway.hedge.requests} - counter, tag
+ * {@code result=hedged|won|budget_exhausted}; {@code gateway.hedge.delay} - gauge, current hedge
+ * delay.
+ */
+@Component
+public class HedgeGatewayFilterFactory extends AbstractGatewayFilterFactory<HedgeGatewayFilterFactory.Config> {
+
+    private static final int LATENCY_SAMPLES = 512;
+
+    private final MeterRegistry meterRegistry;
+    /** Outlives {@link #apply}, which runs again for every route refresh. */
+    private final Map<String, RouteHedging> routes = new ConcurrentHashMap<>();
+
+    public HedgeGatewayFilterFactory(MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        if (config.getMinDelay().compareTo(config.getMaxDelay()) > 0) {
+            throw new IllegalStateException("Hedge min-delay must not exceed max-delay");
+        }
+        RouteHedging route = routes.computeIfAbsent(config.getRouteId() != null ? config.getRouteId() : "unknown",
+                RouteHedging::new).configure(config);
+        return (exchange, chain) -> {
+            HttpHeaders headers = exchange.getRequest().getHeaders();
+            if (exchange.getRequest().getMethod() != HttpMethod.GET
+                    || headers.getContentLength() > 0 || headers.containsKey(HttpHeaders.TRANSFER_ENCODING)) {
+                return chain.filter(exchange);
+            }
+            route.budget.deposit();
+            return Mono.create(sink -> new Race(exchange, chain, route, sink).start());
+        };
+    }
+
+    /**
+     * Budget, latency and meters of one route, kept across route refreshes.
+     */
+    private final class RouteHedging {
+
+        private final Counter hedged;
+        private final Counter won;
+        private final Counter exhausted;
+        private volatile RetryBudget budget;
+        private volatile LatencyQuantile latency;
+        private volatile long minDelayNanos;
+        private volatile long maxDelayNanos;
+        private double budgetRatio;
+        private int budgetMaxTokens;
+        private double quantile;
+
+        private RouteHedging(String routeId) {
+            this.hedged = counter(routeId, "hedged");
+            this.won = counter(routeId, "won");
+            this.exhausted = counter(routeId, "budget_exhausted");
+            TimeGauge.builder("gateway.hedge.delay", this, TimeUnit.NANOSECONDS, RouteHedging::delayNanos)
+                    .description("Time after which a request of the route is hedged")
+                    .tag("route", routeId)
+                    .register(meterRegistry);
+        }
+
+        /**
+         * Takes the settings of a rebuilt route; the budget and the recorded latencies carry over
+         * unless their own settings changed.
+         */
+        private synchronized RouteHedging configure(Config config) {
+            if (budget == null || budgetRatio != config.getBudgetRatio()
+                    || budgetMaxTokens != config.getBudgetMaxTokens()) {
+                budget = new RetryBudget(config.getBudgetRatio(), config.getBudgetMaxTokens());
+                budgetRatio = config.getBudgetRatio();
+                budgetMaxTokens = config.getBudgetMaxTokens();
+            }
+            if (latency == null || quantile != config.getQuantile()) {
+                latency = new LatencyQuantile(config.getQuantile(), LATENCY_SAMPLES);
+                quantile = config.getQuantile();
+            }
+            minDelayNanos = config.getMinDelay().toNanos();
+            maxDelayNanos = config.getMaxDelay().toNanos();
+            return this;
+        }
+
+        private long delayNanos() {
+            long quantile = latency.nanos();
+            return quantile < 0 ? maxDelayNanos : Math.max(minDelayNanos, Math.min(maxDelayNanos, quantile));
+        }
+
+        private Counter counter(String routeId, String result) {
+            return Counter.builder("gateway.hedge.requests")
+                    .description("Hedged requests by outcome")
+                    .tag("route", routeId)
+                    .tag("result", result)
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * One client request: the primary attempt, at most one hedge, and which of them answers.
+     * State changes are made under the monitor; the sink is signalled outside it.
+     */
+    private static final class Race {
+
+        private final ServerWebExchange exchange;
+        private final GatewayFilterChain chain;
+        private final RouteHedging route;
+        private final MonoSink<Void> sink;
+
+        private Attempt primary;
+        private Attempt hedge;
+        private volatile Attempt winner;
+        private Disposable timer;
+        private boolean done;
+
+        private Race(ServerWebExchange exchange, GatewayFilterChain chain, RouteHedging route, MonoSink<Void> sink) {
+            this.exchange = exchange;
+            this.chain = chain;
+            this.route = route;
+            this.sink = sink;
+        }
+
+        private void start() {
+            sink.onCancel(this::cancel);
+            launch(false);
+            Disposable scheduled = Mono.delay(Duration.ofNanos(route.delayNanos())).subscribe(tick -> hedge());
+            synchronized (this) {
+                if (!done && winner == null) {
+                    timer = scheduled;
+                    return;
+                }
+            }
+            scheduled.dispose();
+        }
+
+        private void hedge() {
+            synchronized (this) {
+                if (done || winner != null || primary.finished) {
+                    return;
+                }
+            }
+            if (!route.budget.tryWithdraw()) {
+                route.exhausted.increment();
+                return;
+            }
+            route.hedged.increment();
+            launch(true);
+        }
+
+        private void launch(boolean isHedge) {
+            Attempt attempt = new Attempt(isHedge);
+            synchronized (this) {
+                if (isHedge) {
+                    hedge = attempt;
+                } else {
+                    primary = attempt;
+                }
+            }
+            attempt.setSubscription(chain.filter(attempt.exchange)
+                    .contextWrite(sink.contextView())
+                    .subscribe(null, error -> failed(attempt, error), () -> completed(attempt)));
+        }
+
+        /**
+         * Makes {@code attempt} the one that answers, unless another attempt already does: its
+         * status, headers and attributes go to the real exchange and the other attempt is
+         * cancelled.
+         *
+         * @return whether {@code attempt} answers the client
+         */
+        private boolean claim(Attempt attempt) {
+            Attempt other;
+            Disposable scheduled;
+            synchronized (this) {
+                if (winner != null || done) {
+                    return winner == attempt;
+                }
+                winner = attempt;
+                other = attempt == primary ? hedge : primary;
+                scheduled = timer;
+            }
+            if (scheduled != null) {
+                scheduled.dispose();
+            }
+            if (other != null) {
+                other.discard();
+            }
+            long now = System.nanoTime();
+            // a primary that lost is recorded with the time it had taken so far: a lower bound
+            route.latency.record(now - primary.startNanos);
+            if (attempt.hedge) {
+                route.won.increment();
+            }
+            attempt.exchange.copyTo(exchange);
+            return true;
+        }
+
+        private void completed(Attempt attempt) {
+            attempt.finished = true;
+            if (claim(attempt)) {
+                sink.success();
+            } else {
+                attempt.discard();
+            }
+        }
+
+        private void failed(Attempt attempt, Throwable error) {
+            Disposable scheduled;
+            synchronized (this) {
+                attempt.finished = true;
+                if (winner != null && winner != attempt || done) {
+                    return;
+                }
+                Attempt other = attempt == primary ? hedge : primary;
+                if (winner == null && other != null && !other.finished) {
+                    return;
+                }
+                done = true;
+                scheduled = timer;
+            }
+            if (scheduled != null) {
+                scheduled.dispose();
+            }
+            sink.error(error);
+        }
+
+        private void cancel() {
+            Disposable scheduled;
+            Attempt first;
+            Attempt second;
+            synchronized (this) {
+                done = true;
+                scheduled = timer;
+                first = primary;
+                second = hedge;
+            }
+            if (scheduled != null) {
+                scheduled.dispose();
+            }
+            if (first != null) {
+                first.discard();
+            }
+            if (second != null) {
+                second.discard();
+            }
+        }
+
+        private final class Attempt {
+
+            private final boolean hedge;
+            private final long startNanos = System.nanoTime();
+            private final AttemptExchange exchange;
+            private volatile boolean finished;
+            private volatile boolean cancelled;
+            private volatile Disposable subscription;
+
+            private Attempt(boolean hedge) {
+                this.hedge = hedge;
+                this.exchange = new AttemptExchange(Race.this.exchange, this);
+            }
+
+            private void setSubscription(Disposable subscription) {
+                this.subscription = subscription;
+                if (cancelled) {
+                    subscription.dispose();
+                }
+            }
+
+            /**
+             * Cancels the attempt and closes the connection of a response it already received:
+             * nobody reads its body, so it would otherwise never go back to the pool or close.
+             */
+            private void discard() {
+                cancelled = true;
+                Disposable current = subscription;
+                if (current != null) {
+                    current.dispose();
+                }
+                if (exchange.getAttributes().get(CLIENT_RESPONSE_CONN_ATTR) instanceof Connection connection) {
+                    connection.dispose();
+                }
+            }
+        }
+
+        /**
+         * The exchange as one attempt sees it: own attributes (routing state) and own response.
+         */
+        private final class AttemptExchange extends ServerWebExchangeDecorator {
+
+            private final Map<String, Object> attributes;
+            private final AttemptResponse response;
+
+            private AttemptExchange(ServerWebExchange delegate, Attempt attempt) {
+                super(delegate);
+                this.attributes = new ConcurrentHashMap<>(delegate.getAttributes());
+                this.response = new AttemptResponse(delegate.getResponse(), attempt);
+            }
+
+            @Override
+            public Map<String, Object> getAttributes() {
+                return attributes;
+            }
+
+            @Override
+            public ServerHttpResponse getResponse() {
+                return response;
+            }
+
+            private void copyTo(ServerWebExchange target) {
+                target.getAttributes().putAll(attributes);
+                ServerHttpResponse real = target.getResponse();
+                if (response.status != null) {
+                    real.setStatusCode(response.status);
+                }
+                real.getHeaders().clear();
+                real.getHeaders().putAll(response.headers);
+            }
+        }
+
+        /**
+         * Keeps status and headers to itself; {@link AttemptExchange#copyTo} hands them to the real
+         * response when the attempt wins.
+         */
+        private final class AttemptResponse extends ServerHttpResponseDecorator {
+
+            private final Attempt attempt;
+            private final HttpHeaders headers = new HttpHeaders();
+            private HttpStatusCode status;
+
+            private AttemptResponse(ServerHttpResponse delegate, Attempt attempt) {
+                super(delegate);
+                this.attempt = attempt;
+                this.headers.putAll(delegate.getHeaders());
+                this.status = delegate.getStatusCode();
+            }
+
+            @Override
+            public boolean setStatusCode(HttpStatusCode status) {
+                this.status = status;
+                return true;
+            }
+
+            @Override
+            public HttpStatusCode getStatusCode() {
+                return status;
+            }
+
+            @Override
+            @Deprecated
+            public boolean setRawStatusCode(Integer value) {
+                this.status = value != null ? HttpStatusCode.valueOf(value) : null;
+                return true;
+            }
+
+            @Override
+            @Deprecated
+            public Integer getRawStatusCode() {
+                return status != null ? status.value() : null;
+            }
+
+            @Override
+            public HttpHeaders getHeaders() {
+                return headers;
+            }
+
+            @Override
+            public boolean isCommitted() {
+                return winner == attempt && super.isCommitted();
+            }
+        }
+    }
+
+    @Getter
+    @Setter
+    public static class Config implements HasRouteId {
+
+        private String routeId;
+        /** Quantile of the route's recent latency after which a request is hedged. */
+        private double quantile = 0.95;
+        private Duration minDelay = Duration.ofMillis(20);
+        /** Upper bound of the hedge delay, and the delay until enough latencies are recorded. */
+        private Duration maxDelay = Duration.ofSeconds(1);
+        /** Hedges allowed per request of the route over time. */
+        private double budgetRatio = 0.1;
+        /** Hedges that can be saved up while the route is fast. */
+        private int budgetMaxTokens = 10;
+    }
+}
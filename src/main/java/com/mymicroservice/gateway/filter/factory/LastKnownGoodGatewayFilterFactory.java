@@ -0,0 +1,116 @@
+package com.mymicroservice.gateway.filter.factory;
+
+import com.mymicroservice.gateway.config.properties.LastKnownGoodProperties;
+import com.mymicroservice.gateway.filter.cache.BodyCapture;
+import com.mymicroservice.gateway.filter.cache.CacheControlDirectives;
+import com.mymicroservice.gateway.filter.cache.CachedResponse;
+import com.mymicroservice.gateway.filter.cache.LastKnownGoodStore;
+import com.mymicroservice.gateway.filter.cache.ShareableHeaders;
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.addOriginalRequestUrl;
+
+/**
+ * Records successful GET responses of a route in {@link LastKnownGoodStore}, for
+ * {@code FallbackController} to serve while the service's circuit breaker is open.
+ *
+ * <pre>
+ * filters:
+ *   - LastKnownGood
+ *   - name: CircuitBreaker
+ *     args:
+ *       fallbackUri: forward:/fallback/order
+ * </pre>
+ *
+ * <p>{@code 200} responses without {@code no-store} and {@code Set-Cookie}, up to
+ * {@code gateway.last-known-good.max-entry-size}, are stored. The filter runs before the route's
+ * other filters, so the {@code CircuitBreaker} fallback is written through it too; a response
+ * marked with {@link LastKnownGoodStore#FALLBACK_HEADER} is not stored again, which would reset
+ * its age and keep it past {@code gateway.last-known-good.max-age}.
+ */
+@Component
+public class LastKnownGoodGatewayFilterFactory extends AbstractGatewayFilterFactory<Object> {
+
+    private final LastKnownGoodStore store;
+    private final LastKnownGoodProperties properties;
+
+    public LastKnownGoodGatewayFilterFactory(LastKnownGoodStore store, LastKnownGoodProperties properties) {
+        super(Object.class);
+        this.store = store;
+        this.properties = properties;
+    }
+
+    /**
+     * Ordered just before {@link NettyWriteResponseFilter}: after it, the service response is
+     * written to the exchange that filter received and never reaches {@link RecordingResponse}.
+     */
+    @Override
+    public GatewayFilter apply(Object config) {
+        return new OrderedGatewayFilter((exchange, chain) -> {
+            if (exchange.getRequest().getMethod() != HttpMethod.GET) {
+                return chain.filter(exchange);
+            }
+            // LastKnownGoodStore.key reads it in the fallback forward, whose request has its own path
+            addOriginalRequestUrl(exchange, exchange.getRequest().getURI());
+            RecordingResponse response = new RecordingResponse(exchange);
+            return chain.filter(exchange.mutate().response(response).build());
+        }, NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 1);
+    }
+
+    private final class RecordingResponse extends ServerHttpResponseDecorator {
+
+        private final ServerWebExchange exchange;
+
+        private RecordingResponse(ServerWebExchange exchange) {
+            super(exchange.getResponse());
+            this.exchange = exchange;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            long maxEntrySize = properties.getMaxEntrySize().toBytes();
+            if (!HttpStatus.OK.isSameCodeAs(getStatusCode()) || getHeaders().containsKey(HttpHeaders.SET_COOKIE)
+                    || getHeaders().containsKey(LastKnownGoodStore.FALLBACK_HEADER)
+                    || getHeaders().getContentLength() > maxEntrySize) {
+                return super.writeWith(body);
+            }
+            HttpHeaders headers = ShareableHeaders.of(exchange, getHeaders());
+            if (CacheControlDirectives.of(headers).noStore()) {
+                return super.writeWith(body);
+            }
+
+            Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+            String routeId = route != null ? route.getId() : "unknown";
+            String key = LastKnownGoodStore.key(routeId, exchange);
+            BodyCapture capture = new BodyCapture(maxEntrySize);
+            return super.writeWith(Flux.from(body)
+                    .doOnNext(capture::append)
+                    .doOnComplete(() -> {
+                        ByteBuffer captured = capture.toReadOnlyDirectBuffer();
+                        if (captured != null) {
+                            long now = System.nanoTime();
+                            store.put(key, new CachedResponse(routeId, HttpHeaders.readOnlyHttpHeaders(headers),
+                                    captured, headers.getETag(), List.of(), List.of(), now, now, now));
+                        }
+                    }));
+        }
+    }
+}
@@ -0,0 +1,270 @@
+package com.mymicroservice.gateway.filter.factory;
+
+import com.mymicroservice.gateway.filter.cache.BodyCapture;
+import com.mymicroservice.gateway.filter.cache.ShareableHeaders;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Getter;
+import lombok.Setter;
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+/**
+ * Single-flight for GET routes: while a request is in flight, identical requests (same path,
+ * query and {@code key-headers} values) wait for it instead of going to the service, and all of
+ * them get a copy of its buffered response.
+ *
+ * <pre>
+ * filters:
+ *   - name: RequestCoalescing
+ *     args:
+ *       max-wait: 2s           # a waiting request then goes to the service itself
+ *       max-body-size: 256KB   # larger responses are not shared
+ *       key-headers: Authorization, Accept, Accept-Encoding, Accept-Language
+ * </pre>
+ *
+ * <p>Only the leading request passes the route's other filters: the filter runs before them, so
+ * waiting requests take no {@code CircuitBreaker} permits. A response is not shared when it sets
+ * cookies, exceeds {@code max-body-size}, fails or is a {@code 5xx}; waiting requests are then forwarded on their
+ * own, as they are after {@code max-wait}. Nothing is kept once the leading request completes -
+ * combine with {@code ResponseCache} for reuse over time.
+ *
+ * <p>{@code Authorization} is part of the default key, so users only share responses to the
+ * same token; drop it from {@code key-headers} on routes whose data is the same for everyone.
+ *
+ * <p>Metrics: {@code gateway.coalescing.requests} - counter, tags {@code route} and
+ * {@code result=leader|joined|timeout|unshared}.
+ */
+@Component
+public class RequestCoalescingGatewayFilterFactory
+        extends AbstractGatewayFilterFactory<RequestCoalescingGatewayFilterFactory.Config> {
+
+    public enum Result {
+        /** Went to the service; others may have joined it. */
+        LEADER,
+        /** Served the response of an in-flight identical request. */
+        JOINED,
+        /** Gave up waiting after {@code max-wait} and went to the service. */
+        TIMEOUT,
+        /** The in-flight response could not be shared; went to the service. */
+        UNSHARED
+    }
+
+    private static final SharedResponse NOT_SHARED = new SharedResponse(null, null, null);
+    private static final SharedResponse TIMED_OUT = new SharedResponse(null, null, null);
+
+    /** Conditional and partial requests only share responses with the same conditions. */
+    private static final List<String> ALWAYS_KEYED_HEADERS = List.of(HttpHeaders.IF_NONE_MATCH,
+            HttpHeaders.IF_MODIFIED_SINCE, HttpHeaders.RANGE);
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Map<Result, Counter>> counters = new ConcurrentHashMap<>();
+
+    public RequestCoalescingGatewayFilterFactory(MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Ordered just before {@link NettyWriteResponseFilter}: after it, the leading response is
+     * written to the exchange that filter received and never reaches {@link LeaderResponse}.
+     */
+    @Override
+    public GatewayFilter apply(Config config) {
+        Map<String, Flight> inFlight = new ConcurrentHashMap<>();
+        return new OrderedGatewayFilter((exchange, chain) -> filter(exchange, chain, config, inFlight),
+                NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 1);
+    }
+
+    private Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain, Config config,
+                              Map<String, Flight> inFlight) {
+        if (exchange.getRequest().getMethod() != HttpMethod.GET) {
+            return chain.filter(exchange);
+        }
+        String routeId = routeId(exchange);
+        String key = key(exchange, config.getKeyHeaders());
+        Flight flight = new Flight();
+        Flight leader = inFlight.putIfAbsent(key, flight);
+        if (leader == null) {
+            record(routeId, Result.LEADER);
+            LeaderResponse response = new LeaderResponse(exchange.getResponse(), exchange, flight,
+                    config.getMaxBodySize().toBytes());
+            return chain.filter(exchange.mutate().response(response).build())
+                    .doFinally(signal -> {
+                        inFlight.remove(key, flight);
+                        flight.sink.tryEmitEmpty();
+                    });
+        }
+        return leader.sink.asMono()
+                .defaultIfEmpty(NOT_SHARED)
+                .timeout(config.getMaxWait(), Mono.just(TIMED_OUT))
+                .flatMap(shared -> {
+                    if (shared == TIMED_OUT || shared == NOT_SHARED) {
+                        record(routeId, shared == TIMED_OUT ? Result.TIMEOUT : Result.UNSHARED);
+                        return chain.filter(exchange);
+                    }
+                    record(routeId, Result.JOINED);
+                    return write(exchange.getResponse(), shared);
+                });
+    }
+
+    private static Mono<Void> write(ServerHttpResponse response, SharedResponse shared) {
+        response.setStatusCode(shared.status());
+        ShareableHeaders.copyInto(shared.headers(), response.getHeaders());
+        response.getHeaders().setContentLength(shared.body().remaining());
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(shared.body())));
+    }
+
+    private static String key(ServerWebExchange exchange, List<String> keyHeaders) {
+        URI uri = exchange.getRequest().getURI();
+        StringBuilder key = new StringBuilder(routeId(exchange)).append(' ').append(uri.getRawPath());
+        if (uri.getRawQuery() != null) {
+            key.append('?').append(uri.getRawQuery());
+        }
+        HttpHeaders headers = exchange.getRequest().getHeaders();
+        appendHeaders(key, headers, keyHeaders);
+        appendHeaders(key, headers, ALWAYS_KEYED_HEADERS);
+        return key.toString();
+    }
+
+    private static void appendHeaders(StringBuilder key, HttpHeaders headers, List<String> names) {
+        for (String name : names) {
+            key.append('\n');
+            List<String> values = headers.get(name);
+            if (values != null) {
+                for (String value : values) {
+                    key.append(value).append(',');
+                }
+            }
+        }
+    }
+
+    private static String routeId(ServerWebExchange exchange) {
+        Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+        return route != null ? route.getId() : "unknown";
+    }
+
+    private void record(String routeId, Result result) {
+        counters.computeIfAbsent(routeId, this::routeCounters).get(result).increment();
+    }
+
+    private Map<Result, Counter> routeCounters(String routeId) {
+        Map<Result, Counter> routeCounters = new EnumMap<>(Result.class);
+        for (Result result : Result.values()) {
+            routeCounters.put(result, Counter.builder("gateway.coalescing.requests")
+                    .description("GET requests seen by the RequestCoalescing filter")
+                    .tag("route", routeId)
+                    .tag("result", result.name().toLowerCase())
+                    .register(meterRegistry));
+        }
+        return routeCounters;
+    }
+
+    private record SharedResponse(HttpStatusCode status, HttpHeaders headers, ByteBuffer body) {
+    }
+
+    /** The leading request's response: a value when shareable, empty otherwise. */
+    private static final class Flight {
+
+        private final Sinks.One<SharedResponse> sink = Sinks.one();
+    }
+
+    /**
+     * Passes the leading request's response through while buffering a copy for the waiters.
+     */
+    private static final class LeaderResponse extends ServerHttpResponseDecorator {
+
+        private final ServerWebExchange exchange;
+        private final Flight flight;
+        private final long maxBodySize;
+
+        private LeaderResponse(ServerHttpResponse delegate, ServerWebExchange exchange, Flight flight,
+                               long maxBodySize) {
+            super(delegate);
+            this.exchange = exchange;
+            this.flight = flight;
+            this.maxBodySize = maxBodySize;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            HttpStatusCode status = getStatusCode();
+            if (!isShareable(status) || getHeaders().getContentLength() > maxBodySize) {
+                flight.sink.tryEmitEmpty();
+                return super.writeWith(body);
+            }
+            HttpHeaders headers = HttpHeaders.readOnlyHttpHeaders(ShareableHeaders.of(exchange, getHeaders()));
+            BodyCapture capture = new BodyCapture(maxBodySize);
+            return super.writeWith(Flux.from(body)
+                    .doOnNext(capture::append)
+                    .doOnComplete(() -> {
+                        ByteBuffer captured = capture.toReadOnlyDirectBuffer();
+                        if (captured == null) {
+                            flight.sink.tryEmitEmpty();
+                        } else {
+                            flight.sink.tryEmitValue(new SharedResponse(status, headers, captured));
+                        }
+                    }));
+        }
+
+        @Override
+        public Mono<Void> setComplete() {
+            HttpStatusCode status = getStatusCode();
+            if (status != null && isShareable(status)) {
+                flight.sink.tryEmitValue(new SharedResponse(status,
+                        HttpHeaders.readOnlyHttpHeaders(ShareableHeaders.of(exchange, getHeaders())),
+                        ByteBuffer.allocate(0).asReadOnlyBuffer()));
+            }
+            return super.setComplete();
+        }
+
+        /**
+         * A {@code 5xx} - the service's or the {@code CircuitBreaker} fallback's - is not shared:
+         * each waiter tries the service, and its own fallback, itself.
+         */
+        private boolean isShareable(HttpStatusCode status) {
+            return !getHeaders().containsKey(HttpHeaders.SET_COOKIE)
+                    && (status == null || !status.is5xxServerError());
+        }
+    }
+
+    @Getter
+    @Setter
+    public static class Config {
+
+        /** How long an identical request waits for the in-flight one before going to the service. */
+        private Duration maxWait = Duration.ofSeconds(2);
+        /** Responses with a larger body are passed to the leading request only. */
+        private DataSize maxBodySize = DataSize.ofKilobytes(256);
+        /** Request headers that must match for requests to be identical. */
+        private List<String> keyHeaders = List.of(HttpHeaders.AUTHORIZATION, HttpHeaders.ACCEPT,
+                HttpHeaders.ACCEPT_ENCODING, HttpHeaders.ACCEPT_LANGUAGE);
+    }
+}
@@ -0,0 +1,317 @@
+package com.mymicroservice.gateway.filter.factory;
+
+import com.mymicroservice.gateway.config.properties.ResponseCacheProperties;
+import com.mymicroservice.gateway.filter.cache.BodyCapture;
+import com.mymicroservice.gateway.filter.cache.CacheControlDirectives;
+import com.mymicroservice.gateway.filter.cache.CachedResponse;
+import com.mymicroservice.gateway.filter.cache.LastKnownGoodStore;
+import com.mymicroservice.gateway.filter.cache.ResponseCacheStore;
+import com.mymicroservice.gateway.filter.cache.ShareableHeaders;
+import lombok.Getter;
+import lombok.Setter;
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+/**
+ * Opt-in HTTP cache for idempotent GET routes, shared by all routes through
+ * {@link ResponseCacheStore}.
+ *
+ * <pre>
+ * filters:
+ *   - name: ResponseCache
+ *     args:
+ *       ttl: 30s                          # freshness when the service sends no max-age
+ *       cache-authorized-requests: false  # see below
+ * </pre>
+ *
+ * <ul>
+ *   <li>Only {@code 200} responses are stored; not {@code no-store}, {@code private},
+ *       {@code Set-Cookie} or {@code Vary: *}. Freshness is {@code s-maxage}, then
+ *       {@code max-age}, then {@code ttl}; {@code no-cache} means "always revalidate".</li>
+ *   <li>Requests with {@code Authorization} are only served from the shared cache when the
+ *       service marks the response {@code public}, {@code s-maxage} or
+ *       {@code must-revalidate} (RFC 9111, section 3.5), or when the route sets
+ *       {@code cache-authorized-requests} for data that is the same for every user.
+ *       Authentication still runs before this filter.</li>
+ *   <li>{@code Vary}: an entry is only served to requests with the same values of the named
+ *       headers. One variant is kept per URL; a request for another variant replaces it.</li>
+ *   <li>A stale entry with an {@code ETag} is revalidated with {@code If-None-Match}; on
+ *       {@code 304} it is refreshed and served without transferring the body again. A client
+ *       {@code If-None-Match} matching the entry gets {@code 304}.</li>
+ *   <li>Request {@code Cache-Control: no-cache} skips the lookup, {@code no-store} bypasses the
+ *       cache entirely.</li>
+ * </ul>
+ */
+@Component
+public class ResponseCacheGatewayFilterFactory
+        extends AbstractGatewayFilterFactory<ResponseCacheGatewayFilterFactory.Config> {
+
+    /** Headers a {@code 304} answer to the client carries (RFC 9110, section 15.4.5). */
+    private static final List<String> NOT_MODIFIED_HEADERS = List.of(HttpHeaders.ETAG,
+            HttpHeaders.CACHE_CONTROL, HttpHeaders.EXPIRES, HttpHeaders.VARY, HttpHeaders.CONTENT_LOCATION);
+
+    private final ResponseCacheStore store;
+    private final ResponseCacheProperties properties;
+
+    public ResponseCacheGatewayFilterFactory(ResponseCacheStore store, ResponseCacheProperties properties) {
+        super(Config.class);
+        this.store = store;
+        this.properties = properties;
+    }
+
+    @Override
+    public List<String> shortcutFieldOrder() {
+        return List.of("ttl");
+    }
+
+    /**
+     * Ordered just before {@link NettyWriteResponseFilter} whatever the filter's position in the
+     * route: after it, the service response is written to the exchange that filter received and
+     * never reaches {@link CachingResponse}.
+     */
+    @Override
+    public GatewayFilter apply(Config config) {
+        return new OrderedGatewayFilter((exchange, chain) -> filter(exchange, chain, config),
+                NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 1);
+    }
+
+    private Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain, Config config) {
+        if (exchange.getRequest().getMethod() != HttpMethod.GET) {
+            return chain.filter(exchange);
+        }
+        String routeId = routeId(exchange);
+        HttpHeaders requestHeaders = exchange.getRequest().getHeaders();
+        CacheControlDirectives requestDirectives = CacheControlDirectives.of(requestHeaders);
+        if (requestDirectives.noStore()) {
+            store.record(routeId, ResponseCacheStore.Result.BYPASS);
+            return chain.filter(exchange);
+        }
+
+        String key = cacheKey(routeId, exchange.getRequest().getURI());
+        long now = System.nanoTime();
+        CachedResponse cached = store.get(key);
+        if (cached != null && !cached.matchesVary(requestHeaders)) {
+            cached = null;
+        }
+        if (cached != null && cached.isFresh(now) && !requestDirectives.noCache()) {
+            store.record(routeId, ResponseCacheStore.Result.HIT);
+            return writeCached(exchange.getResponse(), requestHeaders, cached, now);
+        }
+
+        CachedResponse revalidating = cached != null && cached.etag() != null ? cached : null;
+        ServerWebExchange forwarded = exchange;
+        if (revalidating != null) {
+            forwarded = exchange.mutate()
+                    .request(request -> request.headers(headers -> headers.set(HttpHeaders.IF_NONE_MATCH,
+                            revalidating.etag())))
+                    .build();
+        } else {
+            store.record(routeId, ResponseCacheStore.Result.MISS);
+        }
+        CachingResponse response = new CachingResponse(exchange, routeId, key, config, revalidating);
+        return chain.filter(forwarded.mutate().response(response).build());
+    }
+
+    private Mono<Void> writeCached(ServerHttpResponse response, HttpHeaders requestHeaders, CachedResponse cached,
+                                   long now) {
+        HttpHeaders headers = response.getHeaders();
+        boolean notModified = cached.etag() != null && ifNoneMatch(requestHeaders, cached.etag());
+        if (notModified) {
+            for (String name : NOT_MODIFIED_HEADERS) {
+                List<String> values = cached.headers().get(name);
+                if (values != null) {
+                    headers.remove(name);
+                    headers.addAll(name, values);
+                }
+            }
+        } else {
+            ShareableHeaders.copyInto(cached.headers(), headers);
+        }
+        headers.set(HttpHeaders.AGE, Long.toString(cached.ageSeconds(now)));
+
+        if (notModified) {
+            response.setStatusCode(HttpStatus.NOT_MODIFIED);
+            headers.remove(HttpHeaders.CONTENT_LENGTH);
+            return response.setComplete();
+        }
+        response.setStatusCode(HttpStatus.OK);
+        headers.setContentLength(cached.body().remaining());
+        store.recordServed(cached.routeId(), cached.body().remaining());
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(cached.body())));
+    }
+
+    private long freshnessNanos(CacheControlDirectives directives, Config config) {
+        if (directives.noCache()) {
+            return 0;
+        }
+        long seconds = directives.sMaxAge() >= 0 ? directives.sMaxAge()
+                : directives.maxAge() >= 0 ? directives.maxAge()
+                : config.getTtl().toSeconds();
+        return TimeUnit.SECONDS.toNanos(seconds);
+    }
+
+    private static String routeId(ServerWebExchange exchange) {
+        Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+        return route != null ? route.getId() : "unknown";
+    }
+
+    private static String cacheKey(String routeId, URI uri) {
+        String query = uri.getRawQuery();
+        return query == null ? routeId + ' ' + uri.getRawPath() : routeId + ' ' + uri.getRawPath() + '?' + query;
+    }
+
+    private static boolean ifNoneMatch(HttpHeaders requestHeaders, String etag) {
+        List<String> candidates = requestHeaders.getIfNoneMatch();
+        String opaque = opaqueTag(etag);
+        for (String candidate : candidates) {
+            if ("*".equals(candidate) || opaqueTag(candidate).equals(opaque)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Weak comparison (RFC 9110, section 8.8.3.2): {@code W/"x"} matches {@code "x"}. */
+    private static String opaqueTag(String etag) {
+        return etag.startsWith("W/") ? etag.substring(2) : etag;
+    }
+
+    /**
+     * Passes the service response through, capturing the body of cacheable {@code 200}s; turns a
+     * {@code 304} answer to our revalidation into the refreshed cached response.
+     */
+    private final class CachingResponse extends ServerHttpResponseDecorator {
+
+        private final ServerWebExchange exchange;
+        private final String routeId;
+        private final String key;
+        private final Config config;
+        private final CachedResponse revalidating;
+
+        private CachingResponse(ServerWebExchange exchange, String routeId, String key, Config config,
+                                CachedResponse revalidating) {
+            super(exchange.getResponse());
+            this.exchange = exchange;
+            this.routeId = routeId;
+            this.key = key;
+            this.config = config;
+            this.revalidating = revalidating;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            long now = System.nanoTime();
+            HttpHeaders requestHeaders = exchange.getRequest().getHeaders();
+
+            if (revalidating != null && HttpStatus.NOT_MODIFIED.isSameCodeAs(getStatusCode())) {
+                HttpHeaders upstream = ShareableHeaders.of(exchange, getHeaders());
+                CacheControlDirectives directives = upstream.containsKey(HttpHeaders.CACHE_CONTROL)
+                        ? CacheControlDirectives.of(upstream)
+                        : CacheControlDirectives.of(revalidating.headers());
+                CachedResponse refreshed = revalidating.revalidated(now, freshnessNanos(directives, config),
+                        properties.getStaleRetention().toNanos());
+                store.put(key, refreshed);
+                store.record(routeId, ResponseCacheStore.Result.REVALIDATED);
+                return Flux.from(body)
+                        .doOnNext(DataBufferUtils::release)
+                        .then(Mono.defer(() -> writeCached(getDelegate(), requestHeaders, refreshed, now)));
+            }
+            if (revalidating != null) {
+                store.record(routeId, ResponseCacheStore.Result.MISS);
+            }
+            if (!HttpStatus.OK.isSameCodeAs(getStatusCode())) {
+                return super.writeWith(body);
+            }
+
+            HttpHeaders upstream = ShareableHeaders.of(exchange, getHeaders());
+            CacheControlDirectives directives = CacheControlDirectives.of(upstream);
+            long freshness = freshnessNanos(directives, config);
+            String etag = upstream.getETag();
+            long maxEntrySize = properties.getMaxEntrySize().toBytes();
+            if (!isStorable(upstream, directives, freshness, etag, requestHeaders)
+                    || getHeaders().getContentLength() > maxEntrySize) {
+                return super.writeWith(body);
+            }
+
+            BodyCapture capture = new BodyCapture(maxEntrySize);
+            return super.writeWith(Flux.from(body)
+                    .doOnNext(capture::append)
+                    .doOnComplete(() -> {
+                        ByteBuffer captured = capture.toReadOnlyDirectBuffer();
+                        if (captured != null) {
+                            store.put(key, entry(upstream, captured, etag, requestHeaders, now, freshness));
+                        }
+                    }));
+        }
+
+        private boolean isStorable(HttpHeaders upstream, CacheControlDirectives directives, long freshness,
+                                   String etag, HttpHeaders requestHeaders) {
+            if (directives.noStore() || directives.isPrivate() || getHeaders().containsKey(HttpHeaders.SET_COOKIE)
+                    || getHeaders().containsKey(LastKnownGoodStore.FALLBACK_HEADER)
+                    || upstream.getVary().contains("*")) {
+                return false;
+            }
+            if (requestHeaders.containsKey(HttpHeaders.AUTHORIZATION) && !config.isCacheAuthorizedRequests()
+                    && !directives.isPublic() && directives.sMaxAge() < 0 && !directives.mustRevalidate()) {
+                return false;
+            }
+            return freshness > 0 || etag != null;
+        }
+
+        private CachedResponse entry(HttpHeaders upstream, ByteBuffer body, String etag, HttpHeaders requestHeaders,
+                                     long now, long freshness) {
+            List<String> varyNames = new ArrayList<>();
+            List<String> varyValues = new ArrayList<>();
+            for (String value : upstream.getVary()) {
+                for (String name : StringUtils.tokenizeToStringArray(value, ",")) {
+                    varyNames.add(name);
+                    varyValues.add(CachedResponse.varyValue(requestHeaders, name));
+                }
+            }
+            long retention = etag != null ? properties.getStaleRetention().toNanos() : 0;
+            return new CachedResponse(routeId, HttpHeaders.readOnlyHttpHeaders(upstream), body, etag,
+                    List.copyOf(varyNames), Collections.unmodifiableList(varyValues),
+                    now, now + freshness, now + freshness + retention);
+        }
+    }
+
+    @Getter
+    @Setter
+    public static class Config {
+
+        /** Freshness lifetime when the service response has no {@code s-maxage}/{@code max-age}. */
+        private Duration ttl = Duration.ofSeconds(60);
+        /**
+         * Store and serve responses to requests with {@code Authorization} even when the service
+         * does not mark them {@code public}. Only for data that is identical for every user.
+         */
+        private boolean cacheAuthorizedRequests = false;
+    }
+}
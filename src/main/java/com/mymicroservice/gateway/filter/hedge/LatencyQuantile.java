@@ -0,0 +1,48 @@
+package com.mymicroservice.gateway.filter.hedge;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Quantile of recent latencies: samples go into a ring buffer of {@code size} slots with one
+ * atomic write; once it is full, and then every {@code size / 8} samples, the recording thread
+ * re-sorts a copy of the buffer and publishes the quantile. Reads are a volatile load.
+ */
+public final class LatencyQuantile {
+
+    private final double quantile;
+    private final AtomicLongArray samples;
+    private final AtomicLong recorded = new AtomicLong();
+    private final int recomputeEvery;
+    private volatile long value = -1;
+
+    public LatencyQuantile(double quantile, int size) {
+        if (!(quantile > 0 && quantile < 1) || size < 8) {
+            throw new IllegalArgumentException("Latency quantile needs a quantile in (0, 1) and at least 8 samples");
+        }
+        this.quantile = quantile;
+        this.samples = new AtomicLongArray(size);
+        this.recomputeEvery = size / 8;
+    }
+
+    public void record(long nanos) {
+        long count = recorded.incrementAndGet();
+        samples.set((int) ((count - 1) % samples.length()), nanos);
+        if (count == samples.length() || count > samples.length() && count % recomputeEvery == 0) {
+            long[] sorted = new long[samples.length()];
+            for (int i = 0; i < sorted.length; i++) {
+                sorted[i] = samples.get(i);
+            }
+            Arrays.sort(sorted);
+            value = sorted[(int) Math.ceil(quantile * sorted.length) - 1];
+        }
+    }
+
+    /**
+     * @return the quantile in nanoseconds, or {@code -1} until the buffer has filled once
+     */
+    public long nanos() {
+        return value;
+    }
+}
@@ -0,0 +1,46 @@
+package com.mymicroservice.gateway.filter.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generic cell rate algorithm: a token bucket kept as a single number per client, its
+ * theoretical arrival time (TAT). Each allowed request pushes the TAT one emission interval
+ * ({@code 1 / replenishRate}) further; a request is rejected while the TAT is more than
+ * {@code burstCapacity} intervals ahead of now.
+ *
+ * <p>The TAT lives in an {@link AtomicLong} owned by the caller and is updated with a CAS loop,
+ * so concurrent requests of one client never take a lock. Times are {@link System#nanoTime()}
+ * based.
+ */
+public final class GcraLimiter {
+
+    private final long emissionIntervalNanos;
+    private final long toleranceNanos;
+
+    public GcraLimiter(double replenishRate, int burstCapacity) {
+        if (!(replenishRate > 0) || burstCapacity < 1) {
+            throw new IllegalArgumentException("replenishRate must be positive and burstCapacity at least 1");
+        }
+        this.emissionIntervalNanos = Math.max(1, Math.round(1_000_000_000L / replenishRate));
+        this.toleranceNanos = emissionIntervalNanos * burstCapacity;
+    }
+
+    /**
+     * @param tat the client's theoretical arrival time, initially {@code now}
+     * @return {@code 0} if the request is allowed (and counted), otherwise how long until it
+     *         would be, in nanoseconds
+     */
+    public long tryAcquire(AtomicLong tat, long now) {
+        while (true) {
+            long current = tat.get();
+            long next = (current - now > 0 ? current : now) + emissionIntervalNanos;
+            long wait = next - now - toleranceNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (tat.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+}
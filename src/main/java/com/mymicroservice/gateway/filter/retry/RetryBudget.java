@@ -0,0 +1,68 @@
+package com.mymicroservice.gateway.filter.retry;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket that caps retries - or hedged requests - to a share of requests: every request
+ * deposits {@code ratio} of a token, every retry withdraws a whole one, and the balance never
+ * exceeds {@code maxTokens}. Over time at most {@code ratio} retries per request are made, plus a
+ * burst of {@code maxTokens} - so during an outage retries cannot multiply the load on a service.
+ *
+ * <p>The balance is kept in thousandths of a token in one {@link AtomicLong}; updates are
+ * lock-free.
+ */
+public final class RetryBudget {
+
+    private static final long SCALE = 1000;
+
+    private final long deposit;
+    private final long maxBalance;
+    private final AtomicLong balance;
+
+    /**
+     * @param ratio     retries allowed per request, e.g. {@code 0.1}
+     * @param maxTokens retries that can be saved up; the bucket starts full
+     */
+    public RetryBudget(double ratio, int maxTokens) {
+        if (ratio < 0 || ratio > 1 || maxTokens < 1) {
+            throw new IllegalArgumentException("Retry budget needs a ratio in [0, 1] and at least one token");
+        }
+        this.deposit = Math.round(ratio * SCALE);
+        this.maxBalance = maxTokens * SCALE;
+        this.balance = new AtomicLong(maxBalance);
+    }
+
+    /**
+     * Called once per request, retries excluded.
+     */
+    public void deposit() {
+        long current;
+        do {
+            current = balance.get();
+            if (current >= maxBalance) {
+                return;
+            }
+        } while (!balance.compareAndSet(current, Math.min(maxBalance, current + deposit)));
+    }
+
+    /**
+     * @return {@code true} if a retry may be made; its token is then spent
+     */
+    public boolean tryWithdraw() {
+        long current;
+        do {
+            current = balance.get();
+            if (current < SCALE) {
+                return false;
+            }
+        } while (!balance.compareAndSet(current, current - SCALE));
+        return true;
+    }
+
+    /**
+     * @return retries currently available
+     */
+    public double tokens() {
+        return (double) balance.get() / SCALE;
+    }
+}
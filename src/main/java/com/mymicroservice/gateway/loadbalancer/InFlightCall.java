@@ -0,0 +1,54 @@
+package com.mymicroservice.gateway.loadbalancer;
+
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A load-balanced call as {@link PeakEwmaLoadBalancer} counts it in flight. Load balancer
+ * lifecycles only hear of calls that complete or fail, never of cancelled ones - a client that
+ * went away, a hedge that lost, a timeout - so the caller puts one of these in the request
+ * attributes before the load balancer runs and {@link #cancel() cancels} it; otherwise the
+ * instance would look busy for good.
+ */
+public final class InFlightCall {
+
+    private static final String ATTRIBUTE = InFlightCall.class.getName();
+
+    private final AtomicReference<InstanceStats> instance = new AtomicReference<>();
+
+    /**
+     * @param attributes the exchange or {@code ClientRequest} attributes the load balancer request
+     *                   is built from
+     */
+    public void addTo(Map<String, Object> attributes) {
+        attributes.put(ATTRIBUTE, this);
+    }
+
+    static InFlightCall of(Request<?> request) {
+        return request != null && request.getContext() instanceof RequestDataContext context
+                && context.getClientRequest() != null
+                && context.getClientRequest().getAttributes() != null
+                && context.getClientRequest().getAttributes().get(ATTRIBUTE) instanceof InFlightCall call ? call : null;
+    }
+
+    void started(InstanceStats stats) {
+        instance.set(stats);
+    }
+
+    /**
+     * @return {@code false} when the call was cancelled before, and is no longer counted
+     */
+    boolean finish() {
+        return instance.getAndSet(null) != null;
+    }
+
+    public void cancel() {
+        InstanceStats stats = instance.getAndSet(null);
+        if (stats != null) {
+            stats.cancel();
+        }
+    }
+}
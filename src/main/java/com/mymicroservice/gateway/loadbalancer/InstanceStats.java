@@ -0,0 +1,110 @@
+package com.mymicroservice.gateway.loadbalancer;
+
+import com.mymicroservice.gateway.config.properties.LatencyAwareLoadBalancerProperties;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * What {@link PeakEwmaLoadBalancer} knows about one instance: requests in flight, a peak-EWMA of
+ * its latency, and call counts of the current outlier interval.
+ *
+ * <p>The average jumps to a slower sample at once and decays towards faster ones over
+ * {@code decay}; it also decays while the instance gets no traffic, so an instance that was
+ * slow once is tried again eventually.
+ */
+final class InstanceStats {
+
+    private final long decayNanos;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    /** Written under the monitor, read without it. */
+    private volatile double ewmaNanos;
+    private volatile long lastUpdate;
+    private volatile long ejectedUntil;
+
+    private long intervalStart;
+    private int calls;
+    private int failures;
+    private int slowCalls;
+
+    InstanceStats(LatencyAwareLoadBalancerProperties properties, long now) {
+        this.decayNanos = Math.max(1, properties.getDecay().toNanos());
+        this.ewmaNanos = properties.getInitialLatency().toNanos();
+        this.lastUpdate = now;
+        this.intervalStart = now;
+    }
+
+    void start() {
+        inFlight.incrementAndGet();
+    }
+
+    void cancel() {
+        inFlight.decrementAndGet();
+    }
+
+    /**
+     * Lower is better: expected latency scaled by the queue already sent to the instance.
+     */
+    double cost(long now) {
+        return decayed(now) * (inFlight.get() + 1);
+    }
+
+    boolean isEjected(long now) {
+        return now < ejectedUntil;
+    }
+
+    int inFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * Records a finished call.
+     *
+     * @param rttNanos latency of the call, or negative when unknown
+     * @return {@code true} if this call got the instance ejected
+     */
+    synchronized boolean complete(long rttNanos, boolean failed, long now,
+                                  LatencyAwareLoadBalancerProperties.Outlier outlier) {
+        inFlight.decrementAndGet();
+        if (rttNanos >= 0) {
+            double current = ewmaNanos;
+            ewmaNanos = rttNanos > current ? rttNanos : current * weight(now) + rttNanos * (1 - weight(now));
+            lastUpdate = now;
+        }
+
+        if (now - intervalStart >= outlier.getInterval().toNanos()) {
+            intervalStart = now;
+            calls = 0;
+            failures = 0;
+            slowCalls = 0;
+        }
+        calls++;
+        if (failed) {
+            failures++;
+        }
+        if (rttNanos >= outlier.getSlowCallDuration().toNanos()) {
+            slowCalls++;
+        }
+        if (calls < outlier.getMinimumCalls() || isEjected(now)) {
+            return false;
+        }
+        if ((double) failures / calls < outlier.getFailureRateThreshold()
+                && (double) slowCalls / calls < outlier.getSlowCallRateThreshold()) {
+            return false;
+        }
+        ejectedUntil = now + outlier.getEjectionDuration().toNanos();
+        intervalStart = ejectedUntil;
+        calls = 0;
+        failures = 0;
+        slowCalls = 0;
+        return true;
+    }
+
+    private double decayed(long now) {
+        return ewmaNanos * weight(now);
+    }
+
+    private double weight(long now) {
+        return Math.exp(-(double) Math.max(0, now - lastUpdate) / decayNanos);
+    }
+}
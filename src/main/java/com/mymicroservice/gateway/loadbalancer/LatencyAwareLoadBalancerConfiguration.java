@@ -0,0 +1,29 @@
+package com.mymicroservice.gateway.loadbalancer;
+
+import com.mymicroservice.gateway.config.properties.LatencyAwareLoadBalancerProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+
+/**
+ * Per-service load balancer configuration, applied to every client context by
+ * {@code LoadBalancerConfig}. Deliberately not a {@code @Configuration}: it must only be loaded
+ * into the child contexts, never by component scanning.
+ */
+public class LatencyAwareLoadBalancerConfiguration {
+
+    /**
+     * Declared with its concrete type so that the load balancer is also found as the
+     * {@code LoadBalancerLifecycle} of its service.
+     */
+    @Bean
+    public PeakEwmaLoadBalancer peakEwmaLoadBalancer(Environment environment, LoadBalancerClientFactory clientFactory,
+                                                     LatencyAwareLoadBalancerProperties properties,
+                                                     MeterRegistry meterRegistry) {
+        String serviceId = LoadBalancerClientFactory.getName(environment);
+        return new PeakEwmaLoadBalancer(serviceId,
+                clientFactory.getLazyProvider(serviceId, ServiceInstanceListSupplier.class), properties, meterRegistry);
+    }
+}
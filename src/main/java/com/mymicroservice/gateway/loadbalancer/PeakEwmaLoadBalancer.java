@@ -0,0 +1,172 @@
+package com.mymicroservice.gateway.loadbalancer;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.mymicroservice.gateway.config.properties.LatencyAwareLoadBalancerProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.EmptyResponse;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerLifecycle;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.client.loadbalancer.ResponseData;
+import org.springframework.cloud.client.loadbalancer.TimedRequestContext;
+import org.springframework.cloud.loadbalancer.core.NoopServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.LongSupplier;
+
+/**
+ * Load balancer of one service: power of two choices - two random instances, the one with the
+ * lower {@link InstanceStats#cost cost} (peak-EWMA latency times requests in flight) wins - so
+ * traffic drains away from slow or backed-up pods within a few requests without herding onto a
+ * single "best" one.
+ *
+ * <p>It also is the {@link LoadBalancerLifecycle} that feeds the statistics: the gateway's
+ * {@code ReactiveLoadBalancerClientFilter} and the load-balanced WebClients report each call's
+ * start and outcome, and an {@link InFlightCall} its cancellation. An instance whose failure or slow-call rate crosses
+ * {@code gateway.load-balancer.outlier.*} is skipped for {@code ejection-duration}, unless that
+ * would leave fewer than {@code 1 - max-ejected-ratio} of the instances.
+ *
+ * <p>Metrics: {@code gateway.loadbalancer.ejections} - counter, tag {@code service}.
+ */
+@Slf4j
+public class PeakEwmaLoadBalancer implements ReactorServiceInstanceLoadBalancer,
+        LoadBalancerLifecycle<Object, Object, ServiceInstance> {
+
+    private final String serviceId;
+    private final ObjectProvider<ServiceInstanceListSupplier> suppliers;
+    private final LatencyAwareLoadBalancerProperties properties;
+    private final LongSupplier clock;
+    private final Cache<String, InstanceStats> stats;
+    private final Counter ejections;
+
+    public PeakEwmaLoadBalancer(String serviceId, ObjectProvider<ServiceInstanceListSupplier> suppliers,
+                                LatencyAwareLoadBalancerProperties properties, MeterRegistry meterRegistry) {
+        this(serviceId, suppliers, properties, meterRegistry, System::nanoTime);
+    }
+
+    public PeakEwmaLoadBalancer(String serviceId, ObjectProvider<ServiceInstanceListSupplier> suppliers,
+                                LatencyAwareLoadBalancerProperties properties, MeterRegistry meterRegistry,
+                                LongSupplier clock) {
+        this.serviceId = serviceId;
+        this.suppliers = suppliers;
+        this.properties = properties;
+        this.clock = clock;
+        // instances gone from discovery are forgotten once nothing asks for them
+        this.stats = Caffeine.newBuilder().expireAfterAccess(Duration.ofMinutes(10)).build();
+        this.ejections = Counter.builder("gateway.loadbalancer.ejections")
+                .description("Instances ejected as outliers by the load balancer")
+                .tag("service", serviceId)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Mono<Response<ServiceInstance>> choose(Request request) {
+        ServiceInstanceListSupplier supplier = suppliers.getIfAvailable(NoopServiceInstanceListSupplier::new);
+        return supplier.get(request).next().map(this::choose);
+    }
+
+    private Response<ServiceInstance> choose(List<ServiceInstance> instances) {
+        if (instances.isEmpty()) {
+            log.warn("No instances available for service {}", serviceId);
+            return new EmptyResponse();
+        }
+        long now = clock.getAsLong();
+        List<ServiceInstance> candidates = healthy(instances, now);
+        if (candidates.size() == 1) {
+            return new DefaultResponse(candidates.get(0));
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(candidates.size());
+        int second = random.nextInt(candidates.size() - 1);
+        if (second >= first) {
+            second++;
+        }
+        ServiceInstance a = candidates.get(first);
+        ServiceInstance b = candidates.get(second);
+        return new DefaultResponse(stats(a).cost(now) <= stats(b).cost(now) ? a : b);
+    }
+
+    /**
+     * @return instances not ejected, or all of them when too many are
+     */
+    private List<ServiceInstance> healthy(List<ServiceInstance> instances, long now) {
+        List<ServiceInstance> healthy = new ArrayList<>(instances.size());
+        for (ServiceInstance instance : instances) {
+            if (!stats(instance).isEjected(now)) {
+                healthy.add(instance);
+            }
+        }
+        int maxEjected = (int) (instances.size() * properties.getOutlier().getMaxEjectedRatio());
+        return healthy.isEmpty() || instances.size() - healthy.size() > maxEjected ? instances : healthy;
+    }
+
+    @Override
+    public boolean supports(Class requestContextClass, Class responseClass, Class serverTypeClass) {
+        return ServiceInstance.class.isAssignableFrom(serverTypeClass);
+    }
+
+    @Override
+    public void onStart(Request<Object> request) {
+    }
+
+    @Override
+    public void onStartRequest(Request<Object> request, Response<ServiceInstance> lbResponse) {
+        if (request.getContext() instanceof TimedRequestContext context) {
+            context.setRequestStartTime(clock.getAsLong());
+        }
+        if (lbResponse.hasServer()) {
+            InstanceStats instance = stats(lbResponse.getServer());
+            instance.start();
+            InFlightCall call = InFlightCall.of(request);
+            if (call != null) {
+                call.started(instance);
+            }
+        }
+    }
+
+    @Override
+    public void onComplete(CompletionContext<Object, ServiceInstance, Object> completionContext) {
+        Response<ServiceInstance> lbResponse = completionContext.getLoadBalancerResponse();
+        if (completionContext.status() == CompletionContext.Status.DISCARD
+                || lbResponse == null || !lbResponse.hasServer()) {
+            return;
+        }
+        InFlightCall call = InFlightCall.of(completionContext.getLoadBalancerRequest());
+        if (call != null && !call.finish()) {
+            // cancelled before: no longer in flight, and its round trip says nothing
+            return;
+        }
+        InstanceStats instance = stats(lbResponse.getServer());
+        long now = clock.getAsLong();
+        long rtt = completionContext.getLoadBalancerRequest().getContext() instanceof TimedRequestContext context
+                && context.getRequestStartTime() > 0 ? now - context.getRequestStartTime() : -1;
+        boolean failed = completionContext.status() == CompletionContext.Status.FAILED
+                || completionContext.getClientResponse() instanceof ResponseData response
+                && response.getHttpStatus() != null && response.getHttpStatus().is5xxServerError();
+        if (instance.complete(rtt, failed, now, properties.getOutlier())) {
+            ejections.increment();
+            log.warn("Instance {}:{} of service {} ejected for {}", lbResponse.getServer().getHost(),
+                    lbResponse.getServer().getPort(), serviceId, properties.getOutlier().getEjectionDuration());
+        }
+    }
+
+    private InstanceStats stats(ServiceInstance instance) {
+        String key = instance.getInstanceId() != null
+                ? instance.getInstanceId()
+                : instance.getHost() + ':' + instance.getPort();
+        return stats.get(key, k -> new InstanceStats(properties, clock.getAsLong()));
+    }
+}
@@ -0,0 +1,126 @@
+package com.mymicroservice.gateway.reload;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs a configuration refresh when one of the watched files changes on disk: a file in
+ * {@code spring.config.import}, or a ConfigMap mounted as a volume.
+ *
+ * <p>The parent directories are watched, not the files, because Kubernetes updates a mounted
+ * ConfigMap by swapping its {@code ..data} symlink; any {@code ..}-prefixed entry therefore counts
+ * as a change too. Changes within {@code debounce} of each other cause one refresh.
+ */
+@Slf4j
+public class ConfigFileWatcher implements SmartLifecycle {
+
+    private final Map<Path, Set<Path>> filesByDirectory = new HashMap<>();
+    private final Duration debounce;
+    private final Runnable refresh;
+
+    private volatile WatchService watchService;
+
+    /**
+     * @param refresh re-reads the configuration, typically {@code ContextRefresher::refresh}
+     */
+    public ConfigFileWatcher(List<Path> files, Duration debounce, Runnable refresh) {
+        for (Path file : files) {
+            Path absolute = file.toAbsolutePath().normalize();
+            filesByDirectory.computeIfAbsent(absolute.getParent(), d -> new HashSet<>()).add(absolute.getFileName());
+        }
+        this.debounce = debounce;
+        this.refresh = refresh;
+    }
+
+    @Override
+    public void start() {
+        if (filesByDirectory.isEmpty()) {
+            return;
+        }
+        try {
+            WatchService service = FileSystems.getDefault().newWatchService();
+            for (Path directory : filesByDirectory.keySet()) {
+                directory.register(service, StandardWatchEventKinds.ENTRY_CREATE,
+                        StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+            }
+            watchService = service;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot watch configuration files " + filesByDirectory, e);
+        }
+        Thread.ofPlatform().daemon().name("gateway-config-watcher").start(this::watch);
+        log.info("Watching configuration files {}", filesByDirectory);
+    }
+
+    @Override
+    public void stop() {
+        WatchService service = watchService;
+        watchService = null;
+        if (service != null) {
+            try {
+                service.close();
+            } catch (IOException e) {
+                log.debug("Closing the configuration watch service failed", e);
+            }
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return watchService != null;
+    }
+
+    private void watch() {
+        WatchService service = watchService;
+        try {
+            while (true) {
+                if (!changed(service.take())) {
+                    continue;
+                }
+                // wait for the writes to settle
+                WatchKey more;
+                while ((more = service.poll(debounce.toMillis(), TimeUnit.MILLISECONDS)) != null) {
+                    changed(more);
+                }
+                try {
+                    refresh.run();
+                } catch (RuntimeException e) {
+                    log.warn("Configuration refresh after a file change failed", e);
+                }
+            }
+        } catch (ClosedWatchServiceException | InterruptedException e) {
+            log.debug("Configuration file watcher stopped");
+        }
+    }
+
+    private boolean changed(WatchKey key) {
+        Set<Path> files = filesByDirectory.getOrDefault((Path) key.watchable(), Set.of());
+        boolean changed = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                changed = true;
+            } else if (event.context() instanceof Path name
+                    && (files.contains(name) || name.toString().startsWith(".."))) {
+                changed = true;
+            }
+        }
+        key.reset();
+        return changed;
+    }
+}
@@ -0,0 +1,62 @@
+package com.mymicroservice.gateway.reload;
+
+import com.mymicroservice.gateway.config.properties.CorsProperties;
+import com.mymicroservice.gateway.config.properties.GatewayCustomProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.web.cors.reactive.CorsConfigurationSource;
+import org.springframework.web.server.ServerWebExchange;
+
+/**
+ * The current {@link GatewayConfigSnapshot}, replaced by {@link GatewayConfigReloader} with a
+ * single volatile write.
+ *
+ * <p>A request reads the snapshot through {@link #current(ServerWebExchange)}, which pins the
+ * first one it sees to the exchange: a request in flight during a reload finishes on the
+ * configuration it started with, never on a mix of both.
+ */
+public class GatewayConfigHolder {
+
+    public static final String SNAPSHOT_ATTR = GatewayConfigHolder.class.getName() + ".snapshot";
+
+    private volatile GatewayConfigSnapshot current;
+
+    public GatewayConfigHolder(GatewayConfigSnapshot initial) {
+        this.current = initial;
+    }
+
+    /**
+     * Holder starting at version 1 of the given properties.
+     */
+    public static GatewayConfigHolder of(GatewayCustomProperties gatewayProperties, CorsProperties corsProperties,
+                                         MeterRegistry meterRegistry) {
+        return new GatewayConfigHolder(
+                GatewayConfigSnapshot.compile(1, gatewayProperties, corsProperties, meterRegistry));
+    }
+
+    public GatewayConfigSnapshot current() {
+        return current;
+    }
+
+    /**
+     * The snapshot this request started with.
+     */
+    public GatewayConfigSnapshot current(ServerWebExchange exchange) {
+        GatewayConfigSnapshot pinned = exchange.getAttribute(SNAPSHOT_ATTR);
+        if (pinned == null) {
+            pinned = current;
+            exchange.getAttributes().put(SNAPSHOT_ATTR, pinned);
+        }
+        return pinned;
+    }
+
+    /**
+     * Source for {@code CorsWebFilter}: the CORS configuration of the request's snapshot.
+     */
+    public CorsConfigurationSource corsConfigurationSource() {
+        return exchange -> current(exchange).corsPolicy().configurationSource().getCorsConfiguration(exchange);
+    }
+
+    void replace(GatewayConfigSnapshot snapshot) {
+        current = snapshot;
+    }
+}
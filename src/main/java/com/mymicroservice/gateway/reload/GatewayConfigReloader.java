@@ -0,0 +1,98 @@
+package com.mymicroservice.gateway.reload;
+
+import com.mymicroservice.gateway.config.properties.CorsProperties;
+import com.mymicroservice.gateway.config.properties.GatewayCustomProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.core.env.Environment;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compiles a new {@link GatewayConfigSnapshot} when the environment changes under
+ * {@code gateway.*} or {@code cors.*} - a ConfigMap reload, a watched file, {@code /actuator/refresh}
+ * - and swaps it into {@link GatewayConfigHolder}.
+ *
+ * <p>The properties are bound afresh from the {@link Environment} rather than read from the
+ * {@code @ConfigurationProperties} beans, which are rebound field by field in place. An invalid
+ * configuration is logged and counted, and the previous snapshot stays.
+ *
+ * <p>Route definitions are not part of the snapshot: the same refresh makes the gateway rebuild
+ * its route table, which it swaps atomically and keeps unchanged if a definition is invalid.
+ *
+ * <p>Metrics: {@code gateway.config.reload} - timer, tag {@code result=success|failure};
+ * {@code gateway.config.version} - gauge, version of the current snapshot.
+ */
+@Slf4j
+public class GatewayConfigReloader implements ApplicationListener<EnvironmentChangeEvent> {
+
+    private final GatewayConfigHolder holder;
+    private final Environment environment;
+    private final MeterRegistry meterRegistry;
+    private final Timer succeeded;
+    private final Timer failed;
+
+    public GatewayConfigReloader(GatewayConfigHolder holder, Environment environment, MeterRegistry meterRegistry) {
+        this.holder = holder;
+        this.environment = environment;
+        this.meterRegistry = meterRegistry;
+        this.succeeded = reloadTimer(meterRegistry, "success");
+        this.failed = reloadTimer(meterRegistry, "failure");
+        Gauge.builder("gateway.config.version", holder, h -> h.current().version())
+                .description("Version of the gateway configuration snapshot in use")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void onApplicationEvent(EnvironmentChangeEvent event) {
+        if (event.getKeys().stream().anyMatch(GatewayConfigReloader::affectsSnapshot)) {
+            reload();
+        }
+    }
+
+    /**
+     * @return whether a new snapshot is in use
+     */
+    public synchronized boolean reload() {
+        long start = System.nanoTime();
+        long version = holder.current().version() + 1;
+        GatewayConfigSnapshot snapshot;
+        try {
+            Binder binder = Binder.get(environment);
+            snapshot = GatewayConfigSnapshot.compile(version,
+                    binder.bindOrCreate("gateway", GatewayCustomProperties.class),
+                    binder.bindOrCreate("cors", CorsProperties.class),
+                    meterRegistry);
+        } catch (RuntimeException e) {
+            failed.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            log.warn("Gateway configuration rejected, keeping version {}", version - 1, e);
+            return false;
+        }
+        holder.replace(snapshot);
+        succeeded.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        log.info("Gateway configuration version {} in use", version);
+        return true;
+    }
+
+    /**
+     * Canonical ({@code gateway.public-paths}) as well as environment variable
+     * ({@code GATEWAY_PUBLICPATHS_...}) names.
+     */
+    private static boolean affectsSnapshot(String key) {
+        String name = key.toLowerCase(Locale.ROOT).replace('_', '.');
+        return name.startsWith("gateway.") || name.startsWith("cors.");
+    }
+
+    private static Timer reloadTimer(MeterRegistry meterRegistry, String result) {
+        return Timer.builder("gateway.config.reload")
+                .description("Time to validate and compile a gateway configuration snapshot")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,25 @@
+package com.mymicroservice.gateway.reload;
+
+import com.mymicroservice.gateway.config.properties.CorsProperties;
+import com.mymicroservice.gateway.config.properties.GatewayCustomProperties;
+import com.mymicroservice.gateway.util.CorsPolicy;
+import com.mymicroservice.gateway.util.GatewayPathMatcher;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Public/internal paths and CORS policy compiled from one version of {@link GatewayCustomProperties}
+ * and {@link CorsProperties}. Immutable; a reload compiles a new snapshot.
+ *
+ * @param version 1 for the configuration the gateway started with, +1 per successful reload
+ */
+public record GatewayConfigSnapshot(long version, GatewayPathMatcher pathMatcher, CorsPolicy corsPolicy) {
+
+    /**
+     * @throws IllegalStateException if the configuration is invalid; nothing is registered then
+     */
+    public static GatewayConfigSnapshot compile(long version, GatewayCustomProperties gatewayProperties,
+                                                CorsProperties corsProperties, MeterRegistry meterRegistry) {
+        GatewayPathMatcher pathMatcher = new GatewayPathMatcher(gatewayProperties);
+        return new GatewayConfigSnapshot(version, pathMatcher, new CorsPolicy(corsProperties, meterRegistry));
+    }
+}
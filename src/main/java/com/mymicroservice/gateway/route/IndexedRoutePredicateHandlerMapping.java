@@ -0,0 +1,90 @@
+package com.mymicroservice.gateway.route;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.gateway.config.GlobalCorsProperties;
+import org.springframework.cloud.gateway.event.RefreshRoutesResultEvent;
+import org.springframework.cloud.gateway.handler.FilteringWebHandler;
+import org.springframework.cloud.gateway.handler.RoutePredicateHandlerMapping;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.route.RouteDefinition;
+import org.springframework.cloud.gateway.route.RouteDefinitionLocator;
+import org.springframework.cloud.gateway.route.RouteLocator;
+import org.springframework.context.ApplicationListener;
+import org.springframework.core.env.Environment;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.HashMap;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_PREDICATE_ROUTE_ATTR;
+
+/**
+ * Route lookup through a {@link RouteIndex}: only the routes whose {@code Path} prefix the request
+ * path starts with, and those the index cannot narrow down, get their predicates evaluated -
+ * still in route order, so the same route wins as with the linear scan of the parent class.
+ *
+ * <p>The index is rebuilt after every route refresh ({@link RefreshRoutesResultEvent}); while it
+ * is being built lookups use the previous index, and before the first one the linear scan.
+ */
+@Slf4j
+public class IndexedRoutePredicateHandlerMapping extends RoutePredicateHandlerMapping
+        implements ApplicationListener<RefreshRoutesResultEvent> {
+
+    private final RouteLocator routeLocator;
+    private final RouteDefinitionLocator routeDefinitionLocator;
+
+    private volatile RouteIndex index;
+
+    public IndexedRoutePredicateHandlerMapping(FilteringWebHandler webHandler, RouteLocator routeLocator,
+                                               RouteDefinitionLocator routeDefinitionLocator,
+                                               GlobalCorsProperties globalCorsProperties, Environment environment) {
+        super(webHandler, routeLocator, globalCorsProperties, environment);
+        this.routeLocator = routeLocator;
+        this.routeDefinitionLocator = routeDefinitionLocator;
+    }
+
+    @Override
+    public void onApplicationEvent(RefreshRoutesResultEvent event) {
+        if (event.isSuccess()) {
+            rebuild().subscribe();
+        }
+    }
+
+    /**
+     * Builds the index from the current route table and definitions.
+     */
+    public Mono<RouteIndex> rebuild() {
+        return Mono.zip(routeLocator.getRoutes().collectList(),
+                        routeDefinitionLocator.getRouteDefinitions()
+                                .collectMap(RouteDefinition::getId, definition -> definition, HashMap::new))
+                .map(table -> RouteIndex.build(table.getT1(), table.getT2()))
+                .doOnNext(built -> {
+                    index = built;
+                    log.debug("Route index rebuilt ({} routes)", built.size());
+                })
+                .doOnError(e -> log.warn("Route index rebuild failed, keeping the previous one", e))
+                .onErrorResume(e -> Mono.empty());
+    }
+
+    @Override
+    protected Mono<Route> lookupRoute(ServerWebExchange exchange) {
+        RouteIndex current = index;
+        if (current == null) {
+            return super.lookupRoute(exchange);
+        }
+        Route[] candidates = current.candidates(exchange.getRequest().getPath().pathWithinApplication().value());
+        return Flux.fromArray(candidates)
+                .filterWhen(route -> {
+                    exchange.getAttributes().put(GATEWAY_PREDICATE_ROUTE_ATTR, route.getId());
+                    return Mono.from(route.getPredicate().apply(exchange))
+                            .doOnError(e -> log.error("Error applying predicate for route: {}", route.getId(), e))
+                            .onErrorReturn(false);
+                })
+                .next()
+                .map(route -> {
+                    validateRoute(route, exchange);
+                    return route;
+                });
+    }
+}
@@ -0,0 +1,241 @@
+package com.mymicroservice.gateway.route;
+
+import org.springframework.cloud.gateway.handler.predicate.PredicateDefinition;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.route.RouteDefinition;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Immutable index of the route table by the {@code Path} predicates of the route definitions.
+ *
+ * <p>Each {@code Path} pattern contributes its literal leading segments ({@code /api/items} for
+ * {@code /api/items/{id}/**}) to a character trie. {@link #candidates(String)} walks the request
+ * path once and returns, in route order, the routes whose pattern prefix the path starts with,
+ * plus every route the index cannot narrow down: no {@code Path} predicate, no definition, a
+ * pattern starting with a wildcard. Only these candidates have their predicates evaluated, and
+ * since their full predicates still run, a candidate too many costs one evaluation and never
+ * changes which route wins.
+ *
+ * <p>Paths with {@code %} or {@code ;} are matched by Spring against their decoded segments, so
+ * they get the whole table.
+ */
+public final class RouteIndex {
+
+    private static final String PATH_PREDICATE = "Path";
+    private static final String MATCH_TRAILING_SLASH = "matchTrailingSlash";
+
+    private final Route[] routes;
+    private final Node root;
+
+    private RouteIndex(Route[] routes, Node root) {
+        this.routes = routes;
+        this.root = root;
+    }
+
+    /**
+     * @param routes      the route table, in lookup order
+     * @param definitions route definitions by route id; routes without one are always candidates
+     */
+    public static RouteIndex build(List<Route> routes, Map<String, RouteDefinition> definitions) {
+        NodeBuilder root = new NodeBuilder();
+        for (int position = 0; position < routes.size(); position++) {
+            List<String> prefixes = literalPrefixes(definitions.get(routes.get(position).getId()));
+            if (prefixes == null) {
+                root.routes.add(position);
+                continue;
+            }
+            for (String prefix : prefixes) {
+                root.insert(prefix, position);
+            }
+        }
+        return new RouteIndex(routes.toArray(Route[]::new), root.build());
+    }
+
+    public int size() {
+        return routes.length;
+    }
+
+    /**
+     * @return the routes that may match the path, in route order
+     */
+    public Route[] candidates(String path) {
+        if (path.indexOf('%') >= 0 || path.indexOf(';') >= 0) {
+            return routes;
+        }
+        // at most one position list per path character, usually two or three
+        int[][] found = new int[4][];
+        int count = 0;
+        Node node = root;
+        if (node.routes.length > 0) {
+            found[count++] = node.routes;
+        }
+        int length = path.length();
+        for (int i = 0; i < length && node != null; i++) {
+            node = node.child(path.charAt(i));
+            if (node != null && node.routes.length > 0 && (i + 1 == length || path.charAt(i + 1) == '/')) {
+                if (count == found.length) {
+                    found = Arrays.copyOf(found, count * 2);
+                }
+                found[count++] = node.routes;
+            }
+        }
+        return merge(found, count);
+    }
+
+    private Route[] merge(int[][] found, int count) {
+        if (count == 0) {
+            return new Route[0];
+        }
+        if (count == 1) {
+            return select(found[0], found[0].length);
+        }
+        int total = 0;
+        for (int i = 0; i < count; i++) {
+            total += found[i].length;
+        }
+        int[] positions = new int[total];
+        int offset = 0;
+        for (int i = 0; i < count; i++) {
+            System.arraycopy(found[i], 0, positions, offset, found[i].length);
+            offset += found[i].length;
+        }
+        Arrays.sort(positions);
+        // a route with several patterns can be found through more than one of them
+        int distinct = 0;
+        for (int i = 0; i < total; i++) {
+            if (i == 0 || positions[i] != positions[i - 1]) {
+                positions[distinct++] = positions[i];
+            }
+        }
+        return select(positions, distinct);
+    }
+
+    private Route[] select(int[] positions, int count) {
+        Route[] selected = new Route[count];
+        for (int i = 0; i < count; i++) {
+            selected[i] = routes[positions[i]];
+        }
+        return selected;
+    }
+
+    /**
+     * @return literal prefixes of the route's first {@code Path} predicate, {@code null} if the
+     * route cannot be narrowed down by path
+     */
+    private static List<String> literalPrefixes(RouteDefinition definition) {
+        if (definition == null) {
+            return null;
+        }
+        for (PredicateDefinition predicate : definition.getPredicates()) {
+            if (!PATH_PREDICATE.equalsIgnoreCase(predicate.getName())) {
+                continue;
+            }
+            List<String> prefixes = new ArrayList<>();
+            for (Map.Entry<String, String> arg : predicate.getArgs().entrySet()) {
+                if (MATCH_TRAILING_SLASH.equals(arg.getKey())) {
+                    continue;
+                }
+                for (String pattern : arg.getValue().split(",")) {
+                    String prefix = literalPrefix(pattern.trim());
+                    if (prefix == null) {
+                        return null;
+                    }
+                    prefixes.add(prefix);
+                }
+            }
+            return prefixes.isEmpty() ? null : prefixes;
+        }
+        return null;
+    }
+
+    /**
+     * @return the leading segments without wildcards or variables ({@code /api/items} for
+     * {@code /api/items/**}), {@code null} when there are none or the pattern is an expression
+     */
+    private static String literalPrefix(String pattern) {
+        if (!pattern.startsWith("/")) {
+            return null;
+        }
+        int end = 0;
+        int segmentStart = 1;
+        while (segmentStart <= pattern.length()) {
+            int segmentEnd = pattern.indexOf('/', segmentStart);
+            if (segmentEnd < 0) {
+                segmentEnd = pattern.length();
+            }
+            if (segmentEnd == segmentStart || hasWildcard(pattern, segmentStart, segmentEnd)) {
+                break;
+            }
+            end = segmentEnd;
+            segmentStart = segmentEnd + 1;
+        }
+        return end == 0 ? null : pattern.substring(0, end);
+    }
+
+    private static boolean hasWildcard(String pattern, int start, int end) {
+        for (int i = start; i < end; i++) {
+            char c = pattern.charAt(i);
+            if (c == '*' || c == '?' || c == '{' || c == '#' || c == '$') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static final class Node {
+
+        private final char[] keys;
+        private final Node[] children;
+        /** Positions of the routes whose prefix ends here, ascending. */
+        private final int[] routes;
+
+        private Node(char[] keys, Node[] children, int[] routes) {
+            this.keys = keys;
+            this.children = children;
+            this.routes = routes;
+        }
+
+        private Node child(char c) {
+            char[] k = keys;
+            for (int i = 0; i < k.length; i++) {
+                if (k[i] == c) {
+                    return children[i];
+                }
+            }
+            return null;
+        }
+    }
+
+    private static final class NodeBuilder {
+
+        private final Map<Character, NodeBuilder> children = new TreeMap<>();
+        private final List<Integer> routes = new ArrayList<>();
+
+        private void insert(String prefix, int position) {
+            NodeBuilder node = this;
+            for (int i = 0; i < prefix.length(); i++) {
+                node = node.children.computeIfAbsent(prefix.charAt(i), c -> new NodeBuilder());
+            }
+            if (node.routes.isEmpty() || node.routes.get(node.routes.size() - 1) != position) {
+                node.routes.add(position);
+            }
+        }
+
+        private Node build() {
+            char[] keys = new char[children.size()];
+            Node[] nodes = new Node[children.size()];
+            int i = 0;
+            for (Map.Entry<Character, NodeBuilder> entry : children.entrySet()) {
+                keys[i] = entry.getKey();
+                nodes[i] = entry.getValue().build();
+                i++;
+            }
+            return new Node(keys, nodes, routes.stream().mapToInt(Integer::intValue).toArray());
+        }
+    }
+}
@@ -1,18 +1,14 @@
 package com.mymicroservice.gateway.security;
 
 import com.mymicroservice.gateway.util.CorsHeadersWriter;
+import com.mymicroservice.gateway.util.StaticJsonResponse;
 import lombok.RequiredArgsConstructor;
-import org.springframework.core.io.buffer.DataBuffer;
-import org.springframework.http.HttpStatus;
-import org.springframework.http.MediaType;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.web.server.authorization.ServerAccessDeniedHandler;
 import org.springframework.stereotype.Component;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 
-import java.nio.charset.StandardCharsets;
-
 @Component
 @RequiredArgsConstructor
 public class CustomAccessDeniedHandler implements ServerAccessDeniedHandler {
@@ -21,20 +17,7 @@ public class CustomAccessDeniedHandler implements ServerAccessDeniedHandler {
 
     @Override
     public Mono<Void> handle(ServerWebExchange exchange, AccessDeniedException ex) {
-        exchange.getResponse().setStatusCode(HttpStatus.FORBIDDEN);
-        exchange.getResponse().getHeaders().setContentType(MediaType.APPLICATION_JSON);
         corsHeadersWriter.applyCorsHeaders(exchange);
-
-        String body = """
-            {
-                "status": 403,
-                "error": "Forbidden",
-                "message": "Access denied"
-            }""";
-
-        DataBuffer buffer = exchange.getResponse().bufferFactory()
-                .wrap(body.getBytes(StandardCharsets.UTF_8));
-
-        return exchange.getResponse().writeWith(Mono.just(buffer));
+        return StaticJsonResponse.FORBIDDEN.writeTo(exchange);
     }
 }
@@ -1,18 +1,14 @@
 package com.mymicroservice.gateway.security;
 
 import com.mymicroservice.gateway.util.CorsHeadersWriter;
+import com.mymicroservice.gateway.util.StaticJsonResponse;
 import lombok.RequiredArgsConstructor;
-import org.springframework.core.io.buffer.DataBuffer;
-import org.springframework.http.HttpStatus;
-import org.springframework.http.MediaType;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.web.server.ServerAuthenticationEntryPoint;
 import org.springframework.stereotype.Component;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 
-import java.nio.charset.StandardCharsets;
-
 @Component
 @RequiredArgsConstructor
 public class CustomAuthenticationEntryPoint implements ServerAuthenticationEntryPoint {
@@ -21,20 +17,7 @@ public class CustomAuthenticationEntryPoint implements ServerAuthenticationEntry
 
     @Override
     public Mono<Void> commence(ServerWebExchange exchange, AuthenticationException ex) {
-        exchange.getResponse().setStatusCode(HttpStatus.UNAUTHORIZED);
-        exchange.getResponse().getHeaders().setContentType(MediaType.APPLICATION_JSON);
         corsHeadersWriter.applyCorsHeaders(exchange);
-
-        String body = """
-            {
-                "status": 401,
-                "error": "Unauthorized",
-                "message": "Authentication required"
-            }""";
-
-        DataBuffer buffer = exchange.getResponse().bufferFactory()
-                .wrap(body.getBytes(StandardCharsets.UTF_8));
-
-        return exchange.getResponse().writeWith(Mono.just(buffer));
+        return StaticJsonResponse.UNAUTHORIZED.writeTo(exchange);
     }
 }
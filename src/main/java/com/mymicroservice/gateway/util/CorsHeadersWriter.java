@@ -1,54 +1,42 @@
 package com.mymicroservice.gateway.util;
 
-import com.mymicroservice.gateway.config.properties.CorsProperties;
+import com.mymicroservice.gateway.reload.GatewayConfigHolder;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpHeaders;
 import org.springframework.stereotype.Component;
-import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.server.ServerWebExchange;
 
+/**
+ * Writes CORS headers on responses produced by the gateway itself (401/403), which bypass
+ * {@code CorsWebFilter}. Uses the same compiled {@link CorsPolicy}, the one of the request's
+ * configuration snapshot: the origin decision comes from its cache and the other headers are
+ * pre-joined strings.
+ */
 @Component
 @RequiredArgsConstructor
 public class CorsHeadersWriter {
 
-    private final CorsProperties corsProperties;
+    private final GatewayConfigHolder gatewayConfigHolder;
 
     public void applyCorsHeaders(ServerWebExchange exchange) {
         HttpHeaders responseHeaders = exchange.getResponse().getHeaders();
-        HttpHeaders requestHeaders = exchange.getRequest().getHeaders();
+        CorsPolicy corsPolicy = gatewayConfigHolder.current(exchange).corsPolicy();
 
-        CorsConfiguration corsConfiguration = new CorsConfiguration();
-        corsConfiguration.setAllowedOriginPatterns(corsProperties.getAllowedOriginPatterns());
-        corsConfiguration.setAllowedMethods(corsProperties.getAllowedMethods());
-        corsConfiguration.setAllowedHeaders(corsProperties.getAllowedHeaders());
-        corsConfiguration.setExposedHeaders(corsProperties.getExposedHeaders());
-        corsConfiguration.setAllowCredentials(corsProperties.getAllowCredentials());
-        if (corsProperties.getMaxAge() != null) {
-            corsConfiguration.setMaxAge(corsProperties.getMaxAge());
+        String allowedOrigin = corsPolicy.checkOrigin(exchange.getRequest().getHeaders().getFirst(HttpHeaders.ORIGIN));
+        if (allowedOrigin != null) {
+            responseHeaders.set(HttpHeaders.ACCESS_CONTROL_ALLOW_ORIGIN, allowedOrigin);
         }
-
-        String origin = requestHeaders.getFirst(HttpHeaders.ORIGIN);
-        if (origin != null) {
-            String allowedOrigin = corsConfiguration.checkOrigin(origin);
-            if (allowedOrigin != null) {
-                responseHeaders.set(HttpHeaders.ACCESS_CONTROL_ALLOW_ORIGIN, allowedOrigin);
-            }
-        }
-
-        if (Boolean.TRUE.equals(corsProperties.getAllowCredentials())) {
+        if (corsPolicy.isAllowCredentials()) {
             responseHeaders.set(HttpHeaders.ACCESS_CONTROL_ALLOW_CREDENTIALS, "true");
         }
-
-        if (corsProperties.getAllowedMethods() != null && !corsProperties.getAllowedMethods().isEmpty()) {
-            responseHeaders.set(HttpHeaders.ACCESS_CONTROL_ALLOW_METHODS, String.join(", ", corsProperties.getAllowedMethods()));
+        if (corsPolicy.allowMethods() != null) {
+            responseHeaders.set(HttpHeaders.ACCESS_CONTROL_ALLOW_METHODS, corsPolicy.allowMethods());
         }
-
-        if (corsProperties.getAllowedHeaders() != null && !corsProperties.getAllowedHeaders().isEmpty()) {
-            responseHeaders.set(HttpHeaders.ACCESS_CONTROL_ALLOW_HEADERS, String.join(", ", corsProperties.getAllowedHeaders()));
+        if (corsPolicy.allowHeaders() != null) {
+            responseHeaders.set(HttpHeaders.ACCESS_CONTROL_ALLOW_HEADERS, corsPolicy.allowHeaders());
         }
-
-        if (corsProperties.getExposedHeaders() != null && !corsProperties.getExposedHeaders().isEmpty()) {
-            responseHeaders.set(HttpHeaders.ACCESS_CONTROL_EXPOSE_HEADERS, String.join(", ", corsProperties.getExposedHeaders()));
+        if (corsPolicy.exposeHeaders() != null) {
+            responseHeaders.set(HttpHeaders.ACCESS_CONTROL_EXPOSE_HEADERS, corsPolicy.exposeHeaders());
         }
     }
 }
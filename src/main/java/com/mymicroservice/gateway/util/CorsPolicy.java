@@ -0,0 +1,239 @@
+package com.mymicroservice.gateway.util;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.mymicroservice.gateway.config.properties.CorsProperties;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.lang.Nullable;
+import org.springframework.util.StringUtils;
+import org.springframework.web.cors.CorsConfiguration;
+import org.springframework.web.cors.reactive.CorsConfigurationSource;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * CORS policy compiled once from {@link CorsProperties} and shared by {@code CorsWebFilter}
+ * (through {@link #configurationSource()}) and {@link CorsHeadersWriter}.
+ *
+ * <p>Header values are joined at construction. Origin checks go through a bounded cache of
+ * decisions, so an origin seen before is resolved with one map lookup instead of matching every
+ * configured pattern ({@code http://127.0.0.1:[*]} etc.). Hit/miss/eviction statistics are
+ * published as {@code cache.*} meters tagged with {@code cache=cors.origin}.
+ *
+ * <p>Complete preflight responses are cached the same way, keyed by origin, requested method
+ * and requested headers ({@code cache=cors.preflight}), see {@link #preflight}.
+ *
+ * <p>Part of a {@code GatewayConfigSnapshot}: a reload compiles a new policy with empty caches,
+ * and the cache meters move over to it.
+ */
+public class CorsPolicy {
+
+    public static final String CACHE_NAME = "cors.origin";
+    public static final String PREFLIGHT_CACHE_NAME = "cors.preflight";
+
+    private static final List<String> VARY_HEADERS = List.of(HttpHeaders.ORIGIN,
+            HttpHeaders.ACCESS_CONTROL_REQUEST_METHOD, HttpHeaders.ACCESS_CONTROL_REQUEST_HEADERS);
+    private static final Preflight REJECTED_PREFLIGHT =
+            new Preflight(false, HttpHeaders.readOnlyHttpHeaders(varyHeaders()));
+
+    /** Cached decision for a rejected origin; Caffeine cannot hold {@code null} values. */
+    private static final String REJECTED = new String("rejected");
+
+    private final CachedOriginCorsConfiguration configuration;
+    private final Cache<String, String> originDecisions;
+    private final Cache<PreflightKey, Preflight> preflights;
+    private final boolean allowCredentials;
+    private final String allowMethods;
+    private final String allowHeaders;
+    private final String exposeHeaders;
+
+    /**
+     * @throws IllegalStateException if the properties are not a valid CORS configuration;
+     *                               no meters are touched then
+     */
+    public CorsPolicy(CorsProperties corsProperties, MeterRegistry meterRegistry) {
+        configuration = new CachedOriginCorsConfiguration(this);
+        try {
+            configuration.setAllowedOriginPatterns(corsProperties.getAllowedOriginPatterns());
+            configuration.setAllowedMethods(corsProperties.getAllowedMethods());
+            configuration.setAllowedHeaders(corsProperties.getAllowedHeaders());
+            configuration.setExposedHeaders(corsProperties.getExposedHeaders());
+            configuration.setAllowCredentials(corsProperties.getAllowCredentials());
+            if (corsProperties.getMaxAge() != null) {
+                configuration.setMaxAge(corsProperties.getMaxAge());
+            }
+            configuration.validateAllowCredentials();
+        } catch (IllegalArgumentException e) {
+            throw new IllegalStateException("Invalid cors configuration: " + e.getMessage(), e);
+        }
+
+        originDecisions = Caffeine.newBuilder()
+                .maximumSize(corsProperties.getOriginCacheSize())
+                .recordStats()
+                .build();
+        monitor(meterRegistry, originDecisions, CACHE_NAME);
+        preflights = Caffeine.newBuilder()
+                .maximumSize(corsProperties.getPreflightCacheSize())
+                .recordStats()
+                .build();
+        monitor(meterRegistry, preflights, PREFLIGHT_CACHE_NAME);
+
+        allowCredentials = Boolean.TRUE.equals(corsProperties.getAllowCredentials());
+        allowMethods = joinOrNull(corsProperties.getAllowedMethods());
+        allowHeaders = joinOrNull(corsProperties.getAllowedHeaders());
+        exposeHeaders = joinOrNull(corsProperties.getExposedHeaders());
+    }
+
+    /**
+     * Same contract as {@link CorsConfiguration#checkOrigin(String)}, answered from the cache
+     * when the origin was checked before.
+     *
+     * @return the value for {@code Access-Control-Allow-Origin}, or {@code null} if not allowed
+     */
+    @Nullable
+    public String checkOrigin(@Nullable String origin) {
+        if (origin == null) {
+            return null;
+        }
+        String decision = originDecisions.get(origin, this::matchOrigin);
+        return decision == REJECTED ? null : decision;
+    }
+
+    /**
+     * Response to a CORS preflight with the given {@code Origin},
+     * {@code Access-Control-Request-Method} and (comma-joined, possibly {@code null})
+     * {@code Access-Control-Request-Headers}, with the same outcome {@code DefaultCorsProcessor}
+     * would produce. Cached, so a repeated preflight costs one lookup.
+     */
+    public Preflight preflight(String origin, String requestMethod, @Nullable String requestHeaders) {
+        return preflights.get(new PreflightKey(origin, requestMethod, requestHeaders), this::evaluatePreflight);
+    }
+
+    /**
+     * Source for {@code CorsWebFilter}: the same configuration for every path, origin checks
+     * served from this policy's cache.
+     */
+    public CorsConfigurationSource configurationSource() {
+        return exchange -> configuration;
+    }
+
+    public boolean isAllowCredentials() {
+        return allowCredentials;
+    }
+
+    /** {@code Access-Control-Allow-Methods} value, {@code null} if none configured. */
+    @Nullable
+    public String allowMethods() {
+        return allowMethods;
+    }
+
+    /** {@code Access-Control-Allow-Headers} value, {@code null} if none configured. */
+    @Nullable
+    public String allowHeaders() {
+        return allowHeaders;
+    }
+
+    /** {@code Access-Control-Expose-Headers} value, {@code null} if none configured. */
+    @Nullable
+    public String exposeHeaders() {
+        return exposeHeaders;
+    }
+
+    private String matchOrigin(String origin) {
+        String allowed = configuration.matchOrigin(origin);
+        return allowed != null ? allowed : REJECTED;
+    }
+
+    private Preflight evaluatePreflight(PreflightKey key) {
+        String allowedOrigin = checkOrigin(key.origin());
+        List<HttpMethod> allowedMethods = configuration.checkHttpMethod(HttpMethod.valueOf(key.requestMethod()));
+        List<String> requestHeaders = parseHeaderNames(key.requestHeaders());
+        List<String> allowedHeaders = configuration.checkHeaders(requestHeaders);
+        if (allowedOrigin == null || allowedMethods == null || (!requestHeaders.isEmpty() && allowedHeaders == null)) {
+            return REJECTED_PREFLIGHT;
+        }
+
+        HttpHeaders headers = varyHeaders();
+        headers.setAccessControlAllowOrigin(allowedOrigin);
+        headers.setAccessControlAllowMethods(allowedMethods);
+        if (allowedHeaders != null && !allowedHeaders.isEmpty()) {
+            headers.setAccessControlAllowHeaders(allowedHeaders);
+        }
+        if (allowCredentials) {
+            headers.setAccessControlAllowCredentials(true);
+        }
+        if (configuration.getMaxAge() != null) {
+            headers.setAccessControlMaxAge(configuration.getMaxAge());
+        }
+        return new Preflight(true, HttpHeaders.readOnlyHttpHeaders(headers));
+    }
+
+    private static List<String> parseHeaderNames(@Nullable String requestHeaders) {
+        if (requestHeaders == null) {
+            return List.of();
+        }
+        return Arrays.stream(StringUtils.tokenizeToStringArray(requestHeaders, ",")).toList();
+    }
+
+    private static HttpHeaders varyHeaders() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setVary(VARY_HEADERS);
+        return headers;
+    }
+
+    /**
+     * Cache meters of a previous policy would keep reporting its caches, since re-registering an
+     * existing meter returns the old one.
+     */
+    private static void monitor(MeterRegistry meterRegistry, Cache<?, ?> cache, String name) {
+        List<Meter> previous = meterRegistry.getMeters().stream()
+                .filter(meter -> name.equals(meter.getId().getTag("cache")))
+                .toList();
+        previous.forEach(meterRegistry::remove);
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, name);
+    }
+
+    private static String joinOrNull(List<String> values) {
+        return values == null || values.isEmpty() ? null : String.join(", ", values);
+    }
+
+    /**
+     * Precomputed preflight outcome: status 200 with {@code headers} when {@code allowed},
+     * otherwise 403 with only the {@code Vary} header.
+     *
+     * @param headers read-only, copied onto the response
+     */
+    public record Preflight(boolean allowed, HttpHeaders headers) {
+    }
+
+    private record PreflightKey(String origin, String requestMethod, @Nullable String requestHeaders) {
+    }
+
+    /**
+     * {@link CorsConfiguration} whose origin check - the only per-request pattern matching in
+     * {@code DefaultCorsProcessor} - goes through the policy cache.
+     */
+    private static final class CachedOriginCorsConfiguration extends CorsConfiguration {
+
+        private final CorsPolicy policy;
+
+        private CachedOriginCorsConfiguration(CorsPolicy policy) {
+            this.policy = policy;
+        }
+
+        @Override
+        @Nullable
+        public String checkOrigin(@Nullable String origin) {
+            return policy.checkOrigin(origin);
+        }
+
+        private String matchOrigin(String origin) {
+            return super.checkOrigin(origin);
+        }
+    }
+}
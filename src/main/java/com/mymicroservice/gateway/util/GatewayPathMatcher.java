@@ -0,0 +1,72 @@
+package com.mymicroservice.gateway.util;
+
+import com.mymicroservice.gateway.config.properties.GatewayCustomProperties;
+
+import java.util.List;
+
+/**
+ * Answers "is this path public / internal" from {@link GatewayCustomProperties} using
+ * {@link PathTrie}s compiled at construction.
+ *
+ * <p>Immutable: it is part of a {@code GatewayConfigSnapshot}, and a configuration reload
+ * compiles a new matcher instead of changing this one. Lookups are a trie walk.
+ *
+ * <ul>
+ *   <li>Public paths: prefix match ({@code /actuator} matches {@code /actuator/health}),
+ *       {@code /path/**} matches {@code /path} and everything below it.</li>
+ *   <li>Internal paths: exact match or sub-path ({@code /login} matches {@code /login/oauth},
+ *       but not {@code /api/users/my-login-page}).</li>
+ * </ul>
+ */
+public class GatewayPathMatcher {
+
+    private final PathTrie publicPaths;
+    private final PathTrie internalPaths;
+
+    /**
+     * @throws IllegalStateException if a configured path does not start with {@code /}
+     */
+    public GatewayPathMatcher(GatewayCustomProperties gatewayCustomProperties) {
+        GatewayCustomProperties.Public publicConfig = gatewayCustomProperties.getPublicPaths();
+        GatewayCustomProperties.Internal internalConfig = gatewayCustomProperties.getInternalPaths();
+        this.publicPaths = PathTrie.compile(
+                validated("gateway.public-paths.paths", publicConfig != null ? publicConfig.getPaths() : null),
+                PathTrie.MatchMode.PREFIX);
+        this.internalPaths = PathTrie.compile(
+                validated("gateway.internal-paths.paths", internalConfig != null ? internalConfig.getPaths() : null),
+                PathTrie.MatchMode.SEGMENT);
+    }
+
+    /**
+     * Checks if the request path is public (doesn't require JWT validation).
+     *
+     * @param path the request path
+     * @return true if path is public
+     */
+    public boolean isPublicPath(String path) {
+        return publicPaths.matches(path);
+    }
+
+    /**
+     * Checks if the path is an internal service-to-service path.
+     *
+     * @param path the request path
+     * @return true if internal path
+     */
+    public boolean isInternalPath(String path) {
+        return internalPaths.matches(path);
+    }
+
+    private static List<String> validated(String property, List<String> paths) {
+        if (paths == null) {
+            return null;
+        }
+        for (int i = 0; i < paths.size(); i++) {
+            String path = paths.get(i);
+            if (path != null && !path.isBlank() && !path.trim().startsWith("/")) {
+                throw new IllegalStateException(property + "[" + i + "] must start with '/': " + path);
+            }
+        }
+        return paths;
+    }
+}
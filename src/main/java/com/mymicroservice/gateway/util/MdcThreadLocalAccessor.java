@@ -0,0 +1,56 @@
+package com.mymicroservice.gateway.util;
+
+import io.micrometer.context.ThreadLocalAccessor;
+import org.slf4j.MDC;
+
+/**
+ * Bridges one MDC entry to the Reactor context key of the same name.
+ *
+ * <p>{@link MdcUtil#mdcScope} uses these accessors to put the request's {@code traceId} /
+ * {@code serviceName} into MDC around a log call and to put back whatever was there before, so
+ * MDC never leaks between requests sharing an event-loop thread and nothing has to clear it.
+ *
+ * <p>Registered through {@code META-INF/services/io.micrometer.context.ThreadLocalAccessor}.
+ */
+public abstract class MdcThreadLocalAccessor implements ThreadLocalAccessor<String> {
+
+    private final String key;
+
+    protected MdcThreadLocalAccessor(String key) {
+        this.key = key;
+    }
+
+    @Override
+    public Object key() {
+        return key;
+    }
+
+    @Override
+    public String getValue() {
+        return MDC.get(key);
+    }
+
+    @Override
+    public void setValue(String value) {
+        MDC.put(key, value);
+    }
+
+    @Override
+    public void setValue() {
+        MDC.remove(key);
+    }
+
+    public static final class TraceId extends MdcThreadLocalAccessor {
+
+        public TraceId() {
+            super(MdcUtil.TRACE_ID_KEY);
+        }
+    }
+
+    public static final class ServiceName extends MdcThreadLocalAccessor {
+
+        public ServiceName() {
+            super(MdcUtil.SERVICE_NAME_KEY);
+        }
+    }
+}
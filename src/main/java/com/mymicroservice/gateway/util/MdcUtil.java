@@ -1,12 +1,10 @@
 package com.mymicroservice.gateway.util;
 
+import io.micrometer.context.ContextSnapshot;
+import io.micrometer.context.ContextSnapshotFactory;
 import lombok.experimental.UtilityClass;
-import org.slf4j.MDC;
-import reactor.core.publisher.Mono;
-import reactor.util.context.Context;
-
-import java.util.Optional;
-import java.util.UUID;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.util.context.ContextView;
 
 @UtilityClass
 public class MdcUtil {
@@ -16,70 +14,46 @@ public class MdcUtil {
     public static final String TRACE_ID_HEADER = "X-Trace-Id";
 
     /**
-     * Creates a Reactor context with MDC values
+     * Exchange attribute holding the trace id resolved for the current request
      */
-    public static Context createReactorContext() {
-        String requestId = MDC.get(TRACE_ID_KEY);
-        String serviceName = MDC.get(SERVICE_NAME_KEY);
+    public static final String TRACE_ID_ATTRIBUTE = MdcUtil.class.getName() + ".traceId";
 
-        return Context.of(
-                TRACE_ID_KEY, Optional.ofNullable(requestId).orElse(UUID.randomUUID().toString()),
-                SERVICE_NAME_KEY, Optional.ofNullable(serviceName).orElse("gateway")
-        );
-    }
+    private static final ContextSnapshotFactory MDC_SNAPSHOTS = ContextSnapshotFactory.builder().build();
 
     /**
-     * Restores the MDC from the Reactor context
+     * Resolves the trace id of the request once: the exchange attribute if an earlier filter
+     * already resolved it, otherwise the incoming {@code X-Trace-Id} header, otherwise a new id
+     * from the generator. The result is stored as {@link #TRACE_ID_ATTRIBUTE} so later filters
+     * reuse it.
      */
-    public static void restoreMdc(Context context) {
-        if (context.hasKey(TRACE_ID_KEY)) {
-            String requestId = context.get(TRACE_ID_KEY);
-            if (!requestId.isEmpty()) {
-                MDC.put(TRACE_ID_KEY, requestId);
-            }
+    public static String resolveTraceId(ServerWebExchange exchange, TraceIdGenerator generator) {
+        String traceId = exchange.getAttribute(TRACE_ID_ATTRIBUTE);
+        if (traceId != null) {
+            return traceId;
         }
-        if (context.hasKey(SERVICE_NAME_KEY)) {
-            String serviceName = context.get(SERVICE_NAME_KEY);
-            if (!serviceName.isEmpty()) {
-                MDC.put(SERVICE_NAME_KEY, serviceName);
-            }
+        traceId = exchange.getRequest().getHeaders().getFirst(TRACE_ID_HEADER);
+        if (traceId == null || traceId.isBlank()) {
+            traceId = generator.generate();
         }
+        exchange.getAttributes().put(TRACE_ID_ATTRIBUTE, traceId);
+        return traceId;
     }
 
     /**
-     * Sets the MDC values
+     * Puts {@code traceId} / {@code serviceName} of the request's Reactor context into MDC (through
+     * {@link MdcThreadLocalAccessor}) until the scope is closed, which restores the previous values.
+     * Used around the gateway's own log calls, so MDC is only touched when something is logged.
      */
-    public static void setMdc(String requestId, String serviceName) {
-        if (requestId != null && !requestId.isEmpty()) {
-            MDC.put(TRACE_ID_KEY, requestId);
-        }
-        if (serviceName != null && !serviceName.isEmpty()) {
-            MDC.put(SERVICE_NAME_KEY, serviceName);
-        }
+    public static ContextSnapshot.Scope mdcScope(ContextView context) {
+        return MDC_SNAPSHOTS.setThreadLocalsFrom(context, TRACE_ID_KEY, SERVICE_NAME_KEY);
     }
 
     /**
-     * Cleans up the MDC
+     * Runs {@code logging} inside {@link #mdcScope(ContextView)}
      */
-    public static void clearMdc() {
-        MDC.clear();
-    }
-
-    /**
-     * Operator for maintaining MDC in the reactive chain
-     */
-    public static <T> Mono<T> withMdc(Mono<T> mono) {
-        return Mono.deferContextual(contextView -> {
-            // Restoring MDC from context
-            restoreMdc(Context.of(contextView));
-            return mono
-                    .contextWrite(ctx -> ctx.putAll(contextView))
-                    .doOnEach(signal -> {
-                        // Support MDC for each signal
-                        if (signal.isOnNext() || signal.isOnComplete() || signal.isOnError()) {
-                            restoreMdc(Context.of(contextView));
-                        }
-                    });
-        });
+    public static void logWithMdc(ContextView context, Runnable logging) {
+        try (ContextSnapshot.Scope ignored = mdcScope(context)) {
+            logging.run();
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,156 @@
+package com.mymicroservice.gateway.util;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Immutable character trie over configured path patterns.
+ *
+ * <p>Built once from a list of patterns, then answers {@link #matches(String)} by walking the
+ * request path character by character: cost is O(path length) regardless of how many patterns
+ * are configured, and a lookup does not allocate.
+ *
+ * <p>Supported patterns:
+ * <ul>
+ *   <li>{@code /path} - matched according to the trie's {@link MatchMode}</li>
+ *   <li>{@code /path/**} - matches {@code /path} itself and everything below {@code /path/}</li>
+ * </ul>
+ * Any other wildcard is treated literally.
+ */
+public final class PathTrie {
+
+    private static final String GLOB_SUFFIX = "/**";
+    private static final PathTrie EMPTY = new PathTrie(new Node(new char[0], new Node[0], false, false));
+
+    /**
+     * How a plain (non-glob) pattern is compared with the request path.
+     */
+    public enum MatchMode {
+        /** The request path starts with the pattern ({@code /actuator} matches {@code /actuators}). */
+        PREFIX,
+        /** The request path equals the pattern or continues with {@code /} after it. */
+        SEGMENT
+    }
+
+    private final Node root;
+
+    private PathTrie(Node root) {
+        this.root = root;
+    }
+
+    public static PathTrie empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Compiles the given patterns; {@code null} or blank entries are ignored.
+     */
+    public static PathTrie compile(List<String> patterns, MatchMode mode) {
+        if (patterns == null || patterns.isEmpty()) {
+            return EMPTY;
+        }
+        NodeBuilder root = new NodeBuilder();
+        for (String pattern : patterns) {
+            if (pattern == null || pattern.isBlank()) {
+                continue;
+            }
+            String trimmed = pattern.trim();
+            if (trimmed.endsWith(GLOB_SUFFIX)) {
+                root.insert(stripTrailingSlash(trimmed.substring(0, trimmed.length() - GLOB_SUFFIX.length())),
+                        MatchMode.SEGMENT);
+            } else {
+                root.insert(mode == MatchMode.SEGMENT ? stripTrailingSlash(trimmed) : trimmed, mode);
+            }
+        }
+        return new PathTrie(root.build());
+    }
+
+    public boolean matches(String path) {
+        if (path == null) {
+            return false;
+        }
+        Node node = root;
+        if (node.prefix || (node.segment && (path.isEmpty() || path.charAt(0) == '/'))) {
+            return true;
+        }
+        int length = path.length();
+        for (int i = 0; i < length; i++) {
+            node = node.child(path.charAt(i));
+            if (node == null) {
+                return false;
+            }
+            if (node.prefix) {
+                return true;
+            }
+            if (node.segment && (i + 1 == length || path.charAt(i + 1) == '/')) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String stripTrailingSlash(String pattern) {
+        int end = pattern.length();
+        while (end > 1 && pattern.charAt(end - 1) == '/') {
+            end--;
+        }
+        return pattern.substring(0, end);
+    }
+
+    private static final class Node {
+
+        private final char[] keys;
+        private final Node[] children;
+        private final boolean prefix;
+        private final boolean segment;
+
+        private Node(char[] keys, Node[] children, boolean prefix, boolean segment) {
+            this.keys = keys;
+            this.children = children;
+            this.prefix = prefix;
+            this.segment = segment;
+        }
+
+        private Node child(char c) {
+            char[] k = keys;
+            for (int i = 0; i < k.length; i++) {
+                if (k[i] == c) {
+                    return children[i];
+                }
+            }
+            return null;
+        }
+    }
+
+    private static final class NodeBuilder {
+
+        private final Map<Character, NodeBuilder> children = new TreeMap<>();
+        private boolean prefix;
+        private boolean segment;
+
+        private void insert(String pattern, MatchMode mode) {
+            NodeBuilder node = this;
+            for (int i = 0; i < pattern.length(); i++) {
+                node = node.children.computeIfAbsent(pattern.charAt(i), c -> new NodeBuilder());
+            }
+            if (mode == MatchMode.PREFIX) {
+                node.prefix = true;
+            } else {
+                node.segment = true;
+            }
+        }
+
+        private Node build() {
+            char[] keys = new char[children.size()];
+            Node[] nodes = new Node[children.size()];
+            int i = 0;
+            for (Map.Entry<Character, NodeBuilder> entry : children.entrySet()) {
+                keys[i] = entry.getKey();
+                nodes[i] = entry.getValue().build();
+                i++;
+            }
+            return new Node(keys, nodes, prefix, segment);
+        }
+    }
+}
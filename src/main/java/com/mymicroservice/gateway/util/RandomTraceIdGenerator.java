@@ -0,0 +1,79 @@
+package com.mymicroservice.gateway.util;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * {@link TraceIdGenerator} backed by {@link ThreadLocalRandom}: 128 random bits per id, no
+ * shared state and no {@code SecureRandom}, unlike {@code UUID.randomUUID()}. Trace ids only
+ * need to be unique, not unpredictable.
+ *
+ * <ul>
+ *   <li>{@link Format#UUID} - {@code 8-4-4-4-12} with version 4 / IETF variant bits, same shape
+ *       as {@code UUID.randomUUID().toString()}</li>
+ *   <li>{@link Format#W3C} - 32 lowercase hex characters, never all zeros: a valid
+ *       {@code trace-id} field of a W3C {@code traceparent} header</li>
+ * </ul>
+ */
+public final class RandomTraceIdGenerator implements TraceIdGenerator {
+
+    public static final RandomTraceIdGenerator DEFAULT = new RandomTraceIdGenerator(Format.UUID);
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    public enum Format {
+        UUID,
+        W3C
+    }
+
+    private final Format format;
+
+    public RandomTraceIdGenerator(Format format) {
+        this.format = format != null ? format : Format.UUID;
+    }
+
+    @Override
+    public String generate() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long high = random.nextLong();
+        long low = random.nextLong();
+        return format == Format.W3C ? w3c(high, low) : uuid(high, low);
+    }
+
+    public Format getFormat() {
+        return format;
+    }
+
+    private static String uuid(long high, long low) {
+        high = (high & 0xffffffffffff0fffL) | 0x0000000000004000L; // version 4
+        low = (low & 0x3fffffffffffffffL) | 0x8000000000000000L;   // IETF variant
+
+        char[] chars = new char[36];
+        writeHex(chars, 0, high >>> 32, 8);
+        chars[8] = '-';
+        writeHex(chars, 9, high >>> 16, 4);
+        chars[13] = '-';
+        writeHex(chars, 14, high, 4);
+        chars[18] = '-';
+        writeHex(chars, 19, low >>> 48, 4);
+        chars[23] = '-';
+        writeHex(chars, 24, low, 12);
+        return new String(chars);
+    }
+
+    private static String w3c(long high, long low) {
+        if (high == 0 && low == 0) {
+            low = 1; // all-zero trace-id is invalid
+        }
+        char[] chars = new char[32];
+        writeHex(chars, 0, high, 16);
+        writeHex(chars, 16, low, 16);
+        return new String(chars);
+    }
+
+    private static void writeHex(char[] target, int offset, long value, int digits) {
+        for (int i = offset + digits - 1; i >= offset; i--) {
+            target[i] = HEX[(int) (value & 0xf)];
+            value >>>= 4;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.mymicroservice.gateway.util;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Fixed JSON error response encoded once at class load.
+ *
+ * <p>The body lives in a read-only direct buffer shared by all requests; each write wraps a
+ * slice of it, so nothing is encoded or copied per response and Netty writes it to the socket
+ * as is. Releasing the per-response wrapper leaves the shared buffer untouched.
+ */
+public final class StaticJsonResponse {
+
+    public static final StaticJsonResponse UNAUTHORIZED =
+            of(HttpStatus.UNAUTHORIZED, "Unauthorized", "Authentication required");
+    public static final StaticJsonResponse FORBIDDEN =
+            of(HttpStatus.FORBIDDEN, "Forbidden", "Access denied");
+
+    private final HttpStatus status;
+    private final ByteBuffer body;
+
+    private StaticJsonResponse(HttpStatus status, ByteBuffer body) {
+        this.status = status;
+        this.body = body;
+    }
+
+    /**
+     * @param error   short reason, e.g. {@code Unauthorized}
+     * @param message human-readable description; must not need JSON escaping
+     */
+    public static StaticJsonResponse of(HttpStatus status, String error, String message) {
+        byte[] bytes = """
+            {
+                "status": %d,
+                "error": "%s",
+                "message": "%s"
+            }""".formatted(status.value(), error, message).getBytes(StandardCharsets.UTF_8);
+        ByteBuffer body = ByteBuffer.allocateDirect(bytes.length).put(bytes).flip();
+        return new StaticJsonResponse(status, body.asReadOnlyBuffer());
+    }
+
+    public HttpStatus status() {
+        return status;
+    }
+
+    public int contentLength() {
+        return body.remaining();
+    }
+
+    /**
+     * Sets status, {@code Content-Type} and {@code Content-Length} and writes the body. Other
+     * headers (CORS, trace id) must be set before calling this.
+     */
+    public Mono<Void> writeTo(ServerWebExchange exchange) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(status);
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        response.getHeaders().setContentLength(body.remaining());
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+    }
+}
@@ -0,0 +1,14 @@
+package com.mymicroservice.gateway.util;
+
+/**
+ * Generates trace ids for requests that arrive without {@code X-Trace-Id}.
+ *
+ * <p>Called on Netty event-loop threads for every such request, so implementations must not
+ * block. The default bean is a {@link RandomTraceIdGenerator}; declare a {@code @Primary}
+ * {@code TraceIdGenerator} bean to replace it.
+ */
+@FunctionalInterface
+public interface TraceIdGenerator {
+
+    String generate();
+}
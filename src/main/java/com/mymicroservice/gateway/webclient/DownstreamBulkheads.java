@@ -0,0 +1,147 @@
+package com.mymicroservice.gateway.webclient;
+
+import com.mymicroservice.gateway.config.properties.BulkheadProperties;
+import com.mymicroservice.gateway.config.properties.DownstreamServicesProperties;
+import com.mymicroservice.gateway.filter.bulkhead.Bulkhead;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * One {@link Bulkhead} per downstream service configured under {@code services.*}, shared by the
+ * service's WebClient and every gateway route whose URI has the service's {@code host:port}, so a
+ * slow service exhausts only its own budget ({@code lb://} routes match a service by its
+ * {@code discovery-id}). Routes listed in {@code gateway.bulkhead.routes}
+ * get a bulkhead of their own instead.
+ *
+ * <p>Metrics, tag {@code bulkhead} (service name or route id):
+ * <ul>
+ *   <li>{@code gateway.bulkhead.max.calls} - gauge, {@code max-concurrent-calls}</li>
+ *   <li>{@code gateway.bulkhead.available.calls} - gauge, free slots</li>
+ *   <li>{@code gateway.bulkhead.waiting.calls} - gauge, calls waiting for a slot</li>
+ *   <li>{@code gateway.bulkhead.rejected} - counter, calls failed fast</li>
+ * </ul>
+ */
+@Component
+public class DownstreamBulkheads {
+
+    private final boolean enabled;
+    private final Map<String, Bulkhead> services = new HashMap<>();
+    private final Map<String, Bulkhead> servicesByAuthority = new HashMap<>();
+    private final Map<String, Bulkhead> servicesByDiscoveryId = new HashMap<>();
+    private final Map<String, Bulkhead> routeOverrides = new HashMap<>();
+    private final Map<String, RouteBulkhead> routes = new ConcurrentHashMap<>();
+    private final Map<String, Counter> rejected = new HashMap<>();
+
+    public DownstreamBulkheads(DownstreamServicesProperties servicesProperties, BulkheadProperties properties,
+                               MeterRegistry meterRegistry) {
+        this.enabled = properties.isEnabled();
+        servicesProperties.forEach((name, service) -> {
+            if (service == null || service.getUrl() == null || service.getUrl().isBlank()) {
+                return;
+            }
+            Bulkhead bulkhead = bulkhead("services." + name + ".bulkhead", name, service.getBulkhead());
+            services.put(name, bulkhead);
+            servicesByAuthority.putIfAbsent(DownstreamProtocols.authority(URI.create(service.getUrl())), bulkhead);
+            if (service.getDiscoveryId() != null) {
+                servicesByDiscoveryId.putIfAbsent(service.getDiscoveryId().toLowerCase(), bulkhead);
+            }
+        });
+        properties.getRoutes().forEach((routeId, limits) ->
+                routeOverrides.put(routeId, bulkhead("gateway.bulkhead.routes." + routeId, routeId, limits)));
+
+        for (Bulkhead bulkhead : services.values()) {
+            register(bulkhead, meterRegistry);
+        }
+        for (Bulkhead bulkhead : routeOverrides.values()) {
+            register(bulkhead, meterRegistry);
+        }
+    }
+
+    /**
+     * @return the service's bulkhead, empty when bulkheads are disabled or the service is unknown
+     */
+    public Optional<Bulkhead> forService(String serviceName) {
+        return enabled ? Optional.ofNullable(services.get(serviceName)) : Optional.empty();
+    }
+
+    /**
+     * Looked up once per {@link Route} instance: a route refresh builds new ones, so a route whose
+     * {@code uri} changed moves to the new service's bulkhead.
+     *
+     * @return the route's own bulkhead, else the bulkhead of the service its URI points at
+     */
+    public Optional<Bulkhead> forRoute(Route route) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        RouteBulkhead memo = routes.get(route.getId());
+        if (memo == null || memo.route() != route) {
+            memo = new RouteBulkhead(route, lookup(route));
+            routes.put(route.getId(), memo);
+        }
+        return memo.bulkhead();
+    }
+
+    private Optional<Bulkhead> lookup(Route route) {
+        Bulkhead own = routeOverrides.get(route.getId());
+        if (own != null) {
+            return Optional.of(own);
+        }
+        URI uri = route.getUri();
+        if (uri.getHost() == null) {
+            return Optional.empty();
+        }
+        return "lb".equalsIgnoreCase(uri.getScheme())
+                ? Optional.ofNullable(servicesByDiscoveryId.get(uri.getHost().toLowerCase()))
+                : Optional.ofNullable(servicesByAuthority.get(DownstreamProtocols.authority(uri)));
+    }
+
+    /**
+     * Counts a call the bulkhead failed fast.
+     */
+    public void rejected(Bulkhead bulkhead) {
+        Counter counter = rejected.get(bulkhead.name());
+        if (counter != null) {
+            counter.increment();
+        }
+    }
+
+    private void register(Bulkhead bulkhead, MeterRegistry meterRegistry) {
+        String name = bulkhead.name();
+        Gauge.builder("gateway.bulkhead.max.calls", bulkhead, Bulkhead::maxConcurrentCalls)
+                .description("Calls a bulkhead lets through at once")
+                .tag("bulkhead", name)
+                .register(meterRegistry);
+        Gauge.builder("gateway.bulkhead.available.calls", bulkhead, Bulkhead::availableCalls)
+                .description("Free slots of a bulkhead")
+                .tag("bulkhead", name)
+                .register(meterRegistry);
+        Gauge.builder("gateway.bulkhead.waiting.calls", bulkhead, Bulkhead::waitingCalls)
+                .description("Calls waiting for a slot of a bulkhead")
+                .tag("bulkhead", name)
+                .register(meterRegistry);
+        rejected.put(name, Counter.builder("gateway.bulkhead.rejected")
+                .description("Calls failed fast by a full bulkhead")
+                .tag("bulkhead", name)
+                .register(meterRegistry));
+    }
+
+    private record RouteBulkhead(Route route, Optional<Bulkhead> bulkhead) {
+    }
+
+    private static Bulkhead bulkhead(String property, String name, DownstreamServicesProperties.Bulkhead limits) {
+        if (limits.getMaxConcurrentCalls() < 1) {
+            throw new IllegalStateException(property + ".max-concurrent-calls must be at least 1");
+        }
+        return new Bulkhead(name, limits.getMaxConcurrentCalls(), limits.getMaxWait());
+    }
+}
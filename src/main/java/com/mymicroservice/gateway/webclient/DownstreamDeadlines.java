@@ -0,0 +1,85 @@
+package com.mymicroservice.gateway.webclient;
+
+import com.mymicroservice.gateway.config.properties.DeadlineProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Deadlines of downstream calls, shared by the gateway routes and the {@code WebClient}s: a call
+ * that may take {@code timeout} is sent with {@code now + timeout}, or with the deadline it
+ * already carries when that one is earlier.
+ *
+ * <p>Metrics: {@code gateway.upstream.cancelled} - counter of downstream calls abandoned before
+ * their response arrived, tags {@code via=route|webclient} and {@code target} (route id or service
+ * name).
+ */
+@Component
+public class DownstreamDeadlines {
+
+    /** No deadline: neither a timeout nor an incoming deadline applies. */
+    public static final long NONE = Long.MAX_VALUE;
+
+    private final DeadlineProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Counter> cancelled = new ConcurrentHashMap<>();
+
+    public DownstreamDeadlines(DeadlineProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    public String header() {
+        return properties.getHeader();
+    }
+
+    /**
+     * @return the deadline the client sent, or {@link #NONE} when it sent none, a malformed one,
+     *         or {@code accept-incoming} is off
+     */
+    public long incoming(HttpHeaders headers) {
+        return properties.isAcceptIncoming() ? parse(headers.getFirst(properties.getHeader())) : NONE;
+    }
+
+    /**
+     * @param notAfter deadline the call already has, {@link #NONE} if none
+     * @param timeout  how long the gateway waits for the response, {@code null} for no limit
+     * @return epoch milliseconds, or {@link #NONE}
+     */
+    public long deadline(long notAfter, Duration timeout) {
+        if (timeout == null) {
+            return notAfter;
+        }
+        return Math.min(notAfter, System.currentTimeMillis() + timeout.toMillis());
+    }
+
+    public void cancelled(String via, String target) {
+        cancelled.computeIfAbsent(via + ' ' + target, key -> Counter.builder("gateway.upstream.cancelled")
+                        .description("Downstream calls cancelled before their response arrived")
+                        .tag("via", via)
+                        .tag("target", target)
+                        .register(meterRegistry))
+                .increment();
+    }
+
+    public static long parse(String value) {
+        if (value == null || value.isBlank()) {
+            return NONE;
+        }
+        try {
+            long deadline = Long.parseLong(value.trim());
+            return deadline > 0 ? deadline : NONE;
+        } catch (NumberFormatException e) {
+            return NONE;
+        }
+    }
+}
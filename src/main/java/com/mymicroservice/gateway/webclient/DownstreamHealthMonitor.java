@@ -0,0 +1,125 @@
+package com.mymicroservice.gateway.webclient;
+
+import com.mymicroservice.gateway.config.properties.DownstreamServicesProperties;
+import com.mymicroservice.gateway.config.properties.HealthAggregationProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Polls the health endpoint of every service under {@code services.*} in the background and
+ * keeps the last result per service in memory, so {@code GET /actuators/health} never calls
+ * downstream itself.
+ *
+ * <ul>
+ *   <li>all services are polled in parallel every {@code gateway.health.refresh-interval};</li>
+ *   <li>each call is bounded by {@code gateway.health.timeout}, a timeout or error is {@code DOWN};</li>
+ *   <li>a result older than {@code gateway.health.stale-after} (poller stuck, not yet polled)
+ *       is reported as {@code UNKNOWN}.</li>
+ * </ul>
+ */
+@Slf4j
+@Component
+public class DownstreamHealthMonitor implements SmartLifecycle {
+
+    public static final String DOWN = "DOWN";
+    public static final String UNKNOWN = "UNKNOWN";
+
+    private static final String INTERNAL_CALL_HEADER = "X-Internal-Call";
+    private static final String SOURCE_SERVICE_HEADER = "X-Source-Service";
+
+    private final DownstreamWebClients downstreamWebClients;
+    private final DownstreamServicesProperties services;
+    private final HealthAggregationProperties properties;
+    private final String serviceName;
+
+    private final Map<String, ServiceHealth> lastResults = new ConcurrentHashMap<>();
+    private volatile Disposable poller;
+
+    public DownstreamHealthMonitor(DownstreamWebClients downstreamWebClients,
+                                   DownstreamServicesProperties services,
+                                   HealthAggregationProperties properties,
+                                   @Value("${spring.application.name}") String serviceName) {
+        this.downstreamWebClients = downstreamWebClients;
+        this.services = services;
+        this.properties = properties;
+        this.serviceName = serviceName;
+    }
+
+    @Override
+    public void start() {
+        poller = Flux.interval(Duration.ZERO, properties.getRefreshInterval())
+                .onBackpressureDrop()
+                .concatMap(tick -> refresh())
+                .subscribe();
+    }
+
+    @Override
+    public void stop() {
+        Disposable current = poller;
+        if (current != null) {
+            current.dispose();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        Disposable current = poller;
+        return current != null && !current.isDisposed();
+    }
+
+    /**
+     * Polls all services once, in parallel; completes when every call finished or timed out.
+     */
+    public Mono<Void> refresh() {
+        return Flux.fromIterable(downstreamWebClients.serviceNames())
+                .flatMap(this::check)
+                .then();
+    }
+
+    /**
+     * Last known status per service, {@code UNKNOWN} when missing or stale.
+     */
+    public Map<String, String> snapshot() {
+        Instant staleBefore = Instant.now().minus(properties.getStaleAfter());
+        Map<String, String> statuses = new LinkedHashMap<>();
+        for (String name : downstreamWebClients.serviceNames()) {
+            ServiceHealth health = lastResults.get(name);
+            statuses.put(name, health == null || !health.checkedAt().isAfter(staleBefore) ? UNKNOWN : health.status());
+        }
+        return statuses;
+    }
+
+    private Mono<Void> check(String name) {
+        return downstreamWebClients.get(name).get()
+                .uri(healthPath(name))
+                .header(INTERNAL_CALL_HEADER, "true")
+                .header(SOURCE_SERVICE_HEADER, serviceName)
+                .retrieve()
+                .bodyToMono(Map.class)
+                .map(health -> health.getOrDefault("status", UNKNOWN).toString())
+                .timeout(properties.getTimeout())
+                .doOnError(e -> log.debug("Health check of {} failed: {}", name, e.toString()))
+                .onErrorReturn(DOWN)
+                .doOnNext(status -> lastResults.put(name, new ServiceHealth(status, Instant.now())))
+                .then();
+    }
+
+    private String healthPath(String name) {
+        DownstreamServicesProperties.Service service = services.get(name);
+        return service != null ? service.getHealthPath() : "/actuator/health";
+    }
+
+    private record ServiceHealth(String status, Instant checkedAt) {
+    }
+}
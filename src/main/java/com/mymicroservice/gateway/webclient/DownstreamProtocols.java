@@ -0,0 +1,64 @@
+package com.mymicroservice.gateway.webclient;
+
+import com.mymicroservice.gateway.config.properties.DownstreamServicesProperties;
+import lombok.experimental.UtilityClass;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.Http2AllocationStrategy;
+import reactor.netty.http.client.HttpClient;
+
+import java.net.URI;
+
+/**
+ * Maps {@link DownstreamServicesProperties.Protocol} onto Reactor Netty, shared by the service
+ * WebClients and the gateway routing filter so both talk to a service the same way.
+ */
+@UtilityClass
+public class DownstreamProtocols {
+
+    public static boolean isHttp2(DownstreamServicesProperties.Protocol protocol) {
+        return protocol == DownstreamServicesProperties.Protocol.H2C
+                || protocol == DownstreamServicesProperties.Protocol.H2;
+    }
+
+    /**
+     * @return {@code httpClient} restricted to the given protocol; unchanged for {@code HTTP11}
+     */
+    public static HttpClient apply(HttpClient httpClient, DownstreamServicesProperties.Protocol protocol) {
+        return switch (protocol) {
+            case HTTP11 -> httpClient;
+            case H2C -> httpClient.protocol(HttpProtocol.H2C);
+            case H2 -> httpClient.protocol(HttpProtocol.H2, HttpProtocol.HTTP11);
+        };
+    }
+
+    /**
+     * Pool sizing for multiplexed connections: a few connections, many streams on each.
+     */
+    public static Http2AllocationStrategy allocationStrategy(DownstreamServicesProperties.Pool pool) {
+        return Http2AllocationStrategy.builder()
+                .maxConnections(pool.getHttp2MaxConnections())
+                .maxConcurrentStreams(pool.getMaxConcurrentStreams())
+                .build();
+    }
+
+    /**
+     * @throws IllegalStateException if the protocol cannot be used with the service url
+     */
+    public static void validate(String name, DownstreamServicesProperties.Service service) {
+        if (service.getProtocol() == DownstreamServicesProperties.Protocol.H2
+                && !service.getUrl().regionMatches(true, 0, "https:", 0, 6)) {
+            throw new IllegalStateException("services." + name + ".protocol H2 requires an https url");
+        }
+    }
+
+    /**
+     * @return {@code host:port} of the uri, with the scheme's default port when none is given
+     */
+    public static String authority(URI uri) {
+        int port = uri.getPort();
+        if (port == -1) {
+            port = "https".equalsIgnoreCase(uri.getScheme()) ? 443 : 80;
+        }
+        return uri.getHost().toLowerCase() + ':' + port;
+    }
+}
@@ -0,0 +1,37 @@
+package com.mymicroservice.gateway.webclient;
+
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * One {@link WebClient} per downstream service configured under {@code services.*}, keyed by
+ * service name. The named client beans ({@code userServiceClient}, ...) are taken from here, so
+ * every consumer of a service shares its connection pool.
+ */
+public class DownstreamWebClients {
+
+    private final Map<String, WebClient> clients;
+
+    public DownstreamWebClients(Map<String, WebClient> clients) {
+        this.clients = Collections.unmodifiableMap(new LinkedHashMap<>(clients));
+    }
+
+    /**
+     * @throws IllegalStateException if the service is not configured
+     */
+    public WebClient get(String serviceName) {
+        WebClient client = clients.get(serviceName);
+        if (client == null) {
+            throw new IllegalStateException("services." + serviceName + ".url is not configured");
+        }
+        return client;
+    }
+
+    public Set<String> serviceNames() {
+        return clients.keySet();
+    }
+}
@@ -0,0 +1,193 @@
+package com.mymicroservice.gateway.integration;
+
+import com.mymicroservice.gateway.filter.cache.CachedResponse;
+import com.mymicroservice.gateway.filter.cache.LastKnownGoodStore;
+import com.mymicroservice.gateway.filter.cache.ResponseCacheStore;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Route filters on routes configured the way {@code application-prod.yaml} configures them,
+ * against a local service that counts the requests it gets.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class RouteFiltersTests {
+
+    private static final String BODY = "[{\"id\":1,\"name\":\"book\"}]";
+    private static final Duration SLOW = Duration.ofMillis(500);
+    private static final Map<String, AtomicInteger> CALLS = new ConcurrentHashMap<>();
+
+    private static volatile boolean failing;
+    private static DisposableServer service;
+
+    @Autowired
+    private WebTestClient client;
+
+    @Autowired
+    private ResponseCacheStore responseCacheStore;
+
+    @Autowired
+    private LastKnownGoodStore lastKnownGoodStore;
+
+    @LocalServerPort
+    private int port;
+
+    @DynamicPropertySource
+    static void routes(DynamicPropertyRegistry registry) {
+        service = HttpServer.create()
+                .host("127.0.0.1")
+                .port(0)
+                .handle((request, response) -> {
+                    int call = CALLS.computeIfAbsent(request.path(), path -> new AtomicInteger()).incrementAndGet();
+                    if (failing && request.path().startsWith("auth/last-known-good/")) {
+                        return response.status(500).send();
+                    }
+                    boolean slowHedged = request.path().startsWith("auth/hedged/") && call == 1;
+                    boolean slow = slowHedged || request.path().startsWith("auth/coalesced/");
+                    return Mono.delay(slow ? SLOW : Duration.ZERO)
+                            .then(response.header(HttpHeaders.CACHE_CONTROL, "max-age=60")
+                                    .header(HttpHeaders.CONTENT_TYPE, "application/json")
+                                    .sendString(Mono.just(slowHedged ? "slow" : BODY))
+                                    .then());
+                })
+                .bindNow();
+        String uri = "http://127.0.0.1:" + service.port();
+
+        registry.add("gateway.public-paths.paths[0]", () -> "/auth/cached/**");
+        registry.add("gateway.public-paths.paths[1]", () -> "/auth/coalesced/**");
+        registry.add("gateway.public-paths.paths[2]", () -> "/auth/last-known-good/**");
+        registry.add("gateway.public-paths.paths[3]", () -> "/auth/hedged/**");
+        route(registry, 0, "cached", uri, "/auth/cached/**", "ResponseCache=30s");
+        route(registry, 1, "coalesced", uri, "/auth/coalesced/**", "RequestCoalescing");
+        route(registry, 2, "last-known-good", uri, "/auth/last-known-good/**", "LastKnownGood");
+        String breaker = "spring.cloud.gateway.server.webflux.routes[2].filters[1]";
+        registry.add(breaker + ".name", () -> "CircuitBreaker");
+        registry.add(breaker + ".args.name", () -> "orderServiceCircuitBreaker");
+        registry.add(breaker + ".args.fallbackUri", () -> "forward:/fallback/order");
+        registry.add(breaker + ".args.statusCodes", () -> "500");
+        route(registry, 3, "hedged", uri, "/auth/hedged/**");
+        String hedge = "spring.cloud.gateway.server.webflux.routes[3].filters[0]";
+        registry.add(hedge + ".name", () -> "Hedge");
+        registry.add(hedge + ".args.min-delay", () -> "20ms");
+        registry.add(hedge + ".args.max-delay", () -> "50ms");
+    }
+
+    private static void route(DynamicPropertyRegistry registry, int index, String id, String uri, String path,
+                              String... filters) {
+        String prefix = "spring.cloud.gateway.server.webflux.routes[" + index + "]";
+        registry.add(prefix + ".id", () -> id);
+        registry.add(prefix + ".uri", () -> uri);
+        registry.add(prefix + ".predicates[0]", () -> "Path=" + path);
+        for (int i = 0; i < filters.length; i++) {
+            String filter = filters[i];
+            registry.add(prefix + ".filters[" + i + "]", () -> filter);
+        }
+    }
+
+    @AfterAll
+    static void stopService() {
+        service.disposeNow();
+    }
+
+    @Test
+    void responseCache_ShouldCallServiceOnce_WhenIdenticalGetsRepeated() throws InterruptedException {
+        for (int i = 0; i < 3; i++) {
+            client.get().uri("/auth/cached/items")
+                    .exchange()
+                    .expectStatus().isOk()
+                    .expectBody(String.class).isEqualTo(BODY);
+            // stored once the body has been written, which may be just after the client read it
+            waitFor(() -> responseCacheStore.get("cached /auth/cached/items") != null);
+        }
+
+        assertEquals(1, calls("/auth/cached/items"));
+    }
+
+    @Test
+    void requestCoalescing_ShouldCallServiceOnce_WhenIdenticalGetsInFlight() {
+        WebClient webClient = WebClient.create("http://127.0.0.1:" + port);
+
+        List<String> bodies = Flux.range(0, 3)
+                .flatMap(i -> webClient.get().uri("/auth/coalesced/items").retrieve().bodyToMono(String.class))
+                .collectList()
+                .block(Duration.ofSeconds(10));
+
+        assertEquals(List.of(BODY, BODY, BODY), bodies);
+        assertEquals(1, calls("/auth/coalesced/items"));
+    }
+
+    @Test
+    void lastKnownGood_ShouldServeRecordedResponseWithoutRestoringIt_WhenServiceFails() throws InterruptedException {
+        String key = LastKnownGoodStore.key("last-known-good",
+                MockServerWebExchange.from(MockServerHttpRequest.get("/auth/last-known-good/items")));
+        client.get().uri("/auth/last-known-good/items")
+                .exchange()
+                .expectStatus().isOk();
+        waitFor(() -> lastKnownGoodStore.get(key) != null);
+        CachedResponse recorded = lastKnownGoodStore.get(key);
+        assertNotNull(recorded);
+
+        failing = true;
+        try {
+            client.get().uri("/auth/last-known-good/items")
+                    .exchange()
+                    .expectStatus().isOk()
+                    .expectHeader().valueEquals(LastKnownGoodStore.FALLBACK_HEADER, "stale")
+                    .expectBody(String.class).isEqualTo(BODY);
+        } finally {
+            failing = false;
+        }
+        // give a wrongful store of the stale response the time the first store took
+        Thread.sleep(100);
+
+        assertSame(recorded, lastKnownGoodStore.get(key));
+    }
+
+    @Test
+    void hedge_ShouldAnswerWithHedgedResponse_WhenFirstCallSlow() {
+        client.get().uri("/auth/hedged/items")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class).isEqualTo(BODY);
+
+        assertEquals(2, calls("/auth/hedged/items"));
+    }
+
+    private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+        for (int i = 0; i < 50 && !condition.getAsBoolean(); i++) {
+            Thread.sleep(20);
+        }
+    }
+
+    private static int calls(String path) {
+        AtomicInteger calls = CALLS.get(path.substring(1));
+        return calls != null ? calls.get() : 0;
+    }
+}
@@ -5,6 +5,7 @@ import com.mymicroservice.gateway.advice.GlobalAdvice;
 import com.mymicroservice.gateway.controller.RegistrationController;
 import com.mymicroservice.gateway.dto.request.UserRegistrationRequest;
 import com.mymicroservice.gateway.exception.AuthServiceException;
+import com.mymicroservice.gateway.filter.bulkhead.BulkheadFullException;
 import com.mymicroservice.gateway.util.ErrorItem;
 import com.mymicroservice.gateway.util.data.TestConstants;
 import org.junit.jupiter.api.BeforeEach;
@@ -142,4 +143,17 @@ class GlobalAdviceTest {
         assertEquals("Unknown or unsupported role: SUPERADMIN", response.getBody().getMessage());
         assertEquals(HttpStatus.BAD_REQUEST.value(), response.getBody().getStatusCode());
     }
+
+    @Test
+    void handleBulkheadFullException_ShouldReturnServiceUnavailableWithRetryAfter_WhenBulkheadFull() {
+        BulkheadFullException exception = new BulkheadFullException("authservice");
+
+        ResponseEntity<ErrorItem> response = globalAdvice.handleBulkheadFullException(exception, exchange);
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+        assertEquals("1", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertNotNull(response.getBody());
+        assertEquals(BulkheadFullException.CLIENT_MESSAGE, response.getBody().getMessage());
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE.value(), response.getBody().getStatusCode());
+    }
 }
@@ -1,16 +1,21 @@
 package com.mymicroservice.gateway.unit.config;
 
 import com.mymicroservice.gateway.config.SecurityConfig;
+import com.mymicroservice.gateway.config.properties.JwtCacheProperties;
+import com.mymicroservice.gateway.security.CachingReactiveJwtDecoder;
 import com.mymicroservice.gateway.security.CustomAccessDeniedHandler;
 import com.mymicroservice.gateway.security.CustomAuthenticationEntryPoint;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.oauth2.jwt.NimbusReactiveJwtDecoder;
 import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
 import org.springframework.security.web.server.SecurityWebFilterChain;
 
 import java.security.interfaces.RSAPublicKey;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.mock;
@@ -19,9 +24,22 @@ class SecurityConfigTest {
 
     @Test
     void reactiveJwtDecoder_ShouldCreateDecoder_WhenPublicKeyIsValid() {
-        ReactiveJwtDecoder decoder = new SecurityConfig().reactiveJwtDecoder();
+        ReactiveJwtDecoder decoder = new SecurityConfig()
+                .reactiveJwtDecoder(new JwtCacheProperties(), new SimpleMeterRegistry());
 
         assertNotNull(decoder);
+        assertInstanceOf(CachingReactiveJwtDecoder.class, decoder);
+    }
+
+    @Test
+    void reactiveJwtDecoder_ShouldSkipCache_WhenCacheIsDisabled() {
+        JwtCacheProperties properties = new JwtCacheProperties();
+        properties.setEnabled(false);
+
+        ReactiveJwtDecoder decoder = new SecurityConfig()
+                .reactiveJwtDecoder(properties, new SimpleMeterRegistry());
+
+        assertInstanceOf(NimbusReactiveJwtDecoder.class, decoder);
     }
 
     @Test
@@ -33,7 +51,8 @@ class SecurityConfigTest {
             }
         };
 
-        RuntimeException exception = assertThrows(RuntimeException.class, config::reactiveJwtDecoder);
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> config.reactiveJwtDecoder(new JwtCacheProperties(), new SimpleMeterRegistry()));
 
         assertEquals("Failed to create ReactiveJwtDecoder", exception.getMessage());
         assertNotNull(exception.getCause());
@@ -48,7 +67,8 @@ class SecurityConfigTest {
         SecurityWebFilterChain chain = config.securityWebFilterChain(
                 ServerHttpSecurity.http(),
                 entryPoint,
-                accessDeniedHandler
+                accessDeniedHandler,
+                config.reactiveJwtDecoder(new JwtCacheProperties(), new SimpleMeterRegistry())
         );
 
         assertNotNull(chain);
@@ -1,29 +1,71 @@
 package com.mymicroservice.gateway.unit.config;
 
 import com.mymicroservice.gateway.config.WebClientConfig;
+import com.mymicroservice.gateway.config.properties.BulkheadProperties;
+import com.mymicroservice.gateway.config.properties.DeadlineProperties;
+import com.mymicroservice.gateway.config.properties.DownstreamServicesProperties;
+import com.mymicroservice.gateway.config.properties.LatencyAwareLoadBalancerProperties;
+import com.mymicroservice.gateway.filter.bulkhead.BulkheadFullException;
+import com.mymicroservice.gateway.loadbalancer.PeakEwmaLoadBalancer;
 import com.mymicroservice.gateway.util.MdcUtil;
 import com.mymicroservice.gateway.util.data.TestConstants;
+import com.mymicroservice.gateway.webclient.DownstreamBulkheads;
+import com.mymicroservice.gateway.webclient.DownstreamDeadlines;
+import com.mymicroservice.gateway.webclient.DownstreamWebClients;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerProperties;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactiveLoadBalancer;
+import org.springframework.cloud.loadbalancer.support.ServiceInstanceListSuppliers;
+import org.springframework.core.ResolvableType;
 import org.springframework.http.HttpStatus;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.web.reactive.function.client.ClientRequest;
 import org.springframework.web.reactive.function.client.ClientResponse;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.server.HttpServer;
 import reactor.test.StepVerifier;
 
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicReference;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
-@SpringBootTest(classes = WebClientConfig.class)
+@SpringBootTest(classes = {WebClientConfig.class, DownstreamBulkheads.class, DownstreamDeadlines.class,
+        SimpleMeterRegistry.class})
+@EnableConfigurationProperties({DownstreamServicesProperties.class, BulkheadProperties.class,
+        DeadlineProperties.class})
 @TestPropertySource(properties = {
         "services.userservice.url=http://userservice",
+        "services.userservice.pool.max-connections=7",
+        "services.userservice.response-timeout=3s",
+        "services.userservice.protocol=H2C",
+        "services.userservice.pool.max-concurrent-streams=250",
+        "services.paymentservice.bulkhead.max-concurrent-calls=1",
+        "services.paymentservice.bulkhead.max-wait=0s",
         "services.authservice.url=http://authservice",
         "services.orderservice.url=http://orderservice",
         "services.paymentservice.url=http://paymentservice"
@@ -54,6 +96,111 @@ class WebClientConfigTest {
         assertNotNull(paymentServiceWebClient);
     }
 
+    @Autowired
+    private DownstreamServicesProperties services;
+
+    @Autowired
+    private DownstreamWebClients downstreamWebClients;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void services_ShouldBindPerServiceSettings_WhenPropertiesProvided() {
+        assertEquals(4, services.size());
+        assertEquals("http://userservice", services.get("userservice").getUrl());
+        assertEquals(7, services.get("userservice").getPool().getMaxConnections());
+        assertEquals(Duration.ofSeconds(3), services.get("userservice").getResponseTimeout());
+        assertEquals(DownstreamServicesProperties.Protocol.H2C, services.get("userservice").getProtocol());
+        assertEquals(250, services.get("userservice").getPool().getMaxConcurrentStreams());
+        // defaults
+        assertEquals(50, services.get("authservice").getPool().getMaxConnections());
+        assertEquals(Duration.ofSeconds(1), services.get("authservice").getConnectTimeout());
+        assertEquals(DownstreamServicesProperties.Protocol.HTTP11, services.get("authservice").getProtocol());
+        assertEquals(2, services.get("authservice").getPool().getHttp2MaxConnections());
+        assertEquals(100, services.get("authservice").getBulkhead().getMaxConcurrentCalls());
+        assertEquals(Duration.ofMillis(50), services.get("authservice").getBulkhead().getMaxWait());
+    }
+
+    @Test
+    void bulkheadFilter_ShouldFailFast_WhenServiceBulkheadFull() {
+        Sinks.One<ClientResponse> slowResponse = Sinks.one();
+        WebClient payment = paymentServiceWebClient.mutate()
+                .exchangeFunction(request -> slowResponse.asMono())
+                .build();
+        WebClient user = userServiceWebClient.mutate()
+                .exchangeFunction(request -> Mono.just(ClientResponse.create(HttpStatus.OK).build()))
+                .build();
+
+        payment.get().uri("/payments").retrieve().toBodilessEntity().subscribe();
+
+        StepVerifier.create(payment.get().uri("/payments").retrieve().toBodilessEntity())
+                .expectError(BulkheadFullException.class)
+                .verify(Duration.ofSeconds(5));
+        StepVerifier.create(user.get().uri("/users").retrieve().toBodilessEntity())
+                .expectNextCount(1)
+                .verifyComplete();
+        slowResponse.tryEmitValue(ClientResponse.create(HttpStatus.OK).build());
+    }
+
+    @Test
+    void webClient_ShouldMultiplexOverH2c_WhenServiceProtocolIsH2c() {
+        DisposableServer server = HttpServer.create()
+                .host("127.0.0.1")
+                .port(0)
+                .protocol(HttpProtocol.H2C)
+                .handle((request, response) -> response.sendString(Mono.just(request.protocol())))
+                .bindNow();
+        DownstreamServicesProperties.Service service = new DownstreamServicesProperties.Service();
+        service.setUrl("http://127.0.0.1:" + server.port());
+        service.setProtocol(DownstreamServicesProperties.Protocol.H2C);
+        DownstreamServicesProperties properties = new DownstreamServicesProperties();
+        properties.put("userservice", service);
+        WebClientConfig config = webClientConfig(properties);
+        try {
+            WebClient client = config.userServiceWebClient(config.downstreamWebClients());
+
+            StepVerifier.create(client.get().uri("/users").retrieve().bodyToMono(String.class))
+                    .expectNext("HTTP/2.0")
+                    .verifyComplete();
+        } finally {
+            config.destroy();
+            server.disposeNow();
+        }
+    }
+
+    @Test
+    void webClient_ShouldFailFast_WhenH2ServiceUrlIsNotHttps() {
+        DownstreamServicesProperties.Service service = new DownstreamServicesProperties.Service();
+        service.setUrl("http://userservice:8083");
+        service.setProtocol(DownstreamServicesProperties.Protocol.H2);
+        DownstreamServicesProperties properties = new DownstreamServicesProperties();
+        properties.put("userservice", service);
+
+        IllegalStateException exception = assertThrows(IllegalStateException.class,
+                () -> webClientConfig(properties).downstreamWebClients());
+
+        assertEquals("services.userservice.protocol H2 requires an https url", exception.getMessage());
+    }
+
+    @Test
+    void webClient_ShouldFailFast_WhenServiceUrlIsMissing() {
+        WebClientConfig config = webClientConfig(new DownstreamServicesProperties());
+        DownstreamWebClients clients = config.downstreamWebClients();
+
+        IllegalStateException exception = assertThrows(IllegalStateException.class,
+                () -> config.userServiceWebClient(clients));
+
+        assertEquals("services.userservice.url is not configured", exception.getMessage());
+    }
+
+    @Test
+    void downstreamWebClients_ShouldShareClientWithNamedBean_WhenServiceConfigured() {
+        assertEquals(Set.of("userservice", "authservice", "orderservice", "paymentservice"),
+                downstreamWebClients.serviceNames());
+        assertSame(userServiceWebClient, downstreamWebClients.get("userservice"));
+    }
+
     @Test
     void mdcContextFilter_ShouldAddTraceAndInternalHeaders_WhenContextContainsValues() {
         AtomicReference<ClientRequest> capturedRequest = new AtomicReference<>();
@@ -100,4 +247,148 @@ class WebClientConfigTest {
         assertEquals("true", capturedRequest.get().headers().getFirst("X-Internal-Call"));
         assertEquals("GATEWAY", capturedRequest.get().headers().getFirst("X-Source-Service"));
     }
+
+    @Test
+    void deadlineFilter_ShouldSendResponseTimeoutDeadline_WhenCallerSetNone() {
+        AtomicReference<ClientRequest> capturedRequest = new AtomicReference<>();
+        WebClient client = userServiceWebClient.mutate()
+                .exchangeFunction(request -> {
+                    capturedRequest.set(request);
+                    return Mono.just(ClientResponse.create(HttpStatus.OK).build());
+                })
+                .build();
+        long before = System.currentTimeMillis();
+
+        StepVerifier.create(client.get().uri("/users").retrieve().toBodilessEntity())
+                .expectNextCount(1)
+                .verifyComplete();
+
+        long deadline = Long.parseLong(capturedRequest.get().headers().getFirst("X-Request-Deadline"));
+        assertTrue(deadline >= before + 3000 && deadline <= System.currentTimeMillis() + 3000);
+    }
+
+    @Test
+    void deadlineFilter_ShouldKeepCallerDeadline_WhenEarlier() {
+        AtomicReference<ClientRequest> capturedRequest = new AtomicReference<>();
+        WebClient client = authServiceWebClient.mutate()
+                .exchangeFunction(request -> {
+                    capturedRequest.set(request);
+                    return Mono.just(ClientResponse.create(HttpStatus.OK).build());
+                })
+                .build();
+        String callerDeadline = Long.toString(System.currentTimeMillis() + 100);
+
+        StepVerifier.create(client.get().uri("/auth/validate").header("X-Request-Deadline", callerDeadline)
+                        .retrieve().toBodilessEntity())
+                .expectNextCount(1)
+                .verifyComplete();
+
+        assertEquals(callerDeadline, capturedRequest.get().headers().getFirst("X-Request-Deadline"));
+    }
+
+    @Test
+    void deadlineFilter_ShouldCountCancellation_WhenCancelledBeforeResponse() throws InterruptedException {
+        Sinks.One<ClientResponse> neverAnswered = Sinks.one();
+        CountDownLatch sent = new CountDownLatch(2);
+        WebClient client = orderServiceWebClient.mutate()
+                .exchangeFunction(request -> neverAnswered.asMono().doOnSubscribe(s -> sent.countDown()))
+                .build();
+
+        Disposable abandoned = client.get().uri("/orders").retrieve().toBodilessEntity().subscribe();
+        StepVerifier.create(client.get().uri("/orders").retrieve().toBodilessEntity()
+                        .timeout(Duration.ofMillis(50)))
+                .expectError(TimeoutException.class)
+                .verify(Duration.ofSeconds(5));
+        assertTrue(sent.await(5, TimeUnit.SECONDS));
+        abandoned.dispose();
+
+        assertEquals(2, meterRegistry.get("gateway.upstream.cancelled")
+                .tag("via", "webclient").tag("target", "orderservice").counter().count());
+    }
+
+    @Test
+    void webClient_ShouldCallDiscoveredInstance_WhenDiscoveryIdSet() {
+        DisposableServer server = HttpServer.create()
+                .host("127.0.0.1")
+                .port(0)
+                .handle((request, response) -> response.sendString(Mono.just(request.requestHeaders().get("Host"))))
+                .bindNow();
+        DownstreamServicesProperties.Service service = new DownstreamServicesProperties.Service();
+        service.setUrl("http://userservice:8083");
+        service.setDiscoveryId("user-service");
+        DownstreamServicesProperties properties = new DownstreamServicesProperties();
+        properties.put("userservice", service);
+        PeakEwmaLoadBalancer loadBalancer = new PeakEwmaLoadBalancer("user-service",
+                ServiceInstanceListSuppliers.toProvider("user-service",
+                        new DefaultServiceInstance("a", "user-service", "127.0.0.1", server.port(), false)),
+                new LatencyAwareLoadBalancerProperties(), new SimpleMeterRegistry());
+        WebClientConfig config = webClientConfig(properties, new FixedLoadBalancerFactory(loadBalancer));
+        try {
+            WebClient client = config.userServiceWebClient(config.downstreamWebClients());
+
+            StepVerifier.create(client.get().uri("/users").retrieve().bodyToMono(String.class))
+                    .expectNext("127.0.0.1:" + server.port())
+                    .verifyComplete();
+        } finally {
+            config.destroy();
+            server.disposeNow();
+        }
+    }
+
+    @Test
+    void webClient_ShouldFailFast_WhenDiscoveryIdSetWithoutLoadBalancer() {
+        DownstreamServicesProperties.Service service = new DownstreamServicesProperties.Service();
+        service.setUrl("http://userservice:8083");
+        service.setDiscoveryId("user-service");
+        DownstreamServicesProperties properties = new DownstreamServicesProperties();
+        properties.put("userservice", service);
+
+        assertThrows(IllegalStateException.class, () -> webClientConfig(properties).downstreamWebClients());
+    }
+
+    private static WebClientConfig webClientConfig(DownstreamServicesProperties properties) {
+        return webClientConfig(properties, null);
+    }
+
+    private static WebClientConfig webClientConfig(DownstreamServicesProperties properties,
+                                                   ReactiveLoadBalancer.Factory<ServiceInstance> loadBalancers) {
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+        if (loadBalancers != null) {
+            beanFactory.addBean("loadBalancerClientFactory", loadBalancers);
+        }
+        return new WebClientConfig(properties,
+                new DownstreamBulkheads(properties, new BulkheadProperties(), new SimpleMeterRegistry()),
+                new DownstreamDeadlines(new DeadlineProperties(), new SimpleMeterRegistry()),
+                beanFactory.getBeanProvider(ResolvableType.forClassWithGenerics(ReactiveLoadBalancer.Factory.class,
+                        ServiceInstance.class)));
+    }
+
+    /**
+     * Stands in for {@code LoadBalancerClientFactory}: one load balancer, which is also the only
+     * lifecycle listener.
+     */
+    private record FixedLoadBalancerFactory(PeakEwmaLoadBalancer loadBalancer)
+            implements ReactiveLoadBalancer.Factory<ServiceInstance> {
+
+        @Override
+        public ReactiveLoadBalancer<ServiceInstance> getInstance(String serviceId) {
+            return loadBalancer;
+        }
+
+        @Override
+        public LoadBalancerProperties getProperties(String serviceId) {
+            return new LoadBalancerProperties();
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <X> Map<String, X> getInstances(String name, Class<X> type) {
+            return type.isInstance(loadBalancer) ? Map.of("loadBalancer", (X) loadBalancer) : Map.of();
+        }
+
+        @Override
+        public <X> X getInstance(String name, Class<?> clazz, Class<?>... generics) {
+            return null;
+        }
+    }
 }
@@ -1,57 +1,179 @@
 package com.mymicroservice.gateway.unit.controller;
 
+import com.mymicroservice.gateway.config.properties.LastKnownGoodProperties;
 import com.mymicroservice.gateway.controller.FallbackController;
+import com.mymicroservice.gateway.filter.cache.CachedResponse;
+import com.mymicroservice.gateway.filter.cache.LastKnownGoodStore;
 import com.mymicroservice.gateway.util.data.TestConstants;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
 import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ORIGINAL_REQUEST_URL_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
 
 class FallbackControllerTest {
 
+    private static final String ITEM_URI = "http://gateway:8080/api/items/7?lang=en";
+    private static final String ITEM_BODY = "{\"id\":7}";
+
     private WebTestClient webTestClient;
+    private LastKnownGoodStore store;
+    private CircuitBreakerRegistry circuitBreakerRegistry;
+    private SimpleMeterRegistry meterRegistry;
 
     @BeforeEach
     void setup() {
-        webTestClient = WebTestClient.bindToController(new FallbackController()).build();
+        store = new LastKnownGoodStore(new LastKnownGoodProperties(), new SimpleMeterRegistry());
+        circuitBreakerRegistry = CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+                .waitDurationInOpenState(Duration.ofSeconds(30))
+                .build());
+        meterRegistry = new SimpleMeterRegistry();
+        FallbackController controller = new FallbackController(store, circuitBreakerRegistry, meterRegistry);
+        webTestClient = WebTestClient.bindToController(controller)
+                .webFilter(routedFrom(ITEM_URI))
+                .build();
     }
 
     @Test
-    void userFallback_ShouldReturnUserServiceUnavailableMessage_WhenCalled() {
-        webTestClient.get()
-                .uri(TestConstants.FALLBACK_USER_URI)
+    void userFallback_ShouldReturnServiceUnavailable_WhenNothingStored() {
+        expectUnavailable(TestConstants.FALLBACK_USER_URI, TestConstants.FALLBACK_USER_MESSAGE);
+    }
+
+    @Test
+    void orderFallback_ShouldReturnServiceUnavailable_WhenNothingStored() {
+        expectUnavailable(TestConstants.FALLBACK_ORDER_URI, TestConstants.FALLBACK_ORDER_MESSAGE);
+    }
+
+    @Test
+    void authFallback_ShouldReturnServiceUnavailable_WhenNothingStored() {
+        expectUnavailable(TestConstants.FALLBACK_AUTH_URI, TestConstants.FALLBACK_AUTH_MESSAGE);
+    }
+
+    @Test
+    void paymentFallback_ShouldReturnServiceUnavailable_WhenNothingStored() {
+        expectUnavailable(TestConstants.FALLBACK_PAYMENT_URI, TestConstants.FALLBACK_PAYMENT_MESSAGE);
+    }
+
+    @Test
+    void orderFallback_ShouldRetryAfterBreakerWaitDuration_WhenBreakerOpen() {
+        circuitBreakerRegistry.circuitBreaker("orderServiceCircuitBreaker").transitionToOpenState();
+
+        webTestClient.post()
+                .uri(TestConstants.FALLBACK_ORDER_URI)
                 .exchange()
-                .expectStatus().isOk()
-                .expectBody(String.class)
-                .isEqualTo(TestConstants.FALLBACK_USER_MESSAGE);
+                .expectStatus().isEqualTo(HttpStatus.SERVICE_UNAVAILABLE)
+                .expectHeader().valueEquals(HttpHeaders.RETRY_AFTER, "30");
     }
 
     @Test
-    void orderFallback_ShouldReturnOrderServiceUnavailableMessage_WhenCalled() {
+    void orderFallback_ShouldServeLastKnownGoodResponse_WhenGetStored() {
+        storeItemResponse(null);
+
         webTestClient.get()
                 .uri(TestConstants.FALLBACK_ORDER_URI)
                 .exchange()
                 .expectStatus().isOk()
-                .expectBody(String.class)
-                .isEqualTo(TestConstants.FALLBACK_ORDER_MESSAGE);
+                .expectHeader().valueEquals(LastKnownGoodStore.FALLBACK_HEADER, "stale")
+                .expectHeader().valueEquals(HttpHeaders.CACHE_CONTROL, "max-age=60")
+                .expectHeader().exists(HttpHeaders.AGE)
+                .expectBody(String.class).isEqualTo(ITEM_BODY);
+
+        assertEquals(1, meterRegistry.get("gateway.fallback.requests").tag("result", "stale").counter().count());
     }
 
     @Test
-    void authFallback_ShouldReturnAuthServiceUnavailableMessage_WhenCalled() {
+    void orderFallback_ShouldNotServeStoredResponse_WhenCredentialsDiffer() {
+        storeItemResponse("Bearer a");
+
         webTestClient.get()
-                .uri(TestConstants.FALLBACK_AUTH_URI)
+                .uri(TestConstants.FALLBACK_ORDER_URI)
+                .header(HttpHeaders.AUTHORIZATION, "Bearer b")
                 .exchange()
-                .expectStatus().isOk()
-                .expectBody(String.class)
-                .isEqualTo(TestConstants.FALLBACK_AUTH_MESSAGE);
+                .expectStatus().isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        webTestClient.get()
+                .uri(TestConstants.FALLBACK_ORDER_URI)
+                .header(HttpHeaders.AUTHORIZATION, "Bearer a")
+                .exchange()
+                .expectStatus().isOk();
     }
 
     @Test
-    void paymentFallback_ShouldReturnPaymentServiceUnavailableMessage_WhenCalled() {
+    void orderFallback_ShouldReturnServiceUnavailable_WhenMethodNotGet() {
+        storeItemResponse(null);
+
+        webTestClient.post()
+                .uri(TestConstants.FALLBACK_ORDER_URI)
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+
+        assertEquals(1, meterRegistry.get("gateway.fallback.requests").tag("result", "unavailable").counter().count());
+    }
+
+    private void expectUnavailable(String uri, String message) {
         webTestClient.get()
-                .uri(TestConstants.FALLBACK_PAYMENT_URI)
+                .uri(uri)
                 .exchange()
-                .expectStatus().isOk()
-                .expectBody(String.class)
-                .isEqualTo(TestConstants.FALLBACK_PAYMENT_MESSAGE);
+                .expectStatus().isEqualTo(HttpStatus.SERVICE_UNAVAILABLE)
+                .expectHeader().valueEquals(HttpHeaders.RETRY_AFTER, "1")
+                .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                .expectBody()
+                .jsonPath("$.status").isEqualTo(503)
+                .jsonPath("$.message").isEqualTo(message);
+    }
+
+    private void storeItemResponse(String authorization) {
+        MockServerHttpRequest.BaseBuilder<?> request = MockServerHttpRequest.get(ITEM_URI);
+        if (authorization != null) {
+            request.header(HttpHeaders.AUTHORIZATION, authorization);
+        }
+        MockServerWebExchange exchange = MockServerWebExchange.from(request);
+        exchange.getAttributes().put(GATEWAY_ROUTE_ATTR, route());
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setCacheControl("max-age=60");
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        byte[] body = ITEM_BODY.getBytes(StandardCharsets.UTF_8);
+        long now = System.nanoTime();
+        store.put(LastKnownGoodStore.key("order-service", exchange), new CachedResponse("order-service",
+                HttpHeaders.readOnlyHttpHeaders(headers), ByteBuffer.wrap(body).asReadOnlyBuffer(), null,
+                List.of(), List.of(), now, now, now));
+    }
+
+    /**
+     * What the gateway leaves on a request forwarded to a fallback: its route and original URL.
+     */
+    private static WebFilter routedFrom(String originalUri) {
+        return (exchange, chain) -> {
+            exchange.getAttributes().put(GATEWAY_ROUTE_ATTR, route());
+            Set<URI> originals = new LinkedHashSet<>(List.of(URI.create(originalUri)));
+            exchange.getAttributes().put(GATEWAY_ORIGINAL_REQUEST_URL_ATTR, originals);
+            return chain.filter(exchange);
+        };
+    }
+
+    private static Route route() {
+        return Route.async().id("order-service").uri("http://orderservice:8082")
+                .predicate((ServerWebExchange exchange) -> true).build();
     }
 }
@@ -0,0 +1,162 @@
+package com.mymicroservice.gateway.unit.discovery;
+
+import com.mymicroservice.gateway.config.properties.EndpointCacheProperties;
+import com.mymicroservice.gateway.discovery.EndpointCache;
+import com.mymicroservice.gateway.discovery.EndpointCacheServiceInstanceListSupplier;
+import com.mymicroservice.gateway.util.FakeKubernetesApiServer;
+import io.kubernetes.client.informer.SharedIndexInformer;
+import io.kubernetes.client.informer.SharedInformerFactory;
+import io.kubernetes.client.openapi.ApiClient;
+import io.kubernetes.client.openapi.models.CoreV1EndpointPort;
+import io.kubernetes.client.openapi.models.V1EndpointAddress;
+import io.kubernetes.client.openapi.models.V1EndpointSubset;
+import io.kubernetes.client.openapi.models.V1Endpoints;
+import io.kubernetes.client.openapi.models.V1ObjectMeta;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.gateway.event.RefreshRoutesEvent;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+class EndpointCacheTest {
+
+    private static final String NAMESPACE = "shop";
+
+    private final List<Object> events = new CopyOnWriteArrayList<>();
+    private EndpointCacheProperties properties;
+    private FakeKubernetesApiServer apiServer;
+    private SharedInformerFactory informerFactory;
+
+    @BeforeEach
+    void setUp() {
+        properties = new EndpointCacheProperties();
+        properties.setRouteRefreshDelay(Duration.ofMillis(200));
+        apiServer = new FakeKubernetesApiServer(NAMESPACE);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (informerFactory != null) {
+            informerFactory.stopAllRegisteredInformers();
+        }
+        apiServer.close();
+    }
+
+    @Test
+    void onAdd_ShouldLoadListedServicesWithOneRouteRefresh_WhenInformerSyncs() {
+        apiServer.apply("user-service", 3);
+        apiServer.apply("order-service", 2);
+        apiServer.apply("payment-service", 1);
+
+        EndpointCache cache = startInformer();
+
+        await(() -> cache.services().size() == 3 && refreshes() == 1);
+        assertEquals(3, cache.instances("user-service").size());
+        assertEquals(Set.of("user-service-0", "user-service-1", "user-service-2"),
+                Set.copyOf(cache.instances("user-service").stream().map(ServiceInstance::getInstanceId).toList()));
+    }
+
+    @Test
+    void onUpdate_ShouldApplyThousandsOfChangesWithoutRouteRefresh_WhenServicesKnown() {
+        List<String> services = List.of("user-service", "order-service", "payment-service", "auth-service");
+        services.forEach(service -> apiServer.apply(service, 1));
+        EndpointCache cache = startInformer();
+        await(() -> cache.services().size() == services.size() && refreshes() == 1);
+
+        int changes = 4000;
+        for (int i = 0; i < changes; i++) {
+            apiServer.apply(services.get(i % services.size()), 1 + i % 25);
+        }
+
+        // pod counts the loop never produced, so the wait cannot be satisfied by an earlier change
+        for (int s = 0; s < services.size(); s++) {
+            apiServer.apply(services.get(s), 26 + s);
+        }
+
+        await(() -> cache.instances("auth-service").size() == 29);
+        for (int s = 0; s < services.size(); s++) {
+            assertEquals(26 + s, cache.instances(services.get(s)).size());
+        }
+        sleep(properties.getRouteRefreshDelay().multipliedBy(2));
+        assertEquals(1, refreshes());
+    }
+
+    @Test
+    void onDelete_ShouldDropServiceAndRefreshRoutes_WhenEndpointsDeleted() {
+        apiServer.apply("user-service", 2);
+        EndpointCache cache = startInformer();
+        await(() -> refreshes() == 1);
+
+        apiServer.apply("catalogue-service", 1);
+        await(() -> refreshes() == 2);
+        apiServer.delete("user-service");
+
+        await(() -> refreshes() == 3);
+        assertEquals(Set.of("catalogue-service"), cache.services());
+        assertTrue(cache.instances("user-service").isEmpty());
+    }
+
+    @Test
+    void onAdd_ShouldUsePrimaryPortAndReadyAddressesOnly_WhenEndpointHasSeveral() {
+        EndpointCache cache = new EndpointCache(properties, events::add);
+        V1Endpoints endpoints = new V1Endpoints()
+                .metadata(new V1ObjectMeta().name("user-service").namespace(NAMESPACE).resourceVersion("1"))
+                .subsets(List.of(new V1EndpointSubset()
+                        .addresses(List.of(new V1EndpointAddress().ip("10.1.0.1")))
+                        .notReadyAddresses(List.of(new V1EndpointAddress().ip("10.1.0.2")))
+                        .ports(List.of(new CoreV1EndpointPort().name("metrics").port(9090),
+                                new CoreV1EndpointPort().name("http").port(8083)))));
+
+        cache.onAdd(endpoints);
+
+        List<ServiceInstance> instances = new EndpointCacheServiceInstanceListSupplier("user-service", cache)
+                .get().blockFirst();
+        assertEquals(1, instances.size());
+        assertEquals("10.1.0.1", instances.get(0).getHost());
+        assertEquals(8083, instances.get(0).getPort());
+        assertEquals(NAMESPACE, instances.get(0).getMetadata().get("namespace"));
+    }
+
+    private EndpointCache startInformer() {
+        ApiClient apiClient = apiServer.apiClient();
+        informerFactory = new SharedInformerFactory(apiClient);
+        SharedIndexInformer<V1Endpoints> informer = apiServer.endpointsInformer(informerFactory, apiClient);
+        EndpointCache cache = new EndpointCache(properties, events::add);
+        informer.addEventHandler(cache);
+        informerFactory.startAllRegisteredInformers();
+        await(() -> informer.hasSynced() && apiServer.watches() > 0);
+        return cache;
+    }
+
+    private long refreshes() {
+        return events.stream().filter(RefreshRoutesEvent.class::isInstance).count();
+    }
+
+    private static void await(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                fail("condition not met within 10s");
+            }
+            sleep(Duration.ofMillis(10));
+        }
+    }
+
+    private static void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
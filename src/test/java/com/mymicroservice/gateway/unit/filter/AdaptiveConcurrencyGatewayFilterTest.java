@@ -0,0 +1,147 @@
+package com.mymicroservice.gateway.unit.filter;
+
+import com.mymicroservice.gateway.config.properties.AdaptiveConcurrencyProperties;
+import com.mymicroservice.gateway.filter.AdaptiveConcurrencyGatewayFilter;
+import com.mymicroservice.gateway.filter.RoundTripSampleFilter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+class AdaptiveConcurrencyGatewayFilterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private AdaptiveConcurrencyProperties properties;
+    private AdaptiveConcurrencyGatewayFilter filter;
+    private Sinks.Empty<Void> downstream;
+    private GatewayFilterChain chain;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        properties = new AdaptiveConcurrencyProperties();
+        properties.setInitialLimit(4);
+        properties.setMinLimit(2);
+        filter = new AdaptiveConcurrencyGatewayFilter(properties, meterRegistry);
+        downstream = Sinks.empty();
+        chain = exchange -> downstream.asMono();
+    }
+
+    @Test
+    void filter_ShouldShedWith503_WhenRouteAtLimit() {
+        List<Disposable> inFlight = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            inFlight.add(filter.filter(exchange("user-service", "http://userservice:8083"), chain).subscribe());
+        }
+
+        MockServerWebExchange shed = exchange("user-service", "http://userservice:8083");
+        filter.filter(shed, chain).block();
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, shed.getResponse().getStatusCode());
+        assertEquals("1", shed.getResponse().getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertEquals(4, gauge("gateway.concurrency.inflight", "user-service"));
+        assertEquals(4, gauge("gateway.concurrency.limit", "user-service"));
+        assertEquals(1, meterRegistry.get("gateway.concurrency.rejected").tag("route", "user-service")
+                .counter().count());
+
+        downstream.tryEmitEmpty();
+        assertEquals(0, gauge("gateway.concurrency.inflight", "user-service"));
+        inFlight.forEach(Disposable::dispose);
+    }
+
+    @Test
+    void filter_ShouldLimitRoutesIndependently_WhenOneRouteSaturated() {
+        for (int i = 0; i < 4; i++) {
+            filter.filter(exchange("payment-service", "http://paymentservice:8084"), chain).subscribe();
+        }
+
+        MockServerWebExchange other = exchange("user-service", "http://userservice:8083");
+        filter.filter(other, chain).subscribe();
+
+        assertNull(other.getResponse().getStatusCode());
+        assertEquals(1, gauge("gateway.concurrency.inflight", "user-service"));
+        downstream.tryEmitEmpty();
+    }
+
+    @Test
+    void filter_ShouldReleaseSlot_WhenRequestCancelled() {
+        Disposable request = filter.filter(exchange("user-service", "http://userservice:8083"), chain).subscribe();
+        assertEquals(1, gauge("gateway.concurrency.inflight", "user-service"));
+
+        request.dispose();
+
+        assertEquals(0, gauge("gateway.concurrency.inflight", "user-service"));
+    }
+
+    @Test
+    void filter_ShouldNotLimit_WhenRouteForwardsOrDisabled() {
+        for (int i = 0; i < 10; i++) {
+            filter.filter(exchange("fallback", "forward:/fallback/user"), chain).subscribe();
+        }
+        properties.setEnabled(false);
+        MockServerWebExchange disabled = exchange("user-service", "http://userservice:8083");
+        filter.filter(disabled, exchange -> Mono.empty()).block();
+
+        assertNull(disabled.getResponse().getStatusCode());
+        assertEquals(0, meterRegistry.find("gateway.concurrency.limit").gauges().size());
+        downstream.tryEmitEmpty();
+    }
+
+    @Test
+    void filter_ShouldCutLimit_WhenRoutedCallFails() {
+        properties.setWindow(Duration.ZERO);
+        filter = new AdaptiveConcurrencyGatewayFilter(properties, meterRegistry);
+        RoundTripSampleFilter routing = new RoundTripSampleFilter();
+
+        filter.filter(exchange("user-service", "http://userservice:8083"), exchange -> routing.filter(exchange,
+                routed -> {
+                    routed.getResponse().setStatusCode(HttpStatus.INTERNAL_SERVER_ERROR);
+                    return Mono.empty();
+                })).block();
+
+        assertEquals(3, gauge("gateway.concurrency.limit", "user-service"));
+    }
+
+    @Test
+    void filter_ShouldNotMoveLimit_WhenGatewayAnswersWithoutRouting() {
+        properties.setWindow(Duration.ZERO);
+        filter = new AdaptiveConcurrencyGatewayFilter(properties, meterRegistry);
+
+        for (int i = 0; i < 3; i++) {
+            filter.filter(exchange("user-service", "http://userservice:8083"), exchange -> {
+                exchange.getResponse().setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+                return Mono.empty();
+            }).block();
+        }
+
+        assertEquals(4, gauge("gateway.concurrency.limit", "user-service"));
+        assertEquals(0, gauge("gateway.concurrency.inflight", "user-service"));
+    }
+
+    private double gauge(String name, String routeId) {
+        return meterRegistry.get(name).tag("route", routeId).gauge().value();
+    }
+
+    private static MockServerWebExchange exchange(String routeId, String uri) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/users/1"));
+        exchange.getAttributes().put(GATEWAY_ROUTE_ATTR,
+                Route.async().id(routeId).uri(uri).predicate(e -> true).build());
+        return exchange;
+    }
+}
@@ -0,0 +1,184 @@
+package com.mymicroservice.gateway.unit.filter;
+
+import com.mymicroservice.gateway.filter.factory.BudgetedRetryGatewayFilterFactory;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.netty.channel.ConnectTimeoutException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.net.ConnectException;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.isAlreadyRouted;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.setAlreadyRouted;
+
+class BudgetedRetryGatewayFilterFactoryTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private BudgetedRetryGatewayFilterFactory factory;
+    private BudgetedRetryGatewayFilterFactory.Config config;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        factory = new BudgetedRetryGatewayFilterFactory(meterRegistry);
+        config = new BudgetedRetryGatewayFilterFactory.Config();
+        config.setRouteId("user-service");
+        config.setFirstBackoff(Duration.ofMillis(1));
+        config.setMaxBackoff(Duration.ofMillis(5));
+    }
+
+    @Test
+    void apply_ShouldRetryAndSucceed_WhenConnectionRefusedOnce() {
+        FailingUpstream upstream = new FailingUpstream(1, new ConnectException("Connection refused"));
+        MockServerWebExchange exchange = exchange(MockServerHttpRequest.get("/api/users/1"));
+
+        StepVerifier.create(factory.apply(config).filter(exchange, upstream)).verifyComplete();
+
+        assertEquals(2, upstream.calls.get());
+        assertEquals(HttpStatus.OK, exchange.getResponse().getStatusCode());
+        assertFalse(upstream.routedOnEntry, "exchange must be reset before the retry");
+        assertEquals(1, counter("gateway.retry.attempts"));
+    }
+
+    @Test
+    void apply_ShouldGiveUpAfterRetries_WhenServiceKeepsRefusing() {
+        FailingUpstream upstream = new FailingUpstream(Integer.MAX_VALUE, new ConnectTimeoutException("timed out"));
+
+        StepVerifier.create(factory.apply(config).filter(exchange(MockServerHttpRequest.get("/api/users/1")), upstream))
+                .expectError(ConnectTimeoutException.class)
+                .verify(Duration.ofSeconds(5));
+
+        assertEquals(3, upstream.calls.get());
+        assertEquals(2, counter("gateway.retry.attempts"));
+    }
+
+    @Test
+    void apply_ShouldStopRetrying_WhenBudgetSpent() {
+        config.setRetries(1);
+        config.setBudgetMaxTokens(2);
+        config.setBudgetRatio(0.0);
+        GatewayFilter filter = factory.apply(config);
+        FailingUpstream upstream = new FailingUpstream(Integer.MAX_VALUE, new ConnectException("Connection refused"));
+
+        for (int i = 0; i < 5; i++) {
+            StepVerifier.create(filter.filter(exchange(MockServerHttpRequest.get("/api/users/1")), upstream))
+                    .expectError(ConnectException.class)
+                    .verify(Duration.ofSeconds(5));
+        }
+
+        assertEquals(7, upstream.calls.get());
+        assertEquals(2, counter("gateway.retry.attempts"));
+        assertEquals(3, counter("gateway.retry.budget.exhausted"));
+        assertEquals(0, meterRegistry.get("gateway.retry.budget.tokens").gauge().value());
+    }
+
+    @Test
+    void apply_ShouldKeepSpentBudget_WhenRouteRebuilt() {
+        config.setRetries(1);
+        config.setBudgetMaxTokens(1);
+        config.setBudgetRatio(0.0);
+        FailingUpstream upstream = new FailingUpstream(Integer.MAX_VALUE, new ConnectException("Connection refused"));
+
+        for (int i = 0; i < 2; i++) {
+            StepVerifier.create(factory.apply(config).filter(exchange(MockServerHttpRequest.get("/api/users/1")),
+                            upstream))
+                    .expectError(ConnectException.class)
+                    .verify(Duration.ofSeconds(5));
+        }
+
+        assertEquals(3, upstream.calls.get());
+        assertEquals(1, counter("gateway.retry.budget.exhausted"));
+        assertEquals(0, meterRegistry.get("gateway.retry.budget.tokens").gauge().value());
+    }
+
+    @Test
+    void apply_ShouldNotRetry_WhenFailureNotConnectLevel() {
+        FailingUpstream upstream = new FailingUpstream(1, new TimeoutException("response timeout"));
+
+        StepVerifier.create(factory.apply(config).filter(exchange(MockServerHttpRequest.get("/api/users/1")), upstream))
+                .expectError(TimeoutException.class)
+                .verify(Duration.ofSeconds(5));
+
+        assertEquals(1, upstream.calls.get());
+    }
+
+    @Test
+    void apply_ShouldNotRetry_WhenMethodNotConfiguredOrRequestHasBody() {
+        config.setMethods(Set.of(HttpMethod.GET, HttpMethod.PUT));
+        GatewayFilter filter = factory.apply(config);
+        FailingUpstream upstream = new FailingUpstream(Integer.MAX_VALUE, new ConnectException("Connection refused"));
+
+        StepVerifier.create(filter.filter(exchange(MockServerHttpRequest.delete("/api/users/1")), upstream))
+                .expectError(ConnectException.class)
+                .verify(Duration.ofSeconds(5));
+        StepVerifier.create(filter.filter(exchange(MockServerHttpRequest.put("/api/users/1")
+                        .header(HttpHeaders.CONTENT_LENGTH, "2")), upstream))
+                .expectError(ConnectException.class)
+                .verify(Duration.ofSeconds(5));
+
+        assertEquals(2, upstream.calls.get());
+    }
+
+    @Test
+    void apply_ShouldFailFast_WhenNonIdempotentMethodConfigured() {
+        config.setMethods(Set.of(HttpMethod.GET, HttpMethod.POST));
+
+        IllegalStateException exception = assertThrows(IllegalStateException.class, () -> factory.apply(config));
+
+        assertEquals("BudgetedRetry cannot retry non-idempotent method POST", exception.getMessage());
+    }
+
+    private double counter(String name) {
+        return meterRegistry.get(name).tag("route", "user-service").counter().count();
+    }
+
+    private static MockServerWebExchange exchange(MockServerHttpRequest.BaseBuilder<?> request) {
+        return MockServerWebExchange.from(request);
+    }
+
+    /**
+     * Stands in for the routing filter: fails the first {@code failures} calls, then answers 200.
+     */
+    private static final class FailingUpstream implements GatewayFilterChain {
+
+        private final AtomicInteger calls = new AtomicInteger();
+        private final int failures;
+        private final Exception error;
+        private boolean routedOnEntry;
+
+        private FailingUpstream(int failures, Exception error) {
+            this.failures = failures;
+            this.error = error;
+        }
+
+        @Override
+        public Mono<Void> filter(ServerWebExchange exchange) {
+            return Mono.defer(() -> {
+                routedOnEntry = isAlreadyRouted(exchange);
+                setAlreadyRouted(exchange);
+                if (calls.incrementAndGet() <= failures) {
+                    return Mono.error(error);
+                }
+                exchange.getResponse().setStatusCode(HttpStatus.OK);
+                return Mono.empty();
+            });
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.mymicroservice.gateway.unit.filter;
+
+import com.mymicroservice.gateway.config.properties.BulkheadProperties;
+import com.mymicroservice.gateway.config.properties.DownstreamServicesProperties;
+import com.mymicroservice.gateway.filter.BulkheadGatewayFilter;
+import com.mymicroservice.gateway.webclient.DownstreamBulkheads;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+class BulkheadGatewayFilterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private BulkheadProperties properties;
+    private DownstreamServicesProperties services;
+    private Sinks.Empty<Void> downstream;
+    private GatewayFilterChain chain;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        properties = new BulkheadProperties();
+        services = new DownstreamServicesProperties();
+        services.put("paymentservice", service("http://paymentservice:8084", 2));
+        services.put("userservice", service("http://userservice:8083", 2));
+        downstream = Sinks.empty();
+        chain = exchange -> downstream.asMono();
+    }
+
+    @Test
+    void filter_ShouldFailFastWith503_WhenServiceBulkheadFull() {
+        BulkheadGatewayFilter filter = filter();
+        filter.filter(exchange("payment-service", "http://paymentservice:8084"), chain).subscribe();
+        filter.filter(exchange("payment-service-admin", "http://PaymentService:8084/"), chain).subscribe();
+
+        MockServerWebExchange rejected = exchange("payment-service", "http://paymentservice:8084");
+        filter.filter(rejected, chain).block(Duration.ofSeconds(5));
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, rejected.getResponse().getStatusCode());
+        assertEquals("1", rejected.getResponse().getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertEquals(1, meterRegistry.get("gateway.bulkhead.rejected").tag("bulkhead", "paymentservice")
+                .counter().count());
+        assertEquals(0, gauge("gateway.bulkhead.available.calls", "paymentservice"));
+
+        downstream.tryEmitEmpty();
+        assertEquals(2, gauge("gateway.bulkhead.available.calls", "paymentservice"));
+    }
+
+    @Test
+    void filter_ShouldNotAffectOtherServices_WhenOneServiceBulkheadFull() {
+        BulkheadGatewayFilter filter = filter();
+        filter.filter(exchange("payment-service", "http://paymentservice:8084"), chain).subscribe();
+        filter.filter(exchange("payment-service", "http://paymentservice:8084"), chain).subscribe();
+
+        MockServerWebExchange user = exchange("user-service", "http://userservice:8083");
+        filter.filter(user, chain).subscribe();
+
+        assertNull(user.getResponse().getStatusCode());
+        assertEquals(1, gauge("gateway.bulkhead.available.calls", "userservice"));
+        downstream.tryEmitEmpty();
+    }
+
+    @Test
+    void filter_ShouldUseRouteBulkhead_WhenRouteConfigured() {
+        DownstreamServicesProperties.Bulkhead own = new DownstreamServicesProperties.Bulkhead();
+        own.setMaxConcurrentCalls(1);
+        own.setMaxWait(Duration.ZERO);
+        properties.getRoutes().put("payment-service-admin", own);
+        BulkheadGatewayFilter filter = filter();
+
+        filter.filter(exchange("payment-service-admin", "http://paymentservice:8084"), chain).subscribe();
+        MockServerWebExchange rejected = exchange("payment-service-admin", "http://paymentservice:8084");
+        filter.filter(rejected, chain).block(Duration.ofSeconds(5));
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, rejected.getResponse().getStatusCode());
+        assertEquals(2, gauge("gateway.bulkhead.available.calls", "paymentservice"));
+        downstream.tryEmitEmpty();
+    }
+
+    @Test
+    void filter_ShouldUseNewServiceBulkhead_WhenRouteUriChangedByRefresh() {
+        BulkheadGatewayFilter filter = filter();
+        filter.filter(exchange("payments", "http://paymentservice:8084"), chain).subscribe();
+
+        filter.filter(exchange("payments", "http://userservice:8083"), chain).subscribe();
+
+        assertEquals(1, gauge("gateway.bulkhead.available.calls", "paymentservice"));
+        assertEquals(1, gauge("gateway.bulkhead.available.calls", "userservice"));
+        downstream.tryEmitEmpty();
+    }
+
+    @Test
+    void filter_ShouldPassThrough_WhenRouteTargetsUnknownHostOrDisabled() {
+        BulkheadGatewayFilter filter = filter();
+        for (int i = 0; i < 5; i++) {
+            filter.filter(exchange("fallback", "forward:/fallback/payment"), chain).subscribe();
+            filter.filter(exchange("external", "http://example.org"), chain).subscribe();
+        }
+        properties.setEnabled(false);
+        BulkheadGatewayFilter disabled = filter();
+        for (int i = 0; i < 5; i++) {
+            disabled.filter(exchange("payment-service", "http://paymentservice:8084"), chain).subscribe();
+        }
+
+        assertEquals(0, meterRegistry.get("gateway.bulkhead.rejected").counters().stream()
+                .mapToDouble(counter -> counter.count()).sum());
+        downstream.tryEmitEmpty();
+    }
+
+    private BulkheadGatewayFilter filter() {
+        return new BulkheadGatewayFilter(new DownstreamBulkheads(services, properties, meterRegistry));
+    }
+
+    private double gauge(String name, String bulkhead) {
+        return meterRegistry.get(name).tag("bulkhead", bulkhead).gauge().value();
+    }
+
+    private static DownstreamServicesProperties.Service service(String url, int maxConcurrentCalls) {
+        DownstreamServicesProperties.Service service = new DownstreamServicesProperties.Service();
+        service.setUrl(url);
+        service.getBulkhead().setMaxConcurrentCalls(maxConcurrentCalls);
+        service.getBulkhead().setMaxWait(Duration.ZERO);
+        return service;
+    }
+
+    private static MockServerWebExchange exchange(String routeId, String uri) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/payments"));
+        exchange.getAttributes().put(GATEWAY_ROUTE_ATTR,
+                Route.async().id(routeId).uri(uri).predicate(e -> true).build());
+        return exchange;
+    }
+}
@@ -0,0 +1,126 @@
+package com.mymicroservice.gateway.unit.filter;
+
+import com.mymicroservice.gateway.config.properties.DeadlineProperties;
+import com.mymicroservice.gateway.filter.ClientDisconnectGatewayFilter;
+import com.mymicroservice.gateway.filter.RoundTripSampleFilter;
+import com.mymicroservice.gateway.webclient.DownstreamDeadlines;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.http.server.reactive.ReactorHttpHandlerAdapter;
+import org.springframework.web.server.adapter.WebHttpHandlerBuilder;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.server.HttpServer;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.CLIENT_RESPONSE_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+class ClientDisconnectGatewayFilterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ClientDisconnectGatewayFilter filter;
+    private DisposableServer server;
+    private CountDownLatch upstreamCancelled;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new ClientDisconnectGatewayFilter(new DownstreamDeadlines(new DeadlineProperties(), meterRegistry));
+        upstreamCancelled = new CountDownLatch(1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.disposeNow();
+    }
+
+    @Test
+    void filter_ShouldCancelAndCountUpstreamCall_WhenClientDisconnects() throws InterruptedException {
+        startGateway(routed(exchange -> Mono.<Void>never().doOnCancel(upstreamCancelled::countDown)));
+
+        disconnectingClientCall();
+
+        assertTrue(upstreamCancelled.await(5, TimeUnit.SECONDS));
+        assertEquals(1, cancelled());
+    }
+
+    @Test
+    void filter_ShouldNotCount_WhenRequestNotRoutedYet() throws InterruptedException {
+        // like a RequestCoalescing waiter: answered by the gateway, routing filters not reached
+        startGateway(exchange -> Mono.<Void>never().doOnCancel(upstreamCancelled::countDown));
+
+        disconnectingClientCall();
+
+        assertTrue(upstreamCancelled.await(5, TimeUnit.SECONDS));
+        assertEquals(0, cancelled());
+    }
+
+    @Test
+    void filter_ShouldNotCount_WhenServiceAlreadyAnswered() throws InterruptedException {
+        startGateway(routed(exchange -> {
+            exchange.getAttributes().put(CLIENT_RESPONSE_ATTR, new Object());
+            return Mono.<Void>never().doOnCancel(upstreamCancelled::countDown);
+        }));
+
+        disconnectingClientCall();
+
+        assertTrue(upstreamCancelled.await(5, TimeUnit.SECONDS));
+        assertEquals(0, cancelled());
+    }
+
+    /**
+     * @param upstream stands in for the routing filter
+     * @return the rest of the chain up to the routing filter
+     */
+    private static GatewayFilterChain routed(GatewayFilterChain upstream) {
+        RoundTripSampleFilter sampleFilter = new RoundTripSampleFilter();
+        return exchange -> sampleFilter.filter(exchange, upstream);
+    }
+
+    /**
+     * A real Reactor Netty server whose only handler runs the filter in front of {@code upstream},
+     * the rest of the filter chain.
+     */
+    private void startGateway(GatewayFilterChain upstream) {
+        Route route = Route.async().id("order-service").uri("http://orderservice:8082")
+                .predicate(e -> true).build();
+        server = HttpServer.create()
+                .host("127.0.0.1")
+                .port(0)
+                .handle(new ReactorHttpHandlerAdapter(WebHttpHandlerBuilder.webHandler(exchange -> {
+                    exchange.getAttributes().put(GATEWAY_ROUTE_ATTR, route);
+                    return filter.filter(exchange, upstream);
+                }).build()))
+                .bindNow();
+    }
+
+    /**
+     * Gives up after 200ms and closes its connection, like a client whose own timeout expired.
+     */
+    private void disconnectingClientCall() {
+        HttpClient.create()
+                .responseTimeout(Duration.ofMillis(200))
+                .get()
+                .uri("http://127.0.0.1:" + server.port() + "/api/orders")
+                .response()
+                .onErrorResume(e -> Mono.empty())
+                .block(Duration.ofSeconds(5));
+    }
+
+    private double cancelled() {
+        return meterRegistry.find("gateway.upstream.cancelled").tag("via", "route").tag("target", "order-service")
+                .counters().stream().mapToDouble(Counter::count).sum();
+    }
+}
@@ -0,0 +1,141 @@
+package com.mymicroservice.gateway.unit.filter;
+
+import com.mymicroservice.gateway.config.properties.CorsProperties;
+import com.mymicroservice.gateway.config.properties.GatewayCustomProperties;
+import com.mymicroservice.gateway.filter.CorsPreflightWebFilter;
+import com.mymicroservice.gateway.reload.GatewayConfigHolder;
+import com.mymicroservice.gateway.util.CorsPolicy;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CorsPreflightWebFilterTest {
+
+    @Mock
+    private WebFilterChain chain;
+
+    private SimpleMeterRegistry meterRegistry;
+    private CorsPreflightWebFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new CorsPreflightWebFilter(
+                GatewayConfigHolder.of(new GatewayCustomProperties(), createCorsProperties(), meterRegistry),
+                meterRegistry);
+    }
+
+    @Test
+    void filter_ShouldAnswerPreflightWithoutChain_WhenOriginAndMethodAllowed() {
+        MockServerWebExchange exchange = preflight("http://localhost:3000", "POST", "authorization, content-type");
+
+        StepVerifier.create(filter.filter(exchange, chain)).verifyComplete();
+
+        HttpHeaders headers = exchange.getResponse().getHeaders();
+        assertEquals(HttpStatus.OK, exchange.getResponse().getStatusCode());
+        assertEquals("http://localhost:3000", headers.getAccessControlAllowOrigin());
+        assertEquals(List.of("GET", "POST"), headers.getAccessControlAllowMethods().stream().map(Object::toString).toList());
+        assertEquals(List.of("authorization", "content-type"), headers.getAccessControlAllowHeaders());
+        assertTrue(headers.getAccessControlAllowCredentials());
+        assertEquals(3600L, headers.getAccessControlMaxAge());
+        assertTrue(headers.getVary().contains(HttpHeaders.ORIGIN));
+        verify(chain, never()).filter(any());
+    }
+
+    @Test
+    void filter_ShouldRejectPreflight_WhenOriginNotAllowed() {
+        MockServerWebExchange exchange = preflight("http://evil.example", "POST", null);
+
+        StepVerifier.create(filter.filter(exchange, chain)).verifyComplete();
+
+        assertEquals(HttpStatus.FORBIDDEN, exchange.getResponse().getStatusCode());
+        assertNull(exchange.getResponse().getHeaders().getAccessControlAllowOrigin());
+        assertEquals(1, meterRegistry.get("gateway.cors.preflight").tag("outcome", "rejected").timer().count());
+        verify(chain, never()).filter(any());
+    }
+
+    @Test
+    void filter_ShouldRejectPreflight_WhenMethodOrHeaderNotAllowed() {
+        MockServerWebExchange deleteExchange = preflight("http://localhost:3000", "DELETE", null);
+        MockServerWebExchange headerExchange = preflight("http://localhost:3000", "GET", "X-Custom");
+
+        StepVerifier.create(filter.filter(deleteExchange, chain)).verifyComplete();
+        StepVerifier.create(filter.filter(headerExchange, chain)).verifyComplete();
+
+        assertEquals(HttpStatus.FORBIDDEN, deleteExchange.getResponse().getStatusCode());
+        assertEquals(HttpStatus.FORBIDDEN, headerExchange.getResponse().getStatusCode());
+    }
+
+    @Test
+    void filter_ShouldServeRepeatedPreflightFromCache_WhenSameOriginMethodAndHeaders() {
+        for (int i = 0; i < 3; i++) {
+            StepVerifier.create(filter.filter(preflight("http://localhost:3000", "GET", "Authorization"), chain))
+                    .verifyComplete();
+        }
+
+        assertEquals(2.0, meterRegistry.get("cache.gets")
+                .tag("cache", CorsPolicy.PREFLIGHT_CACHE_NAME).tag("result", "hit")
+                .functionCounter().count());
+        assertEquals(3, meterRegistry.get("gateway.cors.preflight").tag("outcome", "allowed").timer().count());
+    }
+
+    @Test
+    void filter_ShouldPassActualRequestsToChain_AndCountPreflightRatio() {
+        when(chain.filter(any())).thenReturn(Mono.empty());
+        MockServerWebExchange actual = MockServerWebExchange.from(MockServerHttpRequest.get("http://gateway:8080/api/users")
+                .header(HttpHeaders.ORIGIN, "http://localhost:3000"));
+        MockServerWebExchange plainOptions = MockServerWebExchange.from(
+                MockServerHttpRequest.options("http://gateway:8080/api/users"));
+
+        StepVerifier.create(filter.filter(preflight("http://localhost:3000", "GET", null), chain)).verifyComplete();
+        StepVerifier.create(filter.filter(actual, chain)).verifyComplete();
+        StepVerifier.create(filter.filter(plainOptions, chain)).verifyComplete();
+
+        verify(chain).filter(actual);
+        verify(chain).filter(plainOptions);
+        assertEquals(1.0, meterRegistry.get("gateway.requests").tag("type", "preflight").counter().count());
+        assertEquals(2.0, meterRegistry.get("gateway.requests").tag("type", "actual").counter().count());
+    }
+
+    private static MockServerWebExchange preflight(String origin, String method, String requestHeaders) {
+        MockServerHttpRequest.BaseBuilder<?> request = MockServerHttpRequest.options("http://gateway:8080/api/users")
+                .header(HttpHeaders.ORIGIN, origin)
+                .header(HttpHeaders.ACCESS_CONTROL_REQUEST_METHOD, method);
+        if (requestHeaders != null) {
+            request.header(HttpHeaders.ACCESS_CONTROL_REQUEST_HEADERS, requestHeaders);
+        }
+        return MockServerWebExchange.from(request);
+    }
+
+    private static CorsProperties createCorsProperties() {
+        CorsProperties properties = new CorsProperties();
+        properties.setAllowedOriginPatterns(List.of("http://localhost:3000"));
+        properties.setAllowedMethods(List.of("GET", "POST"));
+        properties.setAllowedHeaders(List.of("Authorization", "Content-Type"));
+        properties.setExposedHeaders(List.of("Authorization"));
+        properties.setAllowCredentials(true);
+        properties.setMaxAge(3600L);
+        return properties;
+    }
+}
@@ -0,0 +1,94 @@
+package com.mymicroservice.gateway.unit.filter;
+
+import com.mymicroservice.gateway.config.properties.DeadlineProperties;
+import com.mymicroservice.gateway.filter.DeadlineHeadersFilter;
+import com.mymicroservice.gateway.webclient.DownstreamDeadlines;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.config.HttpClientProperties;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+class DeadlineHeadersFilterTest {
+
+    private static final String HEADER = "X-Request-Deadline";
+
+    private DeadlineProperties properties;
+    private HttpClientProperties httpClientProperties;
+    private DeadlineHeadersFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        properties = new DeadlineProperties();
+        httpClientProperties = new HttpClientProperties();
+        httpClientProperties.setResponseTimeout(Duration.ofSeconds(5));
+        filter = new DeadlineHeadersFilter(new DownstreamDeadlines(properties, new SimpleMeterRegistry()),
+                httpClientProperties);
+    }
+
+    @Test
+    void filter_ShouldSendGlobalResponseTimeout_WhenRouteHasNoTimeout() {
+        long before = System.currentTimeMillis();
+
+        long deadline = deadlineOf(filter.filter(new HttpHeaders(), exchange(Map.of())));
+
+        assertTrue(deadline >= before + 5000 && deadline <= System.currentTimeMillis() + 5000);
+    }
+
+    @Test
+    void filter_ShouldSendRouteResponseTimeout_WhenSetInMetadata() {
+        long before = System.currentTimeMillis();
+
+        long deadline = deadlineOf(filter.filter(new HttpHeaders(), exchange(Map.of("response-timeout", 200))));
+
+        assertTrue(deadline >= before + 200 && deadline <= System.currentTimeMillis() + 200);
+    }
+
+    @Test
+    void filter_ShouldKeepClientDeadline_WhenEarlierThanTimeout() {
+        HttpHeaders incoming = new HttpHeaders();
+        long clientDeadline = System.currentTimeMillis() + 1000;
+        incoming.set(HEADER, Long.toString(clientDeadline));
+
+        assertEquals(clientDeadline, deadlineOf(filter.filter(incoming, exchange(Map.of()))));
+
+        properties.setAcceptIncoming(false);
+        assertTrue(deadlineOf(filter.filter(incoming, exchange(Map.of()))) > clientDeadline);
+    }
+
+    @Test
+    void filter_ShouldRemoveHeader_WhenNoTimeoutApplies() {
+        HttpHeaders incoming = new HttpHeaders();
+        incoming.set(HEADER, "not-a-deadline");
+
+        HttpHeaders filtered = filter.filter(incoming, exchange(Map.of("response-timeout", -1)));
+
+        assertFalse(filtered.containsKey(HEADER));
+    }
+
+    private static long deadlineOf(HttpHeaders headers) {
+        return Long.parseLong(headers.getFirst(HEADER));
+    }
+
+    private static MockServerWebExchange exchange(Map<String, Object> metadata) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/orders"));
+        exchange.getAttributes().put(GATEWAY_ROUTE_ATTR, Route.async()
+                .id("order-service")
+                .uri("http://orderservice:8082")
+                .metadata(metadata)
+                .predicate(e -> true)
+                .build());
+        return exchange;
+    }
+}
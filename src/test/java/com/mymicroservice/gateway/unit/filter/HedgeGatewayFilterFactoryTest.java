@@ -0,0 +1,214 @@
+package com.mymicroservice.gateway.unit.filter;
+
+import com.mymicroservice.gateway.filter.factory.HedgeGatewayFilterFactory;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.netty.Connection;
+import reactor.test.StepVerifier;
+
+import java.net.ConnectException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.CLIENT_RESPONSE_CONN_ATTR;
+
+class HedgeGatewayFilterFactoryTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private HedgeGatewayFilterFactory factory;
+    private HedgeGatewayFilterFactory.Config config;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        factory = new HedgeGatewayFilterFactory(meterRegistry);
+        config = new HedgeGatewayFilterFactory.Config();
+        config.setRouteId("user-service");
+        config.setMinDelay(Duration.ofMillis(10));
+        config.setMaxDelay(Duration.ofMillis(50));
+    }
+
+    @Test
+    void apply_ShouldAnswerFromHedge_WhenPrimaryIsSlow() {
+        Upstream upstream = new Upstream(List.of(Duration.ofSeconds(10), Duration.ZERO));
+        MockServerWebExchange exchange = get();
+
+        factory.apply(config).filter(exchange, upstream).block(Duration.ofSeconds(5));
+
+        assertEquals(2, upstream.calls.get());
+        assertEquals(HttpStatus.OK, exchange.getResponse().getStatusCode());
+        assertEquals("attempt-2", exchange.getResponse().getHeaders().getFirst("X-Attempt"));
+        assertEquals("attempt-2", exchange.getAttribute("attempt"));
+        assertSame(upstream.connections.get(2), exchange.getAttribute(CLIENT_RESPONSE_CONN_ATTR));
+        assertTrue(upstream.cancelled.contains(1), "slow primary must be cancelled");
+        assertEquals(1, requests("hedged"));
+        assertEquals(1, requests("won"));
+    }
+
+    @Test
+    void apply_ShouldNotHedge_WhenPrimaryAnswersBeforeDelay() {
+        Upstream upstream = new Upstream(List.of(Duration.ZERO));
+        MockServerWebExchange exchange = get();
+
+        factory.apply(config).filter(exchange, upstream).block(Duration.ofSeconds(5));
+        Mono.delay(Duration.ofMillis(100)).block();
+
+        assertEquals(1, upstream.calls.get());
+        assertEquals("attempt-1", exchange.getAttribute("attempt"));
+        assertEquals(0, requests("hedged"));
+    }
+
+    @Test
+    void apply_ShouldKeepPrimary_WhenItAnswersBeforeHedge() {
+        Upstream upstream = new Upstream(List.of(Duration.ofMillis(100), Duration.ofSeconds(10)));
+        MockServerWebExchange exchange = get();
+
+        factory.apply(config).filter(exchange, upstream).block(Duration.ofSeconds(5));
+
+        assertEquals(2, upstream.calls.get());
+        assertEquals("attempt-1", exchange.getResponse().getHeaders().getFirst("X-Attempt"));
+        assertTrue(upstream.cancelled.contains(2), "slow hedge must be cancelled");
+        assertEquals(0, requests("won"));
+    }
+
+    @Test
+    void apply_ShouldCloseLosingConnection_WhenLoserAlreadyHasResponse() {
+        Connection winning = mock(Connection.class);
+        Connection losing = mock(Connection.class);
+        AtomicInteger calls = new AtomicInteger();
+        GatewayFilterChain routing = exchange -> {
+            if (calls.incrementAndGet() == 1) {
+                // response headers received, but the attempt has not completed yet
+                exchange.getAttributes().put(CLIENT_RESPONSE_CONN_ATTR, losing);
+                return Mono.delay(Duration.ofSeconds(10)).then();
+            }
+            exchange.getAttributes().put(CLIENT_RESPONSE_CONN_ATTR, winning);
+            return Mono.empty();
+        };
+        MockServerWebExchange exchange = get();
+
+        factory.apply(config).filter(exchange, routing).block(Duration.ofSeconds(5));
+
+        assertSame(winning, exchange.getAttribute(CLIENT_RESPONSE_CONN_ATTR));
+        verify(losing).dispose();
+        verify(winning, never()).dispose();
+    }
+
+    @Test
+    void apply_ShouldNotHedge_WhenBudgetSpent() {
+        config.setBudgetRatio(0.0);
+        config.setBudgetMaxTokens(1);
+        GatewayFilter filter = factory.apply(config);
+        Upstream upstream = new Upstream(List.of(Duration.ofMillis(300), Duration.ZERO, Duration.ofMillis(300)));
+
+        filter.filter(get(), upstream).block(Duration.ofSeconds(5));
+        MockServerWebExchange second = get();
+        filter.filter(second, upstream).block(Duration.ofSeconds(5));
+
+        assertEquals(3, upstream.calls.get());
+        assertEquals("attempt-3", second.getAttribute("attempt"));
+        assertEquals(1, requests("budget_exhausted"));
+    }
+
+    @Test
+    void apply_ShouldKeepBudget_WhenRouteRebuilt() {
+        config.setBudgetRatio(0.0);
+        config.setBudgetMaxTokens(1);
+        Upstream upstream = new Upstream(List.of(Duration.ofMillis(300), Duration.ZERO, Duration.ofMillis(300)));
+
+        factory.apply(config).filter(get(), upstream).block(Duration.ofSeconds(5));
+        MockServerWebExchange second = get();
+        factory.apply(config).filter(second, upstream).block(Duration.ofSeconds(5));
+
+        assertEquals(3, upstream.calls.get());
+        assertEquals("attempt-3", second.getAttribute("attempt"));
+        assertEquals(1, requests("budget_exhausted"));
+    }
+
+    @Test
+    void apply_ShouldFail_WhenPrimaryFailsBeforeHedge() {
+        GatewayFilterChain failing = exchange -> Mono.error(new ConnectException("Connection refused"));
+
+        StepVerifier.create(factory.apply(config).filter(get(), failing))
+                .expectError(ConnectException.class)
+                .verify(Duration.ofSeconds(5));
+        assertEquals(0, requests("hedged"));
+    }
+
+    @Test
+    void apply_ShouldPassThrough_WhenMethodNotGet() {
+        Upstream upstream = new Upstream(List.of(Duration.ofMillis(200)));
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.post("/api/users"));
+
+        factory.apply(config).filter(exchange, upstream).block(Duration.ofSeconds(5));
+
+        assertEquals(1, upstream.calls.get());
+        assertSame(exchange, upstream.exchanges.get(0), "no copy of the exchange is made");
+        assertEquals(0, requests("hedged"));
+    }
+
+    private double requests(String result) {
+        return meterRegistry.get("gateway.hedge.requests")
+                .tag("route", "user-service").tag("result", result).counter().count();
+    }
+
+    private static MockServerWebExchange get() {
+        return MockServerWebExchange.from(MockServerHttpRequest.get("/api/users/1"));
+    }
+
+    /**
+     * Stands in for the routing filter: the n-th call answers after the n-th delay, with a
+     * header and attribute naming it and its own response connection.
+     */
+    private static final class Upstream implements GatewayFilterChain {
+
+        private final List<Duration> delays;
+        private final AtomicInteger calls = new AtomicInteger();
+        private final List<Integer> cancelled = new CopyOnWriteArrayList<>();
+        private final List<ServerWebExchange> exchanges = new CopyOnWriteArrayList<>();
+        private final Map<Integer, Connection> connections = new ConcurrentHashMap<>();
+
+        private Upstream(List<Duration> delays) {
+            this.delays = new ArrayList<>(delays);
+        }
+
+        @Override
+        public Mono<Void> filter(ServerWebExchange exchange) {
+            int call = calls.incrementAndGet();
+            exchanges.add(exchange);
+            String name = "attempt-" + call;
+            Duration delay = delays.get(Math.min(call, delays.size()) - 1);
+            return Mono.delay(delay)
+                    .then(Mono.<Void>fromRunnable(() -> {
+                        Connection connection = mock(Connection.class);
+                        connections.put(call, connection);
+                        exchange.getAttributes().put(CLIENT_RESPONSE_CONN_ATTR, connection);
+                        exchange.getAttributes().put("attempt", name);
+                        ServerHttpResponse response = exchange.getResponse();
+                        response.setStatusCode(HttpStatus.OK);
+                        response.getHeaders().set("X-Attempt", name);
+                    }))
+                    .doOnCancel(() -> cancelled.add(call));
+        }
+    }
+}
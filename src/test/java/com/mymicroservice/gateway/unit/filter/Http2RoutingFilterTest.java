@@ -0,0 +1,157 @@
+package com.mymicroservice.gateway.unit.filter;
+
+import com.mymicroservice.gateway.config.properties.DownstreamServicesProperties;
+import com.mymicroservice.gateway.filter.Http2RoutingFilter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.gateway.config.HttpClientProperties;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.NettyRoutingFilter;
+import org.springframework.cloud.gateway.filter.headers.HttpHeadersFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.netty.Connection;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.server.HttpServer;
+import reactor.test.StepVerifier;
+
+import java.net.URI;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.CLIENT_RESPONSE_CONN_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.isAlreadyRouted;
+
+@ExtendWith(MockitoExtension.class)
+class Http2RoutingFilterTest {
+
+    @Mock
+    private GatewayFilterChain chain;
+
+    @Mock
+    private ObjectProvider<List<HttpHeadersFilter>> headersFiltersProvider;
+
+    private DisposableServer h2cServer;
+
+    @BeforeEach
+    void setUp() {
+        // prior-knowledge h2c only: an HTTP/1.1 client cannot talk to it
+        h2cServer = HttpServer.create()
+                .host("127.0.0.1")
+                .port(0)
+                .protocol(HttpProtocol.H2C)
+                .handle((request, response) -> response
+                        .header("X-Protocol", request.protocol())
+                        .sendString(Mono.just("ok")))
+                .bindNow();
+        lenient().when(headersFiltersProvider.getIfAvailable()).thenReturn(List.of());
+        lenient().when(chain.filter(any())).thenReturn(Mono.empty());
+    }
+
+    @AfterEach
+    void tearDown() {
+        h2cServer.disposeNow();
+    }
+
+    @Test
+    void filter_ShouldRouteOverH2c_WhenTargetServiceUsesH2c() {
+        Http2RoutingFilter filter = filter(service("http://127.0.0.1:" + h2cServer.port(),
+                DownstreamServicesProperties.Protocol.H2C));
+        MockServerWebExchange exchange = exchange("http://127.0.0.1:" + h2cServer.port() + "/api/users");
+
+        StepVerifier.create(filter.filter(exchange, chain)).verifyComplete();
+
+        assertEquals(HttpStatus.OK, exchange.getResponse().getStatusCode());
+        assertEquals("HTTP/2.0", exchange.getResponse().getHeaders().getFirst("X-Protocol"));
+        assertTrue(isAlreadyRouted(exchange));
+        verify(chain).filter(exchange);
+        ((Connection) exchange.getRequiredAttribute(CLIENT_RESPONSE_CONN_ATTR)).dispose();
+    }
+
+    @Test
+    void filter_ShouldLeaveRequestToDefaultRoutingFilter_WhenTargetServiceUsesHttp11() {
+        Http2RoutingFilter filter = filter(service("http://127.0.0.1:" + h2cServer.port(),
+                DownstreamServicesProperties.Protocol.HTTP11));
+        MockServerWebExchange exchange = exchange("http://127.0.0.1:" + h2cServer.port() + "/api/users");
+
+        StepVerifier.create(filter.filter(exchange, chain)).verifyComplete();
+
+        assertFalse(isAlreadyRouted(exchange));
+        assertNull(exchange.getResponse().getStatusCode());
+        verify(chain).filter(exchange);
+    }
+
+    @Test
+    void protocolOf_ShouldMatchByHostAndDefaultPort_WhenServiceUrlHasNoPort() {
+        Http2RoutingFilter filter = filter(service("https://paymentservice",
+                DownstreamServicesProperties.Protocol.H2));
+
+        assertEquals(DownstreamServicesProperties.Protocol.H2,
+                filter.protocolOf(exchange("https://PaymentService:443/api/payments")));
+        assertNull(filter.protocolOf(exchange("http://paymentservice/api/payments")));
+        assertNull(filter.protocolOf(exchange("https://orderservice/api/orders")));
+    }
+
+    @Test
+    void constructor_ShouldFailFast_WhenH2ServiceUrlIsNotHttps() {
+        DownstreamServicesProperties services = service("http://paymentservice:8084",
+                DownstreamServicesProperties.Protocol.H2);
+
+        IllegalStateException exception = assertThrows(IllegalStateException.class, () -> filter(services));
+
+        assertEquals("services.paymentservice.protocol H2 requires an https url", exception.getMessage());
+    }
+
+    @Test
+    void getOrder_ShouldRunBeforeDefaultRoutingFilter() {
+        Http2RoutingFilter filter = filter(new DownstreamServicesProperties());
+
+        assertTrue(filter.getOrder() < NettyRoutingFilter.ORDER);
+    }
+
+    private Http2RoutingFilter filter(DownstreamServicesProperties services) {
+        return new Http2RoutingFilter(HttpClient.create(), headersFiltersProvider, new HttpClientProperties(),
+                services);
+    }
+
+    private static DownstreamServicesProperties service(String url, DownstreamServicesProperties.Protocol protocol) {
+        DownstreamServicesProperties.Service service = new DownstreamServicesProperties.Service();
+        service.setUrl(url);
+        service.setProtocol(protocol);
+        DownstreamServicesProperties services = new DownstreamServicesProperties();
+        services.put("paymentservice", service);
+        return services;
+    }
+
+    private static MockServerWebExchange exchange(String requestUrl) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/users"));
+        URI uri = URI.create(requestUrl);
+        exchange.getAttributes().put(GATEWAY_REQUEST_URL_ATTR, uri);
+        exchange.getAttributes().put(GATEWAY_ROUTE_ATTR, Route.async()
+                .id("payment-service")
+                .uri(uri)
+                .predicate(e -> true)
+                .build());
+        return exchange;
+    }
+}
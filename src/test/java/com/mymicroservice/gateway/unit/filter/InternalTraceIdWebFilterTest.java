@@ -2,22 +2,23 @@ package com.mymicroservice.gateway.unit.filter;
 
 import com.mymicroservice.gateway.filter.InternalTraceIdWebFilter;
 import com.mymicroservice.gateway.util.MdcUtil;
+import com.mymicroservice.gateway.util.RandomTraceIdGenerator;
 import com.mymicroservice.gateway.util.data.TestConstants;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
 import org.springframework.mock.web.server.MockServerWebExchange;
 import org.springframework.test.util.ReflectionTestUtils;
-import org.springframework.web.server.ServerWebExchange;
 import org.springframework.web.server.WebFilterChain;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
+import java.util.concurrent.atomic.AtomicReference;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
@@ -36,13 +37,13 @@ class InternalTraceIdWebFilterTest {
 
     @BeforeEach
     void setUp() {
-        filter = new InternalTraceIdWebFilter();
+        filter = new InternalTraceIdWebFilter(RandomTraceIdGenerator.DEFAULT);
         ReflectionTestUtils.setField(filter, "serviceName", TestConstants.SERVICE_NAME);
     }
 
     @AfterEach
     void tearDown() {
-        MdcUtil.clearMdc();
+        org.slf4j.MDC.clear();
     }
 
     @Test
@@ -58,10 +59,10 @@ class InternalTraceIdWebFilterTest {
                 .verifyComplete();
 
         assertEquals(TestConstants.TRACE_ID, exchange.getResponse().getHeaders().getFirst(MdcUtil.TRACE_ID_HEADER));
+        assertEquals(TestConstants.TRACE_ID, exchange.getAttribute(MdcUtil.TRACE_ID_ATTRIBUTE));
 
-        ArgumentCaptor<ServerWebExchange> captor = ArgumentCaptor.forClass(ServerWebExchange.class);
-        verify(chain).filter(captor.capture());
-        assertEquals(TestConstants.TRACE_ID, captor.getValue().getRequest().getHeaders().getFirst(MdcUtil.TRACE_ID_HEADER));
+        // the request is not rebuilt, downstream filters read the attribute
+        verify(chain).filter(exchange);
     }
 
     @Test
@@ -78,9 +79,8 @@ class InternalTraceIdWebFilterTest {
         assertNotNull(responseTraceId);
         assertNotEquals("", responseTraceId);
 
-        ArgumentCaptor<ServerWebExchange> captor = ArgumentCaptor.forClass(ServerWebExchange.class);
-        verify(chain).filter(captor.capture());
-        assertEquals(responseTraceId, captor.getValue().getRequest().getHeaders().getFirst(MdcUtil.TRACE_ID_HEADER));
+        assertEquals(responseTraceId, exchange.getAttribute(MdcUtil.TRACE_ID_ATTRIBUTE));
+        verify(chain).filter(exchange);
     }
 
     @Test
@@ -101,19 +101,41 @@ class InternalTraceIdWebFilterTest {
     }
 
     @Test
-    void filter_ShouldClearMdc_WhenRequestCompletes() {
+    void filter_ShouldLeaveCallerMdcUntouched_WhenRequestCompletes() {
         MockServerWebExchange exchange = MockServerWebExchange.from(
                 MockServerHttpRequest.get("/register")
                         .header(MdcUtil.TRACE_ID_HEADER, TestConstants.TRACE_ID)
                         .build()
         );
-        MdcUtil.setMdc(TestConstants.TRACE_ID, TestConstants.SERVICE_NAME);
+        org.slf4j.MDC.put(MdcUtil.TRACE_ID_KEY, "outer-trace-id");
+        org.slf4j.MDC.put(MdcUtil.SERVICE_NAME_KEY, "outer-service");
         when(chain.filter(any())).thenReturn(Mono.empty());
 
         StepVerifier.create(filter.filter(exchange, chain))
                 .verifyComplete();
 
+        // MDC of the thread is no longer wiped by the filter
+        assertEquals("outer-trace-id", org.slf4j.MDC.get(MdcUtil.TRACE_ID_KEY));
+        assertEquals("outer-service", org.slf4j.MDC.get(MdcUtil.SERVICE_NAME_KEY));
+    }
+
+    @Test
+    void filter_ShouldExposeTraceIdToMdc_WhenDownstreamLogsWithMdc() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(
+                MockServerHttpRequest.get("/register")
+                        .header(MdcUtil.TRACE_ID_HEADER, TestConstants.TRACE_ID)
+                        .build()
+        );
+        AtomicReference<String> traceIdInChain = new AtomicReference<>();
+        WebFilterChain capturingChain = ignored -> Mono.deferContextual(context -> {
+            MdcUtil.logWithMdc(context, () -> traceIdInChain.set(org.slf4j.MDC.get(MdcUtil.TRACE_ID_KEY)));
+            return Mono.empty();
+        });
+
+        StepVerifier.create(filter.filter(exchange, capturingChain))
+                .verifyComplete();
+
+        assertEquals(TestConstants.TRACE_ID, traceIdInChain.get());
         assertNull(org.slf4j.MDC.get(MdcUtil.TRACE_ID_KEY));
-        assertNull(org.slf4j.MDC.get(MdcUtil.SERVICE_NAME_KEY));
     }
 }
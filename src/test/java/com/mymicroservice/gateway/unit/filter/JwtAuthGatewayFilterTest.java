@@ -1,9 +1,13 @@
 package com.mymicroservice.gateway.unit.filter;
 
+import com.mymicroservice.gateway.config.properties.CorsProperties;
 import com.mymicroservice.gateway.config.properties.GatewayCustomProperties;
 import com.mymicroservice.gateway.filter.JwtAuthGatewayFilter;
+import com.mymicroservice.gateway.reload.GatewayConfigHolder;
 import com.mymicroservice.gateway.util.MdcUtil;
+import com.mymicroservice.gateway.util.RandomTraceIdGenerator;
 import com.mymicroservice.gateway.util.data.TestConstants;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -11,6 +15,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.slf4j.MDC;
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
@@ -52,13 +57,12 @@ class JwtAuthGatewayFilterTest {
         gatewayCustomProperties.setPublicPaths(publicPaths);
         gatewayCustomProperties.setInternalPaths(internalPaths);
 
-        filter = new JwtAuthGatewayFilter(gatewayCustomProperties);
-        ReflectionTestUtils.setField(filter, "serviceName", TestConstants.SERVICE_NAME);
+        filter = createFilter();
     }
 
     @AfterEach
     void tearDown() {
-        MdcUtil.clearMdc();
+        MDC.clear();
     }
 
     @Test
@@ -230,6 +234,7 @@ class JwtAuthGatewayFilterTest {
     @Test
     void filter_ShouldUseEmptyPublicPaths_WhenPublicPathsAreNull() {
         gatewayCustomProperties.setPublicPaths(null);
+        filter = createFilter();
         MockServerWebExchange exchange = MockServerWebExchange.from(
                 MockServerHttpRequest.get("/api/users/profile")
                         .header(HttpHeaders.AUTHORIZATION, TestConstants.BEARER_PREFIX + TestConstants.TEST_JWT)
@@ -246,6 +251,7 @@ class JwtAuthGatewayFilterTest {
     @Test
     void filter_ShouldUseEmptyInternalPaths_WhenInternalPathsAreNull() {
         gatewayCustomProperties.setInternalPaths(null);
+        filter = createFilter();
         MockServerWebExchange exchange = MockServerWebExchange.from(
                 MockServerHttpRequest.get("/api/users/my-login-page")
                         .header(HttpHeaders.AUTHORIZATION, TestConstants.BEARER_PREFIX + TestConstants.TEST_JWT)
@@ -261,8 +267,51 @@ class JwtAuthGatewayFilterTest {
         assertEquals("true", captor.getValue().getRequest().getHeaders().getFirst("X-Internal-Call"));
     }
 
+    @Test
+    void filter_ShouldReuseResolvedTraceId_WhenAttributeIsPresent() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(
+                MockServerHttpRequest.post("/register").build()
+        );
+        exchange.getAttributes().put(MdcUtil.TRACE_ID_ATTRIBUTE, TestConstants.TRACE_ID);
+        when(chain.filter(any())).thenReturn(Mono.empty());
+
+        StepVerifier.create(filter.filter(exchange, chain))
+                .verifyComplete();
+
+        ArgumentCaptor<ServerWebExchange> captor = ArgumentCaptor.forClass(ServerWebExchange.class);
+        verify(chain).filter(captor.capture());
+        HttpHeaders forwarded = captor.getValue().getRequest().getHeaders();
+        assertEquals(TestConstants.TRACE_ID, forwarded.getFirst(MdcUtil.TRACE_ID_HEADER));
+        assertEquals("true", forwarded.getFirst("X-Internal-Call"));
+        assertEquals(TestConstants.SERVICE_NAME, forwarded.getFirst("X-Source-Service"));
+        assertEquals(TestConstants.TRACE_ID, exchange.getResponse().getHeaders().getFirst(MdcUtil.TRACE_ID_HEADER));
+    }
+
+    @Test
+    void filter_ShouldNotMutateRequest_WhenPublicPathAlreadyCarriesTraceId() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(
+                MockServerHttpRequest.get("/actuator/health")
+                        .header(MdcUtil.TRACE_ID_HEADER, TestConstants.TRACE_ID)
+                        .build()
+        );
+        when(chain.filter(any())).thenReturn(Mono.empty());
+
+        StepVerifier.create(filter.filter(exchange, chain))
+                .verifyComplete();
+
+        verify(chain).filter(exchange);
+    }
+
     @Test
     void getOrder_ShouldReturnHighestPrecedence_WhenCalled() {
         assertEquals(Integer.MIN_VALUE, filter.getOrder());
     }
+
+    private JwtAuthGatewayFilter createFilter() {
+        JwtAuthGatewayFilter created = new JwtAuthGatewayFilter(
+                GatewayConfigHolder.of(gatewayCustomProperties, new CorsProperties(), new SimpleMeterRegistry()),
+                RandomTraceIdGenerator.DEFAULT);
+        ReflectionTestUtils.setField(created, "serviceName", TestConstants.SERVICE_NAME);
+        return created;
+    }
 }
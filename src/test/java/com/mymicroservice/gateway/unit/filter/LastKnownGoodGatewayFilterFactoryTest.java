@@ -0,0 +1,99 @@
+package com.mymicroservice.gateway.unit.filter;
+
+import com.mymicroservice.gateway.config.properties.LastKnownGoodProperties;
+import com.mymicroservice.gateway.filter.cache.CachedResponse;
+import com.mymicroservice.gateway.filter.cache.LastKnownGoodStore;
+import com.mymicroservice.gateway.filter.factory.LastKnownGoodGatewayFilterFactory;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.util.unit.DataSize;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+class LastKnownGoodGatewayFilterFactoryTest {
+
+    private static final String BODY = "{\"id\":7}";
+
+    private LastKnownGoodProperties properties;
+    private LastKnownGoodStore store;
+    private GatewayFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        properties = new LastKnownGoodProperties();
+        store = new LastKnownGoodStore(properties, new SimpleMeterRegistry());
+        filter = new LastKnownGoodGatewayFilterFactory(store, properties).apply(new Object());
+    }
+
+    @Test
+    void apply_ShouldStoreResponse_WhenGetSucceeded() {
+        MockServerWebExchange exchange = exchange(MockServerHttpRequest.get("/api/items/7"));
+
+        StepVerifier.create(filter.filter(exchange, upstream(HttpStatus.OK, headers -> headers.setCacheControl("no-cache"))))
+                .verifyComplete();
+
+        CachedResponse stored = store.get(LastKnownGoodStore.key("order-service", exchange));
+        assertNotNull(stored);
+        assertEquals(BODY, StandardCharsets.UTF_8.decode(stored.body().duplicate()).toString());
+        assertEquals("no-cache", stored.headers().getCacheControl());
+        assertEquals(BODY, exchange.getResponse().getBodyAsString().block());
+    }
+
+    @Test
+    void apply_ShouldNotStore_WhenErrorNoStoreCookieFallbackOrTooLarge() {
+        MockServerWebExchange failed = exchange(MockServerHttpRequest.get("/api/items/1"));
+        MockServerWebExchange noStore = exchange(MockServerHttpRequest.get("/api/items/2"));
+        MockServerWebExchange cookie = exchange(MockServerHttpRequest.get("/api/items/3"));
+        MockServerWebExchange post = exchange(MockServerHttpRequest.post("/api/items/4"));
+        MockServerWebExchange fallback = exchange(MockServerHttpRequest.get("/api/items/6"));
+
+        filter.filter(failed, upstream(HttpStatus.INTERNAL_SERVER_ERROR, headers -> { })).block();
+        filter.filter(noStore, upstream(HttpStatus.OK, headers -> headers.setCacheControl("no-store"))).block();
+        filter.filter(cookie, upstream(HttpStatus.OK, headers -> headers.add(HttpHeaders.SET_COOKIE, "s=1"))).block();
+        filter.filter(post, upstream(HttpStatus.OK, headers -> { })).block();
+        filter.filter(fallback, upstream(HttpStatus.OK,
+                headers -> headers.set(LastKnownGoodStore.FALLBACK_HEADER, "stale"))).block();
+        properties.setMaxEntrySize(DataSize.ofBytes(4));
+        MockServerWebExchange large = exchange(MockServerHttpRequest.get("/api/items/5"));
+        filter.filter(large, upstream(HttpStatus.OK, headers -> { })).block();
+
+        for (MockServerWebExchange exchange
+                : new MockServerWebExchange[]{failed, noStore, cookie, post, fallback, large}) {
+            assertNull(store.get(LastKnownGoodStore.key("order-service", exchange)));
+        }
+    }
+
+    private static MockServerWebExchange exchange(MockServerHttpRequest.BaseBuilder<?> request) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(request);
+        exchange.getAttributes().put(GATEWAY_ROUTE_ATTR,
+                Route.async().id("order-service").uri("http://orderservice:8082").predicate(e -> true).build());
+        return exchange;
+    }
+
+    private static GatewayFilterChain upstream(HttpStatus status, Consumer<HttpHeaders> headers) {
+        return exchange -> {
+            ServerHttpResponse response = exchange.getResponse();
+            response.setStatusCode(status);
+            headers.accept(response.getHeaders());
+            byte[] bytes = BODY.getBytes(StandardCharsets.UTF_8);
+            return response.writeWith(Mono.just(response.bufferFactory().wrap(bytes)));
+        };
+    }
+}
@@ -0,0 +1,81 @@
+package com.mymicroservice.gateway.unit.filter;
+
+import com.mymicroservice.gateway.config.properties.LatencyAwareLoadBalancerProperties;
+import com.mymicroservice.gateway.filter.LoadBalancedCallFilter;
+import com.mymicroservice.gateway.loadbalancer.InFlightCall;
+import com.mymicroservice.gateway.loadbalancer.PeakEwmaLoadBalancer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultRequest;
+import org.springframework.cloud.client.loadbalancer.DefaultRequestContext;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.RequestData;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.loadbalancer.support.ServiceInstanceListSuppliers;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR;
+
+class LoadBalancedCallFilterTest {
+
+    private static final String SERVICE = "user-service";
+
+    private final ServiceInstance busy = new DefaultServiceInstance("busy", SERVICE, "busy.pods", 8083, false);
+    private final ServiceInstance idle = new DefaultServiceInstance("idle", SERVICE, "idle.pods", 8083, false);
+    private final PeakEwmaLoadBalancer loadBalancer = new PeakEwmaLoadBalancer(SERVICE,
+            ServiceInstanceListSuppliers.toProvider(SERVICE, busy, idle), new LatencyAwareLoadBalancerProperties(),
+            new SimpleMeterRegistry(), () -> 1_000_000_000L);
+    private final LoadBalancedCallFilter filter = new LoadBalancedCallFilter();
+
+    @Test
+    void filter_ShouldFreeInFlightSlot_WhenCallCancelled() {
+        for (int i = 0; i < 3; i++) {
+            MockServerWebExchange exchange = exchange("lb://" + SERVICE + "/users");
+            // what ReactiveLoadBalancerClientFilter does, up to the response it never gets
+            GatewayFilterChain chain = routed -> {
+                loadBalancer.onStartRequest(new DefaultRequest<>(new RequestDataContext(
+                        new RequestData(routed.getRequest(), routed.getAttributes()))), new DefaultResponse(busy));
+                return Mono.never();
+            };
+
+            filter.filter(exchange, chain).subscribe().dispose();
+        }
+
+        assertEquals(Set.of("busy", "idle"), chosen());
+    }
+
+    @Test
+    void filter_ShouldNotTrackCall_WhenRouteNotLoadBalanced() {
+        MockServerWebExchange exchange = exchange("http://users.pods:8083/users");
+
+        filter.filter(exchange, routed -> Mono.empty()).block();
+
+        assertTrue(exchange.getAttributes().values().stream().noneMatch(InFlightCall.class::isInstance));
+    }
+
+    private static MockServerWebExchange exchange(String url) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/users"));
+        exchange.getAttributes().put(GATEWAY_REQUEST_URL_ATTR, URI.create(url));
+        return exchange;
+    }
+
+    private Set<String> chosen() {
+        Set<String> chosen = new HashSet<>();
+        for (int i = 0; i < 50; i++) {
+            chosen.add(loadBalancer.choose(new DefaultRequest<>(new DefaultRequestContext())).block()
+                    .getServer().getInstanceId());
+        }
+        return chosen;
+    }
+}
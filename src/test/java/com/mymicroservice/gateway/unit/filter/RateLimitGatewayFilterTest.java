@@ -0,0 +1,172 @@
+package com.mymicroservice.gateway.unit.filter;
+
+import com.mymicroservice.gateway.config.properties.RateLimitProperties;
+import com.mymicroservice.gateway.filter.RateLimitGatewayFilter;
+import com.mymicroservice.gateway.filter.ratelimit.SubjectOrIpKeyResolver;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.net.InetSocketAddress;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+@ExtendWith(MockitoExtension.class)
+class RateLimitGatewayFilterTest {
+
+    @Mock
+    private GatewayFilterChain chain;
+
+    private SimpleMeterRegistry meterRegistry;
+    private RateLimitProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(chain.filter(any())).thenReturn(Mono.empty());
+        meterRegistry = new SimpleMeterRegistry();
+        properties = new RateLimitProperties();
+        properties.setRoutes(Map.of("order-service", limit(1, 2)));
+    }
+
+    @Test
+    void filter_ShouldRejectWithRetryAfter_WhenSubjectExceedsBurst() {
+        RateLimitGatewayFilter filter = filter();
+
+        StepVerifier.create(filter.filter(authenticated("order-service", "user-1"), chain)).verifyComplete();
+        StepVerifier.create(filter.filter(authenticated("order-service", "user-1"), chain)).verifyComplete();
+        MockServerWebExchange rejected = authenticated("order-service", "user-1");
+        StepVerifier.create(filter.filter(rejected, chain)).verifyComplete();
+
+        verify(chain, times(2)).filter(any());
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, rejected.getResponse().getStatusCode());
+        assertEquals("1", rejected.getResponse().getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertEquals(1, meterRegistry.get("gateway.ratelimit.rejected").tag("route", "order-service")
+                .counter().count());
+    }
+
+    @Test
+    void filter_ShouldLimitEachSubjectSeparately_WhenSubjectsDiffer() {
+        RateLimitGatewayFilter filter = filter();
+
+        for (int i = 0; i < 2; i++) {
+            filter.filter(authenticated("order-service", "user-1"), chain).block();
+            filter.filter(authenticated("order-service", "user-2"), chain).block();
+        }
+
+        verify(chain, times(4)).filter(any());
+    }
+
+    @Test
+    void filter_ShouldKeyByRemoteAddress_WhenRequestAnonymous() {
+        RateLimitGatewayFilter filter = filter();
+
+        filter.filter(anonymous("order-service", "10.0.0.1"), chain).block();
+        filter.filter(anonymous("order-service", "10.0.0.1"), chain).block();
+        MockServerWebExchange rejected = anonymous("order-service", "10.0.0.1");
+        filter.filter(rejected, chain).block();
+        MockServerWebExchange otherClient = anonymous("order-service", "10.0.0.2");
+        filter.filter(otherClient, chain).block();
+
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, rejected.getResponse().getStatusCode());
+        assertNull(otherClient.getResponse().getStatusCode());
+        verify(chain, times(3)).filter(any());
+    }
+
+    @Test
+    void filter_ShouldNotLimit_WhenRouteHasNoLimitAndNoDefault() {
+        RateLimitGatewayFilter filter = filter();
+
+        for (int i = 0; i < 5; i++) {
+            filter.filter(authenticated("auth-service", "user-1"), chain).block();
+        }
+
+        verify(chain, times(5)).filter(any());
+    }
+
+    @Test
+    void filter_ShouldApplyDefaultLimit_WhenRouteNotListed() {
+        properties.setDefaultLimit(limit(1, 1));
+        RateLimitGatewayFilter filter = filter();
+
+        filter.filter(authenticated("auth-service", "user-1"), chain).block();
+        MockServerWebExchange rejected = authenticated("auth-service", "user-1");
+        filter.filter(rejected, chain).block();
+
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, rejected.getResponse().getStatusCode());
+    }
+
+    @Test
+    void filter_ShouldPassEverything_WhenDisabled() {
+        properties.setEnabled(false);
+        RateLimitGatewayFilter filter = filter();
+
+        for (int i = 0; i < 5; i++) {
+            filter.filter(authenticated("order-service", "user-1"), chain).block();
+        }
+
+        verify(chain, times(5)).filter(any());
+    }
+
+    @Test
+    void constructor_ShouldFailFast_WhenLimitInvalid() {
+        properties.setRoutes(Map.of("order-service", limit(0, 1)));
+
+        IllegalStateException exception = assertThrows(IllegalStateException.class, this::filter);
+
+        assertEquals("gateway.rate-limit.routes.order-service needs a positive replenish-rate and "
+                + "burst-capacity of at least 1", exception.getMessage());
+    }
+
+    private RateLimitGatewayFilter filter() {
+        return new RateLimitGatewayFilter(properties, new SubjectOrIpKeyResolver(), meterRegistry);
+    }
+
+    private static MockServerWebExchange authenticated(String routeId, String subject) {
+        Jwt jwt = Jwt.withTokenValue("token").header("alg", "RS256").subject(subject).build();
+        MockServerWebExchange exchange = MockServerWebExchange.builder(MockServerHttpRequest.get("/api/items")
+                        .remoteAddress(new InetSocketAddress("10.0.0.1", 40000)))
+                .principal(new JwtAuthenticationToken(jwt))
+                .build();
+        exchange.getAttributes().put(GATEWAY_ROUTE_ATTR, route(routeId));
+        return exchange;
+    }
+
+    private static MockServerWebExchange anonymous(String routeId, String address) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/items")
+                .remoteAddress(new InetSocketAddress(address, 40000)));
+        exchange.getAttributes().put(GATEWAY_ROUTE_ATTR, route(routeId));
+        return exchange;
+    }
+
+    private static Route route(String routeId) {
+        return Route.async().id(routeId).uri("http://orderservice:8082").predicate(exchange -> true).build();
+    }
+
+    private static RateLimitProperties.Limit limit(double replenishRate, int burstCapacity) {
+        RateLimitProperties.Limit limit = new RateLimitProperties.Limit();
+        limit.setReplenishRate(replenishRate);
+        limit.setBurstCapacity(burstCapacity);
+        return limit;
+    }
+}
@@ -0,0 +1,224 @@
+package com.mymicroservice.gateway.unit.filter;
+
+import com.mymicroservice.gateway.filter.factory.RequestCoalescingGatewayFilterFactory;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+class RequestCoalescingGatewayFilterFactoryTest {
+
+    private static final String BODY = "{\"id\":7,\"name\":\"book\"}";
+
+    private SimpleMeterRegistry meterRegistry;
+    private RequestCoalescingGatewayFilterFactory.Config config;
+    private GatewayFilter filter;
+    private Upstream upstream;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        config = new RequestCoalescingGatewayFilterFactory.Config();
+        filter = new RequestCoalescingGatewayFilterFactory(meterRegistry).apply(config);
+        upstream = new Upstream();
+    }
+
+    @Test
+    void apply_ShouldMakeOneUpstreamCall_WhenIdenticalRequestsInFlight() {
+        upstream.respond(headers -> headers.setCacheControl("max-age=60"), BODY);
+        List<MockServerWebExchange> exchanges = List.of(get("/api/items/7", null), get("/api/items/7", null),
+                get("/api/items/7", null));
+        List<Mono<Void>> results = exchanges.stream().map(exchange -> filter.filter(exchange, upstream)).toList();
+
+        results.forEach(Mono::subscribe);
+        upstream.release();
+
+        assertEquals(1, upstream.calls.get());
+        for (MockServerWebExchange exchange : exchanges) {
+            assertEquals(HttpStatus.OK, exchange.getResponse().getStatusCode());
+            assertEquals(BODY, exchange.getResponse().getBodyAsString().block());
+            assertEquals("max-age=60", exchange.getResponse().getHeaders().getCacheControl());
+        }
+        assertEquals(1, requests("leader"));
+        assertEquals(2, requests("joined"));
+    }
+
+    @Test
+    void apply_ShouldNotCoalesce_WhenQueryOrKeyHeaderDiffers() {
+        upstream.respond(headers -> { }, BODY);
+
+        filter.filter(get("/api/items?page=1", null), upstream).subscribe();
+        filter.filter(get("/api/items?page=2", null), upstream).subscribe();
+        filter.filter(get("/api/items?page=1", request -> request.header(HttpHeaders.AUTHORIZATION, "Bearer b")),
+                upstream).subscribe();
+        filter.filter(get("/api/items?page=1", request -> request.header(HttpHeaders.IF_NONE_MATCH, "\"v1\"")),
+                upstream).subscribe();
+        upstream.release();
+
+        assertEquals(4, upstream.calls.get());
+        assertEquals(0, requests("joined"));
+    }
+
+    @Test
+    void apply_ShouldForwardOnItsOwn_WhenLeaderSlowerThanMaxWait() {
+        config.setMaxWait(Duration.ofMillis(50));
+        upstream.respond(headers -> { }, BODY);
+        upstream.holdFirstCallOnly = true;
+
+        filter.filter(get("/api/items/7", null), upstream).subscribe();
+        MockServerWebExchange follower = get("/api/items/7", null);
+        filter.filter(follower, upstream).block(Duration.ofSeconds(5));
+
+        assertEquals(2, upstream.calls.get());
+        assertEquals(BODY, follower.getResponse().getBodyAsString().block());
+        assertEquals(1, requests("timeout"));
+        upstream.release();
+    }
+
+    @Test
+    void apply_ShouldNotShare_WhenBodyLargerThanLimitOrCookieSet() {
+        config.setMaxBodySize(DataSize.ofBytes(8));
+        upstream.respond(headers -> { }, BODY);
+        filter.filter(get("/api/items/7", null), upstream).subscribe();
+        filter.filter(get("/api/items/7", null), upstream).subscribe();
+        upstream.release();
+
+        config.setMaxBodySize(DataSize.ofKilobytes(256));
+        upstream.respond(headers -> headers.add(HttpHeaders.SET_COOKIE, "s=1"), BODY);
+        filter.filter(get("/api/items/8", null), upstream).subscribe();
+        MockServerWebExchange follower = get("/api/items/8", null);
+        filter.filter(follower, upstream).subscribe();
+        upstream.release();
+        upstream.release();
+
+        assertEquals(4, upstream.calls.get());
+        assertEquals(2, requests("unshared"));
+        assertEquals("s=1", follower.getResponse().getHeaders().getFirst(HttpHeaders.SET_COOKIE));
+    }
+
+    @Test
+    void apply_ShouldNotShare_WhenLeaderGetsServerError() {
+        upstream.respond(headers -> { }, BODY);
+        upstream.status = HttpStatus.SERVICE_UNAVAILABLE;
+
+        filter.filter(get("/api/items/7", null), upstream).subscribe();
+        MockServerWebExchange follower = get("/api/items/7", null);
+        filter.filter(follower, upstream).subscribe();
+        upstream.status = HttpStatus.OK;
+        upstream.release();
+        upstream.release();
+
+        assertEquals(2, upstream.calls.get());
+        assertEquals(1, requests("unshared"));
+        assertEquals(HttpStatus.OK, follower.getResponse().getStatusCode());
+    }
+
+    @Test
+    void apply_ShouldStartNewFlight_WhenPreviousCompleted() {
+        upstream.respond(headers -> { }, BODY);
+
+        MockServerWebExchange first = get("/api/items/7", null);
+        filter.filter(first, upstream).subscribe();
+        upstream.release();
+        MockServerWebExchange second = get("/api/items/7", null);
+        filter.filter(second, upstream).subscribe();
+        upstream.release();
+
+        assertEquals(2, upstream.calls.get());
+        assertEquals(2, requests("leader"));
+        assertNull(second.getResponse().getHeaders().getFirst(HttpHeaders.SET_COOKIE));
+    }
+
+    @Test
+    void apply_ShouldPassThrough_WhenMethodNotGet() {
+        upstream.respond(headers -> { }, BODY);
+
+        MockServerWebExchange first = MockServerWebExchange.from(MockServerHttpRequest.post("/api/items"));
+        MockServerWebExchange second = MockServerWebExchange.from(MockServerHttpRequest.post("/api/items"));
+        filter.filter(first, upstream).subscribe();
+        filter.filter(second, upstream).subscribe();
+        upstream.release();
+
+        assertEquals(2, upstream.calls.get());
+        assertFalse(meterRegistry.find("gateway.coalescing.requests").counters().stream()
+                .anyMatch(counter -> counter.count() > 0));
+    }
+
+    private MockServerWebExchange get(String path, Consumer<MockServerHttpRequest.BaseBuilder<?>> customizer) {
+        MockServerHttpRequest.BaseBuilder<?> request = MockServerHttpRequest.get(path);
+        if (customizer != null) {
+            customizer.accept(request);
+        }
+        MockServerWebExchange exchange = MockServerWebExchange.from(request);
+        exchange.getAttributes().put(GATEWAY_ROUTE_ATTR,
+                Route.async().id("catalogue").uri("http://orderservice:8082").predicate(e -> true).build());
+        return exchange;
+    }
+
+    private double requests(String result) {
+        return meterRegistry.get("gateway.coalescing.requests")
+                .tag("route", "catalogue").tag("result", result).counter().count();
+    }
+
+    /**
+     * Stands in for the routing filter: responses are held until {@link #release()}, so that
+     * requests overlap.
+     */
+    private static final class Upstream implements GatewayFilterChain {
+
+        private final AtomicInteger calls = new AtomicInteger();
+        private Sinks.Empty<Void> gate = Sinks.empty();
+        private boolean holdFirstCallOnly;
+        private HttpStatus status = HttpStatus.OK;
+        private Consumer<HttpHeaders> headers;
+        private String body;
+
+        void respond(Consumer<HttpHeaders> headers, String body) {
+            this.headers = headers;
+            this.body = body;
+        }
+
+        void release() {
+            Sinks.Empty<Void> released = gate;
+            gate = Sinks.empty();
+            released.tryEmitEmpty();
+        }
+
+        @Override
+        public Mono<Void> filter(ServerWebExchange exchange) {
+            boolean held = calls.incrementAndGet() == 1 || !holdFirstCallOnly;
+            Consumer<HttpHeaders> responseHeaders = headers;
+            HttpStatus responseStatus = status;
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            return (held ? gate.asMono() : Mono.<Void>empty()).then(Mono.defer(() -> {
+                ServerHttpResponse response = exchange.getResponse();
+                response.setStatusCode(responseStatus);
+                responseHeaders.accept(response.getHeaders());
+                response.getHeaders().setContentLength(bytes.length);
+                return response.writeWith(Mono.just(response.bufferFactory().wrap(bytes)));
+            }));
+        }
+    }
+}
@@ -0,0 +1,287 @@
+package com.mymicroservice.gateway.unit.filter;
+
+import com.mymicroservice.gateway.config.properties.ResponseCacheProperties;
+import com.mymicroservice.gateway.filter.cache.ResponseCacheStore;
+import com.mymicroservice.gateway.filter.factory.ResponseCacheGatewayFilterFactory;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+class ResponseCacheGatewayFilterFactoryTest {
+
+    private static final String BODY = "[{\"id\":1,\"name\":\"book\"}]";
+    private static final String ETAG = "\"v1\"";
+
+    private SimpleMeterRegistry meterRegistry;
+    private ResponseCacheProperties properties;
+    private ResponseCacheStore store;
+    private GatewayFilter filter;
+    private Upstream upstream;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        properties = new ResponseCacheProperties();
+        store = new ResponseCacheStore(properties, meterRegistry);
+        filter = filter(new ResponseCacheGatewayFilterFactory.Config());
+        upstream = new Upstream();
+    }
+
+    @Test
+    void apply_ShouldServeSecondRequestFromCache_WhenResponseCacheable() {
+        upstream.respond(HttpStatus.OK, headers -> headers.setCacheControl("max-age=60"), BODY);
+
+        MockServerWebExchange first = get("/api/items", null);
+        MockServerWebExchange second = get("/api/items", null);
+
+        assertEquals(BODY, first.getResponse().getBodyAsString().block());
+        assertEquals(BODY, second.getResponse().getBodyAsString().block());
+        assertEquals(HttpStatus.OK, second.getResponse().getStatusCode());
+        assertEquals(BODY.length(), second.getResponse().getHeaders().getContentLength());
+        assertEquals("max-age=60", second.getResponse().getHeaders().getCacheControl());
+        assertNotNull(second.getResponse().getHeaders().getFirst(HttpHeaders.AGE));
+        assertEquals(1, upstream.calls.size());
+        assertEquals(1, requests("hit"));
+        assertEquals(1, requests("miss"));
+        assertEquals(BODY.length(), meterRegistry.get("gateway.response.cache.served").counter().count());
+    }
+
+    @Test
+    void apply_ShouldKeySeparately_WhenQueryDiffers() {
+        upstream.respond(HttpStatus.OK, headers -> headers.setCacheControl("max-age=60"), BODY);
+
+        get("/api/items?page=1", null);
+        get("/api/items?page=2", null);
+        get("/api/items?page=1", null);
+
+        assertEquals(2, upstream.calls.size());
+    }
+
+    @Test
+    void apply_ShouldNotStore_WhenResponseNoStoreOrPrivateOrSetsCookie() {
+        upstream.respond(HttpStatus.OK, headers -> headers.setCacheControl("no-store"), BODY);
+        get("/api/items/1", null);
+        get("/api/items/1", null);
+
+        upstream.respond(HttpStatus.OK, headers -> headers.setCacheControl("private, max-age=60"), BODY);
+        get("/api/items/2", null);
+        get("/api/items/2", null);
+
+        upstream.respond(HttpStatus.OK, headers -> headers.add(HttpHeaders.SET_COOKIE, "s=1"), BODY);
+        get("/api/items/3", null);
+        get("/api/items/3", null);
+
+        assertEquals(6, upstream.calls.size());
+        assertEquals(0, store.size());
+    }
+
+    @Test
+    void apply_ShouldNotCacheAuthorizedRequest_UnlessResponsePublicOrRouteAllowsIt() {
+        upstream.respond(HttpStatus.OK, headers -> headers.setCacheControl("max-age=60"), BODY);
+        get("/api/items", request -> request.header(HttpHeaders.AUTHORIZATION, "Bearer a"));
+        get("/api/items", request -> request.header(HttpHeaders.AUTHORIZATION, "Bearer a"));
+        assertEquals(2, upstream.calls.size());
+
+        upstream.respond(HttpStatus.OK, headers -> headers.setCacheControl("public, max-age=60"), BODY);
+        get("/api/items/public", request -> request.header(HttpHeaders.AUTHORIZATION, "Bearer a"));
+        get("/api/items/public", request -> request.header(HttpHeaders.AUTHORIZATION, "Bearer b"));
+        assertEquals(3, upstream.calls.size());
+
+        ResponseCacheGatewayFilterFactory.Config config = new ResponseCacheGatewayFilterFactory.Config();
+        config.setCacheAuthorizedRequests(true);
+        filter = filter(config);
+        upstream.respond(HttpStatus.OK, headers -> headers.setCacheControl("max-age=60"), BODY);
+        get("/api/items/shared", request -> request.header(HttpHeaders.AUTHORIZATION, "Bearer a"));
+        get("/api/items/shared", request -> request.header(HttpHeaders.AUTHORIZATION, "Bearer b"));
+        assertEquals(4, upstream.calls.size());
+    }
+
+    @Test
+    void apply_ShouldServeOnlyMatchingVariant_WhenResponseVaries() {
+        upstream.respond(HttpStatus.OK, headers -> {
+            headers.setCacheControl("max-age=60");
+            headers.setVary(List.of(HttpHeaders.ACCEPT_LANGUAGE));
+        }, BODY);
+
+        get("/api/items", request -> request.header(HttpHeaders.ACCEPT_LANGUAGE, "en"));
+        MockServerWebExchange english = get("/api/items", request -> request.header(HttpHeaders.ACCEPT_LANGUAGE, "en"));
+        get("/api/items", request -> request.header(HttpHeaders.ACCEPT_LANGUAGE, "ru"));
+
+        assertEquals(2, upstream.calls.size());
+        assertEquals(1, requests("hit"));
+        assertEquals(List.of(HttpHeaders.ACCEPT_LANGUAGE), english.getResponse().getHeaders().getVary());
+    }
+
+    @Test
+    void apply_ShouldRevalidateWithIfNoneMatch_WhenEntryStale() {
+        upstream.respond(HttpStatus.OK, headers -> {
+            headers.setCacheControl("no-cache");
+            headers.setETag(ETAG);
+        }, BODY);
+        get("/api/items", null);
+
+        upstream.respond(HttpStatus.NOT_MODIFIED, headers -> headers.setETag(ETAG), null);
+        MockServerWebExchange revalidated = get("/api/items", null);
+
+        assertEquals(2, upstream.calls.size());
+        assertNull(upstream.calls.get(0).getFirst(HttpHeaders.IF_NONE_MATCH));
+        assertEquals(ETAG, upstream.calls.get(1).getFirst(HttpHeaders.IF_NONE_MATCH));
+        assertEquals(HttpStatus.OK, revalidated.getResponse().getStatusCode());
+        assertEquals(BODY, revalidated.getResponse().getBodyAsString().block());
+        assertEquals(List.of(ETAG), revalidated.getResponse().getHeaders().get(HttpHeaders.ETAG));
+        assertEquals(1, requests("revalidated"));
+    }
+
+    @Test
+    void apply_ShouldReplaceEntry_WhenRevalidationReturnsNewContent() {
+        upstream.respond(HttpStatus.OK, headers -> {
+            headers.setCacheControl("max-age=0");
+            headers.setETag(ETAG);
+        }, BODY);
+        get("/api/items", null);
+
+        upstream.respond(HttpStatus.OK, headers -> {
+            headers.setCacheControl("max-age=60");
+            headers.setETag("\"v2\"");
+        }, "[]");
+        assertEquals("[]", get("/api/items", null).getResponse().getBodyAsString().block());
+        assertEquals("[]", get("/api/items", null).getResponse().getBodyAsString().block());
+
+        assertEquals(2, upstream.calls.size());
+    }
+
+    @Test
+    void apply_ShouldAnswerNotModified_WhenClientEtagMatchesCachedEntry() {
+        upstream.respond(HttpStatus.OK, headers -> {
+            headers.setCacheControl("max-age=60");
+            headers.setETag(ETAG);
+        }, BODY);
+        get("/api/items", null);
+
+        MockServerWebExchange conditional = get("/api/items",
+                request -> request.header(HttpHeaders.IF_NONE_MATCH, "W/" + ETAG));
+
+        assertEquals(HttpStatus.NOT_MODIFIED, conditional.getResponse().getStatusCode());
+        assertEquals(ETAG, conditional.getResponse().getHeaders().getETag());
+        assertNull(conditional.getResponse().getHeaders().getContentType());
+        assertEquals(1, upstream.calls.size());
+    }
+
+    @Test
+    void apply_ShouldBypassLookup_WhenRequestNoCacheOrNoStore() {
+        upstream.respond(HttpStatus.OK, headers -> headers.setCacheControl("max-age=60"), BODY);
+        get("/api/items", null);
+
+        get("/api/items", request -> request.header(HttpHeaders.CACHE_CONTROL, "no-cache"));
+        get("/api/items", request -> request.header(HttpHeaders.CACHE_CONTROL, "no-store"));
+
+        assertEquals(3, upstream.calls.size());
+        assertEquals(1, requests("bypass"));
+    }
+
+    @Test
+    void apply_ShouldNotStore_WhenBodyLargerThanMaxEntrySize() {
+        properties.setMaxEntrySize(DataSize.ofBytes(8));
+        upstream.respond(HttpStatus.OK, headers -> headers.setCacheControl("max-age=60"), BODY);
+
+        assertEquals(BODY, get("/api/items", null).getResponse().getBodyAsString().block());
+        get("/api/items", null);
+
+        assertEquals(2, upstream.calls.size());
+        assertEquals(0, store.size());
+    }
+
+    @Test
+    void apply_ShouldPassThrough_WhenMethodNotGet() {
+        upstream.respond(HttpStatus.OK, headers -> headers.setCacheControl("max-age=60"), BODY);
+
+        for (int i = 0; i < 2; i++) {
+            MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.post("/api/items"));
+            exchange.getAttributes().put(GATEWAY_ROUTE_ATTR, route());
+            StepVerifier.create(filter.filter(exchange, upstream)).verifyComplete();
+        }
+
+        assertEquals(2, upstream.calls.size());
+        assertEquals(0, store.size());
+    }
+
+    private GatewayFilter filter(ResponseCacheGatewayFilterFactory.Config config) {
+        return new ResponseCacheGatewayFilterFactory(store, properties).apply(config);
+    }
+
+    private MockServerWebExchange get(String path, Consumer<MockServerHttpRequest.BaseBuilder<?>> customizer) {
+        MockServerHttpRequest.BaseBuilder<?> request = MockServerHttpRequest.get(path);
+        if (customizer != null) {
+            customizer.accept(request);
+        }
+        MockServerWebExchange exchange = MockServerWebExchange.from(request);
+        exchange.getAttributes().put(GATEWAY_ROUTE_ATTR, route());
+        StepVerifier.create(filter.filter(exchange, upstream)).verifyComplete();
+        return exchange;
+    }
+
+    private double requests(String result) {
+        return meterRegistry.get("gateway.response.cache.requests")
+                .tag("route", "catalogue").tag("result", result).counter().count();
+    }
+
+    private static Route route() {
+        return Route.async().id("catalogue").uri("http://orderservice:8082").predicate(exchange -> true).build();
+    }
+
+    /**
+     * Stands in for the routing filter: records the forwarded request headers and writes the
+     * configured response.
+     */
+    private static final class Upstream implements GatewayFilterChain {
+
+        private final List<HttpHeaders> calls = new ArrayList<>();
+        private HttpStatus status;
+        private Consumer<HttpHeaders> headers;
+        private String body;
+
+        void respond(HttpStatus status, Consumer<HttpHeaders> headers, String body) {
+            this.status = status;
+            this.headers = headers;
+            this.body = body;
+        }
+
+        @Override
+        public Mono<Void> filter(ServerWebExchange exchange) {
+            calls.add(HttpHeaders.readOnlyHttpHeaders(exchange.getRequest().getHeaders()));
+            ServerHttpResponse response = exchange.getResponse();
+            response.setStatusCode(status);
+            headers.accept(response.getHeaders());
+            if (body == null) {
+                return response.writeWith(Mono.empty());
+            }
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            response.getHeaders().setContentLength(bytes.length);
+            DataBuffer buffer = response.bufferFactory().wrap(bytes);
+            return response.writeWith(Mono.just(buffer));
+        }
+    }
+}
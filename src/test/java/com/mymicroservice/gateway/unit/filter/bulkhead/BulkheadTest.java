@@ -0,0 +1,94 @@
+package com.mymicroservice.gateway.unit.filter.bulkhead;
+
+import com.mymicroservice.gateway.filter.bulkhead.Bulkhead;
+import com.mymicroservice.gateway.filter.bulkhead.BulkheadFullException;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BulkheadTest {
+
+    @Test
+    void execute_ShouldRejectImmediately_WhenFullAndNoWait() {
+        Bulkhead bulkhead = new Bulkhead("payment", 2, Duration.ZERO);
+        Sinks.Empty<Void> slow = Sinks.empty();
+        bulkhead.execute(slow.asMono()).subscribe();
+        bulkhead.execute(slow.asMono()).subscribe();
+
+        StepVerifier.create(bulkhead.execute(Mono.just("call")))
+                .expectError(BulkheadFullException.class)
+                .verify(Duration.ofSeconds(1));
+
+        slow.tryEmitEmpty();
+        assertEquals(2, bulkhead.availableCalls());
+    }
+
+    @Test
+    void execute_ShouldRunWaitingCall_WhenSlotFreedWithinMaxWait() {
+        Bulkhead bulkhead = new Bulkhead("payment", 1, Duration.ofSeconds(5));
+        Sinks.Empty<Void> slow = Sinks.empty();
+        bulkhead.execute(slow.asMono()).subscribe();
+        AtomicInteger started = new AtomicInteger();
+
+        Mono<String> waiting = bulkhead.execute(Mono.fromSupplier(() -> {
+            started.incrementAndGet();
+            return "call";
+        }));
+        StepVerifier.create(waiting)
+                .then(() -> {
+                    assertEquals(1, bulkhead.waitingCalls());
+                    assertEquals(0, started.get());
+                    slow.tryEmitEmpty();
+                })
+                .expectNext("call")
+                .verifyComplete();
+
+        assertEquals(1, bulkhead.availableCalls());
+        assertEquals(0, bulkhead.waitingCalls());
+    }
+
+    @Test
+    void execute_ShouldFailAfterMaxWait_WhenSlotNotFreed() {
+        Bulkhead bulkhead = new Bulkhead("payment", 1, Duration.ofMillis(50));
+        Sinks.Empty<Void> slow = Sinks.empty();
+        bulkhead.execute(slow.asMono()).subscribe();
+
+        StepVerifier.create(bulkhead.execute(Mono.just("call")))
+                .expectError(BulkheadFullException.class)
+                .verify(Duration.ofSeconds(5));
+
+        assertEquals(0, bulkhead.waitingCalls());
+        slow.tryEmitEmpty();
+        assertEquals(1, bulkhead.availableCalls());
+    }
+
+    @Test
+    void execute_ShouldFreeSlot_WhenCallCancelledOrFailed() {
+        Bulkhead bulkhead = new Bulkhead("payment", 1, Duration.ofSeconds(5));
+        Disposable running = bulkhead.execute(Mono.never()).subscribe();
+        Disposable waiting = bulkhead.execute(Mono.never()).subscribe();
+
+        waiting.dispose();
+        assertEquals(0, bulkhead.waitingCalls());
+        running.dispose();
+        assertEquals(1, bulkhead.availableCalls());
+
+        StepVerifier.create(bulkhead.execute(Mono.error(new IllegalStateException("boom"))))
+                .expectError(IllegalStateException.class)
+                .verify(Duration.ofSeconds(1));
+        assertEquals(1, bulkhead.availableCalls());
+    }
+
+    @Test
+    void constructor_ShouldFailFast_WhenNoCallsAllowed() {
+        assertThrows(IllegalArgumentException.class, () -> new Bulkhead("payment", 0, Duration.ZERO));
+    }
+}
@@ -0,0 +1,128 @@
+package com.mymicroservice.gateway.unit.filter.concurrency;
+
+import com.mymicroservice.gateway.config.properties.AdaptiveConcurrencyProperties;
+import com.mymicroservice.gateway.filter.concurrency.GradientLimit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GradientLimitTest {
+
+    private static final long WINDOW = TimeUnit.MILLISECONDS.toNanos(200);
+    private static final long MS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private AdaptiveConcurrencyProperties properties;
+    private long now;
+
+    @BeforeEach
+    void setUp() {
+        properties = new AdaptiveConcurrencyProperties();
+        properties.setInitialLimit(20);
+        properties.setMinLimit(4);
+        properties.setMaxLimit(100);
+        properties.setWindow(Duration.ofMillis(200));
+        properties.setMinWindowSamples(10);
+        now = 1_000_000 * MS;
+    }
+
+    @Test
+    void tryAcquire_ShouldRejectOverLimit_WhenLimitReached() {
+        properties.setInitialLimit(4);
+        GradientLimit limit = new GradientLimit(properties, now);
+
+        for (int i = 0; i < 4; i++) {
+            assertTrue(limit.tryAcquire());
+        }
+        assertFalse(limit.tryAcquire());
+        assertEquals(4, limit.inFlight());
+
+        limit.cancel();
+        assertTrue(limit.tryAcquire());
+    }
+
+    @Test
+    void release_ShouldGrowLimit_WhenLatencyStaysFlatUnderFullLoad() {
+        GradientLimit limit = new GradientLimit(properties, now);
+
+        for (int window = 0; window < 20; window++) {
+            runWindow(limit, limit.limit(), 10 * MS);
+        }
+
+        assertTrue(limit.limit() > 20, "limit " + limit.limit());
+    }
+
+    @Test
+    void release_ShouldShrinkLimit_WhenLatencyRises() {
+        GradientLimit limit = new GradientLimit(properties, now);
+        for (int window = 0; window < 10; window++) {
+            runWindow(limit, limit.limit(), 10 * MS);
+        }
+        int learned = limit.limit();
+
+        for (int window = 0; window < 10; window++) {
+            runWindow(limit, limit.limit(), 50 * MS);
+        }
+
+        assertTrue(limit.limit() < learned, learned + " -> " + limit.limit());
+    }
+
+    @Test
+    void release_ShouldBackOff_WhenCallFails() {
+        GradientLimit limit = new GradientLimit(properties, now);
+        assertTrue(limit.tryAcquire());
+
+        now += WINDOW;
+        limit.release(10 * MS, true, now);
+
+        assertEquals(18, limit.limit());
+    }
+
+    @Test
+    void release_ShouldKeepLimit_WhenRouteMostlyIdle() {
+        GradientLimit limit = new GradientLimit(properties, now);
+
+        for (int window = 0; window < 20; window++) {
+            runWindow(limit, 2, 10 * MS);
+        }
+
+        assertEquals(20, limit.limit());
+    }
+
+    @Test
+    void release_ShouldNotGoBelowMinLimit_WhenFailuresPersist() {
+        GradientLimit limit = new GradientLimit(properties, now);
+
+        for (int window = 0; window < 50; window++) {
+            assertTrue(limit.tryAcquire());
+            now += WINDOW;
+            limit.release(10 * MS, true, now);
+        }
+
+        assertEquals(4, limit.limit());
+    }
+
+    /**
+     * One window: {@code concurrency} calls in flight at once, each taking {@code rtt}, repeated
+     * until the window has enough samples, then the window is closed.
+     */
+    private void runWindow(GradientLimit limit, int concurrency, long rtt) {
+        int rounds = Math.max(1, properties.getMinWindowSamples() / concurrency + 1);
+        for (int round = 0; round < rounds; round++) {
+            int acquired = 0;
+            while (acquired < concurrency && limit.tryAcquire()) {
+                acquired++;
+            }
+            boolean last = round == rounds - 1;
+            for (int i = 0; i < acquired; i++) {
+                limit.release(rtt, false, last && i == acquired - 1 ? now + WINDOW : now);
+            }
+        }
+        now += WINDOW;
+    }
+}
@@ -0,0 +1,41 @@
+package com.mymicroservice.gateway.unit.filter.hedge;
+
+import com.mymicroservice.gateway.filter.hedge.LatencyQuantile;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class LatencyQuantileTest {
+
+    @Test
+    void nanos_ShouldBeUnknown_WhenBufferNotFilled() {
+        LatencyQuantile quantile = new LatencyQuantile(0.95, 100);
+
+        for (int i = 0; i < 99; i++) {
+            quantile.record(i);
+        }
+
+        assertEquals(-1, quantile.nanos());
+    }
+
+    @Test
+    void nanos_ShouldReturnQuantileOfRecentSamples_WhenBufferFilled() {
+        LatencyQuantile quantile = new LatencyQuantile(0.95, 96);
+
+        for (int i = 1; i <= 96; i++) {
+            quantile.record(i);
+        }
+        assertEquals(92, quantile.nanos());
+
+        for (int i = 1; i <= 96; i++) {
+            quantile.record(1000 + i);
+        }
+        assertEquals(1092, quantile.nanos());
+    }
+
+    @Test
+    void constructor_ShouldFailFast_WhenQuantileOutOfRange() {
+        assertThrows(IllegalArgumentException.class, () -> new LatencyQuantile(1.0, 100));
+    }
+}
@@ -0,0 +1,95 @@
+package com.mymicroservice.gateway.unit.filter.ratelimit;
+
+import com.mymicroservice.gateway.filter.ratelimit.GcraLimiter;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GcraLimiterTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void tryAcquire_ShouldAllowBurstThenReject_WhenRequestsArriveAtOnce() {
+        GcraLimiter limiter = new GcraLimiter(10, 3);
+        long now = 1_000 * SECOND;
+        AtomicLong tat = new AtomicLong(now);
+
+        assertEquals(0, limiter.tryAcquire(tat, now));
+        assertEquals(0, limiter.tryAcquire(tat, now));
+        assertEquals(0, limiter.tryAcquire(tat, now));
+        assertEquals(SECOND / 10, limiter.tryAcquire(tat, now));
+    }
+
+    @Test
+    void tryAcquire_ShouldAllowOneMorePerInterval_WhenBurstUsedUp() {
+        GcraLimiter limiter = new GcraLimiter(10, 2);
+        long now = 1_000 * SECOND;
+        AtomicLong tat = new AtomicLong(now);
+        limiter.tryAcquire(tat, now);
+        limiter.tryAcquire(tat, now);
+
+        assertTrue(limiter.tryAcquire(tat, now + SECOND / 20) > 0);
+        assertEquals(0, limiter.tryAcquire(tat, now + SECOND / 10));
+        assertTrue(limiter.tryAcquire(tat, now + SECOND / 10) > 0);
+    }
+
+    @Test
+    void tryAcquire_ShouldNotAccumulateBeyondBurst_WhenIdleLong() {
+        GcraLimiter limiter = new GcraLimiter(1, 2);
+        long now = 1_000 * SECOND;
+        AtomicLong tat = new AtomicLong(now);
+        long later = now + 3_600 * SECOND;
+
+        assertEquals(0, limiter.tryAcquire(tat, later));
+        assertEquals(0, limiter.tryAcquire(tat, later));
+        assertTrue(limiter.tryAcquire(tat, later) > 0);
+    }
+
+    @Test
+    void tryAcquire_ShouldAllowExactlyBurst_WhenCalledConcurrently() throws InterruptedException {
+        GcraLimiter limiter = new GcraLimiter(1, 50);
+        long now = 1_000 * SECOND;
+        AtomicLong tat = new AtomicLong(now);
+        AtomicInteger allowed = new AtomicInteger();
+        ConcurrentLinkedQueue<Throwable> errors = new ConcurrentLinkedQueue<>();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 8; i++) {
+            executor.execute(() -> {
+                try {
+                    start.await();
+                    for (int j = 0; j < 100; j++) {
+                        if (limiter.tryAcquire(tat, now) == 0) {
+                            allowed.incrementAndGet();
+                        }
+                    }
+                } catch (Throwable e) {
+                    errors.add(e);
+                }
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertTrue(errors.isEmpty());
+        assertEquals(50, allowed.get());
+    }
+
+    @Test
+    void constructor_ShouldReject_WhenRateOrBurstInvalid() {
+        assertThrows(IllegalArgumentException.class, () -> new GcraLimiter(0, 1));
+        assertThrows(IllegalArgumentException.class, () -> new GcraLimiter(1, 0));
+    }
+}
@@ -0,0 +1,55 @@
+package com.mymicroservice.gateway.unit.filter.retry;
+
+import com.mymicroservice.gateway.filter.retry.RetryBudget;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RetryBudgetTest {
+
+    @Test
+    void tryWithdraw_ShouldAllowSavedUpBurst_WhenBucketFull() {
+        RetryBudget budget = new RetryBudget(0.1, 3);
+
+        assertTrue(budget.tryWithdraw());
+        assertTrue(budget.tryWithdraw());
+        assertTrue(budget.tryWithdraw());
+        assertFalse(budget.tryWithdraw());
+    }
+
+    @Test
+    void deposit_ShouldAllowOneRetryPerTenRequests_WhenRatioIsTenPercent() {
+        RetryBudget budget = new RetryBudget(0.1, 1);
+        budget.tryWithdraw();
+
+        int retries = 0;
+        for (int request = 0; request < 1000; request++) {
+            budget.deposit();
+            if (budget.tryWithdraw()) {
+                retries++;
+            }
+        }
+
+        assertEquals(100, retries);
+    }
+
+    @Test
+    void deposit_ShouldNotExceedMaxTokens_WhenRouteHealthy() {
+        RetryBudget budget = new RetryBudget(0.5, 2);
+
+        for (int request = 0; request < 100; request++) {
+            budget.deposit();
+        }
+
+        assertEquals(2.0, budget.tokens());
+    }
+
+    @Test
+    void constructor_ShouldFailFast_WhenRatioOutOfRange() {
+        assertThrows(IllegalArgumentException.class, () -> new RetryBudget(1.5, 10));
+        assertThrows(IllegalArgumentException.class, () -> new RetryBudget(0.1, 0));
+    }
+}
@@ -0,0 +1,169 @@
+package com.mymicroservice.gateway.unit.loadbalancer;
+
+import com.mymicroservice.gateway.config.properties.LatencyAwareLoadBalancerProperties;
+import com.mymicroservice.gateway.loadbalancer.InFlightCall;
+import com.mymicroservice.gateway.loadbalancer.PeakEwmaLoadBalancer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.DefaultRequest;
+import org.springframework.cloud.client.loadbalancer.DefaultRequestContext;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.RequestData;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.loadbalancer.support.ServiceInstanceListSuppliers;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.util.LinkedMultiValueMap;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PeakEwmaLoadBalancerTest {
+
+    private static final String SERVICE = "user-service";
+
+    private final ServiceInstance fast = instance("fast");
+    private final ServiceInstance slow = instance("slow");
+    private final ServiceInstance third = instance("third");
+
+    private LatencyAwareLoadBalancerProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private AtomicLong clock;
+
+    @BeforeEach
+    void setUp() {
+        properties = new LatencyAwareLoadBalancerProperties();
+        meterRegistry = new SimpleMeterRegistry();
+        clock = new AtomicLong(1_000_000_000L);
+    }
+
+    @Test
+    void choose_ShouldPreferInstance_WhenItsLatencyIsLower() {
+        PeakEwmaLoadBalancer loadBalancer = loadBalancer(fast, slow);
+        record(loadBalancer, fast, Duration.ofMillis(10), CompletionContext.Status.SUCCESS);
+        record(loadBalancer, slow, Duration.ofMillis(300), CompletionContext.Status.SUCCESS);
+
+        assertEquals(Set.of("fast"), chosen(loadBalancer, 50));
+    }
+
+    @Test
+    void choose_ShouldPreferInstance_WhenFewerRequestsInFlight() {
+        PeakEwmaLoadBalancer loadBalancer = loadBalancer(fast, slow);
+        for (int i = 0; i < 3; i++) {
+            loadBalancer.onStartRequest(request(), new DefaultResponse(fast));
+        }
+
+        assertEquals(Set.of("slow"), chosen(loadBalancer, 50));
+    }
+
+    @Test
+    void onStartRequest_ShouldStopCountingCall_WhenCallCancelled() {
+        PeakEwmaLoadBalancer loadBalancer = loadBalancer(fast, slow);
+        for (int i = 0; i < 3; i++) {
+            InFlightCall call = new InFlightCall();
+            loadBalancer.onStartRequest(request(call), new DefaultResponse(fast));
+            call.cancel();
+        }
+
+        assertEquals(Set.of("fast", "slow"), chosen(loadBalancer, 50));
+    }
+
+    @Test
+    void onComplete_ShouldIgnoreCall_WhenCallCancelledBefore() {
+        PeakEwmaLoadBalancer loadBalancer = loadBalancer(fast, slow);
+        InFlightCall call = new InFlightCall();
+        Request<Object> request = request(call);
+        Response<ServiceInstance> response = new DefaultResponse(fast);
+        loadBalancer.onStartRequest(request, response);
+        call.cancel();
+        loadBalancer.onComplete(new CompletionContext<>(CompletionContext.Status.SUCCESS, request, response));
+
+        assertEquals(Set.of("fast", "slow"), chosen(loadBalancer, 50));
+    }
+
+    @Test
+    void onComplete_ShouldEjectInstance_WhenFailureRateExceedsThreshold() {
+        PeakEwmaLoadBalancer loadBalancer = loadBalancer(fast, slow, third);
+        for (int i = 0; i < properties.getOutlier().getMinimumCalls(); i++) {
+            record(loadBalancer, fast, Duration.ofMillis(5), CompletionContext.Status.FAILED);
+        }
+
+        assertFalse(chosen(loadBalancer, 100).contains("fast"));
+        assertEquals(1, meterRegistry.get("gateway.loadbalancer.ejections").tag("service", SERVICE)
+                .counter().count());
+
+        clock.addAndGet(properties.getOutlier().getEjectionDuration().toNanos());
+        assertTrue(chosen(loadBalancer, 100).contains("fast"));
+    }
+
+    @Test
+    void choose_ShouldIgnoreEjection_WhenTooManyInstancesEjected() {
+        properties.getOutlier().setMaxEjectedRatio(0);
+        PeakEwmaLoadBalancer loadBalancer = loadBalancer(fast, slow);
+        record(loadBalancer, slow, Duration.ofMillis(300), CompletionContext.Status.SUCCESS);
+        for (int i = 0; i < properties.getOutlier().getMinimumCalls(); i++) {
+            record(loadBalancer, fast, Duration.ofMillis(5), CompletionContext.Status.FAILED);
+        }
+
+        assertEquals(Set.of("fast"), chosen(loadBalancer, 50));
+    }
+
+    @Test
+    void choose_ShouldReturnEmptyResponse_WhenNoInstances() {
+        PeakEwmaLoadBalancer loadBalancer = loadBalancer();
+
+        assertFalse(loadBalancer.choose(request()).block().hasServer());
+    }
+
+    private PeakEwmaLoadBalancer loadBalancer(ServiceInstance... instances) {
+        return new PeakEwmaLoadBalancer(SERVICE, ServiceInstanceListSuppliers.toProvider(SERVICE, instances),
+                properties, meterRegistry, clock::get);
+    }
+
+    private void record(PeakEwmaLoadBalancer loadBalancer, ServiceInstance instance, Duration latency,
+                        CompletionContext.Status status) {
+        Request<Object> request = request();
+        Response<ServiceInstance> response = new DefaultResponse(instance);
+        loadBalancer.onStartRequest(request, response);
+        clock.addAndGet(latency.toNanos());
+        loadBalancer.onComplete(new CompletionContext<>(status, request, response));
+    }
+
+    private Set<String> chosen(PeakEwmaLoadBalancer loadBalancer, int times) {
+        Set<String> chosen = new HashSet<>();
+        for (int i = 0; i < times; i++) {
+            chosen.add(loadBalancer.choose(request()).block().getServer().getInstanceId());
+        }
+        return chosen;
+    }
+
+    private static Request<Object> request() {
+        return new DefaultRequest<>(new DefaultRequestContext());
+    }
+
+    private static Request<Object> request(InFlightCall call) {
+        Map<String, Object> attributes = new HashMap<>();
+        call.addTo(attributes);
+        return new DefaultRequest<>(new RequestDataContext(new RequestData(HttpMethod.GET,
+                URI.create("lb://" + SERVICE + "/users"), new HttpHeaders(), new LinkedMultiValueMap<>(), attributes)));
+    }
+
+    private static ServiceInstance instance(String id) {
+        return new DefaultServiceInstance(id, SERVICE, id + ".pods", 8083, false);
+    }
+}
@@ -0,0 +1,78 @@
+package com.mymicroservice.gateway.unit.reload;
+
+import com.mymicroservice.gateway.reload.ConfigFileWatcher;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConfigFileWatcherTest {
+
+    private static final Duration DEBOUNCE = Duration.ofMillis(200);
+
+    @TempDir
+    private Path directory;
+
+    private final AtomicInteger refreshes = new AtomicInteger();
+    private ConfigFileWatcher watcher;
+
+    @AfterEach
+    void tearDown() {
+        if (watcher != null) {
+            watcher.stop();
+        }
+    }
+
+    @Test
+    void start_ShouldRefreshOnce_WhenWatchedFileWrittenRepeatedly() throws Exception {
+        Path file = Files.writeString(directory.resolve("gateway.yaml"), "cors: {}");
+        startWatching(file);
+
+        for (int i = 0; i < 5; i++) {
+            Files.writeString(file, "cors:\n  max-age: " + i);
+        }
+
+        await(() -> refreshes.get() > 0);
+        Thread.sleep(DEBOUNCE.multipliedBy(3).toMillis());
+        assertEquals(1, refreshes.get());
+    }
+
+    @Test
+    void start_ShouldIgnoreOtherFiles_WhenDirectoryShared() throws Exception {
+        Path file = Files.writeString(directory.resolve("gateway.yaml"), "cors: {}");
+        startWatching(file);
+
+        Files.writeString(directory.resolve("other.yaml"), "x: 1");
+        Thread.sleep(DEBOUNCE.multipliedBy(3).toMillis());
+        assertEquals(0, refreshes.get());
+
+        // a ConfigMap volume update swaps the ..data link
+        Files.createDirectory(directory.resolve("..2026_10_18_00_00_00.1"));
+        await(() -> refreshes.get() == 1);
+    }
+
+    private void startWatching(Path file) {
+        watcher = new ConfigFileWatcher(List.of(file), DEBOUNCE, refreshes::incrementAndGet);
+        watcher.start();
+        assertTrue(watcher.isRunning());
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("condition not met within 10s");
+            }
+            Thread.sleep(20);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.mymicroservice.gateway.unit.reload;
+
+import com.mymicroservice.gateway.config.properties.CorsProperties;
+import com.mymicroservice.gateway.config.properties.GatewayCustomProperties;
+import com.mymicroservice.gateway.reload.GatewayConfigHolder;
+import com.mymicroservice.gateway.reload.GatewayConfigReloader;
+import com.mymicroservice.gateway.reload.GatewayConfigSnapshot;
+import com.mymicroservice.gateway.util.CorsPolicy;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GatewayConfigReloaderTest {
+
+    private static final String ALLOWED_ORIGIN = "cors.allowed-origin-patterns[0]";
+    private static final String PUBLIC_PATH = "gateway.public-paths.paths[0]";
+
+    private final Map<String, Object> source = new HashMap<>();
+    private SimpleMeterRegistry meterRegistry;
+    private GatewayConfigHolder holder;
+    private GatewayConfigReloader reloader;
+
+    @BeforeEach
+    void setUp() {
+        source.put(ALLOWED_ORIGIN, "http://localhost:3000");
+        source.put("cors.allowed-methods[0]", "GET");
+        source.put(PUBLIC_PATH, "/actuator");
+        StandardEnvironment environment = new StandardEnvironment();
+        environment.getPropertySources().addFirst(new MapPropertySource("test", source));
+
+        meterRegistry = new SimpleMeterRegistry();
+        Binder binder = Binder.get(environment);
+        holder = GatewayConfigHolder.of(binder.bindOrCreate("gateway", GatewayCustomProperties.class),
+                binder.bindOrCreate("cors", CorsProperties.class), meterRegistry);
+        reloader = new GatewayConfigReloader(holder, environment, meterRegistry);
+    }
+
+    @Test
+    void onApplicationEvent_ShouldSwapInNewSnapshot_WhenCorsOrPathsChange() {
+        source.put(ALLOWED_ORIGIN, "https://app.example");
+        source.put(PUBLIC_PATH, "/docs");
+
+        reloader.onApplicationEvent(new EnvironmentChangeEvent(Set.of(ALLOWED_ORIGIN, PUBLIC_PATH)));
+
+        GatewayConfigSnapshot snapshot = holder.current();
+        assertEquals(2, snapshot.version());
+        assertEquals("https://app.example", snapshot.corsPolicy().checkOrigin("https://app.example"));
+        assertNull(snapshot.corsPolicy().checkOrigin("http://localhost:3000"));
+        assertTrue(snapshot.pathMatcher().isPublicPath("/docs/index"));
+        assertFalse(snapshot.pathMatcher().isPublicPath("/actuator"));
+        assertEquals(2.0, meterRegistry.get("gateway.config.version").gauge().value());
+        assertEquals(1, meterRegistry.get("gateway.config.reload").tag("result", "success").timer().count());
+    }
+
+    @Test
+    void onApplicationEvent_ShouldIgnoreChange_WhenKeysOutsideGatewayAndCors() {
+        source.put("server.port", "9090");
+
+        reloader.onApplicationEvent(new EnvironmentChangeEvent(Set.of("server.port")));
+
+        assertEquals(1, holder.current().version());
+    }
+
+    @Test
+    void reload_ShouldKeepPreviousSnapshot_WhenConfigurationInvalid() {
+        GatewayConfigSnapshot previous = holder.current();
+        source.put(PUBLIC_PATH, "actuator");
+
+        assertFalse(reloader.reload());
+
+        assertSame(previous, holder.current());
+        assertEquals(1, meterRegistry.get("gateway.config.reload").tag("result", "failure").timer().count());
+        assertEquals(1.0, meterRegistry.get("gateway.config.version").gauge().value());
+    }
+
+    @Test
+    void current_ShouldKeepSnapshotOfRequestStart_WhenReloadedMidRequest() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/items"));
+        GatewayConfigSnapshot started = holder.current(exchange);
+
+        source.put(ALLOWED_ORIGIN, "https://app.example");
+        reloader.reload();
+
+        assertSame(started, holder.current(exchange));
+        assertEquals(2, holder.current().version());
+        assertEquals(2, holder.current(MockServerWebExchange.from(MockServerHttpRequest.get("/"))).version());
+    }
+
+    @Test
+    void reload_ShouldMoveCacheMetersToNewPolicy_WhenSnapshotReplaced() {
+        holder.current().corsPolicy().checkOrigin("http://localhost:3000");
+        holder.current().corsPolicy().checkOrigin("http://localhost:3000");
+        assertEquals(1.0, cacheGets("hit"));
+
+        reloader.reload();
+        holder.current().corsPolicy().checkOrigin("http://localhost:3000");
+
+        assertEquals(0.0, cacheGets("hit"));
+        assertEquals(1.0, cacheGets("miss"));
+    }
+
+    private double cacheGets(String result) {
+        return meterRegistry.get("cache.gets").tag("cache", CorsPolicy.CACHE_NAME).tag("result", result)
+                .functionCounter().count();
+    }
+}
@@ -0,0 +1,123 @@
+package com.mymicroservice.gateway.unit.route;
+
+import com.mymicroservice.gateway.route.IndexedRoutePredicateHandlerMapping;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.web.reactive.WebFluxProperties;
+import org.springframework.cloud.gateway.config.GlobalCorsProperties;
+import org.springframework.cloud.gateway.event.RefreshRoutesResultEvent;
+import org.springframework.cloud.gateway.handler.FilteringWebHandler;
+import org.springframework.cloud.gateway.handler.RoutePredicateHandlerMapping;
+import org.springframework.cloud.gateway.handler.predicate.PathRoutePredicateFactory;
+import org.springframework.cloud.gateway.handler.predicate.PredicateDefinition;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.route.RouteDefinition;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+class IndexedRoutePredicateHandlerMappingTest {
+
+    private static final List<String> PATHS = List.of("/api/items/7", "/api/items", "/api/itemsx", "/api/users/1",
+            "/api/orders/5/items", "/api/carts", "/v3/api-docs", "/health", "/api/%69tems/7", "/");
+
+    private final List<Route> routes = new ArrayList<>();
+    private final List<RouteDefinition> definitions = new ArrayList<>();
+    private final AtomicInteger evaluations = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        route("items-detail", "/api/items/{id}");
+        route("users", "/api/users/**");
+        route("orders", "/api/orders/**", "/api/carts/**");
+        route("items", "/api/items/**");
+        route("docs", "/*/api-docs");
+        route("api", "/api/**");
+    }
+
+    @Test
+    void getHandler_ShouldPickSameRouteAsLinearLookup_ForEveryPath() {
+        IndexedRoutePredicateHandlerMapping indexed = indexedMapping();
+        RoutePredicateHandlerMapping linear = new RoutePredicateHandlerMapping(new FilteringWebHandler(List.of(), false),
+                () -> Flux.fromIterable(routes), new GlobalCorsProperties(), new MockEnvironment());
+
+        for (String path : PATHS) {
+            assertEquals(matchedRoute(linear, path), matchedRoute(indexed, path), path);
+        }
+    }
+
+    @Test
+    void getHandler_ShouldEvaluateOnlyCandidates_WhenIndexBuilt() {
+        IndexedRoutePredicateHandlerMapping mapping = indexedMapping();
+
+        evaluations.set(0);
+        assertEquals("items", matchedRoute(mapping, "/api/items/7/reviews"));
+        assertEquals(2, evaluations.get());
+
+        evaluations.set(0);
+        assertNull(matchedRoute(mapping, "/health"));
+        assertEquals(1, evaluations.get());
+    }
+
+    @Test
+    void getHandler_ShouldScanAllRoutes_UntilFirstRefresh() {
+        IndexedRoutePredicateHandlerMapping mapping = new IndexedRoutePredicateHandlerMapping(
+                new FilteringWebHandler(List.of(), false), () -> Flux.fromIterable(routes),
+                () -> Flux.fromIterable(definitions), new GlobalCorsProperties(), new MockEnvironment());
+
+        assertNull(matchedRoute(mapping, "/health"));
+        assertEquals(routes.size(), evaluations.get());
+    }
+
+    @Test
+    void onApplicationEvent_ShouldPickUpNewRoutes_WhenRoutesRefreshed() {
+        IndexedRoutePredicateHandlerMapping mapping = indexedMapping();
+        assertNull(matchedRoute(mapping, "/health"));
+
+        route("health", "/health");
+        mapping.onApplicationEvent(new RefreshRoutesResultEvent(this));
+
+        assertEquals("health", matchedRoute(mapping, "/health"));
+    }
+
+    private IndexedRoutePredicateHandlerMapping indexedMapping() {
+        IndexedRoutePredicateHandlerMapping mapping = new IndexedRoutePredicateHandlerMapping(
+                new FilteringWebHandler(List.of(), false), () -> Flux.fromIterable(routes),
+                () -> Flux.fromIterable(definitions), new GlobalCorsProperties(), new MockEnvironment());
+        mapping.rebuild().block();
+        return mapping;
+    }
+
+    private static String matchedRoute(RoutePredicateHandlerMapping mapping, String path) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get(path));
+        mapping.getHandler(exchange).block();
+        Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+        return route != null ? route.getId() : null;
+    }
+
+    private void route(String id, String... patterns) {
+        RouteDefinition definition = new RouteDefinition();
+        definition.setId(id);
+        definition.setUri(URI.create("http://" + id));
+        definition.setPredicates(List.of(new PredicateDefinition("Path=" + String.join(",", patterns))));
+        definitions.add(definition);
+
+        PathRoutePredicateFactory.Config config = new PathRoutePredicateFactory.Config().setPatterns(List.of(patterns));
+        var path = new PathRoutePredicateFactory(new WebFluxProperties()).apply(config);
+        routes.add(Route.async().id(id).uri(definition.getUri()).predicate((ServerWebExchange exchange) -> {
+            evaluations.incrementAndGet();
+            return path.test(exchange);
+        }).build());
+    }
+}
@@ -0,0 +1,99 @@
+package com.mymicroservice.gateway.unit.route;
+
+import com.mymicroservice.gateway.route.RouteIndex;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.handler.predicate.PredicateDefinition;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.route.RouteDefinition;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RouteIndexTest {
+
+    private final List<Route> routes = new ArrayList<>();
+    private final Map<String, RouteDefinition> definitions = new HashMap<>();
+
+    @Test
+    void candidates_ShouldReturnRoutesWithMatchingPrefix_InRouteOrder() {
+        route("items-detail", "Path=/api/items/{id}/**");
+        route("users", "Path=/api/users/**");
+        route("items", "Path=/api/items/**");
+        route("api", "Path=/api/**");
+
+        RouteIndex index = build();
+
+        assertEquals(List.of("items-detail", "items", "api"), ids(index.candidates("/api/items/7")));
+        assertEquals(List.of("users", "api"), ids(index.candidates("/api/users")));
+        assertEquals(List.of(), ids(index.candidates("/health")));
+    }
+
+    @Test
+    void candidates_ShouldRequireSegmentBoundary_WhenPathExtendsPrefix() {
+        route("items", "Path=/api/items/**");
+
+        RouteIndex index = build();
+
+        assertEquals(List.of("items"), ids(index.candidates("/api/items/")));
+        assertEquals(List.of(), ids(index.candidates("/api/itemsx")));
+        assertEquals(List.of(), ids(index.candidates("/api/item")));
+    }
+
+    @Test
+    void candidates_ShouldAlwaysIncludeRoute_WhenIndexCannotNarrowItDown() {
+        route("items", "Path=/api/items/**");
+        route("by-host", "Host=**.example.com");
+        route("wildcard", "Path=/*/docs");
+        routes.add(Route.async().id("no-definition").uri(URI.create("http://other")).predicate(e -> true).build());
+
+        RouteIndex index = build();
+
+        assertEquals(List.of("items", "by-host", "wildcard", "no-definition"), ids(index.candidates("/api/items")));
+        assertEquals(List.of("by-host", "wildcard", "no-definition"), ids(index.candidates("/v3/docs")));
+    }
+
+    @Test
+    void candidates_ShouldIndexEveryPattern_WhenRouteHasSeveral() {
+        route("orders", "Path=/api/orders/**,/api/carts/**");
+        route("items", "Path=/api/items/**");
+
+        RouteIndex index = build();
+
+        assertEquals(List.of("orders"), ids(index.candidates("/api/carts/3")));
+        assertEquals(List.of("orders"), ids(index.candidates("/api/orders")));
+    }
+
+    @Test
+    void candidates_ShouldReturnWholeTable_WhenPathEncodedOrHasMatrixParams() {
+        route("items", "Path=/api/items/**");
+        route("users", "Path=/api/users/**");
+
+        RouteIndex index = build();
+
+        assertEquals(List.of("items", "users"), ids(index.candidates("/api/%75sers")));
+        assertEquals(List.of("items", "users"), ids(index.candidates("/api;v=1/users")));
+    }
+
+    private void route(String id, String predicate) {
+        RouteDefinition definition = new RouteDefinition();
+        definition.setId(id);
+        definition.setUri(URI.create("http://" + id));
+        definition.setPredicates(List.of(new PredicateDefinition(predicate)));
+        definitions.put(id, definition);
+        routes.add(Route.async().id(id).uri(definition.getUri()).predicate(e -> true).build());
+    }
+
+    private RouteIndex build() {
+        return RouteIndex.build(routes, definitions);
+    }
+
+    private static List<String> ids(Route[] candidates) {
+        return Arrays.stream(candidates).map(Route::getId).toList();
+    }
+}
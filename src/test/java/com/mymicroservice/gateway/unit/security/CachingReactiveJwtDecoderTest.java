@@ -0,0 +1,95 @@
+package com.mymicroservice.gateway.unit.security;
+
+import com.mymicroservice.gateway.security.CachingReactiveJwtDecoder;
+import com.mymicroservice.gateway.util.data.TestConstants;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CachingReactiveJwtDecoderTest {
+
+    @Mock
+    private ReactiveJwtDecoder delegate;
+
+    private SimpleMeterRegistry meterRegistry;
+    private CachingReactiveJwtDecoder decoder;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        decoder = new CachingReactiveJwtDecoder(delegate, 2, Duration.ofMinutes(15), meterRegistry);
+    }
+
+    @Test
+    void decode_ShouldVerifyOnlyOnce_WhenSameTokenIsDecodedRepeatedly() {
+        Jwt jwt = createJwt(Instant.now().plusSeconds(300));
+        when(delegate.decode(TestConstants.TEST_JWT)).thenReturn(Mono.just(jwt));
+
+        StepVerifier.create(decoder.decode(TestConstants.TEST_JWT)).expectNext(jwt).verifyComplete();
+        StepVerifier.create(decoder.decode(TestConstants.TEST_JWT)).expectNext(jwt).verifyComplete();
+
+        verify(delegate, times(1)).decode(TestConstants.TEST_JWT);
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("result", "hit").functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("result", "miss").functionCounter().count());
+    }
+
+    @Test
+    void decode_ShouldNotCache_WhenTokenIsAlreadyExpired() {
+        Jwt jwt = createJwt(Instant.now().minusSeconds(1));
+        when(delegate.decode(TestConstants.TEST_JWT)).thenReturn(Mono.just(jwt));
+
+        StepVerifier.create(decoder.decode(TestConstants.TEST_JWT)).expectNext(jwt).verifyComplete();
+        StepVerifier.create(decoder.decode(TestConstants.TEST_JWT)).expectNext(jwt).verifyComplete();
+
+        verify(delegate, times(2)).decode(TestConstants.TEST_JWT);
+        assertEquals(0, decoder.size());
+    }
+
+    @Test
+    void decode_ShouldNotCache_WhenDelegateRejectsToken() {
+        when(delegate.decode(TestConstants.TEST_JWT)).thenReturn(Mono.error(new BadJwtException("bad signature")));
+
+        StepVerifier.create(decoder.decode(TestConstants.TEST_JWT)).expectError(BadJwtException.class).verify();
+        StepVerifier.create(decoder.decode(TestConstants.TEST_JWT)).expectError(BadJwtException.class).verify();
+
+        verify(delegate, times(2)).decode(TestConstants.TEST_JWT);
+        assertEquals(0, decoder.size());
+    }
+
+    @Test
+    void decode_ShouldEvictEntries_WhenMaxSizeIsExceeded() {
+        for (int i = 0; i < 10; i++) {
+            String token = TestConstants.TEST_JWT + i;
+            when(delegate.decode(token)).thenReturn(Mono.just(createJwt(Instant.now().plusSeconds(300))));
+            StepVerifier.create(decoder.decode(token)).expectNextCount(1).verifyComplete();
+        }
+
+        assertEquals(2, decoder.size());
+        assertEquals(8.0, meterRegistry.get("cache.evictions").functionCounter().count());
+    }
+
+    private Jwt createJwt(Instant expiresAt) {
+        return Jwt.withTokenValue(TestConstants.TEST_JWT)
+                .header("alg", "RS256")
+                .subject(TestConstants.USER_EMAIL)
+                .expiresAt(expiresAt)
+                .build();
+    }
+}
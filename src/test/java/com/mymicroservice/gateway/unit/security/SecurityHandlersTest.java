@@ -1,9 +1,12 @@
 package com.mymicroservice.gateway.unit.security;
 
 import com.mymicroservice.gateway.config.properties.CorsProperties;
+import com.mymicroservice.gateway.config.properties.GatewayCustomProperties;
+import com.mymicroservice.gateway.reload.GatewayConfigHolder;
 import com.mymicroservice.gateway.security.CustomAccessDeniedHandler;
 import com.mymicroservice.gateway.security.CustomAuthenticationEntryPoint;
 import com.mymicroservice.gateway.util.CorsHeadersWriter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.http.HttpHeaders;
@@ -28,7 +31,8 @@ class SecurityHandlersTest {
 
     @BeforeEach
     void setUp() {
-        CorsHeadersWriter corsHeadersWriter = new CorsHeadersWriter(createCorsProperties());
+        CorsHeadersWriter corsHeadersWriter = new CorsHeadersWriter(
+                GatewayConfigHolder.of(new GatewayCustomProperties(), createCorsProperties(), new SimpleMeterRegistry()));
         authenticationEntryPoint = new CustomAuthenticationEntryPoint(corsHeadersWriter);
         accessDeniedHandler = new CustomAccessDeniedHandler(corsHeadersWriter);
     }
@@ -1,7 +1,10 @@
 package com.mymicroservice.gateway.unit.util;
 
 import com.mymicroservice.gateway.config.properties.CorsProperties;
+import com.mymicroservice.gateway.config.properties.GatewayCustomProperties;
+import com.mymicroservice.gateway.reload.GatewayConfigHolder;
 import com.mymicroservice.gateway.util.CorsHeadersWriter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.http.HttpHeaders;
@@ -19,7 +22,8 @@ class CorsHeadersWriterTest {
 
     @BeforeEach
     void setUp() {
-        corsHeadersWriter = new CorsHeadersWriter(createCorsProperties());
+        corsHeadersWriter = new CorsHeadersWriter(
+                GatewayConfigHolder.of(new GatewayCustomProperties(), createCorsProperties(), new SimpleMeterRegistry()));
     }
 
     @Test
@@ -71,7 +75,8 @@ class CorsHeadersWriterTest {
         properties.setAllowedOriginPatterns(List.of("http://localhost:3000"));
         properties.setAllowCredentials(false);
         properties.setMaxAge(null);
-        CorsHeadersWriter writer = new CorsHeadersWriter(properties);
+        CorsHeadersWriter writer = new CorsHeadersWriter(
+                GatewayConfigHolder.of(new GatewayCustomProperties(), properties, new SimpleMeterRegistry()));
 
         MockServerWebExchange exchange = MockServerWebExchange.from(
                 MockServerHttpRequest.get("/api/users/profile")
@@ -90,7 +95,8 @@ class CorsHeadersWriterTest {
     void applyCorsHeaders_ShouldSkipCredentialsHeader_WhenAllowCredentialsIsNull() {
         CorsProperties properties = createCorsProperties();
         properties.setAllowCredentials(null);
-        CorsHeadersWriter writer = new CorsHeadersWriter(properties);
+        CorsHeadersWriter writer = new CorsHeadersWriter(
+                GatewayConfigHolder.of(new GatewayCustomProperties(), properties, new SimpleMeterRegistry()));
 
         MockServerWebExchange exchange = MockServerWebExchange.from(
                 MockServerHttpRequest.get("/api/users/profile")
@@ -0,0 +1,97 @@
+package com.mymicroservice.gateway.unit.util;
+
+import com.mymicroservice.gateway.config.properties.CorsProperties;
+import com.mymicroservice.gateway.util.CorsPolicy;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.cors.CorsConfiguration;
+import org.springframework.web.cors.reactive.CorsWebFilter;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class CorsPolicyTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private CorsPolicy corsPolicy;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        corsPolicy = new CorsPolicy(createCorsProperties(), meterRegistry);
+    }
+
+    @Test
+    void checkOrigin_ShouldMatchLikeCorsConfiguration_WhenPatternsConfigured() {
+        assertEquals("http://localhost:3000", corsPolicy.checkOrigin("http://localhost:3000"));
+        assertEquals("http://127.0.0.1:5173", corsPolicy.checkOrigin("http://127.0.0.1:5173"));
+        assertNull(corsPolicy.checkOrigin("http://evil.example"));
+        assertNull(corsPolicy.checkOrigin(null));
+    }
+
+    @Test
+    void checkOrigin_ShouldServeRepeatedOriginsFromCache_WhenCheckedAgain() {
+        corsPolicy.checkOrigin("http://localhost:3000");
+        corsPolicy.checkOrigin("http://localhost:3000");
+        corsPolicy.checkOrigin("http://evil.example");
+        corsPolicy.checkOrigin("http://evil.example");
+
+        assertEquals(2.0, cacheGets("hit"));
+        assertEquals(2.0, cacheGets("miss"));
+    }
+
+    @Test
+    void constructor_ShouldPreJoinHeaderValues_WhenListsConfigured() {
+        assertEquals("GET, POST", corsPolicy.allowMethods());
+        assertEquals("Authorization, Content-Type", corsPolicy.allowHeaders());
+        assertEquals("Authorization", corsPolicy.exposeHeaders());
+        assertEquals(true, corsPolicy.isAllowCredentials());
+    }
+
+    @Test
+    void configurationSource_ShouldShareOriginCache_WhenUsedByCorsWebFilter() {
+        CorsConfiguration configuration = corsPolicy.configurationSource()
+                .getCorsConfiguration(MockServerWebExchange.from(MockServerHttpRequest.get("/")));
+        assertEquals(3600L, configuration.getMaxAge());
+
+        MockServerWebExchange preflight = MockServerWebExchange.from(MockServerHttpRequest.options("http://gateway:8080/api/users")
+                .header(HttpHeaders.ORIGIN, "http://localhost:3000")
+                .header(HttpHeaders.ACCESS_CONTROL_REQUEST_METHOD, HttpMethod.POST.name())
+                .build());
+        StepVerifier.create(new CorsWebFilter(corsPolicy.configurationSource())
+                .filter(preflight, exchange -> Mono.empty())).verifyComplete();
+
+        assertEquals("http://localhost:3000",
+                preflight.getResponse().getHeaders().getAccessControlAllowOrigin());
+        corsPolicy.checkOrigin("http://localhost:3000");
+        assertEquals(1.0, cacheGets("hit"));
+    }
+
+    private double cacheGets(String result) {
+        return meterRegistry.get("cache.gets")
+                .tag("cache", CorsPolicy.CACHE_NAME)
+                .tag("result", result)
+                .functionCounter()
+                .count();
+    }
+
+    private CorsProperties createCorsProperties() {
+        CorsProperties properties = new CorsProperties();
+        properties.setAllowedOriginPatterns(List.of("http://localhost:3000", "http://127.0.0.1:[*]"));
+        properties.setAllowedMethods(List.of("GET", "POST"));
+        properties.setAllowedHeaders(List.of("Authorization", "Content-Type"));
+        properties.setExposedHeaders(List.of("Authorization"));
+        properties.setAllowCredentials(true);
+        properties.setMaxAge(3600L);
+        return properties;
+    }
+}
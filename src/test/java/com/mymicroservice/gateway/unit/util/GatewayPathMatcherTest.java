@@ -0,0 +1,90 @@
+package com.mymicroservice.gateway.unit.util;
+
+import com.mymicroservice.gateway.config.properties.GatewayCustomProperties;
+import com.mymicroservice.gateway.util.GatewayPathMatcher;
+import com.mymicroservice.gateway.util.PathTrie;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GatewayPathMatcherTest {
+
+    private GatewayCustomProperties properties;
+    private GatewayPathMatcher matcher;
+
+    @BeforeEach
+    void setUp() {
+        properties = new GatewayCustomProperties();
+
+        GatewayCustomProperties.Public publicPaths = new GatewayCustomProperties.Public();
+        publicPaths.setPaths(List.of("/actuator", "/swagger-ui/**", "/api/users/v3/api-docs"));
+        GatewayCustomProperties.Internal internalPaths = new GatewayCustomProperties.Internal();
+        internalPaths.setPaths(List.of("/login", "/register/", "/auth/refresh"));
+
+        properties.setPublicPaths(publicPaths);
+        properties.setInternalPaths(internalPaths);
+        matcher = new GatewayPathMatcher(properties);
+    }
+
+    @Test
+    void isPublicPath_ShouldMatchByPrefix_WhenPlainPathConfigured() {
+        assertTrue(matcher.isPublicPath("/actuator"));
+        assertTrue(matcher.isPublicPath("/actuator/health"));
+        assertTrue(matcher.isPublicPath("/api/users/v3/api-docs"));
+        assertFalse(matcher.isPublicPath("/api/users/1"));
+        assertFalse(matcher.isPublicPath("/actua"));
+    }
+
+    @Test
+    void isPublicPath_ShouldMatchSubtree_WhenGlobConfigured() {
+        assertTrue(matcher.isPublicPath("/swagger-ui"));
+        assertTrue(matcher.isPublicPath("/swagger-ui/index.html"));
+        assertFalse(matcher.isPublicPath("/swagger-uix"));
+    }
+
+    @Test
+    void isInternalPath_ShouldMatchExactOrSubPath_WhenPathConfigured() {
+        assertTrue(matcher.isInternalPath("/login"));
+        assertTrue(matcher.isInternalPath("/login/oauth"));
+        assertTrue(matcher.isInternalPath("/register"));
+        assertTrue(matcher.isInternalPath("/auth/refresh"));
+        assertFalse(matcher.isInternalPath("/loginpage"));
+        assertFalse(matcher.isInternalPath("/api/users/my-login-page"));
+        assertFalse(matcher.isInternalPath("/auth"));
+    }
+
+    @Test
+    void constructor_ShouldThrow_WhenConfiguredPathIsNotAbsolute() {
+        GatewayCustomProperties.Public invalid = new GatewayCustomProperties.Public();
+        invalid.setPaths(List.of("/docs", "actuator"));
+        properties.setPublicPaths(invalid);
+
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> new GatewayPathMatcher(properties));
+        assertTrue(e.getMessage().contains("gateway.public-paths.paths[1]"));
+    }
+
+    @Test
+    void isPublicPath_ShouldReturnFalse_WhenPathsAreNull() {
+        properties.setPublicPaths(null);
+        properties.setInternalPaths(null);
+        matcher = new GatewayPathMatcher(properties);
+
+        assertFalse(matcher.isPublicPath("/actuator"));
+        assertFalse(matcher.isInternalPath("/login"));
+    }
+
+    @Test
+    void compile_ShouldIgnoreBlankPatterns_WhenListContainsThem() {
+        PathTrie trie = PathTrie.compile(Arrays.asList(null, " ", "/api"), PathTrie.MatchMode.SEGMENT);
+
+        assertTrue(trie.matches("/api/items"));
+        assertFalse(trie.matches("/"));
+        assertFalse(trie.matches(null));
+    }
+}
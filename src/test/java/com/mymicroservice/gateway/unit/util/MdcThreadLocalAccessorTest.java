@@ -0,0 +1,45 @@
+package com.mymicroservice.gateway.unit.util;
+
+import com.mymicroservice.gateway.util.MdcThreadLocalAccessor;
+import com.mymicroservice.gateway.util.MdcUtil;
+import com.mymicroservice.gateway.util.data.TestConstants;
+import io.micrometer.context.ContextRegistry;
+import io.micrometer.context.ThreadLocalAccessor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MdcThreadLocalAccessorTest {
+
+    @BeforeEach
+    @AfterEach
+    void clearMdcState() {
+        MDC.clear();
+    }
+
+    @Test
+    void contextRegistry_ShouldContainMdcAccessors_WhenLoadedFromServiceFile() {
+        assertTrue(ContextRegistry.getInstance().getThreadLocalAccessors().stream()
+                .map(ThreadLocalAccessor::key)
+                .toList()
+                .containsAll(List.of(MdcUtil.TRACE_ID_KEY, MdcUtil.SERVICE_NAME_KEY)));
+    }
+
+    @Test
+    void setValue_ShouldRemoveKey_WhenCalledWithoutValue() {
+        MdcThreadLocalAccessor accessor = new MdcThreadLocalAccessor.TraceId();
+        accessor.setValue(TestConstants.TRACE_ID);
+        assertEquals(TestConstants.TRACE_ID, accessor.getValue());
+
+        accessor.setValue();
+
+        assertNull(MDC.get(MdcUtil.TRACE_ID_KEY));
+    }
+}
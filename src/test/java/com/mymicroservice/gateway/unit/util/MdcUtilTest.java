@@ -1,137 +1,100 @@
 package com.mymicroservice.gateway.unit.util;
 
 import com.mymicroservice.gateway.util.MdcUtil;
+import com.mymicroservice.gateway.util.RandomTraceIdGenerator;
 import com.mymicroservice.gateway.util.data.TestConstants;
+import io.micrometer.context.ContextSnapshot;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.slf4j.MDC;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 import reactor.test.StepVerifier;
 import reactor.util.context.Context;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class MdcUtilTest {
 
+    private static final Context REQUEST_CONTEXT = Context.of(
+            MdcUtil.TRACE_ID_KEY, TestConstants.TRACE_ID,
+            MdcUtil.SERVICE_NAME_KEY, TestConstants.SERVICE_NAME);
+
     @BeforeEach
     @AfterEach
     void clearMdcState() {
-        MdcUtil.clearMdc();
-    }
-
-    @Test
-    void setMdc_ShouldPutValuesInMdc_WhenValidValuesProvided() {
-        MdcUtil.setMdc(TestConstants.TRACE_ID, TestConstants.SERVICE_NAME);
-
-        assertEquals(TestConstants.TRACE_ID, MDC.get(MdcUtil.TRACE_ID_KEY));
-        assertEquals(TestConstants.SERVICE_NAME, MDC.get(MdcUtil.SERVICE_NAME_KEY));
-    }
-
-    @Test
-    void clearMdc_ShouldRemoveAllValues_WhenMdcIsPopulated() {
-        MdcUtil.setMdc(TestConstants.TRACE_ID, TestConstants.SERVICE_NAME);
-
-        MdcUtil.clearMdc();
-
-        assertNull(MDC.get(MdcUtil.TRACE_ID_KEY));
-        assertNull(MDC.get(MdcUtil.SERVICE_NAME_KEY));
+        MDC.clear();
     }
 
     @Test
-    void restoreMdc_ShouldRestoreValuesFromContext_WhenContextContainsKeys() {
-        Context context = Context.of(
-                MdcUtil.TRACE_ID_KEY, TestConstants.TRACE_ID,
-                MdcUtil.SERVICE_NAME_KEY, TestConstants.SERVICE_NAME
+    void resolveTraceId_ShouldUseHeaderAndStoreAttribute_WhenHeaderIsPresent() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(
+                MockServerHttpRequest.get("/api/users")
+                        .header(MdcUtil.TRACE_ID_HEADER, TestConstants.TRACE_ID)
+                        .build()
         );
 
-        MdcUtil.restoreMdc(context);
-
-        assertEquals(TestConstants.TRACE_ID, MDC.get(MdcUtil.TRACE_ID_KEY));
-        assertEquals(TestConstants.SERVICE_NAME, MDC.get(MdcUtil.SERVICE_NAME_KEY));
+        assertEquals(TestConstants.TRACE_ID, MdcUtil.resolveTraceId(exchange, RandomTraceIdGenerator.DEFAULT));
+        assertEquals(TestConstants.TRACE_ID, exchange.getAttribute(MdcUtil.TRACE_ID_ATTRIBUTE));
     }
 
     @Test
-    void createReactorContext_ShouldUseExistingMdcValues_WhenMdcIsSet() {
-        MdcUtil.setMdc(TestConstants.TRACE_ID, TestConstants.SERVICE_NAME);
-
-        Context context = MdcUtil.createReactorContext();
-
-        assertEquals(TestConstants.TRACE_ID, context.get(MdcUtil.TRACE_ID_KEY));
-        assertEquals(TestConstants.SERVICE_NAME, context.get(MdcUtil.SERVICE_NAME_KEY));
-    }
+    void resolveTraceId_ShouldGenerateOnce_WhenHeaderIsMissing() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/users").build());
 
-    @Test
-    void createReactorContext_ShouldUseDefaults_WhenMdcIsEmpty() {
-        Context context = MdcUtil.createReactorContext();
+        String first = MdcUtil.resolveTraceId(exchange, RandomTraceIdGenerator.DEFAULT);
+        String second = MdcUtil.resolveTraceId(exchange, RandomTraceIdGenerator.DEFAULT);
 
-        assertNotNull(context.get(MdcUtil.TRACE_ID_KEY));
-        assertEquals(TestConstants.SERVICE_NAME, context.get(MdcUtil.SERVICE_NAME_KEY));
+        assertNotNull(first);
+        assertTrue(!first.isBlank());
+        assertSame(first, second);
     }
 
     @Test
-    void withMdc_ShouldPropagateContextAndRestoreMdc_WhenMonoCompletes() {
-        Mono<String> mono = Mono.deferContextual(contextView -> {
-            MdcUtil.restoreMdc(Context.of(contextView));
-            return Mono.just(MDC.get(MdcUtil.TRACE_ID_KEY));
-        });
-
-        StepVerifier.create(MdcUtil.withMdc(mono)
-                        .contextWrite(Context.of(
-                                MdcUtil.TRACE_ID_KEY, TestConstants.TRACE_ID,
-                                MdcUtil.SERVICE_NAME_KEY, TestConstants.SERVICE_NAME
-                        )))
-                .expectNext(TestConstants.TRACE_ID)
-                .verifyComplete();
-    }
+    void mdcScope_ShouldPutContextValuesInMdc_UntilClosed() {
+        MDC.put(MdcUtil.TRACE_ID_KEY, "outer-trace-id");
 
-    @Test
-    void setMdc_ShouldIgnoreNullAndBlankValues_WhenValuesAreEmpty() {
-        MdcUtil.setMdc(null, null);
-        MdcUtil.setMdc("", "");
+        try (ContextSnapshot.Scope ignored = MdcUtil.mdcScope(REQUEST_CONTEXT)) {
+            assertEquals(TestConstants.TRACE_ID, MDC.get(MdcUtil.TRACE_ID_KEY));
+            assertEquals(TestConstants.SERVICE_NAME, MDC.get(MdcUtil.SERVICE_NAME_KEY));
+        }
 
-        assertNull(MDC.get(MdcUtil.TRACE_ID_KEY));
+        assertEquals("outer-trace-id", MDC.get(MdcUtil.TRACE_ID_KEY));
         assertNull(MDC.get(MdcUtil.SERVICE_NAME_KEY));
     }
 
     @Test
-    void restoreMdc_ShouldIgnoreBlankValues_WhenContextContainsEmptyStrings() {
-        Context context = Context.of(
-                MdcUtil.TRACE_ID_KEY, "",
-                MdcUtil.SERVICE_NAME_KEY, ""
-        );
-
-        MdcUtil.restoreMdc(context);
-
-        assertNull(MDC.get(MdcUtil.TRACE_ID_KEY));
-        assertNull(MDC.get(MdcUtil.SERVICE_NAME_KEY));
+    void logWithMdc_ShouldSeeRequestMdc_WhenSignalCrossesThreads() {
+        Mono<String> mono = Mono.just("value")
+                .publishOn(Schedulers.parallel())
+                .flatMap(ignored -> Mono.deferContextual(context -> {
+                    StringBuilder seen = new StringBuilder();
+                    MdcUtil.logWithMdc(context, () -> seen.append(MDC.get(MdcUtil.TRACE_ID_KEY))
+                            .append('/').append(MDC.get(MdcUtil.SERVICE_NAME_KEY)));
+                    return Mono.just(seen.toString() + "/" + MDC.get(MdcUtil.TRACE_ID_KEY));
+                }))
+                .contextWrite(REQUEST_CONTEXT);
+
+        StepVerifier.create(mono)
+                .expectNext(TestConstants.TRACE_ID + "/" + TestConstants.SERVICE_NAME + "/null")
+                .verifyComplete();
     }
 
     @Test
-    void restoreMdc_ShouldDoNothing_WhenContextDoesNotContainKeys() {
-        MdcUtil.restoreMdc(Context.empty());
+    void mdcScope_ShouldLeaveMdcUntouched_WhenContextHasNoValues() {
+        MDC.put(MdcUtil.TRACE_ID_KEY, "outer-trace-id");
 
-        assertNull(MDC.get(MdcUtil.TRACE_ID_KEY));
-        assertNull(MDC.get(MdcUtil.SERVICE_NAME_KEY));
-    }
+        try (ContextSnapshot.Scope ignored = MdcUtil.mdcScope(Context.empty())) {
+            assertEquals("outer-trace-id", MDC.get(MdcUtil.TRACE_ID_KEY));
+        }
 
-    @Test
-    void withMdc_ShouldRestoreMdcOnError_WhenMonoFails() {
-        Mono<String> failingMono = Mono.deferContextual(contextView -> {
-            MdcUtil.restoreMdc(Context.of(contextView));
-            return Mono.error(new IllegalStateException("failed"));
-        });
-
-        StepVerifier.create(MdcUtil.withMdc(failingMono)
-                        .contextWrite(Context.of(
-                                MdcUtil.TRACE_ID_KEY, TestConstants.TRACE_ID,
-                                MdcUtil.SERVICE_NAME_KEY, TestConstants.SERVICE_NAME
-                        )))
-                .expectError(IllegalStateException.class)
-                .verify();
+        assertEquals("outer-trace-id", MDC.get(MdcUtil.TRACE_ID_KEY));
     }
-
 }
@@ -0,0 +1,54 @@
+package com.mymicroservice.gateway.unit.util;
+
+import com.mymicroservice.gateway.util.RandomTraceIdGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RandomTraceIdGeneratorTest {
+
+    @Test
+    void generate_ShouldReturnVersion4Uuid_WhenFormatIsUuid() {
+        RandomTraceIdGenerator generator = new RandomTraceIdGenerator(RandomTraceIdGenerator.Format.UUID);
+
+        String traceId = generator.generate();
+        UUID parsed = UUID.fromString(traceId);
+
+        assertEquals(36, traceId.length());
+        assertEquals(traceId, parsed.toString());
+        assertEquals(4, parsed.version());
+        assertEquals(2, parsed.variant());
+    }
+
+    @Test
+    void generate_ShouldReturnTraceparentTraceId_WhenFormatIsW3c() {
+        RandomTraceIdGenerator generator = new RandomTraceIdGenerator(RandomTraceIdGenerator.Format.W3C);
+
+        String traceId = generator.generate();
+
+        assertTrue(traceId.matches("[0-9a-f]{32}"));
+        assertTrue(!traceId.equals("0".repeat(32)));
+    }
+
+    @Test
+    void generate_ShouldReturnDistinctIds_WhenCalledRepeatedly() {
+        RandomTraceIdGenerator generator = new RandomTraceIdGenerator(RandomTraceIdGenerator.Format.W3C);
+        Set<String> ids = new HashSet<>();
+
+        for (int i = 0; i < 10_000; i++) {
+            ids.add(generator.generate());
+        }
+
+        assertEquals(10_000, ids.size());
+    }
+
+    @Test
+    void constructor_ShouldDefaultToUuid_WhenFormatIsNull() {
+        assertEquals(RandomTraceIdGenerator.Format.UUID, new RandomTraceIdGenerator(null).getFormat());
+    }
+}
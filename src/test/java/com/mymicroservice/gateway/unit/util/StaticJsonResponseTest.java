@@ -0,0 +1,65 @@
+package com.mymicroservice.gateway.unit.util;
+
+import com.mymicroservice.gateway.util.StaticJsonResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.test.StepVerifier;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class StaticJsonResponseTest {
+
+    private static final String UNAUTHORIZED_BODY = """
+            {
+                "status": 401,
+                "error": "Unauthorized",
+                "message": "Authentication required"
+            }""";
+
+    @Test
+    void writeTo_ShouldWriteStatusHeadersAndBody_WhenCalled() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/users"));
+
+        StepVerifier.create(StaticJsonResponse.UNAUTHORIZED.writeTo(exchange)).verifyComplete();
+
+        assertEquals(HttpStatus.UNAUTHORIZED, exchange.getResponse().getStatusCode());
+        assertEquals(MediaType.APPLICATION_JSON, exchange.getResponse().getHeaders().getContentType());
+        assertEquals(UNAUTHORIZED_BODY.getBytes(StandardCharsets.UTF_8).length,
+                exchange.getResponse().getHeaders().getContentLength());
+        assertEquals(UNAUTHORIZED_BODY, exchange.getResponse().getBodyAsString().block());
+    }
+
+    @Test
+    void writeTo_ShouldWriteSameBody_WhenSharedBufferIsReusedAcrossResponses() {
+        for (int i = 0; i < 3; i++) {
+            MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/users"));
+
+            StepVerifier.create(StaticJsonResponse.UNAUTHORIZED.writeTo(exchange)).verifyComplete();
+
+            assertEquals(UNAUTHORIZED_BODY, exchange.getResponse().getBodyAsString().block());
+        }
+        assertEquals(UNAUTHORIZED_BODY.length(), StaticJsonResponse.UNAUTHORIZED.contentLength());
+    }
+
+    @Test
+    void of_ShouldEncodeStatusErrorAndMessage_WhenCreated() {
+        StaticJsonResponse response = StaticJsonResponse.of(HttpStatus.TOO_MANY_REQUESTS, "Too Many Requests",
+                "Rate limit exceeded");
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/users"));
+
+        StepVerifier.create(response.writeTo(exchange)).verifyComplete();
+
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, response.status());
+        assertEquals("""
+                {
+                    "status": 429,
+                    "error": "Too Many Requests",
+                    "message": "Rate limit exceeded"
+                }""", exchange.getResponse().getBodyAsString().block());
+    }
+}
@@ -0,0 +1,124 @@
+package com.mymicroservice.gateway.unit.webclient;
+
+import com.mymicroservice.gateway.config.properties.DownstreamServicesProperties;
+import com.mymicroservice.gateway.config.properties.HealthAggregationProperties;
+import com.mymicroservice.gateway.util.data.TestConstants;
+import com.mymicroservice.gateway.webclient.DownstreamHealthMonitor;
+import com.mymicroservice.gateway.webclient.DownstreamWebClients;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class DownstreamHealthMonitorTest {
+
+    private final Map<String, WebClient> clients = new LinkedHashMap<>();
+    private HealthAggregationProperties properties;
+    private DownstreamHealthMonitor monitor;
+
+    @BeforeEach
+    void setUp() {
+        properties = new HealthAggregationProperties();
+        properties.setTimeout(Duration.ofMillis(200));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (monitor != null) {
+            monitor.stop();
+        }
+    }
+
+    @Test
+    void snapshot_ShouldReturnUnknown_WhenNotPolledYet() {
+        clients.put("userservice", healthClient(Mono.just(Map.of("status", "UP"))));
+        monitor = createMonitor();
+
+        assertEquals(Map.of("userservice", DownstreamHealthMonitor.UNKNOWN), monitor.snapshot());
+    }
+
+    @Test
+    void refresh_ShouldStoreStatusPerService_WhenServicesAnswer() {
+        clients.put("authservice", healthClient(Mono.just(Map.of("status", "UP"))));
+        clients.put("paymentservice", healthClient(Mono.error(new RuntimeException("Service unavailable"))));
+        monitor = createMonitor();
+
+        StepVerifier.create(monitor.refresh()).verifyComplete();
+
+        Map<String, String> snapshot = monitor.snapshot();
+        assertEquals("UP", snapshot.get("authservice"));
+        assertEquals(DownstreamHealthMonitor.DOWN, snapshot.get("paymentservice"));
+    }
+
+    @Test
+    void refresh_ShouldReportDown_WhenServiceDoesNotAnswerInTime() {
+        clients.put("authservice", healthClient(Mono.just(Map.of("status", "UP"))));
+        clients.put("orderservice", healthClient(Mono.never()));
+        monitor = createMonitor();
+
+        StepVerifier.create(monitor.refresh()).verifyComplete();
+
+        assertEquals("UP", monitor.snapshot().get("authservice"));
+        assertEquals(DownstreamHealthMonitor.DOWN, monitor.snapshot().get("orderservice"));
+    }
+
+    @Test
+    void snapshot_ShouldReturnUnknown_WhenResultIsStale() {
+        properties.setStaleAfter(Duration.ZERO);
+        clients.put("userservice", healthClient(Mono.just(Map.of("status", "UP"))));
+        monitor = createMonitor();
+
+        StepVerifier.create(monitor.refresh()).verifyComplete();
+
+        assertEquals(DownstreamHealthMonitor.UNKNOWN, monitor.snapshot().get("userservice"));
+    }
+
+    @Test
+    void start_ShouldPollInBackground_UntilStopped() throws InterruptedException {
+        clients.put("userservice", healthClient(Mono.just(Map.of("status", "UP"))));
+        monitor = createMonitor();
+
+        monitor.start();
+        assertTrue(monitor.isRunning());
+        for (int i = 0; i < 50 && !"UP".equals(monitor.snapshot().get("userservice")); i++) {
+            Thread.sleep(20);
+        }
+        monitor.stop();
+
+        assertEquals("UP", monitor.snapshot().get("userservice"));
+        assertFalse(monitor.isRunning());
+    }
+
+    private DownstreamHealthMonitor createMonitor() {
+        return new DownstreamHealthMonitor(new DownstreamWebClients(clients), new DownstreamServicesProperties(),
+                properties, TestConstants.SERVICE_NAME);
+    }
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private WebClient healthClient(Mono<Map> body) {
+        WebClient client = mock(WebClient.class);
+        WebClient.RequestHeadersUriSpec uriSpec = mock(WebClient.RequestHeadersUriSpec.class);
+        WebClient.RequestHeadersSpec headersSpec = mock(WebClient.RequestHeadersSpec.class);
+        WebClient.ResponseSpec responseSpec = mock(WebClient.ResponseSpec.class);
+
+        when(client.get()).thenReturn(uriSpec);
+        when(uriSpec.uri("/actuator/health")).thenReturn(headersSpec);
+        when(headersSpec.header(anyString(), anyString())).thenReturn(headersSpec);
+        when(headersSpec.retrieve()).thenReturn(responseSpec);
+        when(responseSpec.bodyToMono(Map.class)).thenReturn(body);
+        return client;
+    }
+}
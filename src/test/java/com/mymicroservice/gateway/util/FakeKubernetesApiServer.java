@@ -0,0 +1,163 @@
+package com.mymicroservice.gateway.util;
+
+import io.kubernetes.client.informer.SharedIndexInformer;
+import io.kubernetes.client.informer.SharedInformerFactory;
+import io.kubernetes.client.openapi.ApiClient;
+import io.kubernetes.client.openapi.JSON;
+import io.kubernetes.client.openapi.apis.CoreV1Api;
+import io.kubernetes.client.openapi.models.CoreV1EndpointPort;
+import io.kubernetes.client.openapi.models.V1EndpointAddress;
+import io.kubernetes.client.openapi.models.V1EndpointSubset;
+import io.kubernetes.client.openapi.models.V1Endpoints;
+import io.kubernetes.client.openapi.models.V1EndpointsList;
+import io.kubernetes.client.openapi.models.V1ListMeta;
+import io.kubernetes.client.openapi.models.V1ObjectMeta;
+import io.kubernetes.client.openapi.models.V1ObjectReference;
+import io.netty.buffer.Unpooled;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.http.server.HttpServerRequest;
+import reactor.netty.http.server.HttpServerResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Just enough of the Kubernetes API for an {@code Endpoints} informer of one namespace: list and
+ * watch of {@code /api/v1/namespaces/<namespace>/endpoints}. Changes made with {@link #apply} and
+ * {@link #delete} go to the current state and, as watch events, to the open watch; events made
+ * before the informer connects are buffered until it does.
+ */
+public class FakeKubernetesApiServer implements AutoCloseable {
+
+    private final String namespace;
+    private final JSON json = new JSON();
+    private final Map<String, V1Endpoints> endpoints = new ConcurrentHashMap<>();
+    private final AtomicLong resourceVersion = new AtomicLong();
+    private final AtomicInteger watches = new AtomicInteger();
+    private final Sinks.Many<String> events = Sinks.many().multicast().onBackpressureBuffer(1 << 16, false);
+    private final DisposableServer server;
+
+    public FakeKubernetesApiServer(String namespace) {
+        this.namespace = namespace;
+        this.server = HttpServer.create()
+                .host("127.0.0.1")
+                .port(0)
+                .route(routes -> routes.get("/api/v1/namespaces/" + namespace + "/endpoints", this::handle))
+                .bindNow();
+    }
+
+    public ApiClient apiClient() {
+        // informers require no read timeout: a watch stays open between events
+        return new ApiClient().setBasePath("http://127.0.0.1:" + server.port()).setReadTimeout(0);
+    }
+
+    /**
+     * Registers an {@code Endpoints} informer of the namespace with the factory, without resync.
+     */
+    public SharedIndexInformer<V1Endpoints> endpointsInformer(SharedInformerFactory factory, ApiClient apiClient) {
+        CoreV1Api api = new CoreV1Api(apiClient);
+        return factory.sharedIndexInformerFor(params -> api.listNamespacedEndpointsCall(namespace, null, null,
+                        null, null, null, null, params.resourceVersion, null, null, params.timeoutSeconds,
+                        params.watch, null),
+                V1Endpoints.class, V1EndpointsList.class);
+    }
+
+    /**
+     * Sets the endpoints of a service to {@code pods} ready addresses on port {@code http: 8080}.
+     */
+    public synchronized void apply(String service, int pods) {
+        List<V1EndpointAddress> addresses = new ArrayList<>(pods);
+        for (int i = 0; i < pods; i++) {
+            String pod = service + "-" + i;
+            addresses.add(new V1EndpointAddress()
+                    .ip("10.1." + (i / 250) + "." + (i % 250 + 1))
+                    .targetRef(new V1ObjectReference().kind("Pod").name(pod).uid(pod)));
+        }
+        V1Endpoints next = new V1Endpoints()
+                .apiVersion("v1")
+                .kind("Endpoints")
+                .metadata(new V1ObjectMeta().name(service).namespace(namespace)
+                        .resourceVersion(Long.toString(resourceVersion.incrementAndGet())))
+                .subsets(List.of(new V1EndpointSubset()
+                        .addresses(addresses)
+                        .ports(List.of(new CoreV1EndpointPort().name("http").port(8080).protocol("TCP")))));
+        V1Endpoints previous = endpoints.put(service, next);
+        emit(previous == null ? "ADDED" : "MODIFIED", next);
+    }
+
+    public synchronized void delete(String service) {
+        V1Endpoints removed = endpoints.remove(service);
+        if (removed != null) {
+            removed.getMetadata().setResourceVersion(Long.toString(resourceVersion.incrementAndGet()));
+            emit("DELETED", removed);
+        }
+    }
+
+    /**
+     * @return watch requests received so far
+     */
+    public int watches() {
+        return watches.get();
+    }
+
+    @Override
+    public void close() {
+        events.tryEmitComplete();
+        // open watches would hold a graceful shutdown for its full timeout
+        server.dispose();
+    }
+
+    private void emit(String type, V1Endpoints object) {
+        events.tryEmitNext("{\"type\":\"" + type + "\",\"object\":" + toJson(object) + "}\n");
+    }
+
+    /**
+     * Watch events are written by hand: gson would take most of the time of a run of thousands
+     * of changes.
+     */
+    private static String toJson(V1Endpoints endpoints) {
+        V1ObjectMeta metadata = endpoints.getMetadata();
+        StringBuilder json = new StringBuilder(256)
+                .append("{\"apiVersion\":\"v1\",\"kind\":\"Endpoints\",\"metadata\":{\"name\":\"")
+                .append(metadata.getName())
+                .append("\",\"namespace\":\"").append(metadata.getNamespace())
+                .append("\",\"resourceVersion\":\"").append(metadata.getResourceVersion())
+                .append("\"},\"subsets\":[{\"addresses\":[");
+        List<V1EndpointAddress> addresses = endpoints.getSubsets().get(0).getAddresses();
+        for (int i = 0; i < addresses.size(); i++) {
+            V1EndpointAddress address = addresses.get(i);
+            json.append(i > 0 ? "," : "")
+                    .append("{\"ip\":\"").append(address.getIp())
+                    .append("\",\"targetRef\":{\"kind\":\"Pod\",\"name\":\"").append(address.getTargetRef().getName())
+                    .append("\",\"uid\":\"").append(address.getTargetRef().getUid()).append("\"}}");
+        }
+        return json.append("],\"ports\":[{\"name\":\"http\",\"port\":8080,\"protocol\":\"TCP\"}]}]}").toString();
+    }
+
+    private Mono<Void> handle(HttpServerRequest request, HttpServerResponse response) {
+        response.header("Content-Type", "application/json");
+        if (request.uri().contains("watch=true")) {
+            watches.incrementAndGet();
+            // flushed once per burst rather than per event
+            return response.send(events.asFlux().map(event -> Unpooled.copiedBuffer(event, StandardCharsets.UTF_8)),
+                    buffer -> false).then();
+        }
+        V1EndpointsList list;
+        synchronized (this) {
+            list = new V1EndpointsList()
+                    .apiVersion("v1")
+                    .kind("EndpointsList")
+                    .metadata(new V1ListMeta().resourceVersion(Long.toString(resourceVersion.get())))
+                    .items(new ArrayList<>(endpoints.values()));
+        }
+        return response.sendString(Mono.just(json.serialize(list))).then();
+    }
+}